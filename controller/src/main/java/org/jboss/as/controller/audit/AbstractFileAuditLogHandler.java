@@ -24,6 +24,7 @@ package org.jboss.as.controller.audit;
 import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.protocol.StreamUtils;
+import org.wildfly.security.manager.WildFlySecurityManager;
 import org.xnio.IoUtils;
 
 import java.io.BufferedInputStream;
@@ -33,6 +34,16 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
 
 /**
  *  All methods on this class should be called with {@link org.jboss.as.controller.audit.ManagedAuditLoggerImpl}'s lock taken.
@@ -42,17 +53,86 @@ import java.io.InputStream;
  */
 public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
     protected static final byte[] LINE_TERMINATOR = String.format("%n").getBytes();
+
+    /**
+     * When audit log records are forced to disk, one of {@code record}, {@code batch} or {@code interval}.
+     */
+    static final String SYNC_PROPERTY = "org.jboss.as.controller.audit.file-sync";
+    /**
+     * The minimum number of milliseconds between two syncs in {@code interval} mode.
+     */
+    static final String SYNC_INTERVAL_PROPERTY = "org.jboss.as.controller.audit.file-sync-interval";
+    private static final long DEFAULT_SYNC_INTERVAL = 1000;
+
+    /**
+     * How written records are forced to disk.
+     */
+    enum SyncMode {
+        /** Each record is synced before the operation logging it completes. */
+        RECORD,
+        /**
+         * Each record is synced before the operation logging it completes, but outside the audit lock, so that
+         * operations completing concurrently share a single sync.
+         */
+        BATCH,
+        /**
+         * Records are synced at most once per interval when written, and when the file is closed. Records are still
+         * handed to the operating system straight away, so only an operating system crash can lose them.
+         */
+        INTERVAL
+    }
+
+    /** The group commits each thread has to wait for once it has released the audit lock */
+    private static final ThreadLocal<List<PendingSync>> PENDING_SYNCS = new ThreadLocal<>();
+
     private final PathManagerService pathManager;
     private final String path;
     private final String relativeTo;
+    private final SyncMode syncMode;
+    private final long syncInterval;
+    private final CharsetEncoder encoder = Charset.defaultCharset().newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private ByteBuffer buffer = ByteBuffer.allocate(8192);
 
     private volatile File file;
+    private GroupCommit output;
+    private long lastSync;
 
     public AbstractFileAuditLogHandler(String name, String formatterName, int maxFailureCount, PathManagerService pathManager, String path, String relativeTo) {
         super(name, formatterName, maxFailureCount);
         this.pathManager = pathManager;
         this.path = path;
         this.relativeTo = relativeTo;
+        this.syncMode = resolveSyncMode();
+        this.syncInterval = TimeUnit.MILLISECONDS.toNanos(resolveSyncInterval());
+    }
+
+    private static SyncMode resolveSyncMode() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(SYNC_PROPERTY, null);
+        if (value != null) {
+            try {
+                return SyncMode.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                ControllerLogger.ROOT_LOGGER.invalidAuditLogSyncMode(value, SYNC_PROPERTY);
+            }
+        }
+        return SyncMode.RECORD;
+    }
+
+    private static long resolveSyncInterval() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(SYNC_INTERVAL_PROPERTY, null);
+        if (value != null) {
+            try {
+                long interval = Long.parseLong(value.trim());
+                if (interval >= 0) {
+                    return interval;
+                }
+            } catch (NumberFormatException e) {
+                // ignored
+            }
+        }
+        return DEFAULT_SYNC_INTERVAL;
     }
 
     @Override
@@ -85,22 +165,111 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
 
     @Override
     void stop() {
+        closeFile();
         file = null;
     }
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
-        final FileOutputStream fos = new FileOutputStream(file, true);
-        final BufferedOutputStream output = new BufferedOutputStream(fos);
-        try {
-            output.write(formattedItem.getBytes());
-            output.write(LINE_TERMINATOR);
+        write(formattedItem);
+    }
 
-            //Flush and force the file to sync
-            output.flush();
-            fos.getFD().sync();
-        } finally {
-            IoUtils.safeClose(output);
+    /**
+     * Appends a record and its line terminator to the file, syncing it as required by the {@link SyncMode}.
+     *
+     * @param formattedItem the formatted record
+     * @return the number of bytes written
+     * @throws IOException if the record could not be written
+     */
+    protected int write(String formattedItem) throws IOException {
+        if (output == null) {
+            output = new GroupCommit(new FileOutputStream(file, true));
+            lastSync = System.nanoTime();
+        }
+        final GroupCommit output = this.output;
+        final ByteBuffer buffer = encode(formattedItem);
+        final int length = buffer.remaining();
+        output.stream.write(buffer.array(), buffer.arrayOffset(), length);
+        output.written += length;
+        switch (syncMode) {
+            case RECORD:
+                output.stream.getFD().sync();
+                break;
+            case BATCH:
+                List<PendingSync> pending = PENDING_SYNCS.get();
+                if (pending == null) {
+                    pending = new ArrayList<>(2);
+                    PENDING_SYNCS.set(pending);
+                }
+                pending.add(new PendingSync(output, output.written));
+                break;
+            case INTERVAL:
+                final long now = System.nanoTime();
+                if (now - lastSync >= syncInterval) {
+                    output.stream.getFD().sync();
+                    lastSync = now;
+                }
+                break;
+        }
+        return length;
+    }
+
+    private ByteBuffer encode(String formattedItem) {
+        final CharBuffer chars = CharBuffer.wrap(formattedItem);
+        ByteBuffer buffer = this.buffer;
+        buffer.clear();
+        encoder.reset();
+        for (;;) {
+            CoderResult result = chars.hasRemaining() ? encoder.encode(chars, buffer, true) : CoderResult.UNDERFLOW;
+            if (result.isUnderflow()) {
+                result = encoder.flush(buffer);
+            }
+            if (result.isUnderflow() && buffer.remaining() >= LINE_TERMINATOR.length) {
+                break;
+            }
+            // Grow the buffer; it is kept for the following records
+            ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+            buffer.flip();
+            larger.put(buffer);
+            buffer = this.buffer = larger;
+        }
+        buffer.put(LINE_TERMINATOR);
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Syncs and closes the file, if open. Must be called before the file is renamed or deleted.
+     */
+    protected void closeFile() {
+        final GroupCommit output = this.output;
+        if (output != null) {
+            this.output = null;
+            try {
+                output.close();
+            } catch (IOException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            }
+        }
+    }
+
+    /**
+     * Waits until the records written by the current thread in {@link SyncMode#BATCH batch} mode have been synced.
+     * Must be called without {@link ManagedAuditLoggerImpl}'s lock held, so that other threads can keep writing
+     * while a sync is in progress and have their records covered by the next one.
+     */
+    static void syncPendingWrites() {
+        final List<PendingSync> pending = PENDING_SYNCS.get();
+        if (pending == null || pending.isEmpty()) {
+            return;
+        }
+        PENDING_SYNCS.remove();
+        for (PendingSync sync : pending) {
+            try {
+                sync.output.awaitSynced(sync.position);
+            } catch (IOException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            }
         }
     }
 
@@ -138,6 +307,93 @@ public abstract class AbstractFileAuditLogHandler extends AuditLogHandler {
         return one.equals(two);
     }
 
+    private static final class PendingSync {
+        private final GroupCommit output;
+        private final long position;
+
+        private PendingSync(GroupCommit output, long position) {
+            this.output = output;
+            this.position = position;
+        }
+    }
+
+    /**
+     * The open audit log file, synced on behalf of every thread that has written to it so far. A thread that finds a
+     * sync already in progress waits for it and only syncs again if its record was written after that sync started.
+     */
+    private static final class GroupCommit {
+        private final FileOutputStream stream;
+        /** The number of bytes written to the file, only updated with the audit lock held */
+        private volatile long written;
+        /** The number of bytes known to be on disk */
+        private long synced;
+        private boolean syncing;
+        private boolean closed;
+
+        private GroupCommit(FileOutputStream stream) {
+            this.stream = stream;
+        }
+
+        void awaitSynced(long position) throws IOException {
+            synchronized (this) {
+                boolean interrupted = false;
+                while (synced < position && syncing) {
+                    interrupted |= waitForSync();
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                // A closed file has been synced
+                if (synced >= position || closed) {
+                    return;
+                }
+                syncing = true;
+            }
+            final long target = written;
+            boolean done = false;
+            try {
+                stream.getFD().sync();
+                done = true;
+            } finally {
+                synchronized (this) {
+                    syncing = false;
+                    if (done && target > synced) {
+                        synced = target;
+                    }
+                    notifyAll();
+                }
+            }
+        }
+
+        void close() throws IOException {
+            synchronized (this) {
+                boolean interrupted = false;
+                while (syncing) {
+                    interrupted |= waitForSync();
+                }
+                if (interrupted) {
+                    Thread.currentThread().interrupt();
+                }
+                closed = true;
+            }
+            try {
+                stream.getFD().sync();
+            } finally {
+                IoUtils.safeClose(stream);
+            }
+        }
+
+        /** Call with this monitor held, returns whether the thread was interrupted */
+        private boolean waitForSync() {
+            try {
+                wait();
+                return false;
+            } catch (InterruptedException e) {
+                return true;
+            }
+        }
+    }
+
     protected void copyFile(final File file, final File backup) throws IOException {
         final InputStream in = new BufferedInputStream(new FileInputStream(file));
         try {
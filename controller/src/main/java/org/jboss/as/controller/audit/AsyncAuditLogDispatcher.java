@@ -0,0 +1,304 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * Writes the records formatted for a handler from a dedicated thread, so that a slow handler does not stall the
+ * management operations being logged. Records are handed over through a bounded queue; what happens once the queue is
+ * full depends on the {@link OverflowPolicy}.
+ * <p>
+ * {@link #enqueue(String)} and {@link #shutdown()} should be called with {@link ManagedAuditLoggerImpl}'s lock taken.
+ * The writer thread only synchronizes on the handler.
+ */
+final class AsyncAuditLogDispatcher implements Runnable {
+
+    /** Whether the file and syslog handlers write their records from a dedicated thread */
+    static final String ASYNC_PROPERTY = "org.jboss.as.controller.audit.async";
+    /** The number of records that can be queued for a handler */
+    static final String QUEUE_SIZE_PROPERTY = "org.jboss.as.controller.audit.async-queue-size";
+    /** What to do when the queue is full, one of {@code block}, {@code drop} or {@code spill} */
+    static final String OVERFLOW_PROPERTY = "org.jboss.as.controller.audit.async-overflow";
+    private static final int DEFAULT_QUEUE_SIZE = 1024;
+
+    enum OverflowPolicy {
+        /** The operation waits until the writer thread has made room in the queue. */
+        BLOCK,
+        /** The record is discarded and counted. */
+        DROP,
+        /**
+         * The record, and every record following it until the writer thread catches up, is appended to a temporary
+         * file which the writer thread reads back once the queue is empty.
+         */
+        SPILL
+    }
+
+    /** Marks the end of the records, compared by identity */
+    private static final String STOP = new String("stop");
+    /** Wakes the writer thread up to read the spilled records, compared by identity */
+    private static final String WAKE = new String("wake");
+
+    private final AuditLogHandler handler;
+    private final BlockingQueue<String> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final Thread thread;
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong spilled = new AtomicLong();
+
+    /** Guarded by this */
+    private Path spillFile;
+    /** Guarded by this */
+    private DataOutputStream spillOutput;
+
+    private AsyncAuditLogDispatcher(AuditLogHandler handler, int queueSize, OverflowPolicy overflowPolicy) {
+        this.handler = handler;
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.overflowPolicy = overflowPolicy;
+        this.thread = new Thread(this, "Management audit log writer - " + handler.getName());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates and starts a dispatcher for the handler if asynchronous audit logging is enabled.
+     *
+     * @param handler the handler
+     * @return the dispatcher, or {@code null} if records should be written by the operation logging them
+     */
+    static AsyncAuditLogDispatcher create(AuditLogHandler handler) {
+        if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ASYNC_PROPERTY, "false"))) {
+            return null;
+        }
+        AsyncAuditLogDispatcher dispatcher = new AsyncAuditLogDispatcher(handler, resolveQueueSize(), resolveOverflowPolicy());
+        dispatcher.thread.start();
+        return dispatcher;
+    }
+
+    private static int resolveQueueSize() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(QUEUE_SIZE_PROPERTY, null);
+        if (value != null) {
+            try {
+                int size = Integer.parseInt(value.trim());
+                if (size > 0) {
+                    return size;
+                }
+            } catch (NumberFormatException e) {
+                // ignored
+            }
+        }
+        return DEFAULT_QUEUE_SIZE;
+    }
+
+    private static OverflowPolicy resolveOverflowPolicy() {
+        String value = WildFlySecurityManager.getPropertyPrivileged(OVERFLOW_PROPERTY, null);
+        if (value != null) {
+            try {
+                return OverflowPolicy.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+            } catch (IllegalArgumentException e) {
+                ControllerLogger.ROOT_LOGGER.invalidAuditLogOverflowPolicy(value, OVERFLOW_PROPERTY);
+            }
+        }
+        return OverflowPolicy.BLOCK;
+    }
+
+    void enqueue(String formattedItem) {
+        switch (overflowPolicy) {
+            case BLOCK:
+                put(formattedItem);
+                break;
+            case DROP:
+                if (!queue.offer(formattedItem)) {
+                    dropped.incrementAndGet();
+                }
+                break;
+            case SPILL:
+                synchronized (this) {
+                    // Once spilling, keep spilling until the writer has caught up so records stay in order
+                    if (spillOutput == null && queue.offer(formattedItem)) {
+                        return;
+                    }
+                    spill(formattedItem);
+                    if (queue.isEmpty()) {
+                        queue.offer(WAKE);
+                    }
+                }
+                break;
+        }
+    }
+
+    /**
+     * Writes the queued records, then stops the handler's writer thread.
+     */
+    void shutdown() {
+        put(STOP);
+        boolean interrupted = false;
+        try {
+            while (thread.isAlive()) {
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    int getQueueDepth() {
+        return queue.size();
+    }
+
+    long getDroppedCount() {
+        return dropped.get();
+    }
+
+    long getSpilledCount() {
+        return spilled.get();
+    }
+
+    private void put(String formattedItem) {
+        boolean interrupted = false;
+        try {
+            for (;;) {
+                try {
+                    queue.put(formattedItem);
+                    return;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /** Call with this monitor held */
+    private void spill(String formattedItem) {
+        try {
+            if (spillOutput == null) {
+                spillFile = Files.createTempFile("audit-log", ".spill");
+                spillOutput = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(spillFile)));
+            }
+            byte[] bytes = formattedItem.getBytes(StandardCharsets.UTF_8);
+            spillOutput.writeInt(bytes.length);
+            spillOutput.write(bytes);
+            spilled.incrementAndGet();
+        } catch (IOException e) {
+            ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            dropped.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void run() {
+        final List<String> batch = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                continue;
+            }
+            queue.drainTo(batch);
+            for (String formattedItem : batch) {
+                if (formattedItem == STOP) {
+                    stop = true;
+                } else if (formattedItem != WAKE) {
+                    write(formattedItem);
+                }
+            }
+            batch.clear();
+            if (stop || queue.isEmpty()) {
+                writeSpilled();
+            }
+            // The records of this batch share a single sync in batch mode
+            AbstractFileAuditLogHandler.syncPendingWrites();
+        }
+    }
+
+    private void write(String formattedItem) {
+        synchronized (handler) {
+            handler.writeFormattedItem(formattedItem);
+        }
+    }
+
+    private void writeSpilled() {
+        final Path file;
+        synchronized (this) {
+            if (spillOutput == null) {
+                return;
+            }
+            file = spillFile;
+            try {
+                spillOutput.close();
+            } catch (IOException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            }
+            spillOutput = null;
+            spillFile = null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            for (;;) {
+                final int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                byte[] bytes = new byte[length];
+                in.readFully(bytes);
+                write(new String(bytes, StandardCharsets.UTF_8));
+            }
+        } catch (IOException e) {
+            ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                ControllerLogger.MGMT_OP_LOGGER.failedToUpdateAuditLog(e);
+            }
+        }
+    }
+}
@@ -32,7 +32,9 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.dmr.ModelNode;
 
 /**
- *  All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken.
+ *  All methods on this class should be called with {@link ManagedAuditLoggerImpl}'s lock taken. When records are written
+ *  by an {@link AsyncAuditLogDispatcher} the methods writing and stopping the handler are also called with the handler's
+ *  monitor held.
  *
  * @author <a href="kabir.khan@jboss.com">Kabir Khan</a>
  */
@@ -42,13 +44,14 @@ abstract class AuditLogHandler {
     private volatile int maxFailureCount = 10;
 
     /** The number of consecutive failures writing to the log */
-    private int failureCount;
+    private volatile int failureCount;
 
 
     protected final String name;
     private volatile String formatterName;
     private final Set<PathAddress> references = new HashSet<PathAddress>();
     private AuditLogItemFormatter formatter;
+    private AsyncAuditLogDispatcher dispatcher;
 
     AuditLogHandler(String name, String formatterName, int maxFailureCount){
         this.name = name;
@@ -77,10 +80,45 @@ abstract class AuditLogHandler {
     }
 
     void writeLogItem(AuditLogItem item) {
+        if (dispatcher == null && isAsyncSupported()) {
+            dispatcher = AsyncAuditLogDispatcher.create(this);
+        }
+        if (dispatcher == null) {
+            synchronized (this) {
+                FailureCountHandler fch = getFailureCountHandler();
+                try {
+                    initialize();
+                    String formattedItem = item.format(formatter);
+                    writeLogItem(formattedItem);
+                    fch.success();
+                } catch (Throwable t) {
+                    fch.failure(t);
+                }
+            }
+        } else {
+            // The formatters are not thread safe, so format here and only hand the result over
+            final String formattedItem;
+            try {
+                formattedItem = item.format(formatter);
+            } catch (Throwable t) {
+                synchronized (this) {
+                    getFailureCountHandler().failure(t);
+                }
+                return;
+            }
+            dispatcher.enqueue(formattedItem);
+        }
+    }
+
+    /**
+     * Writes a record formatted for this handler. Call with this handler's monitor held.
+     *
+     * @param formattedItem the formatted record
+     */
+    void writeFormattedItem(String formattedItem) {
         FailureCountHandler fch = getFailureCountHandler();
         try {
             initialize();
-            String formattedItem = item.format(formatter);
             writeLogItem(formattedItem);
             fch.success();
         } catch (Throwable t) {
@@ -88,7 +126,43 @@ abstract class AuditLogHandler {
         }
     }
 
-    void recycle() {
+    /**
+     * Whether records can be written from a dedicated thread rather than by the operation being logged.
+     */
+    boolean isAsyncSupported() {
+        return true;
+    }
+
+    /**
+     * Stops this handler once the records queued for it, if any, have been written.
+     */
+    void shutdown() {
+        final AsyncAuditLogDispatcher dispatcher = this.dispatcher;
+        if (dispatcher != null) {
+            this.dispatcher = null;
+            dispatcher.shutdown();
+        }
+        synchronized (this) {
+            stop();
+        }
+    }
+
+    int getQueueDepth() {
+        final AsyncAuditLogDispatcher dispatcher = this.dispatcher;
+        return dispatcher == null ? 0 : dispatcher.getQueueDepth();
+    }
+
+    long getDroppedCount() {
+        final AsyncAuditLogDispatcher dispatcher = this.dispatcher;
+        return dispatcher == null ? 0 : dispatcher.getDroppedCount();
+    }
+
+    long getSpilledCount() {
+        final AsyncAuditLogDispatcher dispatcher = this.dispatcher;
+        return dispatcher == null ? 0 : dispatcher.getSpilledCount();
+    }
+
+    synchronized void recycle() {
         this.failureCount = 0;
         stop();
     }
@@ -112,7 +186,7 @@ abstract class AuditLogHandler {
     void removeReference(PathAddress address){
         references.remove(address);
         if (references.size() == 0){
-            stop();
+            shutdown();
         }
     }
 
@@ -105,6 +105,12 @@ public final class InMemoryAuditLogHander extends AuditLogHandler {
         items.add(item);
     }
 
+    @Override
+    boolean isAsyncSupported() {
+        // Formatting is what records the entries, and they are read with ManagedAuditLoggerImpl's lock taken
+        return false;
+    }
+
     @Override
     void initialize() {
     }
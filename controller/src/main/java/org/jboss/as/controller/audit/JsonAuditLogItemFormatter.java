@@ -33,10 +33,6 @@ import org.jboss.dmr.ModelNode;
  */
 public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
 
-    private static final ModelNode UNDEFINED = new ModelNode();
-    static {
-        UNDEFINED.protect();
-    }
     public static final String TYPE = "type";
     public static final String READ_ONLY = "r/o";
     public static final String BOOTING = "booting";
@@ -52,10 +48,29 @@ public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
     public static final String METHOD_PARAMETERS = "params";
     public static final String ERROR = "error";
 
+    // The field names of the jmx records, quoted and followed by the separator, as they are written
+    private static final String TYPE_KEY = jsonKey(TYPE);
+    private static final String READ_ONLY_KEY = jsonKey(READ_ONLY);
+    private static final String BOOTING_KEY = jsonKey(BOOTING);
+    private static final String AS_VERSION_KEY = jsonKey(AS_VERSION);
+    private static final String USER_ID_KEY = jsonKey(USER_ID);
+    private static final String DOMAIN_UUID_KEY = jsonKey(DOMAIN_UUID);
+    private static final String ACCESS_MECHANISM_KEY = jsonKey(ACCESS_MECHANISM);
+    private static final String REMOTE_ADDRESS_KEY = jsonKey(REMOTE_ADDRESS);
+    private static final String METHOD_NAME_KEY = jsonKey(METHOD_NAME);
+    private static final String METHOD_SIGNATURE_KEY = jsonKey(METHOD_SIGNATURE);
+    private static final String METHOD_PARAMETERS_KEY = jsonKey(METHOD_PARAMETERS);
+    private static final String ERROR_KEY = jsonKey(ERROR);
+    private static final String INDENT = "    ";
+
     private volatile boolean compactJson;
     private volatile boolean escapeNewLine;
     private volatile boolean escapeControlCharacters;
 
+    // Reused for every record, see the class javadoc
+    private final StringBuilder record = new StringBuilder(512);
+    private final StringBuilder escaped = new StringBuilder(512);
+
     public JsonAuditLogItemFormatter(String name, boolean includeDate, String dateSeparator, String dateFormat,
             boolean compactJson, boolean escapeNewLine, boolean escapeControlCharacters) {
         super(name, includeDate, dateSeparator, dateFormat);
@@ -102,45 +117,93 @@ public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
         if (formattedString != null) {
             return formattedString;
         }
-        ModelNode formatted = new ModelNode();
-        formatted.get(TYPE).set(TYPE_JMX);
-        addCommonFields(item, formatted);
-
-        formatted.get(METHOD_NAME).set(item.getMethodName());
+        // JMX records are written straight to text rather than through a ModelNode, there can be one per MBean call
+        final boolean compact = compactJson;
+        final StringBuilder sb = record;
+        sb.setLength(0);
+        appendDate(sb, item);
+        sb.append('{');
+        appendKey(sb, TYPE_KEY, compact, true);
+        appendString(sb, TYPE_JMX);
+        appendKey(sb, READ_ONLY_KEY, compact, false);
+        sb.append(item.isReadOnly());
+        appendKey(sb, BOOTING_KEY, compact, false);
+        sb.append(item.isBooting());
+        appendKey(sb, AS_VERSION_KEY, compact, false);
+        appendString(sb, item.getAsVersion());
+        appendKey(sb, USER_ID_KEY, compact, false);
+        appendString(sb, item.getUserId());
+        appendKey(sb, DOMAIN_UUID_KEY, compact, false);
+        appendString(sb, item.getDomainUUID());
+        appendKey(sb, ACCESS_MECHANISM_KEY, compact, false);
+        appendString(sb, item.getAccessMechanism() == null ? null : item.getAccessMechanism().toString());
+        appendKey(sb, REMOTE_ADDRESS_KEY, compact, false);
+        appendString(sb, item.getRemoteAddress() == null ? null : item.getRemoteAddress().toString());
+        appendKey(sb, METHOD_NAME_KEY, compact, false);
+        appendString(sb, item.getMethodName());
 
-        formatted.get(METHOD_SIGNATURE);
-        for (String sig : item.getMethodSignature()) {
-            formatted.get(METHOD_SIGNATURE).add(sig);
+        appendKey(sb, METHOD_SIGNATURE_KEY, compact, false);
+        final String[] signature = item.getMethodSignature();
+        sb.append('[');
+        for (int i = 0; i < signature.length; i++) {
+            appendListSeparator(sb, compact, i);
+            appendString(sb, signature[i]);
         }
+        appendListEnd(sb, compact, signature.length);
 
-        formatted.get(METHOD_PARAMETERS);
-        for (Object param : item.getMethodParams()) {
+        appendKey(sb, METHOD_PARAMETERS_KEY, compact, false);
+        final Object[] params = item.getMethodParams();
+        sb.append('[');
+        for (int i = 0; i < params.length; i++) {
+            appendListSeparator(sb, compact, i);
             //TODO handle arrays better
-            formatted.get(METHOD_PARAMETERS).add(param == null ? UNDEFINED : new ModelNode(param.toString()));
+            appendString(sb, params[i] == null ? null : params[i].toString());
         }
+        appendListEnd(sb, compact, params.length);
 
         final Throwable throwable = item.getError();
         if (throwable != null) {
             //TODO include stack trace?
-            formatted.get(ERROR).set(throwable.getMessage());
+            appendKey(sb, ERROR_KEY, compact, false);
+            appendString(sb, throwable.getMessage());
+        }
+        if (!compact) {
+            sb.append('\n');
         }
+        sb.append('}');
 
-        return cacheString(createRecordText(item, formatted));
+        return cacheString(escape(sb));
     }
 
     private String createRecordText(AuditLogItem item, ModelNode formatted) {
-        StringBuilder sb = new StringBuilder();
+        final StringBuilder sb = record;
+        sb.setLength(0);
 
         appendDate(sb, item);
 
         sb.append(formatted.toJSONString(compactJson));
 
+        return escape(sb);
+    }
+
+    private String escape(StringBuilder sb) {
         String formattedString;
         if (escapeNewLine && !escapeControlCharacters) {
             //Escape all instances of "\n" with "#012"
-            formattedString = sb.toString().replace("\n", "#012");
+            StringBuilder escaped = this.escaped;
+            escaped.setLength(0);
+            for (int i = 0 ; i < sb.length() ; i++) {
+                char c = sb.charAt(i);
+                if (c == '\n') {
+                    escaped.append("#012");
+                } else {
+                    escaped.append(c);
+                }
+            }
+            formattedString = escaped.toString();
         } else if (escapeControlCharacters) {
-            StringBuilder escaped = new StringBuilder();
+            StringBuilder escaped = this.escaped;
+            escaped.setLength(0);
             for (int i = 0 ; i < sb.length() ; i++) {
                 char c = sb.charAt(i);
                 if (c >= 0 && c < 32) {
@@ -158,10 +221,104 @@ public class JsonAuditLogItemFormatter extends AuditLogItemFormatter {
         } else {
             formattedString = sb.toString();
         }
-
+        trim(sb);
+        trim(escaped);
         return formattedString;
     }
 
+    /**
+     * Drops the storage of a builder that grew for an unusually large record.
+     */
+    private static void trim(StringBuilder sb) {
+        if (sb.capacity() > 65536) {
+            sb.setLength(512);
+            sb.trimToSize();
+        }
+        sb.setLength(0);
+    }
+
+    private static String jsonKey(String name) {
+        StringBuilder sb = new StringBuilder();
+        appendString(sb, name);
+        return sb.append(" : ").toString();
+    }
+
+    private static void appendKey(StringBuilder sb, String key, boolean compact, boolean first) {
+        if (compact) {
+            if (!first) {
+                sb.append(", ");
+            }
+        } else {
+            if (!first) {
+                sb.append(',');
+            }
+            sb.append('\n').append(INDENT);
+        }
+        sb.append(key);
+    }
+
+    private static void appendListSeparator(StringBuilder sb, boolean compact, int index) {
+        if (compact) {
+            if (index > 0) {
+                sb.append(", ");
+            }
+        } else {
+            if (index > 0) {
+                sb.append(',');
+            }
+            sb.append('\n').append(INDENT).append(INDENT);
+        }
+    }
+
+    private static void appendListEnd(StringBuilder sb, boolean compact, int size) {
+        if (!compact && size > 0) {
+            sb.append('\n').append(INDENT);
+        }
+        sb.append(']');
+    }
+
+    private static void appendString(StringBuilder sb, String value) {
+        if (value == null) {
+            sb.append("null");
+            return;
+        }
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            final char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    sb.append("\\\"");
+                    break;
+                case '\\':
+                    sb.append("\\\\");
+                    break;
+                case '\b':
+                    sb.append("\\b");
+                    break;
+                case '\f':
+                    sb.append("\\f");
+                    break;
+                case '\n':
+                    sb.append("\\n");
+                    break;
+                case '\r':
+                    sb.append("\\r");
+                    break;
+                case '\t':
+                    sb.append("\\t");
+                    break;
+                default:
+                    if (c < 32) {
+                        sb.append("\\u00");
+                        sb.append(Character.forDigit(c >> 4, 16)).append(Character.forDigit(c & 0xf, 16));
+                    } else {
+                        sb.append(c);
+                    }
+            }
+        }
+        sb.append('"');
+    }
+
     private void addCommonFields(AuditLogItem item, ModelNode formatted) {
         formatted.get(READ_ONLY).set(item.isReadOnly());
         formatted.get(BOOTING).set(item.isBooting());
@@ -182,6 +182,33 @@ public interface ManagedAuditLogger extends AuditLogger {
      */
     boolean getHandlerDisabledDueToFailure(String name);
 
+    /**
+     * Get the number of records waiting to be written by the handlers' writer threads
+     *
+     * @return the number of queued records
+     */
+    default int getAsyncQueueDepth() {
+        return 0;
+    }
+
+    /**
+     * Get the number of records the handlers' writer threads could not keep up with and that were discarded
+     *
+     * @return the number of dropped records
+     */
+    default long getAsyncDroppedCount() {
+        return 0;
+    }
+
+    /**
+     * Get the number of records the handlers' writer threads could not keep up with and that were spilled to disk
+     *
+     * @return the number of spilled records
+     */
+    default long getAsyncSpilledCount() {
+        return 0;
+    }
+
     /**
      * Gets a formatter by its name
      *
@@ -105,6 +105,8 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         } finally {
             applyHandlerUpdates();
             config.unlock();
+            // Wait for the file handlers to sync the item now that other operations can write theirs
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -127,6 +129,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         } finally {
             applyHandlerUpdates();
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -233,6 +236,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             runDisabledFastPath.set(false);
         } finally {
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -296,6 +300,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             runDisabledFastPath.set(false);
         } finally {
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -327,6 +332,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             runDisabledFastPath.set(false);
         } finally {
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -341,6 +347,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             runDisabledFastPath.set(false);
         } finally {
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -355,6 +362,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
             runDisabledFastPath.set(false);
         } finally {
             config.unlock();
+            AbstractFileAuditLogHandler.syncPendingWrites();
         }
     }
 
@@ -455,7 +463,9 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         config.lock();
         try {
             SyslogAuditLogHandler handler = (SyslogAuditLogHandler)config.getConfiguredHandler(name);
-            handler.setFacility(facility);
+            synchronized (handler) {
+                handler.setFacility(facility);
+            }
         } finally {
             config.unlock();
         }
@@ -466,7 +476,9 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         config.lock();
         try {
             SyslogAuditLogHandler handler = (SyslogAuditLogHandler)config.getConfiguredHandler(name);
-            handler.setAppName(appName);
+            synchronized (handler) {
+                handler.setAppName(appName);
+            }
         } finally {
             config.unlock();
         }
@@ -478,7 +490,9 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
         config.lock();
         try {
             SyslogAuditLogHandler handler = (SyslogAuditLogHandler)config.getConfiguredHandler(name);
-            handler.setReconnectTimeout(reconnectTimeout);
+            synchronized (handler) {
+                handler.setReconnectTimeout(reconnectTimeout);
+            }
         } finally {
             config.unlock();
         }
@@ -497,6 +511,48 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
     }
 
 
+    @Override
+    public int getAsyncQueueDepth() {
+        config.lock();
+        try {
+            int depth = 0;
+            for (AuditLogHandler handler : config.sharedConfiguration.getConfiguredHandlers().values()) {
+                depth += handler.getQueueDepth();
+            }
+            return depth;
+        } finally {
+            config.unlock();
+        }
+    }
+
+    @Override
+    public long getAsyncDroppedCount() {
+        config.lock();
+        try {
+            long dropped = 0;
+            for (AuditLogHandler handler : config.sharedConfiguration.getConfiguredHandlers().values()) {
+                dropped += handler.getDroppedCount();
+            }
+            return dropped;
+        } finally {
+            config.unlock();
+        }
+    }
+
+    @Override
+    public long getAsyncSpilledCount() {
+        config.lock();
+        try {
+            long spilled = 0;
+            for (AuditLogHandler handler : config.sharedConfiguration.getConfiguredHandlers().values()) {
+                spilled += handler.getSpilledCount();
+            }
+            return spilled;
+        } finally {
+            config.unlock();
+        }
+    }
+
     @Override
     public JsonAuditLogItemFormatter getJsonFormatter(String name) {
         config.lock();
@@ -938,7 +994,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 for (String name : removedHandlers) {
                     AuditLogHandler handler = config.removeConfiguredHandler(name);
                     if (handler != null){
-                        handler.stop();
+                        handler.shutdown();
                     }
                 }
             }
@@ -946,7 +1002,7 @@ public class ManagedAuditLoggerImpl implements ManagedAuditLogger, ManagedAuditL
                 for (AuditLogHandler handler : replacedHandlers.values()) {
                     AuditLogHandler existing = config.removeConfiguredHandler(handler.getName());
                     if (existing != null){
-                        existing.stop();
+                        existing.shutdown();
                     }
                     //Update the references for the replaced one
                     for (PathAddress referenceAddress : existing.getReferences()){
@@ -53,6 +53,7 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
     @Override
     protected void rotateLogFile(final File file) {
         if (currentSize > this.rotateSize) {
+            closeFile();
             // rotate
             if (maxBackupIndex > 0) {
                 // first, drop the max file (if any), then move each file to the next higher slot.
@@ -84,9 +85,7 @@ public class SizeRotatingFileAuditLogHandler extends AbstractFileAuditLogHandler
 
     @Override
     void writeLogItem(String formattedItem) throws IOException {
-        super.writeLogItem(formattedItem);
-        currentSize += formattedItem.getBytes().length;
-        currentSize += LINE_TERMINATOR.length;
+        currentSize += write(formattedItem);
     }
 
     @Override
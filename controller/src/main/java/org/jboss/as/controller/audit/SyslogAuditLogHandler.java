@@ -43,7 +43,6 @@ import org.jboss.logmanager.Level;
 import org.jboss.logmanager.handlers.SyslogHandler;
 import org.jboss.logmanager.handlers.SyslogHandler.Protocol;
 import org.jboss.logmanager.handlers.SyslogHandler.SyslogType;
-import org.jboss.logmanager.handlers.TcpOutputStream;
 import org.xnio.IoUtils;
 
 /**
@@ -73,6 +72,7 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
     private volatile String tlsClientCertStorePassword;
     private volatile String tlsClientCertStoreKeyPassword;
     private volatile TransportErrorManager errorManager;
+    private volatile SyslogSender sender;
     private volatile int reconnectTimeout = -1;
     private volatile long lastErrorTime = -1;
     // This should be guarded by the config lock in the ManagedAuditLoggerImpl
@@ -230,15 +230,11 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
             handler.setErrorManager(errorManager);
 
             if (transport != Transport.UDP){
-                if (messageTransfer == MessageTransfer.NON_TRANSPARENT_FRAMING) {
-                    handler.setUseCountingFraming(false);
-                    handler.setMessageDelimiter("\n");
-                    handler.setUseMessageDelimiter(true);
-                } else {
-                    handler.setUseCountingFraming(true);
-                    handler.setMessageDelimiter(null);
-                    handler.setUseMessageDelimiter(false);
-                }
+                // The sender frames each record itself so that it can batch whole frames into a single socket write
+                handler.setUseCountingFraming(false);
+                handler.setMessageDelimiter(null);
+                handler.setUseMessageDelimiter(false);
+                final boolean octetCounting = messageTransfer == MessageTransfer.OCTET_COUNTING;
 
                 if (transport == Transport.TLS){
                     final SSLContext context = SSLContext.getInstance("TLS");
@@ -270,11 +266,11 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
 
                     }
                     context.init(keyManagers, trustManagers, null);
-                    handler.setOutputStream(new SSLContextOutputStream(context, syslogServerAddress, port));
+                    sender = new SyslogSender(name, context.getSocketFactory(), syslogServerAddress, port, octetCounting);
                 } else {
-                    handler.setOutputStream(new AuditLogTcpOutputStream(syslogServerAddress, port));
-                    handler.setProtocol(transport == Transport.TCP ? Protocol.TCP : Protocol.SSL_TCP);
+                    sender = new SyslogSender(name, SocketFactory.getDefault(), syslogServerAddress, port, octetCounting);
                 }
+                handler.setOutputStream(sender);
             }
             this.handler = handler;
             this.errorManager = errorManager;
@@ -294,6 +290,7 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
     @Override
     void stop() {
         connected = false;
+        sender = null;
         SyslogHandler handler = this.handler;
         this.handler = null;
         if (handler != null) {
@@ -316,6 +313,7 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         if (!reconnect) {
             handler.publish(new ExtLogRecord(Level.WARN, formattedItem, SyslogAuditLogHandler.class.getName()));
             errorManager.getAndThrowError();
+            endRecord();
         } else {
             ControllerLogger.MGMT_OP_LOGGER.attemptingReconnectToSyslog(name, reconnectTimeout);
             try {
@@ -327,6 +325,7 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
                 }
                 handler.publish(new ExtLogRecord(Level.WARN, formattedItem, SyslogAuditLogHandler.class.getName()));
                 errorManager.getAndThrowError();
+                endRecord();
                 lastErrorTime = -1;
             } catch (Exception e) {
                 // A failure has occurred and initialization should be reattempted
@@ -337,6 +336,18 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         }
     }
 
+    private void endRecord() throws IOException {
+        final SyslogSender sender = this.sender;
+        if (sender != null) {
+            try {
+                sender.endRecord();
+            } catch (IOException e) {
+                lastErrorTime = System.currentTimeMillis();
+                throw e;
+            }
+        }
+    }
+
     @Override
     boolean isDifferent(AuditLogHandler other){
         if (other instanceof SyslogAuditLogHandler == false){
@@ -463,24 +474,6 @@ public class SyslogAuditLogHandler extends AuditLogHandler {
         }
     }
 
-    // By default the TcpOutputStream attempts to reconnect on it's own, use our own to avoid the automatic reconnect
-    // See LOGMGR-113 for details on a better way to do this in the future
-    @SuppressWarnings("deprecation")
-    private static class AuditLogTcpOutputStream extends TcpOutputStream {
-        protected AuditLogTcpOutputStream(InetAddress host, int port) throws IOException {
-            super(SocketFactory.getDefault().createSocket(host, port));
-        }
-    }
-
-
-    @SuppressWarnings("deprecation")
-    private static class SSLContextOutputStream extends TcpOutputStream {
-        protected SSLContextOutputStream(SSLContext sslContext, InetAddress host, int port) throws IOException {
-            // Continue to use the deprecated constructor until LOGMGR-113 is resolved
-            super(sslContext.getSocketFactory().createSocket(host, port));
-        }
-    }
-
     private class TransportErrorManager extends ErrorManager {
         private volatile Exception error;
 
@@ -0,0 +1,257 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import javax.net.SocketFactory;
+
+import org.jboss.as.controller.logging.ControllerLogger;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * The output stream used by {@link SyslogAuditLogHandler} for the TCP and TLS transports. Records are framed as they
+ * are ended and appended to a bounded send buffer; a dedicated thread connects, reconnects after failures and sends
+ * everything buffered in a single socket write. So the thread writing a record never waits for a connection, only a
+ * full buffer makes it fail.
+ * <p>
+ * The methods writing records should be called by one thread at a time, as {@link SyslogAuditLogHandler} does.
+ */
+final class SyslogSender extends OutputStream implements Runnable {
+
+    /** The maximum number of bytes waiting to be sent */
+    static final String SEND_BUFFER_SIZE_PROPERTY = "org.jboss.as.controller.audit.syslog-send-buffer-size";
+    /** The number of milliseconds to wait for a connection to the syslog server */
+    static final String CONNECT_TIMEOUT_PROPERTY = "org.jboss.as.controller.audit.syslog-connect-timeout";
+    private static final int DEFAULT_SEND_BUFFER_SIZE = 1024 * 1024;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 5000;
+    private static final long MAX_RECONNECT_DELAY = 30000;
+    private static final byte[] DELIMITER = {'\n'};
+
+    private final SocketFactory socketFactory;
+    private final InetSocketAddress address;
+    private final boolean octetCounting;
+    private final int sendBufferSize;
+    private final int connectTimeout;
+    private final Thread thread;
+    /** The record being written, only used by the writing thread */
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(512);
+
+    /** Guarded by this */
+    private ByteArrayOutputStream pending = new ByteArrayOutputStream(8192);
+    /** The size of the batch being sent, guarded by this */
+    private int inFlight;
+    /** Guarded by this */
+    private boolean closed;
+    /** A failure of the sending thread, reported to the next record */
+    private volatile IOException error;
+
+    SyslogSender(String name, SocketFactory socketFactory, InetAddress host, int port, boolean octetCounting) {
+        this.socketFactory = socketFactory;
+        this.address = new InetSocketAddress(host, port);
+        this.octetCounting = octetCounting;
+        this.sendBufferSize = resolve(SEND_BUFFER_SIZE_PROPERTY, DEFAULT_SEND_BUFFER_SIZE);
+        this.connectTimeout = resolve(CONNECT_TIMEOUT_PROPERTY, DEFAULT_CONNECT_TIMEOUT);
+        this.thread = new Thread(this, "Management audit log syslog sender - " + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    private static int resolve(String property, int defaultValue) {
+        String value = WildFlySecurityManager.getPropertyPrivileged(property, null);
+        if (value != null) {
+            try {
+                int result = Integer.parseInt(value.trim());
+                if (result > 0) {
+                    return result;
+                }
+            } catch (NumberFormatException e) {
+                // ignored
+            }
+        }
+        return defaultValue;
+    }
+
+    @Override
+    public void write(int b) {
+        record.write(b);
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) {
+        record.write(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        endRecord();
+    }
+
+    /**
+     * Frames the bytes written since the previous record and queues them for sending.
+     *
+     * @throws IOException if sending a previous record failed, or the send buffer is full
+     */
+    void endRecord() throws IOException {
+        final IOException error = this.error;
+        if (error != null) {
+            this.error = null;
+            record.reset();
+            throw error;
+        }
+        final int length = record.size();
+        if (length == 0) {
+            return;
+        }
+        try {
+            final byte[] prefix = octetCounting ? (length + " ").getBytes(StandardCharsets.US_ASCII) : null;
+            final int frameLength = length + (octetCounting ? prefix.length : DELIMITER.length);
+            synchronized (this) {
+                if (closed) {
+                    throw ControllerLogger.ROOT_LOGGER.syslogSenderClosed();
+                }
+                if (pending.size() + inFlight + frameLength > sendBufferSize) {
+                    throw ControllerLogger.ROOT_LOGGER.syslogSendBufferFull(sendBufferSize);
+                }
+                if (octetCounting) {
+                    pending.write(prefix);
+                    record.writeTo(pending);
+                } else {
+                    record.writeTo(pending);
+                    pending.write(DELIMITER);
+                }
+                notifyAll();
+            }
+        } finally {
+            record.reset();
+        }
+    }
+
+    /**
+     * Stops accepting records. The sending thread makes one last attempt to send what is already buffered, then closes
+     * the connection.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+    }
+
+    @Override
+    public void run() {
+        Socket socket = null;
+        long reconnectDelay = 1000;
+        byte[] batch = null;
+        try {
+            for (;;) {
+                synchronized (this) {
+                    while (batch == null && pending.size() == 0 && !closed) {
+                        try {
+                            wait();
+                        } catch (InterruptedException e) {
+                            // ignored, only close stops this thread
+                        }
+                    }
+                    if (batch == null && pending.size() > 0) {
+                        batch = pending.toByteArray();
+                        pending.reset();
+                        if (batch.length > 8192) {
+                            // Do not keep a buffer sized for a backlog around
+                            pending = new ByteArrayOutputStream(8192);
+                        }
+                    }
+                    if (batch == null) {
+                        return;
+                    }
+                    inFlight = batch.length;
+                }
+                if (socket == null) {
+                    try {
+                        socket = connect();
+                        reconnectDelay = 1000;
+                    } catch (IOException e) {
+                        error = e;
+                        // Keep the batch, nothing of it was sent
+                        synchronized (this) {
+                            if (closed) {
+                                return;
+                            }
+                            try {
+                                wait(reconnectDelay);
+                            } catch (InterruptedException ignore) {
+                                // ignored, only close stops this thread
+                            }
+                        }
+                        reconnectDelay = Math.min(reconnectDelay * 2, MAX_RECONNECT_DELAY);
+                        continue;
+                    }
+                }
+                try {
+                    final OutputStream out = socket.getOutputStream();
+                    out.write(batch);
+                    out.flush();
+                } catch (IOException e) {
+                    // Part of the batch may have been sent, so it is not sent again on the next connection
+                    error = e;
+                    closeSocket(socket);
+                    socket = null;
+                }
+                batch = null;
+                synchronized (this) {
+                    inFlight = 0;
+                }
+            }
+        } finally {
+            closeSocket(socket);
+        }
+    }
+
+    private Socket connect() throws IOException {
+        final Socket socket = socketFactory.createSocket();
+        try {
+            socket.connect(address, connectTimeout);
+            return socket;
+        } catch (IOException e) {
+            closeSocket(socket);
+            throw e;
+        }
+    }
+
+    private static void closeSocket(Socket socket) {
+        if (socket != null) {
+            try {
+                socket.close();
+            } catch (IOException ignore) {
+                // ignored
+            }
+        }
+    }
+}
@@ -66,6 +66,9 @@ public class ModelDescriptionConstants {
     public static final String APPLIES_TO = "applies-to";
     public static final String APPLY_REMOTE_DOMAIN_MODEL = "apply-remote-domain-model";
     public static final String ARCHIVE = "archive";
+    public static final String ASYNC_DROPPED_COUNT = "async-dropped-count";
+    public static final String ASYNC_QUEUE_DEPTH = "async-queue-depth";
+    public static final String ASYNC_SPILLED_COUNT = "async-spilled-count";
     public static final String ATTACHED_STREAMS = "attached-streams";
     public static final String ATTRIBUTE = "attribute";
     public static final String ATTRIBUTE_GROUP = "attribute-group";
@@ -278,6 +281,7 @@ public class ModelDescriptionConstants {
     public static final String MASTER = "master";
     public static final String MAX = "max";
     public static final String MAX_BACKUP_INDEX = "max-backup-index";
+    public static final String MAX_CONCURRENT_SERVERS = "max-concurrent-servers";
     public static final String MAX_FAILED_SERVERS = "max-failed-servers";
     public static final String MAX_FAILURE_COUNT = "max-failure-count";
     public static final String MAX_FAILURE_PERCENTAGE = "max-failure-percentage";
@@ -347,6 +351,7 @@ public class ModelDescriptionConstants {
     public static final String PROBLEM = "problem";
     public static final String PROCESS_TYPE = "process-type";
     public static final String PROCESS_STATE = "process-state";
+    public static final String PROCESSOR_TIMINGS = "processor-timings";
     public static final String PRODUCT_NAME = "product-name";
     public static final String PRODUCT_VERSION = "product-version";
     public static final String PROFILE = "profile";
@@ -3452,4 +3452,18 @@ public interface ControllerLogger extends BasicLogger {
 
     @Message(id = 422, value = "Could not load module '%s' for transformers")
     RuntimeException couldNotLoadModuleForTransformers(String name, @Cause ModuleLoadException e);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 423, value = "Invalid value %s for property %s; must be one of record, batch or interval. Audit log records will be synced one at a time.")
+    void invalidAuditLogSyncMode(String sysPropValue, String sysPropName);
+
+    @LogMessage(level = Level.WARN)
+    @Message(id = 424, value = "Invalid value %s for property %s; must be one of block, drop or spill. Audit logging will wait for room in the queue.")
+    void invalidAuditLogOverflowPolicy(String sysPropValue, String sysPropName);
+
+    @Message(id = 425, value = "The syslog send buffer of %d bytes is full, the audit log record was not sent")
+    IOException syslogSendBufferFull(int size);
+
+    @Message(id = 426, value = "The syslog connection has been closed")
+    IOException syslogSenderClosed();
 }
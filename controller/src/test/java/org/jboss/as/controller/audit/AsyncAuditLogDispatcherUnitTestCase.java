@@ -0,0 +1,127 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class AsyncAuditLogDispatcherUnitTestCase {
+
+    private final BlockingHandler handler = new BlockingHandler();
+
+    @Before
+    public void setup() {
+        System.setProperty(AsyncAuditLogDispatcher.ASYNC_PROPERTY, "true");
+        System.setProperty(AsyncAuditLogDispatcher.QUEUE_SIZE_PROPERTY, "2");
+    }
+
+    @After
+    public void cleanup() {
+        System.clearProperty(AsyncAuditLogDispatcher.ASYNC_PROPERTY);
+        System.clearProperty(AsyncAuditLogDispatcher.QUEUE_SIZE_PROPERTY);
+        System.clearProperty(AsyncAuditLogDispatcher.OVERFLOW_PROPERTY);
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        System.clearProperty(AsyncAuditLogDispatcher.ASYNC_PROPERTY);
+        Assert.assertNull(AsyncAuditLogDispatcher.create(handler));
+    }
+
+    @Test
+    public void testDrop() throws Exception {
+        System.setProperty(AsyncAuditLogDispatcher.OVERFLOW_PROPERTY, "drop");
+        AsyncAuditLogDispatcher dispatcher = AsyncAuditLogDispatcher.create(handler);
+        dispatcher.enqueue("1");
+        Assert.assertTrue(handler.writing.await(10, TimeUnit.SECONDS));
+        // The writer thread is blocked writing 1, so only two more records fit
+        dispatcher.enqueue("2");
+        dispatcher.enqueue("3");
+        dispatcher.enqueue("4");
+        Assert.assertEquals(2, dispatcher.getQueueDepth());
+        Assert.assertEquals(1, dispatcher.getDroppedCount());
+        handler.release.countDown();
+        dispatcher.shutdown();
+        Assert.assertEquals(Arrays.asList("1", "2", "3"), handler.written);
+    }
+
+    @Test
+    public void testSpill() throws Exception {
+        System.setProperty(AsyncAuditLogDispatcher.OVERFLOW_PROPERTY, "spill");
+        AsyncAuditLogDispatcher dispatcher = AsyncAuditLogDispatcher.create(handler);
+        dispatcher.enqueue("1");
+        Assert.assertTrue(handler.writing.await(10, TimeUnit.SECONDS));
+        for (int i = 2; i <= 6; i++) {
+            dispatcher.enqueue(String.valueOf(i));
+        }
+        Assert.assertEquals(0, dispatcher.getDroppedCount());
+        Assert.assertEquals(3, dispatcher.getSpilledCount());
+        handler.release.countDown();
+        dispatcher.shutdown();
+        Assert.assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), handler.written);
+    }
+
+    private static class BlockingHandler extends AuditLogHandler {
+        private final CountDownLatch writing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+        private final List<String> written = Collections.synchronizedList(new ArrayList<>());
+
+        BlockingHandler() {
+            super("test", "formatter", 0);
+        }
+
+        @Override
+        boolean isDifferent(AuditLogHandler other) {
+            return other != this;
+        }
+
+        @Override
+        void initialize() {
+        }
+
+        @Override
+        void stop() {
+        }
+
+        @Override
+        void writeLogItem(String formattedItem) throws IOException {
+            writing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            written.add(formattedItem);
+        }
+    }
+}
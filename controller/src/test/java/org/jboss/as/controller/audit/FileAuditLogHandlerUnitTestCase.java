@@ -25,6 +25,9 @@ package org.jboss.as.controller.audit;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
 
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.junit.After;
@@ -65,10 +68,36 @@ public class FileAuditLogHandlerUnitTestCase {
         Assert.assertEquals("Log file was rotated but shouldn't have been", 1, confDir.list().length);
     }
 
-    private void initializeHandler(boolean rotateAtStartup) {
+    @Test
+    public void testRecordsAppended() throws IOException {
+        FileAuditLogHandler auditLogHandler = initializeHandler(false);
+        auditLogHandler.writeLogItem("first");
+        auditLogHandler.writeLogItem("second");
+        auditLogHandler.stop();
+
+        Assert.assertEquals(Arrays.asList("first", "second"), Files.readAllLines(logFile.toPath(), Charset.defaultCharset()));
+    }
+
+    @Test
+    public void testBatchSync() throws IOException {
+        System.setProperty(AbstractFileAuditLogHandler.SYNC_PROPERTY, "batch");
+        try {
+            FileAuditLogHandler auditLogHandler = initializeHandler(false);
+            auditLogHandler.writeLogItem("first");
+            auditLogHandler.writeLogItem("second");
+            AbstractFileAuditLogHandler.syncPendingWrites();
+            Assert.assertEquals(Arrays.asList("first", "second"), Files.readAllLines(logFile.toPath(), Charset.defaultCharset()));
+            auditLogHandler.stop();
+        } finally {
+            System.clearProperty(AbstractFileAuditLogHandler.SYNC_PROPERTY);
+        }
+    }
+
+    private FileAuditLogHandler initializeHandler(boolean rotateAtStartup) {
         FileAuditLogHandler auditLogHandler =
                 new FileAuditLogHandler("name", "formatter", 0, pathManager, logFile.getPath(), null, rotateAtStartup);
         auditLogHandler.initialize();
+        return auditLogHandler;
     }
 
     private static File createTempDir() {
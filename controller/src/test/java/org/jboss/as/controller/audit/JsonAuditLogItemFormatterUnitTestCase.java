@@ -0,0 +1,93 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.net.InetAddress;
+
+import org.jboss.as.core.security.AccessMechanism;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JsonAuditLogItemFormatterUnitTestCase {
+
+    @Test
+    public void testJmxItemPretty() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss", false, false, false);
+        String formatted = createJmxItem(null).format(formatter);
+        Assert.assertTrue(formatted, formatted.startsWith("{\n"));
+        Assert.assertTrue(formatted, formatted.endsWith("\n}"));
+        Assert.assertEquals(createExpected(null), ModelNode.fromJSONString(formatted));
+    }
+
+    @Test
+    public void testJmxItemCompact() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss", true, false, false);
+        Throwable error = new IllegalStateException("broken");
+        String formatted = createJmxItem(error).format(formatter);
+        Assert.assertFalse(formatted, formatted.contains("\n"));
+        Assert.assertEquals(createExpected(error), ModelNode.fromJSONString(formatted));
+    }
+
+    @Test
+    public void testJmxItemEscapeNewLine() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss", false, true, false);
+        String formatted = createJmxItem(null).format(formatter);
+        Assert.assertFalse(formatted, formatted.contains("\n"));
+        Assert.assertEquals(createExpected(null), ModelNode.fromJSONString(formatted.replace("#012", "\n")));
+    }
+
+    @Test
+    public void testCachedUntilCleared() throws Exception {
+        JsonAuditLogItemFormatter formatter = new JsonAuditLogItemFormatter("test", false, " - ", "yyyy-MM-dd HH:mm:ss", true, false, false);
+        String formatted = createJmxItem(null).format(formatter);
+        Assert.assertSame(formatted, createJmxItem(new IllegalStateException()).format(formatter));
+        formatter.clear();
+        Assert.assertNotEquals(formatted, createJmxItem(new IllegalStateException("broken")).format(formatter));
+    }
+
+    private static AuditLogItem createJmxItem(Throwable error) throws Exception {
+        return AuditLogItem.createMethodAccessItem("1.0", false, true, "user", null, AccessMechanism.JMX,
+                InetAddress.getByName("127.0.0.1"), "invoke", new String[] {"java.lang.String", "int"},
+                new Object[] {"a \"quoted\"\n\tvalue", null}, error);
+    }
+
+    private static ModelNode createExpected(Throwable error) throws Exception {
+        ModelNode expected = new ModelNode();
+        expected.get(JsonAuditLogItemFormatter.TYPE).set(AuditLogItemFormatter.TYPE_JMX);
+        expected.get(JsonAuditLogItemFormatter.READ_ONLY).set(false);
+        expected.get(JsonAuditLogItemFormatter.BOOTING).set(true);
+        expected.get(JsonAuditLogItemFormatter.AS_VERSION).set("1.0");
+        expected.get(JsonAuditLogItemFormatter.USER_ID).set("user");
+        expected.get(JsonAuditLogItemFormatter.DOMAIN_UUID);
+        expected.get(JsonAuditLogItemFormatter.ACCESS_MECHANISM).set(AccessMechanism.JMX.toString());
+        expected.get(JsonAuditLogItemFormatter.REMOTE_ADDRESS).set(InetAddress.getByName("127.0.0.1").toString());
+        expected.get(JsonAuditLogItemFormatter.METHOD_NAME).set("invoke");
+        expected.get(JsonAuditLogItemFormatter.METHOD_SIGNATURE).add("java.lang.String").add("int");
+        expected.get(JsonAuditLogItemFormatter.METHOD_PARAMETERS).add("a \"quoted\"\n\tvalue").add(new ModelNode());
+        if (error != null) {
+            expected.get(JsonAuditLogItemFormatter.ERROR).set(error.getMessage());
+        }
+        return expected;
+    }
+}
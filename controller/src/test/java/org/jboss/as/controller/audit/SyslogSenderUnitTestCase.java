@@ -0,0 +1,105 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.controller.audit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+
+import javax.net.SocketFactory;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SyslogSenderUnitTestCase {
+
+    @After
+    public void cleanup() {
+        System.clearProperty(SyslogSender.SEND_BUFFER_SIZE_PROPERTY);
+    }
+
+    @Test
+    public void testOctetCountedFrames() throws Exception {
+        Assert.assertEquals("5 first6 second", send(true));
+    }
+
+    @Test
+    public void testNonTransparentFrames() throws Exception {
+        Assert.assertEquals("first\nsecond\n", send(false));
+    }
+
+    @Test
+    public void testFullBufferFailsWithoutConnecting() throws Exception {
+        System.setProperty(SyslogSender.SEND_BUFFER_SIZE_PROPERTY, "16");
+        // Nothing accepts on a closed server socket's port, so the records stay in the buffer
+        final int port;
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            port = server.getLocalPort();
+        }
+        final SyslogSender sender = new SyslogSender("test", SocketFactory.getDefault(), InetAddress.getLoopbackAddress(), port, true);
+        try {
+            writeRecord(sender, "0123456789");
+            try {
+                writeRecord(sender, "0123456789");
+                // The first connection attempt may already have failed and been reported instead
+            } catch (IOException expected) {
+            }
+            try {
+                writeRecord(sender, "0123456789");
+                Assert.fail("The send buffer should be full");
+            } catch (IOException expected) {
+            }
+        } finally {
+            sender.close();
+        }
+    }
+
+    private String send(boolean octetCounting) throws Exception {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            final SyslogSender sender = new SyslogSender("test", SocketFactory.getDefault(), InetAddress.getLoopbackAddress(), server.getLocalPort(), octetCounting);
+            writeRecord(sender, "first");
+            writeRecord(sender, "second");
+            sender.close();
+            try (Socket socket = server.accept()) {
+                final ByteArrayOutputStream received = new ByteArrayOutputStream();
+                final InputStream in = socket.getInputStream();
+                final byte[] buffer = new byte[256];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    received.write(buffer, 0, read);
+                }
+                return new String(received.toByteArray(), StandardCharsets.UTF_8);
+            }
+        }
+    }
+
+    private static void writeRecord(SyslogSender sender, String record) throws IOException {
+        sender.write(record.getBytes(StandardCharsets.UTF_8));
+        sender.endRecord();
+    }
+}
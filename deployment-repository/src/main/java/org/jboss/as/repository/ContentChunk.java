@@ -0,0 +1,173 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * A content addressed slice of a content file. Content is split at boundaries chosen by a rolling fingerprint of the
+ * data rather than at fixed offsets, so two files sharing a run of bytes produce the same chunks for it even when the
+ * run is located at a different offset in each file.
+ */
+public final class ContentChunk {
+
+    /** The length of a chunk hash */
+    public static final int HASH_LENGTH = 20;
+
+    static final int MIN_SIZE = 64 * 1024;
+    static final int MAX_SIZE = 1024 * 1024;
+    /** Boundary when the 18 high bits of the fingerprint are clear, giving an average chunk of about 256KB past the minimum */
+    private static final long BOUNDARY_MASK = -1L << 46;
+    private static final long[] GEAR = new long[256];
+
+    static {
+        // Fixed pseudo-random table, so every process chooses the same boundaries
+        long seed = 0x9E3779B97F4A7C15L;
+        for (int i = 0; i < GEAR.length; i++) {
+            seed += 0x9E3779B97F4A7C15L;
+            long z = seed;
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            GEAR[i] = z ^ (z >>> 31);
+        }
+    }
+
+    private final byte[] hash;
+    private final long offset;
+    private final int length;
+
+    public ContentChunk(final byte[] hash, final long offset, final int length) {
+        assert hash.length == HASH_LENGTH;
+        this.hash = hash;
+        this.offset = offset;
+        this.length = length;
+    }
+
+    /**
+     * Gets the SHA-1 hash of the chunk.
+     *
+     * @return the hash. Will not be {@code null}
+     */
+    public byte[] getHash() {
+        return hash;
+    }
+
+    public String getHexHash() {
+        return HashUtil.bytesToHexString(hash);
+    }
+
+    /**
+     * Gets the offset of the chunk in its content file.
+     *
+     * @return the offset
+     */
+    public long getOffset() {
+        return offset;
+    }
+
+    /**
+     * Gets the length of the chunk.
+     *
+     * @return the length
+     */
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Whether the given hash matches the hash of this chunk.
+     *
+     * @param other the hash to compare
+     * @return {@code true} if the hashes are identical
+     */
+    public boolean matches(final byte[] other) {
+        return Arrays.equals(hash, other);
+    }
+
+    @Override
+    public String toString() {
+        return "ContentChunk{hash=" + getHexHash() + ", offset=" + offset + ", length=" + length + "}";
+    }
+
+    /**
+     * Splits the given file in chunks.
+     *
+     * @param file the file. Cannot be {@code null}
+     * @return the chunks, in file order. Will not be {@code null}
+     * @throws IOException if the file could not be read
+     */
+    public static List<ContentChunk> split(final Path file) throws IOException {
+        final MessageDigest digest = createDigest();
+        final List<ContentChunk> chunks = new ArrayList<>();
+        try (InputStream input = Files.newInputStream(file)) {
+            final byte[] buffer = new byte[65536];
+            long offset = 0;
+            int length = 0;
+            long fingerprint = 0;
+            int read;
+            while ((read = input.read(buffer)) != -1) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    fingerprint = (fingerprint << 1) + GEAR[buffer[i] & 0xff];
+                    length++;
+                    if (length >= MAX_SIZE || (length >= MIN_SIZE && (fingerprint & BOUNDARY_MASK) == 0)) {
+                        digest.update(buffer, start, i + 1 - start);
+                        chunks.add(new ContentChunk(digest.digest(), offset, length));
+                        offset += length;
+                        length = 0;
+                        fingerprint = 0;
+                        start = i + 1;
+                    }
+                }
+                digest.update(buffer, start, read - start);
+            }
+            if (length > 0) {
+                chunks.add(new ContentChunk(digest.digest(), offset, length));
+            }
+        }
+        return chunks;
+    }
+
+    /**
+     * Creates a digest suitable to hash chunks and content files.
+     *
+     * @return the digest
+     */
+    public static MessageDigest createDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
+        }
+    }
+}
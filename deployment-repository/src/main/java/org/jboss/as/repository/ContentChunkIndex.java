@@ -0,0 +1,255 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
+
+/**
+ * Index of the {@link ContentChunk chunks} of the content already present in a local repository, used to avoid
+ * transferring bytes that are available locally under another content hash.
+ * <p>
+ * The index is only a hint: the bytes of a chunk are verified against its hash each time they are read, so content
+ * removed or replaced after it was indexed is never used.
+ * <p>
+ * The chunks of a content file are persisted in a manifest named after the content hash at the root of the
+ * repository, so each content file is only split once and not again after each restart.
+ */
+public class ContentChunkIndex {
+
+    /** The suffix of the chunk manifests stored at the root of the repository */
+    public static final String MANIFEST_SUFFIX = ".chunks";
+
+    private static final String CONTENT = "content";
+    private static final int MANIFEST_VERSION = 1;
+
+    private final File deploymentRoot;
+    private final Map<String, Location> locations = new ConcurrentHashMap<>();
+    private volatile boolean scanned;
+
+    public ContentChunkIndex(final File deploymentRoot) {
+        this.deploymentRoot = deploymentRoot;
+    }
+
+    /**
+     * Index the content files present in the repository. Only the first call scans the repository; content added
+     * later is expected to be registered with {@link #index(Path, List)}.
+     */
+    public void scan() {
+        if (scanned) {
+            return;
+        }
+        synchronized (this) {
+            if (scanned) {
+                return;
+            }
+            final File[] rootHashes = deploymentRoot.listFiles();
+            if (rootHashes != null) {
+                for (File rootHash : rootHashes) {
+                    final File[] complementaryHashes = rootHash.listFiles();
+                    if (complementaryHashes == null) {
+                        continue;
+                    }
+                    for (File complementaryHash : complementaryHashes) {
+                        final Path content = complementaryHash.toPath().resolve(CONTENT);
+                        if (Files.isRegularFile(content)) {
+                            try {
+                                index(content, getChunks(content));
+                            } catch (IOException e) {
+                                DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Cannot index the chunks of %s", content);
+                            }
+                        }
+                    }
+                }
+            }
+            scanned = true;
+        }
+    }
+
+    /**
+     * Get the chunks of a content file stored in a repository, reading them from the persisted manifest if there is
+     * one. Otherwise the file is split and the manifest is written for the next call.
+     *
+     * @param content the content file, located in the directory named after the content hash
+     * @return the chunks, in file order. Will not be {@code null}
+     * @throws IOException if the content file could not be read
+     */
+    public static List<ContentChunk> getChunks(final Path content) throws IOException {
+        final long size = Files.size(content);
+        final Path manifest = getManifest(content);
+        List<ContentChunk> chunks = readManifest(manifest, size);
+        if (chunks == null) {
+            chunks = ContentChunk.split(content);
+            storeChunks(content, chunks);
+        }
+        return chunks;
+    }
+
+    /**
+     * Persist the chunks of a content file stored in a repository, so they are not computed again. Failing to write
+     * the manifest is not an error, the chunks will be computed again when needed.
+     *
+     * @param content the content file, located in the directory named after the content hash
+     * @param chunks the chunks of the file
+     */
+    public static void storeChunks(final Path content, final List<ContentChunk> chunks) {
+        final Path manifest = getManifest(content);
+        final Path tmp = manifest.resolveSibling(manifest.getFileName() + ".tmp");
+        try {
+            try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+                output.writeInt(MANIFEST_VERSION);
+                output.writeLong(Files.size(content));
+                output.writeInt(chunks.size());
+                for (ContentChunk chunk : chunks) {
+                    output.write(chunk.getHash());
+                    output.writeInt(chunk.getLength());
+                }
+            }
+            try {
+                Files.move(tmp, manifest, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tmp, manifest, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Cannot store the chunks of %s", content);
+            try {
+                Files.deleteIfExists(tmp);
+            } catch (IOException ignore) {
+                // ignore
+            }
+        }
+    }
+
+    /**
+     * Gets the manifest of a content file: {@code <root>/<hash>.chunks} for {@code <root>/<xx>/<rest of hash>/<file>}.
+     */
+    private static Path getManifest(final Path content) {
+        final Path hashDir = content.toAbsolutePath().getParent();
+        final Path rootHashDir = hashDir.getParent();
+        return rootHashDir.resolveSibling(rootHashDir.getFileName().toString() + hashDir.getFileName() + MANIFEST_SUFFIX);
+    }
+
+    private static List<ContentChunk> readManifest(final Path manifest, final long size) {
+        try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(manifest)))) {
+            if (input.readInt() != MANIFEST_VERSION || input.readLong() != size) {
+                return null;
+            }
+            final int numChunks = input.readInt();
+            final List<ContentChunk> chunks = new ArrayList<>(numChunks);
+            long offset = 0;
+            for (int i = 0; i < numChunks; i++) {
+                final byte[] hash = new byte[ContentChunk.HASH_LENGTH];
+                input.readFully(hash);
+                final int length = input.readInt();
+                chunks.add(new ContentChunk(hash, offset, length));
+                offset += length;
+            }
+            return offset == size ? chunks : null;
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Ignoring unreadable chunk manifest %s", manifest);
+            return null;
+        }
+    }
+
+    /**
+     * Register the chunks of a content file.
+     *
+     * @param file the content file
+     * @param chunks the chunks of the file
+     */
+    public void index(final Path file, final List<ContentChunk> chunks) {
+        for (ContentChunk chunk : chunks) {
+            locations.putIfAbsent(chunk.getHexHash(), new Location(file, chunk.getOffset(), chunk.getLength()));
+        }
+    }
+
+    /**
+     * Read the bytes of a chunk from local content.
+     *
+     * @param chunk the chunk
+     * @return the bytes of the chunk, or {@code null} if they are not available locally
+     */
+    public byte[] read(final ContentChunk chunk) {
+        final String key = chunk.getHexHash();
+        final Location location = locations.get(key);
+        if (location == null || location.length != chunk.getLength()) {
+            return null;
+        }
+        final byte[] bytes = new byte[location.length];
+        try (FileChannel channel = FileChannel.open(location.file, StandardOpenOption.READ)) {
+            final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+            long position = location.offset;
+            while (buffer.hasRemaining()) {
+                final int read = channel.read(buffer, position);
+                if (read < 0) {
+                    break;
+                }
+                position += read;
+            }
+            if (!buffer.hasRemaining()) {
+                final MessageDigest digest = ContentChunk.createDigest();
+                if (chunk.matches(digest.digest(bytes))) {
+                    return bytes;
+                }
+            }
+        } catch (IOException e) {
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(e, "Cannot read chunk %s from %s", key, location.file);
+        }
+        // Stale entry
+        locations.remove(key, location);
+        return null;
+    }
+
+    private static final class Location {
+        private final Path file;
+        private final long offset;
+        private final int length;
+
+        private Location(final Path file, final long offset, final int length) {
+            this.file = file;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+}
@@ -29,19 +29,20 @@ import static org.jboss.as.repository.PathUtil.getFileExtension;
 import static org.jboss.as.repository.PathUtil.isArchive;
 import static org.jboss.as.repository.PathUtil.resolveSecurely;
 
-import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
-import java.security.DigestOutputStream;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Set;
 import java.util.stream.Stream;
@@ -69,12 +70,16 @@ import org.jboss.msc.service.StopContext;
 public class ContentRepositoryImpl implements ContentRepository, Service<ContentRepository> {
 
     protected static final String CONTENT = "content";
+    private static final int BUFFER_SIZE = 64 * 1024;
     private final File repoRoot;
     private final File tmpRoot;
     protected final MessageDigest messageDigest;
     private final Map<String, Set<ContentReference>> contentHashReferences = new HashMap<>();
     private final Map<String, ReentrantLock> lockedContents = new HashMap<>();
     private final Map<String, Long> obsoleteContents = new HashMap<>();
+    // Contents present in the repository that had no reference when last seen, guarded by contentHashReferences
+    private final Map<String, ContentReference> unreferencedContents = new HashMap<>();
+    private boolean contentsIndexed;
     private final long obsolescenceTimeout;
     private final long lockTimeout;
 
@@ -91,8 +96,12 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         this.tmpRoot = tmpRoot;
         this.obsolescenceTimeout = obsolescenceTimeout;
         this.lockTimeout = lockTimeout;
+        this.messageDigest = createDigest();
+    }
+
+    private static MessageDigest createDigest() {
         try {
-            this.messageDigest = MessageDigest.getInstance("SHA-1");
+            return MessageDigest.getInstance("SHA-1");
         } catch (NoSuchAlgorithmException e) {
             throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotObtainSha1(e, MessageDigest.class.getSimpleName());
         }
@@ -113,22 +122,20 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     @Override
     public byte[] addContent(InputStream stream) throws IOException {
         byte[] sha1Bytes;
+        // Stage the content next to its final location, so it is written once and then moved atomically
         Path tmp = File.createTempFile(CONTENT, ".tmp", repoRoot).toPath();
         if (stream != null) {
+            // Hash with a digest of our own rather than the shared one, so concurrent uploads are not serialized
+            final MessageDigest digest = createDigest();
             try (OutputStream fos = Files.newOutputStream(tmp)) {
-                synchronized (messageDigest) {
-                    messageDigest.reset();
-                    DigestOutputStream dos = new DigestOutputStream(fos, messageDigest);
-                    BufferedInputStream bis = new BufferedInputStream(stream);
-                    byte[] bytes = new byte[8192];
-                    int read;
-                    while ((read = bis.read(bytes)) > -1) {
-                        dos.write(bytes, 0, read);
-                    }
-                    fos.flush();
+                byte[] bytes = new byte[BUFFER_SIZE];
+                int read;
+                while ((read = stream.read(bytes)) > -1) {
+                    digest.update(bytes, 0, read);
+                    fos.write(bytes, 0, read);
                 }
-                sha1Bytes = messageDigest.digest();
             }
+            sha1Bytes = digest.digest();
         } else {//create a directory instead
             Files.delete(tmp);
             Files.createDirectory(tmp);
@@ -163,6 +170,8 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
                 contentHashReferences.put(reference.getHexHash(), references);
             }
             references.add(reference);
+            unreferencedContents.remove(reference.getHexHash());
+            obsoleteContents.remove(reference.getHexHash());
         }
     }
 
@@ -211,6 +220,11 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             } catch (IOException ioex) {
                 throw DeploymentRepositoryLogger.ROOT_LOGGER.cannotCreateDirectory(ioex, hashDir.toAbsolutePath().toString());
             }
+            synchronized (contentHashReferences) {
+                if (!contentHashReferences.containsKey(sha1) && !unreferencedContents.containsKey(sha1)) {
+                    unreferencedContents.put(sha1, new ContentReference(hashDir.toAbsolutePath().toString(), sha1));
+                }
+            }
         }
         return hashDir;
     }
@@ -232,7 +246,11 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     private void moveTempToPermanent(Path tmpFile, Path permanentFile) throws IOException {
         Path localTmp = permanentFile.resolveSibling("tmp");
         try {
-            Files.move(tmpFile, permanentFile);
+            try {
+                Files.move(tmpFile, permanentFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException ex) {
+                Files.move(tmpFile, permanentFile);
+            }
         } catch (IOException ioex) {
             // AS7-3574. Try to avoid writing the permanent file bit by bit in we crash in the middle.
             // Copy tmpFile to another tmpfile in the same dir as the permanent file (and thus same filesystem)
@@ -267,39 +285,70 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
 
     @Override
     public void removeContent(ContentReference reference) {
+        deleteContent(reference);
+    }
+
+    /**
+     * Delete the content if no reference to it is left. The content is only forgotten once it has been deleted, so
+     * content that could not be deleted is tracked as unreferenced and deleted by a later {@link #cleanObsoleteContent()}.
+     *
+     * @param reference the reference to the content.
+     *
+     * @return true if the content was deleted, false otherwise.
+     */
+    private boolean deleteContent(ContentReference reference) {
         synchronized (contentHashReferences) {
             final Set<ContentReference> references = contentHashReferences.get(reference.getHexHash());
             if (references != null) {
                 references.remove(reference);
                 if (!references.isEmpty()) {
-                    return;
+                    return false;
                 }
                 contentHashReferences.remove(reference.getHexHash());
             }
         }
+        final boolean isDeploymentContent = HashUtil.isEachHexHashInTable(reference.getHexHash());
         Path contentPath;
-        if (!HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+        if (!isDeploymentContent) {
             contentPath = Paths.get(reference.getContentIdentifier());
         } else {
             contentPath = getDeploymentContentFile(reference.getHash(), false);
         }
+        boolean deleted = false;
         try {
-            if (HashUtil.isEachHexHashInTable(reference.getHexHash())) { //Otherwise this is not a deployment content
+            if (isDeploymentContent) { //Otherwise this is not a deployment content
                 if(!lock(reference.getHash())) {
                     DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(DeploymentRepositoryLogger.ROOT_LOGGER.errorLockingDeployment(), contentPath.toString());
-                    return;
+                    return false;
                 }
             }
             deleteRecursively(contentPath);
+            if (isDeploymentContent) {
+                Files.deleteIfExists(repoRoot.toPath().resolve(reference.getHexHash() + ContentChunkIndex.MANIFEST_SUFFIX));
+            }
+            deleted = true;
         } catch (IOException ex) {
             DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, contentPath.toString());
         } catch (InterruptedException ex) {
             Thread.interrupted();
             DeploymentRepositoryLogger.ROOT_LOGGER.contentDeletionError(ex, contentPath.toString());
         } finally {
-            if (HashUtil.isEachHexHashInTable(reference.getHexHash())) {
+            if (isDeploymentContent) {
                 unlock(reference.getHash());
             }
+            synchronized (contentHashReferences) {
+                if (deleted) {
+                    unreferencedContents.remove(reference.getHexHash());
+                    obsoleteContents.remove(reference.getHexHash());
+                } else if (!contentHashReferences.containsKey(reference.getHexHash()) && !unreferencedContents.containsKey(reference.getHexHash())) {
+                    // Track the content by its location, as listing the repository would, so it is deleted later
+                    final Path location = isDeploymentContent ? contentPath.getParent() : contentPath;
+                    unreferencedContents.put(reference.getHexHash(), new ContentReference(location.toAbsolutePath().toString(), reference.getHexHash()));
+                }
+            }
+        }
+        if (!deleted) {
+            return false;
         }
         Path parent = contentPath.getParent();
         try {
@@ -318,11 +367,14 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             }
         }
         DeploymentRepositoryLogger.ROOT_LOGGER.contentRemoved(contentPath.toAbsolutePath().toString());
+        return true;
     }
 
     /**
      * Clean obsolete contents from the content repository. It will first mark contents as obsolete then after some time
      * if these contents are still obsolete they will be removed.
+     * The repository directory is only listed on the first call; afterwards the contents created by this repository
+     * are tracked as they are written and only those without any reference are checked.
      *
      * @return a map containing the list of marked contents and the list of deleted contents.
      */
@@ -331,16 +383,48 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         Map<String, Set<String>> cleanedContents = new HashMap<>(2);
         cleanedContents.put(MARKED_CONTENT, new HashSet<>());
         cleanedContents.put(DELETED_CONTENT, new HashSet<>());
+        final boolean indexed;
         synchronized (contentHashReferences) {
-            for (ContentReference fsContent : listLocalContents()) {
-                if (!contentHashReferences.containsKey(fsContent.getHexHash())) { //We have no refrence to this content
-                    if (markAsObsolete(fsContent)) {
-                        cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
-                    } else {
-                        cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
+            indexed = contentsIndexed;
+        }
+        if (!indexed) {
+            Set<ContentReference> localContents = listLocalContents();
+            synchronized (contentHashReferences) {
+                for (ContentReference fsContent : localContents) {
+                    if (!unreferencedContents.containsKey(fsContent.getHexHash())) {
+                        unreferencedContents.put(fsContent.getHexHash(), fsContent);
                     }
-                } else {
+                }
+                contentsIndexed = true;
+            }
+        }
+        final long now = System.currentTimeMillis();
+        final List<ContentReference> expiredContents = new ArrayList<>();
+        synchronized (contentHashReferences) {
+            Iterator<ContentReference> iter = unreferencedContents.values().iterator();
+            while (iter.hasNext()) {
+                ContentReference fsContent = iter.next();
+                if (contentHashReferences.containsKey(fsContent.getHexHash())) {
+                    iter.remove();
                     obsoleteContents.remove(fsContent.getHexHash()); //Remove existing references from obsoleteContents
+                } else if (markAsObsolete(fsContent, now)) {
+                    expiredContents.add(fsContent);
+                } else {
+                    cleanedContents.get(MARKED_CONTENT).add(fsContent.getContentIdentifier());
+                }
+            }
+        }
+        // Deleting is done without holding the lock; deleteContent checks the references again before deleting
+        for (ContentReference fsContent : expiredContents) {
+            if (Files.exists(Paths.get(fsContent.getContentIdentifier()))) {
+                DeploymentRepositoryLogger.ROOT_LOGGER.obsoleteContentCleaned(fsContent.getContentIdentifier());
+                if (deleteContent(fsContent)) {
+                    cleanedContents.get(DELETED_CONTENT).add(fsContent.getContentIdentifier());
+                }
+            } else {
+                synchronized (contentHashReferences) {
+                    unreferencedContents.remove(fsContent.getHexHash());
+                    obsoleteContents.remove(fsContent.getHexHash());
                 }
             }
         }
@@ -348,23 +432,20 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
     }
 
     /**
-     * Mark content as obsolete. If content was already marked for obsolescenceTimeout ms then it is removed.
+     * Mark content as obsolete. Invoke with the contentHashReferences monitor held.
      *
      * @param ref the content refrence to be marked as obsolete.
+     * @param now the current time in ms.
      *
-     * @return true if the content refrence is removed, fale otherwise.
+     * @return true if the content was already marked for obsolescenceTimeout ms and should be removed, false otherwise.
      */
-    private boolean markAsObsolete(ContentReference ref) {
-        if (obsoleteContents.containsKey(ref.getHexHash())) { //This content is already marked as obsolete
-            if (obsoleteContents.get(ref.getHexHash()) + obsolescenceTimeout < System.currentTimeMillis()) {
-                DeploymentRepositoryLogger.ROOT_LOGGER.obsoleteContentCleaned(ref.getContentIdentifier());
-                removeContent(ref);
-                return true;
-            }
-        } else {
-            obsoleteContents.put(ref.getHexHash(), System.currentTimeMillis()); //Mark content as obsolete
+    private boolean markAsObsolete(ContentReference ref, long now) {
+        Long marked = obsoleteContents.get(ref.getHexHash());
+        if (marked == null) {
+            obsoleteContents.put(ref.getHexHash(), now); //Mark content as obsolete
+            return false;
         }
-        return false;
+        return marked + obsolescenceTimeout < now;
     }
 
     private Set<ContentReference> listLocalContents() {
@@ -534,7 +615,9 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
             }
             Path src = resolveSecurely(getDeploymentContentFile(deploymentHash), path);
             Path tmp = Files.createTempFile(tmpRoot.toPath(), CONTENT, getFileExtension(src));
-            Files.copy(src, tmp, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            if (!linkContent(src, tmp)) {
+                Files.copy(src, tmp, StandardCopyOption.COPY_ATTRIBUTES, StandardCopyOption.REPLACE_EXISTING);
+            }
             return new TemporaryFileInputStream(tmp);
         } catch (InterruptedException ex) {
             Thread.currentThread().interrupt();
@@ -547,6 +630,27 @@ public class ContentRepositoryImpl implements ContentRepository, Service<Content
         }
     }
 
+    /**
+     * Replace the temporary file with a hard link to the content file, which keeps the content readable once removed
+     * from the repository without copying it. Content files are never modified in place, so sharing them is safe.
+     *
+     * @return {@code true} if the link was created, {@code false} if the content has to be copied
+     */
+    private static boolean linkContent(final Path src, final Path tmp) {
+        if (!Files.isRegularFile(src)) {
+            return false;
+        }
+        try {
+            Files.delete(tmp);
+            Files.createLink(tmp, src);
+            return true;
+        } catch (IOException | UnsupportedOperationException | SecurityException ex) {
+            // Most likely the temporary directory is on another file system
+            DeploymentRepositoryLogger.ROOT_LOGGER.debugf(ex, "Cannot link %s to %s", tmp, src);
+            return false;
+        }
+    }
+
     @Override
     public List<ContentRepositoryElement> listContent(byte[] deploymentHash, String path, ContentFilter filter) throws ExplodedContentException {
         try {
@@ -15,8 +15,8 @@
  */
 package org.jboss.as.repository;
 
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
@@ -27,12 +27,21 @@ import org.jboss.as.repository.logging.DeploymentRepositoryLogger;
  */
 public class TemporaryFileInputStream extends TypedInputStream {
     private static final String DEFAULT_CONTENT_TYPE = "application/octet-stream";
-    private final InputStream delegate;
+    private final FileInputStream delegate;
     private final Path file;
 
     TemporaryFileInputStream(Path file) throws IOException {
         this.file = file;
-        this.delegate = Files.newInputStream(file);
+        this.delegate = new FileInputStream(file.toFile()) {
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    Files.deleteIfExists(file);
+                }
+            }
+        };
     }
 
     @Override
@@ -63,7 +72,6 @@ public class TemporaryFileInputStream extends TypedInputStream {
     @Override
     public void close() throws IOException {
         delegate.close();
-        Files.deleteIfExists(file);
     }
 
     @Override
@@ -85,6 +93,16 @@ public class TemporaryFileInputStream extends TypedInputStream {
         return file;
     }
 
+    /**
+     * Gets the underlying stream, which also deletes the file once closed. Consumers handed this stream rather than
+     * the {@code TemporaryFileInputStream} can transfer the file straight from its {@link FileInputStream#getChannel() channel}.
+     *
+     * @return the underlying stream
+     */
+    public FileInputStream getFileInputStream() {
+        return delegate;
+    }
+
     @Override
     public String getContentType() {
         String contentType;
@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.repository;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ContentChunk} and {@link ContentChunkIndex}.
+ */
+public class ContentChunkTest {
+
+    private final Path root = new File("target", "temp").toPath().resolve("chunks");
+
+    @Before
+    public void createRoot() throws IOException {
+        if (Files.exists(root)) {
+            PathUtil.deleteRecursively(root);
+        }
+        Files.createDirectories(root);
+    }
+
+    @After
+    public void deleteRoot() throws IOException {
+        PathUtil.deleteRecursively(root);
+    }
+
+    @Test
+    public void testSplit() throws IOException {
+        final byte[] data = randomBytes(1, 5 * 1024 * 1024);
+        final Path file = write("file", data);
+        final List<ContentChunk> chunks = ContentChunk.split(file);
+        Assert.assertTrue(chunks.size() > 1);
+        long offset = 0;
+        for (int i = 0; i < chunks.size(); i++) {
+            final ContentChunk chunk = chunks.get(i);
+            Assert.assertEquals(offset, chunk.getOffset());
+            Assert.assertTrue(chunk.getLength() <= ContentChunk.MAX_SIZE);
+            if (i < chunks.size() - 1) {
+                Assert.assertTrue(chunk.getLength() >= ContentChunk.MIN_SIZE);
+            }
+            offset += chunk.getLength();
+        }
+        Assert.assertEquals(data.length, offset);
+        // Splitting is deterministic
+        Assert.assertEquals(chunks.toString(), ContentChunk.split(file).toString());
+    }
+
+    @Test
+    public void testShiftedContentSharesChunks() throws IOException {
+        final byte[] data = randomBytes(2, 5 * 1024 * 1024);
+        final byte[] shifted = new byte[data.length + 1000];
+        System.arraycopy(randomBytes(3, 1000), 0, shifted, 0, 1000);
+        System.arraycopy(data, 0, shifted, 1000, data.length);
+        final Set<String> original = new HashSet<>();
+        for (ContentChunk chunk : ContentChunk.split(write("original", data))) {
+            original.add(chunk.getHexHash());
+        }
+        final List<ContentChunk> chunks = ContentChunk.split(write("shifted", shifted));
+        int shared = 0;
+        for (ContentChunk chunk : chunks) {
+            if (original.contains(chunk.getHexHash())) {
+                shared++;
+            }
+        }
+        // Only the chunks around the inserted bytes differ
+        Assert.assertTrue(shared >= chunks.size() - 2);
+    }
+
+    @Test
+    public void testIndex() throws IOException {
+        final byte[] data = randomBytes(4, 2 * 1024 * 1024);
+        final Path content = root.resolve("ab").resolve("cdef").resolve("content");
+        Files.createDirectories(content.getParent());
+        Files.write(content, data);
+        final List<ContentChunk> chunks = ContentChunk.split(content);
+
+        final ContentChunkIndex index = new ContentChunkIndex(root.toFile());
+        Assert.assertNull(index.read(chunks.get(0)));
+        index.scan();
+        final ContentChunk last = chunks.get(chunks.size() - 1);
+        final byte[] bytes = index.read(last);
+        Assert.assertNotNull(bytes);
+        Assert.assertEquals(last.getLength(), bytes.length);
+        Assert.assertEquals(data[(int) last.getOffset()], bytes[0]);
+
+        // Content changed after being indexed is not used
+        Files.write(content, randomBytes(5, data.length));
+        Assert.assertNull(index.read(last));
+    }
+
+    @Test
+    public void testPersistedManifest() throws IOException {
+        final byte[] data = randomBytes(6, 2 * 1024 * 1024);
+        final Path content = root.resolve("ab").resolve("cdef").resolve("content");
+        Files.createDirectories(content.getParent());
+        Files.write(content, data);
+        final Path manifest = root.resolve("abcdef" + ContentChunkIndex.MANIFEST_SUFFIX);
+
+        final List<ContentChunk> chunks = ContentChunkIndex.getChunks(content);
+        Assert.assertEquals(ContentChunk.split(content).toString(), chunks.toString());
+        Assert.assertTrue(Files.isRegularFile(manifest));
+        // The manifest is read instead of splitting the content again
+        Assert.assertEquals(chunks.toString(), ContentChunkIndex.getChunks(content).toString());
+
+        // A manifest that does not match the size of the content is ignored and replaced
+        Files.write(content, randomBytes(7, data.length / 2));
+        final List<ContentChunk> changed = ContentChunkIndex.getChunks(content);
+        Assert.assertEquals(ContentChunk.split(content).toString(), changed.toString());
+
+        // A corrupt manifest is ignored
+        Files.write(manifest, new byte[] {0, 0, 0, 1, 0});
+        Assert.assertEquals(changed.toString(), ContentChunkIndex.getChunks(content).toString());
+    }
+
+    private Path write(final String name, final byte[] data) throws IOException {
+        final Path file = root.resolve(name);
+        Files.write(file, data);
+        return file;
+    }
+
+    private static byte[] randomBytes(final long seed, final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -411,6 +411,32 @@ public class ContentRepositoryTest {
         assertThat(result.get(ContentRepository.DELETED_CONTENT).contains(emptyParent.getAbsolutePath()), is(true));
     }
 
+    /**
+     * Test that content which could not be deleted is deleted by a later cleaning.
+     */
+    @Test
+    public void testCleanRetriedAfterFailedDeletion() throws Exception {
+        File grandParent = new File(rootDir, "ae");
+        File parent = new File(grandParent, "ffacd15b0f66d5081a93407d3ff5e3c65a71");
+        File content = new File(parent, "content");
+        parent.mkdirs();
+        Files.write(content.toPath(), "obsolete".getBytes(StandardCharsets.UTF_8));
+        Map<String, Set<String>> result = repository.cleanObsoleteContent(); //To mark content for deletion
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(1));
+        Thread.sleep(10);
+        // Locking the content for deletion fails on an interrupted thread
+        Thread.currentThread().interrupt();
+        result = repository.cleanObsoleteContent();
+        assertFalse(Thread.interrupted());
+        assertThat(content.exists(), is(true));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(0));
+        result = repository.cleanObsoleteContent();
+        assertThat(content.exists(), is(false));
+        assertThat(parent.exists(), is(false));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(1));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).contains(parent.getAbsolutePath()), is(true));
+    }
+
     /**
      * Test that an empty dir will be removed during cleaning.
      */
@@ -521,6 +547,38 @@ public class ContentRepositoryTest {
 
     }
 
+    /**
+     * Test that contents added after the repository was first cleaned are cleaned without listing the repository again,
+     * unless they are referenced.
+     */
+    @Test
+    public void testCleanContentAddedAfterFirstClean() throws Exception {
+        Map<String, Set<String>> result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(0));
+        byte[] unreferenced;
+        try (InputStream stream = getResourceAsStream("overlay.xhtml")) {
+            unreferenced = repository.addContent(stream);
+        }
+        byte[] referenced;
+        try (InputStream stream = new ByteArrayInputStream("referenced".getBytes(StandardCharsets.UTF_8))) {
+            referenced = repository.addContent(stream);
+        }
+        repository.addContentReference(new ContentReference("referenced", referenced));
+        Path unreferencedDir = rootDir.toPath().resolve(HashUtil.bytesToHexString(unreferenced).substring(0, 2))
+                .resolve(HashUtil.bytesToHexString(unreferenced).substring(2));
+        result = repository.cleanObsoleteContent(); //Mark content for deletion
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(1));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(0));
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).contains(unreferencedDir.toFile().getAbsolutePath()), is(true));
+        Thread.sleep(10);
+        result = repository.cleanObsoleteContent();
+        assertThat(result.get(ContentRepository.MARKED_CONTENT).size(), is(0));
+        assertThat(result.get(ContentRepository.DELETED_CONTENT).size(), is(1));
+        assertThat(repository.hasContent(unreferenced), is(false));
+        assertThat(repository.hasContent(referenced), is(true));
+    }
+
     private InputStream getResourceAsStream(final String name) throws IOException {
         final InputStream result = getClass().getClassLoader().getResourceAsStream(name);
         // If we're on Windows we want to replace the stream with one that ignores \r
@@ -54,6 +54,9 @@ import org.xnio.IoUtils;
  */
 class DomainApiUploadHandler implements HttpHandler {
 
+    /** Content type of uploads whose request body is the deployment content, rather than a multipart form */
+    static final String APPLICATION_OCTET_STREAM = "application/octet-stream";
+
     private final ModelController modelController;
     private final FormParserFactory formParserFactory;
 
@@ -64,47 +67,65 @@ class DomainApiUploadHandler implements HttpHandler {
 
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (isStreamUpload(exchange)) {
+            // The request body is the content itself, so stream it straight into the content repository
+            // instead of parsing it into a temporary file first
+            upload(exchange, exchange.getInputStream());
+            return;
+        }
         final FormDataParser parser = formParserFactory.createParser(exchange);
         FormData data = parser.parseBlocking();
         for (String fieldName : data) {
             //Get all the files
             FormValue value = data.getFirst(fieldName);
             if (value.isFile()) {
-                ModelNode response = null;
-                InputStream in = new BufferedInputStream(new FileInputStream(value.getPath().toFile()));
-                try {
-                    final ModelNode dmr = new ModelNode();
-                    dmr.get("operation").set("upload-deployment-stream");
-                    dmr.get("address").setEmptyList();
-                    dmr.get("input-stream-index").set(0);
-                    ModelNode headers = dmr.get(OPERATION_HEADERS);
-                    headers.get(ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
-                    headers.get(CALLER_TYPE).set(USER);
-
-                    OperationBuilder operation = new OperationBuilder(dmr);
-                    operation.addInputStream(in);
-                    response = modelController.execute(dmr, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, operation.build());
-                    if (!response.get(OUTCOME).asString().equals(SUCCESS)){
-                        Common.sendError(exchange, false, response);
-                        return;
-                    }
-                } catch (Throwable t) {
-                    // TODO Consider draining input stream
-                    ROOT_LOGGER.uploadError(t);
-                    Common.sendError(exchange, false, t.getLocalizedMessage());
-                    return;
-                } finally {
-                    IoUtils.safeClose(in);
-                }
-
-                // TODO Determine what format the response should be in for a deployment upload request.
-                writeResponse(exchange, response, Common.TEXT_HTML);
+                upload(exchange, new BufferedInputStream(new FileInputStream(value.getPath().toFile())));
                 return; //Ignore later files
             }
         }
         Common.sendError(exchange, false, "No file found"); //TODO i18n
     }
 
+    private static boolean isStreamUpload(final HttpServerExchange exchange) {
+        final String contentType = exchange.getRequestHeaders().getFirst(Headers.CONTENT_TYPE);
+        if (contentType == null) {
+            return false;
+        }
+        final int pos = contentType.indexOf(';');
+        return APPLICATION_OCTET_STREAM.equalsIgnoreCase(pos < 0 ? contentType.trim() : contentType.substring(0, pos).trim());
+    }
+
+    private void upload(final HttpServerExchange exchange, final InputStream in) {
+        ModelNode response = null;
+        try {
+            final ModelNode dmr = new ModelNode();
+            dmr.get("operation").set("upload-deployment-stream");
+            dmr.get("address").setEmptyList();
+            dmr.get("input-stream-index").set(0);
+            ModelNode headers = dmr.get(OPERATION_HEADERS);
+            headers.get(ACCESS_MECHANISM).set(AccessMechanism.HTTP.toString());
+            headers.get(CALLER_TYPE).set(USER);
+
+            OperationBuilder operation = new OperationBuilder(dmr);
+            operation.addInputStream(in);
+            response = modelController.execute(dmr, OperationMessageHandler.logging, ModelController.OperationTransactionControl.COMMIT, operation.build());
+            if (!response.get(OUTCOME).asString().equals(SUCCESS)){
+                Common.sendError(exchange, false, response);
+                return;
+            }
+        } catch (Throwable t) {
+            // TODO Consider draining input stream
+            ROOT_LOGGER.uploadError(t);
+            Common.sendError(exchange, false, t.getLocalizedMessage());
+            return;
+        } finally {
+            IoUtils.safeClose(in);
+        }
+
+        // TODO Determine what format the response should be in for a deployment upload request.
+        writeResponse(exchange, response, Common.TEXT_HTML);
+    }
+
     static void writeResponse(HttpServerExchange exchange, ModelNode response, String contentType) {
         exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, contentType  + "; charset=" + Common.UTF_8);
         exchange.setStatusCode(200);
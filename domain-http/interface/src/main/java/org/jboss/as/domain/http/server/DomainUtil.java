@@ -26,9 +26,12 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RES
 
 import java.io.BufferedOutputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.StandardCharsets;
 
 import io.undertow.io.IoCallback;
@@ -40,6 +43,8 @@ import io.undertow.util.Headers;
 import org.jboss.as.controller.client.OperationResponse;
 import org.jboss.dmr.ModelNode;
 import org.xnio.IoUtils;
+import org.xnio.channels.Channels;
+import org.xnio.channels.StreamSinkChannel;
 
 /**
  * Utility methods used for HTTP based domain management.
@@ -89,13 +94,67 @@ public class DomainUtil {
         writeCacheHeaders(exchange, status, operationParameter);
 
         final Sender sender = exchange.getResponseSender();
+        final InputStream stream = entry.getStream();
+        if (stream instanceof FileInputStream) {
+            // Let the file be transferred straight from its channel rather than copied through a buffer
+            final FileChannel channel = ((FileInputStream) stream).getChannel();
+            try {
+                final long start = channel.position();
+                final long size = channel.size() - start;
+                if (status == 200 && operationParameter.isGet()) {
+                    responseHeaders.put(Headers.ACCEPT_RANGES, "bytes");
+                    final long[] range = parseRange(exchange.getRequestHeaders().getFirst(Headers.RANGE), size);
+                    if (range == null) {
+                        responseHeaders.put(Headers.CONTENT_RANGE, "bytes */" + size);
+                        responseHeaders.remove(Headers.CONTENT_TYPE);
+                        exchange.setStatusCode(416);
+                        IoUtils.safeClose(operationResponse);
+                        exchange.endExchange();
+                        return;
+                    }
+                    if (range.length > 0) {
+                        // Ranges are never content encoded, see AllowedContentEncodings
+                        exchange.setStatusCode(206);
+                        responseHeaders.put(Headers.CONTENT_RANGE, "bytes " + range[0] + "-" + range[1] + "/" + size);
+                        responseHeaders.put(Headers.CONTENT_LENGTH, range[1] - range[0] + 1);
+                        if (range[1] < size - 1) {
+                            transferRange(exchange, channel, start + range[0], range[1] - range[0] + 1, operationResponse);
+                            return;
+                        }
+                        channel.position(start + range[0]);
+                    } else {
+                        responseHeaders.put(Headers.CONTENT_LENGTH, size);
+                    }
+                } else {
+                    responseHeaders.put(Headers.CONTENT_LENGTH, size);
+                }
+            } catch (IOException e) {
+                // Send the file without a content length
+            }
+            sender.transferFrom(channel, new IoCallback() {
+                @Override
+                public void onComplete(HttpServerExchange exchange, Sender sender) {
+                    IoUtils.safeClose(operationResponse);
+                    IoCallback.END_EXCHANGE.onComplete(exchange, sender);
+                }
+
+                @Override
+                public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+                    IoUtils.safeClose(operationResponse);
+                    if (!exchange.isResponseStarted()) {
+                        exchange.setStatusCode(500);
+                    }
+                    exchange.endExchange();
+                }
+            });
+            return;
+        }
         class ServeTask implements IoCallback, Runnable {
             private final byte[] buffer = new byte[1024];//TODO: we should be pooling these
 
             public void run() {
                 try {
-                    final InputStream inputStream = entry.getStream();
-                    int res = inputStream.read(buffer);
+                    int res = stream.read(buffer);
                     if (res == -1) {
                         //we are done, just return
                         IoUtils.safeClose(operationResponse);
@@ -132,6 +191,103 @@ public class DomainUtil {
         }
     }
 
+    /**
+     * Parses a single byte range of the {@code Range} header.
+     *
+     * @return the first and last byte of the range, an empty array if the whole content should be sent or {@code null}
+     * if the range cannot be satisfied
+     */
+    static long[] parseRange(final String header, final long size) {
+        if (header == null || !header.startsWith("bytes=") || header.indexOf(',') >= 0) {
+            // Multiple ranges are not supported, they may be ignored
+            return new long[0];
+        }
+        final String spec = header.substring(6).trim();
+        final int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            final long first;
+            final long last;
+            if (dash == 0) {
+                // A suffix range, the last bytes of the content
+                final long length = Long.parseLong(spec.substring(1).trim());
+                if (length <= 0 || size == 0) {
+                    return null;
+                }
+                first = Math.max(0, size - length);
+                last = size - 1;
+            } else {
+                first = Long.parseLong(spec.substring(0, dash).trim());
+                final String end = spec.substring(dash + 1).trim();
+                final long requestedLast = (end.isEmpty() ? Long.MAX_VALUE : Long.parseLong(end));
+                if (requestedLast < first) {
+                    // An invalid range is ignored
+                    return new long[0];
+                }
+                last = Math.min(requestedLast, size - 1);
+            }
+            if (first >= size) {
+                return null;
+            }
+            return new long[] {first, last};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+
+    /**
+     * Sends part of a file, which {@link Sender#transferFrom(FileChannel, IoCallback)} cannot as it sends everything
+     * from the position of the channel.
+     */
+    private static void transferRange(final HttpServerExchange exchange, final FileChannel file, final long start,
+                                      final long length, final OperationResponse operationResponse) {
+        if (!exchange.isBlocking()) {
+            exchange.startBlocking();
+        }
+        final Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                final StreamSinkChannel response = exchange.getResponseChannel();
+                try {
+                    long position = start;
+                    long remaining = length;
+                    while (remaining > 0) {
+                        final long res = response.transferFrom(file, position, remaining);
+                        if (res > 0) {
+                            position += res;
+                            remaining -= res;
+                        } else if (position >= file.size()) {
+                            // The file was truncated, the promised content length cannot be sent
+                            throw new EOFException();
+                        } else {
+                            response.awaitWritable();
+                        }
+                    }
+                    response.shutdownWrites();
+                    Channels.flushBlocking(response);
+                } catch (IOException e) {
+                    if (exchange.isResponseStarted()) {
+                        // Part of the range was sent, closing lets the client see it is incomplete
+                        IoUtils.safeClose(response);
+                    } else {
+                        exchange.getResponseHeaders().remove(Headers.CONTENT_RANGE);
+                        exchange.setStatusCode(500);
+                    }
+                } finally {
+                    IoUtils.safeClose(operationResponse);
+                    exchange.endExchange();
+                }
+            }
+        };
+        if (exchange.isInIoThread()) {
+            exchange.dispatch(task);
+        } else {
+            task.run();
+        }
+    }
+
     private static String determineMimeType(OperationResponse.StreamEntry entry, HttpServerExchange exchange) {
         // We see if the type provided by the response "matches" the ACCEPT header; if yes, use it
         // If not, use application/octet-stream to trigger the browser to treat it as a download
@@ -0,0 +1,84 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.http.server;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNull;
+
+import org.junit.Test;
+
+/**
+ * Tests of the {@code Range} header parsing of {@link DomainUtil}.
+ */
+public class DomainUtilTestCase {
+
+    private static final long[] WHOLE = new long[0];
+
+    @Test
+    public void testRange() {
+        assertArrayEquals(new long[] {0, 99}, DomainUtil.parseRange("bytes=0-99", 1000));
+        assertArrayEquals(new long[] {100, 100}, DomainUtil.parseRange("bytes=100-100", 1000));
+        assertArrayEquals(new long[] {10, 19}, DomainUtil.parseRange("bytes= 10 - 19 ", 1000));
+        // The end is capped to the content
+        assertArrayEquals(new long[] {500, 999}, DomainUtil.parseRange("bytes=500-5000", 1000));
+    }
+
+    @Test
+    public void testOpenRange() {
+        assertArrayEquals(new long[] {500, 999}, DomainUtil.parseRange("bytes=500-", 1000));
+        assertArrayEquals(new long[] {0, 999}, DomainUtil.parseRange("bytes=0-", 1000));
+    }
+
+    @Test
+    public void testSuffixRange() {
+        assertArrayEquals(new long[] {900, 999}, DomainUtil.parseRange("bytes=-100", 1000));
+        assertArrayEquals(new long[] {0, 999}, DomainUtil.parseRange("bytes=-5000", 1000));
+    }
+
+    @Test
+    public void testUnsatisfiableRange() {
+        assertNull(DomainUtil.parseRange("bytes=1000-", 1000));
+        assertNull(DomainUtil.parseRange("bytes=2000-3000", 1000));
+        assertNull(DomainUtil.parseRange("bytes=-0", 1000));
+        assertNull(DomainUtil.parseRange("bytes=0-", 0));
+        assertNull(DomainUtil.parseRange("bytes=-10", 0));
+    }
+
+    @Test
+    public void testMultipleRangesIgnored() {
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=0-9,20-29", 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=2000-,0-9", 1000));
+    }
+
+    @Test
+    public void testMalformedRangeIgnored() {
+        assertArrayEquals(WHOLE, DomainUtil.parseRange(null, 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("items=0-9", 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=10", 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=a-9", 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=0-b", 1000));
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=-", 1000));
+        // The last byte before the first one
+        assertArrayEquals(WHOLE, DomainUtil.parseRange("bytes=9-3", 1000));
+    }
+}
@@ -24,15 +24,22 @@ package org.jboss.as.domain.management.audit;
 
 import org.jboss.as.controller.AbstractAddStepHandler;
 import org.jboss.as.controller.AbstractRemoveStepHandler;
+import org.jboss.as.controller.AbstractRuntimeOnlyHandler;
+import org.jboss.as.controller.AttributeDefinition;
 import org.jboss.as.controller.ModelVersion;
 import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
 import org.jboss.as.controller.audit.ManagedAuditLogger;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.services.path.PathManagerService;
 import org.jboss.as.domain.management._private.DomainManagementResolver;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
 
 /**
  * {@link org.jboss.as.controller.ResourceDefinition} for the management audit logging resource.
@@ -45,6 +52,26 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
 
     static final String DEPRECATED_MESSAGE_CATEGORY = "core.management.audit-log";
 
+    public static final SimpleAttributeDefinition ASYNC_QUEUE_DEPTH = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.ASYNC_QUEUE_DEPTH, ModelType.INT)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .setRuntimeServiceNotRequired()
+        .build();
+
+    public static final SimpleAttributeDefinition ASYNC_DROPPED_COUNT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.ASYNC_DROPPED_COUNT, ModelType.LONG)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .setRuntimeServiceNotRequired()
+        .build();
+
+    public static final SimpleAttributeDefinition ASYNC_SPILLED_COUNT = new SimpleAttributeDefinitionBuilder(ModelDescriptionConstants.ASYNC_SPILLED_COUNT, ModelType.LONG)
+        .setAllowNull(false)
+        .setStorageRuntime()
+        .setRuntimeServiceNotRequired()
+        .build();
+
+    private static final AttributeDefinition[] METRICS = new AttributeDefinition[] {ASYNC_QUEUE_DEPTH, ASYNC_DROPPED_COUNT, ASYNC_SPILLED_COUNT};
+
     private final ManagedAuditLogger auditLogger;
     private final PathManagerService pathManager;
     private final EnvironmentNameReader environmentReader;
@@ -69,6 +96,14 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
         setDeprecated(ModelVersion.create(1, 7));
     }
 
+    @Override
+    public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
+        AsyncMetricHandler handler = new AsyncMetricHandler(auditLogger);
+        for (AttributeDefinition def : METRICS) {
+            resourceRegistration.registerMetric(def, handler);
+        }
+    }
+
     @Override
     public void registerChildren(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerSubModel(new JsonAuditLogFormatterResourceDefinition(auditLogger));
@@ -83,5 +118,23 @@ public class AccessAuditResourceDefinition extends SimpleResourceDefinition {
         }
     }
 
+    private static class AsyncMetricHandler extends AbstractRuntimeOnlyHandler {
+        private final ManagedAuditLogger auditLogger;
+
+        AsyncMetricHandler(ManagedAuditLogger auditLogger) {
+            this.auditLogger = auditLogger;
+        }
 
+        @Override
+        protected void executeRuntimeStep(OperationContext context, ModelNode operation) throws OperationFailedException {
+            String attr = operation.require(ModelDescriptionConstants.NAME).asString();
+            if (attr.equals(ASYNC_QUEUE_DEPTH.getName())) {
+                context.getResult().set(auditLogger.getAsyncQueueDepth());
+            } else if (attr.equals(ASYNC_DROPPED_COUNT.getName())) {
+                context.getResult().set(auditLogger.getAsyncDroppedCount());
+            } else if (attr.equals(ASYNC_SPILLED_COUNT.getName())) {
+                context.getResult().set(auditLogger.getAsyncSpilledCount());
+            }
+        }
+    }
 }
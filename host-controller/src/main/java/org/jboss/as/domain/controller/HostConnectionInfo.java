@@ -34,6 +34,10 @@ public interface HostConnectionInfo {
     String ADDRESS = "address";
     String CONNECTED = "connected";
     String EVENTS = "events";
+    String HEARTBEAT_INTERVAL_MEAN = "heartbeat-interval-mean";
+    String HEARTBEAT_INTERVAL_STD_DEVIATION = "heartbeat-interval-std-deviation";
+    String PING_INTERVAL = "ping-interval";
+    String SUSPICION_LEVEL = "suspicion-level";
     String TIMESTAMP = "timestamp";
     String TYPE = "type";
 
@@ -58,6 +62,34 @@ public interface HostConnectionInfo {
      */
     List<Event> getEvents();
 
+    /**
+     * Get the current suspicion level (phi) that the connected host has failed.
+     *
+     * @return the suspicion level, or {@code -1} if the host is not connected or not pinged periodically
+     */
+    double getSuspicionLevel();
+
+    /**
+     * Get the mean interval between messages received from the host.
+     *
+     * @return the mean interval in milliseconds, or {@code -1} if the host is not connected or not pinged periodically
+     */
+    long getMeanHeartbeatInterval();
+
+    /**
+     * Get the standard deviation of the interval between messages received from the host.
+     *
+     * @return the standard deviation in milliseconds, or {@code -1} if the host is not connected or not pinged periodically
+     */
+    long getHeartbeatIntervalStdDeviation();
+
+    /**
+     * Get the interval currently used to ping the host.
+     *
+     * @return the ping interval in milliseconds, or {@code -1} if the host is not connected or not pinged periodically
+     */
+    long getPingInterval();
+
     public interface Event {
 
         /**
@@ -807,4 +807,17 @@ public interface DomainControllerLogger extends BasicLogger {
 
     @Message(id = 96, value = "Cannot read content from an unexploded deployment")
     OperationFailedException cannotReadContentFromUnexplodedDeployment();
+
+    /**
+     * A message indicating an invalid rollout plan. The server group, represented by the {@code name} parameter, has an
+     * invalid value and must be greater than 0.
+     *
+     * @param name         the name of the group.
+     * @param propertyName the name of the property.
+     * @param value        the invalid value.
+     *
+     * @return the message.
+     */
+    @Message(id = 97, value = "Invalid rollout plan. Server group %s has a %s value of %s; must be greater than 0.")
+    String invalidRolloutPlanNotPositive(String name, String propertyName, int value);
 }
@@ -38,11 +38,22 @@ class ReadDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry;
     private final boolean lock;
+    private final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel;
 
     public ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers, final boolean lock) {
+        this(ignoredTransformationRegistry, transformers, lock, null);
+    }
+
+    /**
+     * Create a handler which, if {@code streamedModel} is not {@code null}, only captures the transformed model
+     * in {@code streamedModel} instead of describing it as the operation result.
+     */
+    ReadDomainModelHandler(final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry, final Transformers transformers,
+                           final boolean lock, final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel) {
         this.transformers = transformers;
         this.ignoredTransformationRegistry = ignoredTransformationRegistry != null ? ignoredTransformationRegistry : Transformers.DEFAULT;
         this.lock = lock;
+        this.streamedModel = streamedModel;
     }
 
     public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -53,6 +64,13 @@ class ReadDomainModelHandler implements OperationStepHandler {
         }
 
         final Transformers.TransformationInputs transformationInputs = new Transformers.TransformationInputs(context);
+        if (streamedModel != null) {
+            // The slave reads the model resource by resource, so don't describe it all up front
+            streamedModel.setTransformedRoot(transformers.transformRootResource(transformationInputs,
+                    transformationInputs.getRootResource(), ignoredTransformationRegistry));
+            context.getResult().setEmptyList();
+            return;
+        }
         final ReadMasterDomainModelUtil readUtil = ReadMasterDomainModelUtil.readMasterDomainResourcesForInitialConnect(transformers,
                 transformationInputs, ignoredTransformationRegistry, transformationInputs.getRootResource());
         context.getResult().set(readUtil.getDescribedResources());
@@ -49,12 +49,29 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
     private final Transformers transformers;
     private final ExtensionRegistry extensionRegistry;
     private final boolean lock;
+    private final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel;
 
     public ReadMasterDomainModelHandler(final HostInfo hostInfo, final Transformers transformers, final ExtensionRegistry extensionRegistry, boolean lock) {
+        this(hostInfo, transformers, extensionRegistry, lock, null);
+    }
+
+    /**
+     * Create a handler for a slave host which receives the domain model as a stream of resource descriptions.
+     * The transformed model is captured in {@code streamedModel} and the operation result is left empty.
+     *
+     * @param hostInfo the slave host info
+     * @param transformers the transformers for the slave host
+     * @param extensionRegistry the extension registry
+     * @param lock whether the controller lock should be acquired
+     * @param streamedModel holder for the transformed model, or {@code null} to describe the model as the operation result
+     */
+    public ReadMasterDomainModelHandler(final HostInfo hostInfo, final Transformers transformers, final ExtensionRegistry extensionRegistry, boolean lock,
+                                        final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel) {
         this.hostInfo = hostInfo;
         this.transformers = transformers;
         this.extensionRegistry = extensionRegistry;
         this.lock = lock;
+        this.streamedModel = streamedModel;
     }
 
     @Override
@@ -74,7 +91,7 @@ public class ReadMasterDomainModelHandler implements OperationStepHandler {
             ignoredTransformationRegistry = ReadMasterDomainModelUtil.createHostIgnoredRegistry(hostInfo, rc);
         }
 
-        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, lock);
+        final OperationStepHandler handler = new ReadDomainModelHandler(ignoredTransformationRegistry, transformers, lock, streamedModel);
         context.addStep(handler, OperationContext.Stage.MODEL);
     }
 
@@ -30,6 +30,9 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SER
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -45,6 +48,8 @@ import org.jboss.as.controller.logging.ControllerLogger;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
 import org.jboss.as.host.controller.mgmt.HostInfo;
 import org.jboss.dmr.ModelNode;
 
@@ -121,14 +126,30 @@ public class ReadMasterDomainModelUtil {
     }
 
     private void describe(final PathAddress base, final Resource resource, List<ModelNode> nodes, boolean isRuntimeChange) {
-        if (resource.isProxy() || resource.isRuntime()) {
-            return; // ignore runtime and proxies
-        } else if (base.size() >= 1 && base.getElement(0).getKey().equals(ModelDescriptionConstants.HOST)) {
-            return; // ignore hosts
+        if (!isDescribed(base, resource)) {
+            return;
         }
         if (base.size() == 1) {
             newRootResources.add(base.getLastElement());
         }
+        nodes.add(createDescription(base, resource));
+        for (final String childType : resource.getChildTypes()) {
+            for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
+                describe(base.append(entry.getPathElement()), entry, nodes, isRuntimeChange);
+            }
+        }
+    }
+
+    private static boolean isDescribed(final PathAddress base, final Resource resource) {
+        if (resource.isProxy() || resource.isRuntime()) {
+            return false; // ignore runtime and proxies
+        } else if (base.size() >= 1 && base.getElement(0).getKey().equals(ModelDescriptionConstants.HOST)) {
+            return false; // ignore hosts
+        }
+        return true;
+    }
+
+    private static ModelNode createDescription(final PathAddress base, final Resource resource) {
         final ModelNode description = new ModelNode();
         description.get(DOMAIN_RESOURCE_ADDRESS).set(base.toModelNode());
         description.get(DOMAIN_RESOURCE_MODEL).set(resource.getModel());
@@ -139,14 +160,92 @@ public class ReadMasterDomainModelUtil {
                 orderedChildTypes.add(type);
             }
         }
-        nodes.add(description);
+        return description;
+    }
+
+    /**
+     * Write the description of a transformed domain model to a slave host one resource at a time, so that neither
+     * side needs to hold the complete list of described resources in memory. Each resource is written as a
+     * {@link DomainControllerProtocol#PARAM_DOMAIN_RESOURCE} followed by its description, and the stream is
+     * terminated by {@link DomainControllerProtocol#PARAM_DOMAIN_MODEL_END}.
+     *
+     * @param transformedRoot the transformed root resource
+     * @param output the output to write to
+     * @throws IOException for any error
+     */
+    static void writeDescribedResources(final Resource transformedRoot, final DataOutput output) throws IOException {
+        writeDescribedResources(PathAddress.EMPTY_ADDRESS, transformedRoot, output);
+        output.writeByte(DomainControllerProtocol.PARAM_DOMAIN_MODEL_END);
+    }
+
+    private static void writeDescribedResources(final PathAddress base, final Resource resource, final DataOutput output) throws IOException {
+        if (!isDescribed(base, resource)) {
+            return;
+        }
+        output.writeByte(DomainControllerProtocol.PARAM_DOMAIN_RESOURCE);
+        createDescription(base, resource).writeExternal(output);
         for (final String childType : resource.getChildTypes()) {
             for (final Resource.ResourceEntry entry : resource.getChildren(childType)) {
-                describe(base.append(entry.getPathElement()), entry, nodes, isRuntimeChange);
+                writeDescribedResources(base.append(entry.getPathElement()), entry, output);
             }
         }
     }
 
+    /**
+     * Holds the transformed domain model for a slave host which receives the model as a stream of resource
+     * descriptions rather than as the result of the read-master-domain-model operation.
+     */
+    public static final class StreamedDomainModel {
+
+        private volatile Resource transformedRoot;
+
+        void setTransformedRoot(final Resource transformedRoot) {
+            this.transformedRoot = transformedRoot;
+        }
+
+        /**
+         * Whether the transformed domain model was captured by the read-master-domain-model operation.
+         *
+         * @return {@code true} if the model is available
+         */
+        public boolean isAvailable() {
+            return transformedRoot != null;
+        }
+
+        /**
+         * Write the domain model to the slave host.
+         *
+         * @param output the output to write to
+         * @throws IOException for any error
+         */
+        public void writeTo(final DataOutput output) throws IOException {
+            writeDescribedResources(transformedRoot, output);
+        }
+    }
+
+    /**
+     * Read a domain model written by {@link #writeDescribedResources(Resource, DataOutput)}, creating the
+     * resource tree incrementally as each resource description arrives.
+     *
+     * @param input the input to read from
+     * @param extensions set to track extensions
+     * @return the resource
+     * @throws IOException for any error
+     */
+    public static Resource readDescribedResources(final DataInput input, final Set<String> extensions) throws IOException {
+        final Resource root = Resource.Factory.create();
+        byte param = input.readByte();
+        while (param == DomainControllerProtocol.PARAM_DOMAIN_RESOURCE) {
+            final ModelNode description = new ModelNode();
+            description.readExternal(input);
+            addDescribedResource(root, description, extensions);
+            param = input.readByte();
+        }
+        if (param != DomainControllerProtocol.PARAM_DOMAIN_MODEL_END) {
+            throw HostControllerLogger.ROOT_LOGGER.invalidDomainModelStream(param);
+        }
+        return root;
+    }
 
     /**
      * Create a resource based on the result of the {@code ReadMasterDomainModelHandler}.
@@ -158,59 +257,62 @@ public class ReadMasterDomainModelUtil {
     static Resource createResourceFromDomainModelOp(final ModelNode result, final Set<String> extensions) {
         final Resource root = Resource.Factory.create();
         for (ModelNode model : result.asList()) {
+            addDescribedResource(root, model, extensions);
+        }
+        return root;
+    }
 
-            final PathAddress resourceAddress = PathAddress.pathAddress(model.require(DOMAIN_RESOURCE_ADDRESS));
+    private static void addDescribedResource(final Resource root, final ModelNode model, final Set<String> extensions) {
+        final PathAddress resourceAddress = PathAddress.pathAddress(model.require(DOMAIN_RESOURCE_ADDRESS));
 
-            if (resourceAddress.size() == 1) {
-                final PathElement element = resourceAddress.getElement(0);
-                if (element.getKey().equals(EXTENSION)) {
-                    if (!extensions.contains(element.getValue())) {
-                        extensions.add(element.getValue());
-                    }
+        if (resourceAddress.size() == 1) {
+            final PathElement element = resourceAddress.getElement(0);
+            if (element.getKey().equals(EXTENSION)) {
+                if (!extensions.contains(element.getValue())) {
+                    extensions.add(element.getValue());
                 }
             }
+        }
 
-            Resource resource = root;
-            final Iterator<PathElement> i = resourceAddress.iterator();
-            if (!i.hasNext()) { //Those are root attributes
-                resource.getModel().set(model.require(DOMAIN_RESOURCE_MODEL));
-            }
-            while (i.hasNext()) {
-                final PathElement e = i.next();
-
-                if (resource.hasChild(e)) {
-                    resource = resource.getChild(e);
-                } else {
-                    /*
-                    {
-                        "domain-resource-address" => [
-                            ("profile" => "test"),
-                            ("subsystem" => "test")
-                        ],
-                        "domain-resource-model" => {},
-                        "domain-resource-properties" => {"ordered-child-types" => ["ordered-child"]}
-                    }*/
-                    final Resource nr;
-                    if (model.hasDefined(DOMAIN_RESOURCE_PROPERTIES, ORDERED_CHILD_TYPES_PROPERTY)) {
-                        List<ModelNode> list = model.get(DOMAIN_RESOURCE_PROPERTIES, ORDERED_CHILD_TYPES_PROPERTY).asList();
-                        Set<String> orderedChildTypes = new HashSet<String>(list.size());
-                        for (ModelNode type : list) {
-                            orderedChildTypes.add(type.asString());
-                        }
-                        nr = Resource.Factory.create(false, orderedChildTypes);
-                    } else {
-                        nr = Resource.Factory.create();
+        Resource resource = root;
+        final Iterator<PathElement> i = resourceAddress.iterator();
+        if (!i.hasNext()) { //Those are root attributes
+            resource.getModel().set(model.require(DOMAIN_RESOURCE_MODEL));
+        }
+        while (i.hasNext()) {
+            final PathElement e = i.next();
+
+            if (resource.hasChild(e)) {
+                resource = resource.getChild(e);
+            } else {
+                /*
+                {
+                    "domain-resource-address" => [
+                        ("profile" => "test"),
+                        ("subsystem" => "test")
+                    ],
+                    "domain-resource-model" => {},
+                    "domain-resource-properties" => {"ordered-child-types" => ["ordered-child"]}
+                }*/
+                final Resource nr;
+                if (model.hasDefined(DOMAIN_RESOURCE_PROPERTIES, ORDERED_CHILD_TYPES_PROPERTY)) {
+                    List<ModelNode> list = model.get(DOMAIN_RESOURCE_PROPERTIES, ORDERED_CHILD_TYPES_PROPERTY).asList();
+                    Set<String> orderedChildTypes = new HashSet<String>(list.size());
+                    for (ModelNode type : list) {
+                        orderedChildTypes.add(type.asString());
                     }
-                    resource.registerChild(e, nr);
-                    resource = nr;
+                    nr = Resource.Factory.create(false, orderedChildTypes);
+                } else {
+                    nr = Resource.Factory.create();
                 }
+                resource.registerChild(e, nr);
+                resource = nr;
+            }
 
-                if (!i.hasNext()) {
-                    resource.getModel().set(model.require(DOMAIN_RESOURCE_MODEL));
-                }
+            if (!i.hasNext()) {
+                resource.getModel().set(model.require(DOMAIN_RESOURCE_MODEL));
             }
         }
-        return root;
     }
 
     /**
@@ -50,7 +50,22 @@ public class SyncDomainModelOperationHandler extends SyncModelHandlerBase {
 
     public SyncDomainModelOperationHandler(HostInfo hostInfo,
                                            SyncModelParameters parameters) {
-        super(parameters);
+        this(hostInfo, parameters, null, null);
+    }
+
+    /**
+     * Create a handler syncing with a remote model which was already created from a streamed domain model.
+     *
+     * @param hostInfo the local host info
+     * @param parameters the sync parameters
+     * @param remoteModel the remote model, or {@code null} to create it from the {@code domain-model} operation parameter
+     * @param remoteExtensions the extensions used by {@code remoteModel}
+     */
+    public SyncDomainModelOperationHandler(HostInfo hostInfo,
+                                           SyncModelParameters parameters,
+                                           Resource remoteModel,
+                                           Set<String> remoteExtensions) {
+        super(parameters, remoteModel, remoteExtensions);
         this.hostInfo = hostInfo;
         this.extensionRegistry = parameters.getExtensionRegistry();
     }
@@ -78,6 +93,10 @@ public class SyncDomainModelOperationHandler extends SyncModelHandlerBase {
             @Override
             public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
                 getParameters().getIgnoredResourceRegistry().getIgnoredClonedProfileRegistry().complete(resultAction == OperationContext.ResultAction.ROLLBACK);
+                if (resultAction == OperationContext.ResultAction.KEEP) {
+                    // The synced model may use different server groups, profiles and socket binding groups
+                    getParameters().getIgnoredResourceRegistry().domainModelChanged();
+                }
             }
         });
     }
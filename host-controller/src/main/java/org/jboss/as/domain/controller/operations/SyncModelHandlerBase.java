@@ -57,9 +57,23 @@ abstract class SyncModelHandlerBase implements OperationStepHandler {
     }
 
     private final SyncModelParameters parameters;
+    private final Resource remoteModel;
+    private final Set<String> remoteModelExtensions;
 
     protected SyncModelHandlerBase(SyncModelParameters parameters) {
+        this(parameters, null, null);
+    }
+
+    /**
+     * @param parameters the sync parameters
+     * @param remoteModel the remote model if it was already created from a streamed domain model, or {@code null}
+     *                    to create it from the {@code domain-model} operation parameter
+     * @param remoteModelExtensions the extensions used by {@code remoteModel}
+     */
+    protected SyncModelHandlerBase(SyncModelParameters parameters, Resource remoteModel, Set<String> remoteModelExtensions) {
         this.parameters = parameters;
+        this.remoteModel = remoteModel;
+        this.remoteModelExtensions = remoteModelExtensions;
     }
 
     abstract Transformers.ResourceIgnoredTransformationRegistry createRegistry(OperationContext context, Resource remoteModel, Set<String> remoteExtensions);
@@ -69,7 +83,13 @@ abstract class SyncModelHandlerBase implements OperationStepHandler {
 
         // Create the remote model based on the result of the read-master-model operation
         final Set<String> remoteExtensions = new HashSet<>();
-        final Resource remote = ReadMasterDomainModelUtil.createResourceFromDomainModelOp(operation.require(DOMAIN_MODEL), remoteExtensions);
+        final Resource remote;
+        if (remoteModel != null) {
+            remote = remoteModel;
+            remoteExtensions.addAll(remoteModelExtensions);
+        } else {
+            remote = ReadMasterDomainModelUtil.createResourceFromDomainModelOp(operation.require(DOMAIN_MODEL), remoteExtensions);
+        }
         final Transformers.ResourceIgnoredTransformationRegistry ignoredTransformationRegistry = createRegistry(context, remote, remoteExtensions);
 
         // Describe the local model
@@ -31,6 +31,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAI
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST_FAILURE_DESCRIPTIONS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
@@ -76,6 +77,7 @@ import org.jboss.as.controller.transform.Transformers;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.plan.RolloutPlanController;
+import org.jboss.as.domain.controller.plan.ServerLatencyTracker;
 import org.jboss.as.domain.controller.plan.ServerTaskExecutor;
 import org.jboss.dmr.ModelNode;
 import org.jboss.dmr.Property;
@@ -94,6 +96,7 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
     private final ExecutorService executorService;
     private final ModelNode serverOperationHeaders;
     private final ModelNode providedRolloutPlan;
+    private final ServerLatencyTracker latencyTracker;
     private final boolean trace = HOST_CONTROLLER_LOGGER.isTraceEnabled();
 
     public DomainRolloutStepHandler(final Map<String, ProxyController> hostProxies,
@@ -101,13 +104,15 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                                     final MultiphaseOverallContext multiphaseContext,
                                     final ModelNode rolloutPlan,
                                     final ModelNode serverOperationHeaders,
-                                    final ExecutorService executorService) {
+                                    final ExecutorService executorService,
+                                    final ServerLatencyTracker latencyTracker) {
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.multiphaseContext = multiphaseContext;
         this.serverOperationHeaders = serverOperationHeaders.clone();
         this.providedRolloutPlan = rolloutPlan;
         this.executorService = executorService;
+        this.latencyTracker = latencyTracker;
         //Remove the caller-type=user header
         if (this.serverOperationHeaders.hasDefined(CALLER_TYPE)
                 && this.serverOperationHeaders.get(CALLER_TYPE).asString().equals(USER)) {
@@ -359,8 +364,9 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 }
             };
             RolloutPlanController rolloutPlanController = new RolloutPlanController(opsByGroup, rolloutPlan,
-                    multiphaseContext, taskExecutor, executorService, blockingTimeout);
+                    multiphaseContext, taskExecutor, executorService, blockingTimeout, latencyTracker);
             RolloutPlanController.Result planResult = rolloutPlanController.execute();
+            rolloutPlanController.addResponseHeaders(context.getResponseHeaders());
             if (trace) {
                 HOST_CONTROLLER_LOGGER.tracef("Rollout plan result is %s", planResult);
             }
@@ -477,6 +483,12 @@ public class DomainRolloutStepHandler implements OperationStepHandler {
                 throw new OperationFailedException(DomainControllerLogger.HOST_CONTROLLER_LOGGER.invalidRolloutPlanLess(prop.getName(), MAX_FAILED_SERVERS, max));
             }
         }
+        if (plan.hasDefined(MAX_CONCURRENT_SERVERS)) {
+            int max = plan.get(MAX_CONCURRENT_SERVERS).asInt();
+            if (max < 1) {
+                throw new OperationFailedException(DomainControllerLogger.HOST_CONTROLLER_LOGGER.invalidRolloutPlanNotPositive(prop.getName(), MAX_CONCURRENT_SERVERS, max));
+            }
+        }
     }
 
     private ModelNode getDefaultRolloutPlan(Map<String, Map<ServerIdentity, ModelNode>> opsByGroup) {
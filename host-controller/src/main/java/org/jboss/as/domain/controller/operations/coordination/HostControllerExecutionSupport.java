@@ -48,12 +48,10 @@ import org.jboss.as.controller.OperationContext;
 import org.jboss.as.controller.OperationFailedException;
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
-import org.jboss.as.controller.extension.ExtensionRegistry;
 import org.jboss.as.controller.operations.common.Util;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.ServerIdentity;
 import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
-import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil.ServerConfigInfo;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.dmr.ModelNode;
 
@@ -143,6 +141,7 @@ interface HostControllerExecutionSupport {
          * @param hostName the name of the host executing the operation
          * @param domainModelProvider source for the domain model
          * @param ignoredDomainResourceRegistry registry of resource addresses that should be ignored
+         * @param ignoredNonAffectedServerGroupsUtil checks whether resources are relevant to the servers of this host
          * @throws OperationFailedException
          *
          * @return the HostControllerExecutionSupport
@@ -152,7 +151,7 @@ interface HostControllerExecutionSupport {
                                                             final DomainModelProvider domainModelProvider,
                                                             final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry,
                                                             final boolean isRemoteDomainControllerIgnoreUnaffectedConfiguration,
-                                                            final ExtensionRegistry extensionRegistry) throws OperationFailedException {
+                                                            final IgnoredNonAffectedServerGroupsUtil ignoredNonAffectedServerGroupsUtil) throws OperationFailedException {
             String targetHost = null;
             PathElement runningServerTarget = null;
             ModelNode runningServerOp = null;
@@ -206,7 +205,7 @@ interface HostControllerExecutionSupport {
                             step = step.clone();
                             step.get(OPERATION_HEADERS, CALLER_TYPE).set(USER);
                         }
-                        parsedSteps.add(create(context, step, hostName, domainModelProvider, ignoredDomainResourceRegistry, isRemoteDomainControllerIgnoreUnaffectedConfiguration, extensionRegistry));
+                        parsedSteps.add(create(context, step, hostName, domainModelProvider, ignoredDomainResourceRegistry, isRemoteDomainControllerIgnoreUnaffectedConfiguration, ignoredNonAffectedServerGroupsUtil));
                     }
                     result = new MultiStepOpExecutionSupport(ignoredDomainResourceRegistry, parsedSteps);
                 }
@@ -215,7 +214,7 @@ interface HostControllerExecutionSupport {
                     result = new DomainOpExecutionSupport(ignoredDomainResourceRegistry, operation, address);
                 }
             }
-            else if (targetHost == null && isResourceExcluded(context, ignoredDomainResourceRegistry, isRemoteDomainControllerIgnoreUnaffectedConfiguration, domainModelProvider, hostName, address, extensionRegistry, operation)) {
+            else if (targetHost == null && isResourceExcluded(context, ignoredDomainResourceRegistry, isRemoteDomainControllerIgnoreUnaffectedConfiguration, domainModelProvider, hostName, address, ignoredNonAffectedServerGroupsUtil, operation)) {
                 result = new IgnoredOpExecutionSupport(ignoredDomainResourceRegistry);
             }
             else {
@@ -226,7 +225,7 @@ interface HostControllerExecutionSupport {
 
         }
 
-        private static boolean isResourceExcluded(OperationContext context, IgnoredDomainResourceRegistry ignoredDomainResourceRegistry, boolean isRemoteDomainControllerIgnoreUnaffectedConfiguration, DomainModelProvider domainModelProvider, String hostName, PathAddress address, ExtensionRegistry extensionRegistry, ModelNode operation) {
+        private static boolean isResourceExcluded(OperationContext context, IgnoredDomainResourceRegistry ignoredDomainResourceRegistry, boolean isRemoteDomainControllerIgnoreUnaffectedConfiguration, DomainModelProvider domainModelProvider, String hostName, PathAddress address, IgnoredNonAffectedServerGroupsUtil util, ModelNode operation) {
             if (ignoredDomainResourceRegistry.getIgnoredClonedProfileRegistry().checkIgnoredProfileClone(operation)) {
                 return true;
             }
@@ -234,9 +233,7 @@ interface HostControllerExecutionSupport {
                 return true;
             }
             if (isRemoteDomainControllerIgnoreUnaffectedConfiguration) {
-                IgnoredNonAffectedServerGroupsUtil util = IgnoredNonAffectedServerGroupsUtil.create(extensionRegistry);
-                Set<ServerConfigInfo> serverConfigs = util.getServerConfigsOnSlave(domainModelProvider.getDomainModel().getChild(PathElement.pathElement(HOST, hostName)));
-                return util.ignoreOperation(domainModelProvider.getDomainModel(), serverConfigs, address);
+                return util.ignoreOperation(domainModelProvider::getDomainModel, hostName, ignoredDomainResourceRegistry.getDomainModelVersion(), address);
             }
             return false;
         }
@@ -25,10 +25,13 @@ package org.jboss.as.domain.controller.operations.coordination;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_UUID;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_FOR_COORDINATOR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.REMOVE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLOUT_PLAN;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
 import static org.jboss.as.domain.controller.logging.DomainControllerLogger.HOST_CONTROLLER_LOGGER;
 
 import java.util.HashMap;
@@ -46,6 +49,7 @@ import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.ProxyController;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.jboss.as.domain.controller.plan.ServerLatencyTracker;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -59,16 +63,19 @@ public class OperationCoordinatorStepHandler {
     private final Map<String, ProxyController> hostProxies;
     private final Map<String, ProxyController> serverProxies;
     private final OperationSlaveStepHandler localSlaveHandler;
+    private final ServerLatencyTracker latencyTracker;
     private volatile ExecutorService executorService;
 
     OperationCoordinatorStepHandler(final LocalHostControllerInfo localHostControllerInfo,
                                     final Map<String, ProxyController> hostProxies,
                                     final Map<String, ProxyController> serverProxies,
-                                    final OperationSlaveStepHandler localSlaveHandler) {
+                                    final OperationSlaveStepHandler localSlaveHandler,
+                                    final ServerLatencyTracker latencyTracker) {
         this.localHostControllerInfo = localHostControllerInfo;
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.localSlaveHandler = localSlaveHandler;
+        this.latencyTracker = latencyTracker;
     }
 
     void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -107,6 +114,25 @@ public class OperationCoordinatorStepHandler {
             // -- host level op: apply to our model  and then push to servers
             executeTwoPhaseOperation(context, operation, routing);
         }
+
+        if (!localHostControllerInfo.isMasterDomainController()) {
+            // Changes made locally on a slave, e.g. to its server-configs, may change what it must not ignore
+            localSlaveHandler.addDomainModelChangedStep(context, operation);
+        } else if (REMOVE.equals(operation.get(OP).asString())) {
+            final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+            if (address.size() == 2 && HOST.equals(address.getElement(0).getKey())
+                    && SERVER_CONFIG.equals(address.getElement(1).getKey())) {
+                // The server is gone, so is the prepare latency recorded for it
+                context.completeStep(new OperationContext.ResultHandler() {
+                    @Override
+                    public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                        if (resultAction == OperationContext.ResultAction.KEEP) {
+                            latencyTracker.removeServer(address.getElement(0).getValue(), address.getElement(1).getValue());
+                        }
+                    }
+                });
+            }
+        }
     }
 
     public void setExecutorService(ExecutorService executorService) {
@@ -201,7 +227,7 @@ public class OperationCoordinatorStepHandler {
         }
 
         // Finally, the step to formulate and execute the 2nd phase rollout plan
-        context.addStep(new DomainRolloutStepHandler(hostProxies, serverProxies, overallContext, rolloutPlan, operationHeaders, getExecutorService()), OperationContext.Stage.DOMAIN);
+        context.addStep(new DomainRolloutStepHandler(hostProxies, serverProxies, overallContext, rolloutPlan, operationHeaders, getExecutorService(), latencyTracker), OperationContext.Stage.DOMAIN);
     }
 
     static void configureDomainUUID(ModelNode operation) {
@@ -22,13 +22,20 @@
 
 package org.jboss.as.domain.controller.operations.coordination;
 
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.COMPOSITE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.DOMAIN_RESULTS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXECUTE_FOR_COORDINATOR;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.FAILURE_DESCRIPTION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OPERATION_HEADERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OP_ADDR;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.RESULT;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.STEPS;
 
 import java.util.Map;
 
@@ -44,6 +51,7 @@ import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.LocalHostControllerInfo;
 import org.jboss.as.domain.controller.operations.SyncModelOperationHandlerWrapper;
+import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.dmr.ModelNode;
 
@@ -57,7 +65,7 @@ class OperationSlaveStepHandler {
     private final LocalHostControllerInfo localHostControllerInfo;
     private final Map<String, ProxyController> serverProxies;
     private final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry;
-    private final ExtensionRegistry extensionRegistry;
+    private final IgnoredNonAffectedServerGroupsUtil ignoredNonAffectedServerGroupsUtil;
 
     OperationSlaveStepHandler(final LocalHostControllerInfo localHostControllerInfo, Map<String, ProxyController> serverProxies,
                               final IgnoredDomainResourceRegistry ignoredDomainResourceRegistry,
@@ -65,7 +73,7 @@ class OperationSlaveStepHandler {
         this.localHostControllerInfo = localHostControllerInfo;
         this.serverProxies = serverProxies;
         this.ignoredDomainResourceRegistry = ignoredDomainResourceRegistry;
-        this.extensionRegistry = extensionRegistry;
+        this.ignoredNonAffectedServerGroupsUtil = IgnoredNonAffectedServerGroupsUtil.create(extensionRegistry);
     }
 
     void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
@@ -80,6 +88,9 @@ class OperationSlaveStepHandler {
 
         final MultiPhaseLocalContext localContext = new MultiPhaseLocalContext(false);
         final HostControllerExecutionSupport hostControllerExecutionSupport = addSteps(context, operation, localContext);
+        if (hostControllerExecutionSupport.getDomainOperation() != null) {
+            addDomainModelChangedStep(context, hostControllerExecutionSupport.getDomainOperation());
+        }
         final boolean reloadRequired = hostControllerExecutionSupport.isReloadRequired();
         if (reloadRequired) {
             context.reloadRequired();
@@ -128,7 +139,7 @@ class OperationSlaveStepHandler {
         final HostControllerExecutionSupport hostControllerExecutionSupport =
                 HostControllerExecutionSupport.Factory.create(context, operation, localHostControllerInfo.getLocalHostName(),
                         new LazyDomainModelProvider(context), ignoredDomainResourceRegistry, !localHostControllerInfo.isMasterDomainController() && localHostControllerInfo.isRemoteDomainControllerIgnoreUnaffectedConfiguration(),
-                        extensionRegistry);
+                        ignoredNonAffectedServerGroupsUtil);
         ModelNode domainOp = hostControllerExecutionSupport.getDomainOperation();
         if (domainOp != null) {
             // Only require an existing registration if the domain op is not ignored
@@ -176,6 +187,63 @@ class OperationSlaveStepHandler {
         }
     }
 
+    /**
+     * Whether the operation may change which server groups, profiles and socket binding groups are used by the
+     * servers of this host. Covers the same addresses {@link SyncModelOperationHandlerWrapper} checks for missing
+     * configuration, but any operation that is not read-only counts.
+     */
+    private static boolean isServerGroupDependencyChange(final OperationContext context, final ModelNode operation) {
+        final String operationName = operation.require(OP).asString();
+        final PathAddress address = PathAddress.pathAddress(operation.get(OP_ADDR));
+        if (address.size() == 0 && COMPOSITE.equals(operationName)) {
+            for (ModelNode step : operation.get(STEPS).asList()) {
+                if (isServerGroupDependencyChange(context, step)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        final boolean dependencyAddress;
+        if (address.size() == 1) {
+            final String type = address.getElement(0).getKey();
+            dependencyAddress = SERVER_GROUP.equals(type) || PROFILE.equals(type) || SOCKET_BINDING_GROUP.equals(type);
+        } else {
+            dependencyAddress = address.size() == 2 && HOST.equals(address.getElement(0).getKey()) && SERVER_CONFIG.equals(address.getElement(1).getKey());
+        }
+        if (!dependencyAddress) {
+            return false;
+        }
+        final OperationEntry entry = context.getRootResourceRegistration().getOperationEntry(address, operationName);
+        return entry == null || !(entry.getFlags().contains(OperationEntry.Flag.READ_ONLY) || entry.getFlags().contains(OperationEntry.Flag.RUNTIME_ONLY));
+    }
+
+    /**
+     * On a slave ignoring unaffected configuration, bumps the domain model version used to cache the dependencies of
+     * this host's servers once an operation that may change them is committed.
+     *
+     * @param context the operation execution context
+     * @param operation the operation being executed on this host
+     */
+    void addDomainModelChangedStep(final OperationContext context, final ModelNode operation) {
+        if (localHostControllerInfo.isMasterDomainController() || !localHostControllerInfo.isRemoteDomainControllerIgnoreUnaffectedConfiguration()
+                || !isServerGroupDependencyChange(context, operation)) {
+            return;
+        }
+        context.addStep(new OperationStepHandler() {
+            @Override
+            public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
+                context.completeStep(new OperationContext.ResultHandler() {
+                    @Override
+                    public void handleResult(OperationContext.ResultAction resultAction, OperationContext context, ModelNode operation) {
+                        if (resultAction == OperationContext.ResultAction.KEEP) {
+                            ignoredDomainResourceRegistry.domainModelChanged();
+                        }
+                    }
+                });
+            }
+        }, OperationContext.Stage.MODEL);
+    }
+
     /** Lazily provides a copy of the domain model */
     private static class LazyDomainModelProvider implements HostControllerExecutionSupport.DomainModelProvider {
         private final OperationContext context;
@@ -30,6 +30,7 @@ import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.ExplodedContentException;
+import org.jboss.as.repository.TemporaryFileInputStream;
 import org.jboss.as.repository.TypedInputStream;
 import org.jboss.dmr.ModelNode;
 
@@ -69,7 +70,12 @@ public class ExplodedDeploymentReadContentHandler implements OperationStepHandle
         }
         try {
             TypedInputStream inputStream = contentRepository.readContent(deploymentHash, path);
-            context.attachResultStream(inputStream.getContentType(), inputStream);
+            if (inputStream instanceof TemporaryFileInputStream) {
+                // Hand out the file stream itself so the HTTP management interface can send the file from its channel
+                context.attachResultStream(inputStream.getContentType(), ((TemporaryFileInputStream) inputStream).getFileInputStream());
+            } else {
+                context.attachResultStream(inputStream.getContentType(), inputStream);
+            }
         } catch (ExplodedContentException ex) {
             throw new OperationFailedException(ex.getMessage());
         }
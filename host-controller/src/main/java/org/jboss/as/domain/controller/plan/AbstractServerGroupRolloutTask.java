@@ -55,13 +55,16 @@ abstract class AbstractServerGroupRolloutTask implements Runnable {
     protected final ServerTaskExecutor executor;
     protected final Subject subject;
     protected final BlockingTimeout blockingTimeout;
+    protected final RolloutProgress progress;
 
-    public AbstractServerGroupRolloutTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout) {
+    public AbstractServerGroupRolloutTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy, ServerTaskExecutor executor, Subject subject,
+                                          BlockingTimeout blockingTimeout, RolloutProgress progress) {
         this.tasks = tasks;
         this.updatePolicy = updatePolicy;
         this.executor = executor;
         this.subject = subject;
         this.blockingTimeout = blockingTimeout;
+        this.progress = progress;
     }
 
     @Override
@@ -86,6 +89,33 @@ abstract class AbstractServerGroupRolloutTask implements Runnable {
      */
     protected abstract void execute();
 
+    /**
+     * Execute a server task, recording the time it was started.
+     *
+     * @param listener the operation listener
+     * @param task the server task
+     * @return the timeout to wait for the prepared result, or {@code -1} if the task could not be executed
+     */
+    protected int executeTask(final ServerTaskExecutor.ServerOperationListener listener, final ServerUpdateTask task) {
+        final ServerIdentity identity = task.getServerIdentity();
+        progress.serverStarted(identity);
+        final int timeout = executor.executeTask(listener, task);
+        if (timeout < 0) {
+            progress.serverSkipped(identity);
+        }
+        return timeout;
+    }
+
+    /**
+     * Record that a server task was not executed.
+     *
+     * @param identity the server identity
+     */
+    protected void skipTask(final ServerIdentity identity) {
+        DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+        progress.serverSkipped(identity);
+    }
+
     /**
      * Record a prepared operation.
      *
@@ -98,6 +128,7 @@ abstract class AbstractServerGroupRolloutTask implements Runnable {
         // final ModelNode transformedResult = prepared.getOperation().transformResult(preparedResult);
         updatePolicy.recordServerResult(identity, preparedResult);
         executor.recordPreparedOperation(prepared);
+        progress.serverPrepared(identity, preparedResult.has(FAILURE_DESCRIPTION));
     }
 
     @Override
@@ -121,5 +152,6 @@ abstract class AbstractServerGroupRolloutTask implements Runnable {
         final ModelNode preparedResult = prepared.getPreparedResult();
         updatePolicy.recordServerResult(identity, preparedResult);
         executor.recordOperationPrepareTimeout(prepared);
+        progress.serverTimedOut(identity);
     }
 }
@@ -40,8 +40,9 @@ import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
 
     public ConcurrentServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
-                                           ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout) {
-        super(tasks, updatePolicy, executor, subject, blockingTimeout);
+                                           ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout,
+                                           RolloutProgress progress) {
+        super(tasks, updatePolicy, executor, subject, blockingTimeout, progress);
     }
 
     @Override
@@ -53,7 +54,7 @@ class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask imp
             final ServerIdentity identity = task.getServerIdentity();
             if (updatePolicy.canUpdateServer(identity) && !Thread.currentThread().isInterrupted()) {
                 // Execute the task
-                int serverTimeout = executor.executeTask(listener, task);
+                int serverTimeout = executeTask(listener, task);
                 if (serverTimeout > -1) {
                     outstanding.put(task.getServerIdentity(), task);
                     if (serverTimeout > preparedTimeout) {
@@ -61,7 +62,7 @@ class ConcurrentServerGroupUpdateTask extends AbstractServerGroupRolloutTask imp
                     }
                 }
             } else {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                skipTask(identity);
             }
         }
         boolean interrupted = false;
@@ -39,8 +39,9 @@ import org.jboss.as.domain.controller.ServerIdentity;
 class RollingServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
 
     public RollingServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
-                                        ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout) {
-        super(tasks, updatePolicy, executor, subject, blockingTimeout);
+                                        ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout,
+                                        RolloutProgress progress) {
+        super(tasks, updatePolicy, executor, subject, blockingTimeout, progress);
     }
 
     @Override
@@ -50,11 +51,11 @@ class RollingServerGroupUpdateTask extends AbstractServerGroupRolloutTask implem
         for(final ServerUpdateTask task : tasks) {
             final ServerIdentity identity = task.getServerIdentity();
             if(interrupted || ! updatePolicy.canUpdateServer(identity)) {
-                DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Skipping server update task for %s", identity);
+                skipTask(identity);
                 continue;
             }
             // Execute the task
-            long timeout = executor.executeTask(listener, task);
+            long timeout = executeTask(listener, task);
             if (timeout > -1) {
                 try {
                     // Wait for the prepared result
@@ -28,6 +28,7 @@ package org.jboss.as.domain.controller.plan;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.CONCURRENT_GROUPS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GRACEFUL_SHUTDOWN_TIMEOUT;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IN_SERIES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_CONCURRENT_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILED_SERVERS;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.MAX_FAILURE_PERCENTAGE;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.ROLLBACK_ACROSS_GROUPS;
@@ -70,19 +71,27 @@ public class RolloutPlanController {
     private final boolean shutdown;
     private final long gracefulShutdownPeriod;
     private final MultiphaseOverallContext domainOperationContext;
+    private final RolloutProgress progress;
 
     public RolloutPlanController(final Map<String, Map<ServerIdentity, ModelNode>> opsByGroup,
                                  final ModelNode rolloutPlan,
                                  final MultiphaseOverallContext domainOperationContext,
                                  final ServerTaskExecutor taskExecutor,
                                  final ExecutorService executor,
-                                 final BlockingTimeout blockingTimeout) {
+                                 final BlockingTimeout blockingTimeout,
+                                 final ServerLatencyTracker latencyTracker) {
         this.domainOperationContext = domainOperationContext;
 
         this.rollbackAcrossGroups = !rolloutPlan.hasDefined(ROLLBACK_ACROSS_GROUPS) || rolloutPlan.get(ROLLBACK_ACROSS_GROUPS).asBoolean();
         this.shutdown = rolloutPlan.hasDefined(SHUTDOWN) && rolloutPlan.get(SHUTDOWN).asBoolean();
         this.gracefulShutdownPeriod = rolloutPlan.hasDefined(GRACEFUL_SHUTDOWN_TIMEOUT) ? rolloutPlan.get(GRACEFUL_SHUTDOWN_TIMEOUT).asInt() : -1;
 
+        int serverCount = 0;
+        for (Map<ServerIdentity, ModelNode> groupEntry : opsByGroup.values()) {
+            serverCount += groupEntry.size();
+        }
+        this.progress = new RolloutProgress(latencyTracker, serverCount);
+
         final List<Runnable> rollingTasks = new ArrayList<Runnable>();
         this.rootTask = new RollingUpdateTask(rollingTasks);
 
@@ -133,8 +142,14 @@ public class RolloutPlanController {
                     }
                     ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, serverGroupName, servers, maxFailures);
 
-                    seriesTasks.add(rollingGroup ? new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout)
-                        : new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout));
+                    if (rollingGroup) {
+                        seriesTasks.add(new RollingServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout, progress));
+                    } else if (policyNode.hasDefined(MAX_CONCURRENT_SERVERS)) {
+                        final int maxConcurrent = policyNode.get(MAX_CONCURRENT_SERVERS).asInt();
+                        seriesTasks.add(new WindowedServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout, progress, maxConcurrent));
+                    } else {
+                        seriesTasks.add(new ConcurrentServerGroupUpdateTask(groupTasks, policy, taskExecutor, subject, blockingTimeout, progress));
+                    }
 
                     updatePolicies.put(serverGroupName, policy);
 
@@ -167,6 +182,20 @@ public class RolloutPlanController {
         return result;
     }
 
+    /**
+     * Add the rollout progress and the time taken by each server to prepare its operation to the given
+     * response headers.
+     *
+     * @param responseHeaders the response headers of the domain operation
+     */
+    public void addResponseHeaders(final ModelNode responseHeaders) {
+        responseHeaders.get(RolloutProgress.ROLLOUT_PROGRESS).set(progress.getProgress());
+        final ModelNode timing = progress.getServerTiming();
+        if (timing.isDefined()) {
+            responseHeaders.get(RolloutProgress.SERVER_TIMING).set(timing);
+        }
+    }
+
     private ServerUpdateTask createServerTask(final ServerIdentity serverIdentity, final ModelNode serverOp,
                                               final ServerUpdatePolicy policy) {
         ServerUpdateTask result;
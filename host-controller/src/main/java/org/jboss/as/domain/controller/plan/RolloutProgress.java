@@ -0,0 +1,157 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+import org.jboss.dmr.ModelNode;
+
+/**
+ * Tracks the progress of a single rollout and the time each server took to prepare its operation. The data
+ * is reported back to the caller through the {@link #ROLLOUT_PROGRESS} and {@link #SERVER_TIMING} response headers.
+ */
+class RolloutProgress {
+
+    /** Response header summarizing how many servers were prepared, failed, timed out or were skipped */
+    static final String ROLLOUT_PROGRESS = "rollout-progress";
+    /** Response header containing the prepare time, in milliseconds, of each server, keyed by host and server name */
+    static final String SERVER_TIMING = "server-timing";
+
+    static final String SERVERS = "servers";
+    static final String PREPARED = "prepared";
+    static final String FAILED = "failed";
+    static final String TIMED_OUT = "timed-out";
+    static final String SKIPPED = "skipped";
+    static final String ELAPSED_TIME = "elapsed-time";
+
+    private final ServerLatencyTracker latencyTracker;
+    private final int servers;
+    private final long start = System.currentTimeMillis();
+    private final ConcurrentMap<ServerIdentity, Long> started = new ConcurrentHashMap<>();
+    private final ConcurrentMap<ServerIdentity, Long> timings = new ConcurrentHashMap<>();
+    private int prepared;
+    private int failed;
+    private int timedOut;
+    private int skipped;
+
+    RolloutProgress(final ServerLatencyTracker latencyTracker, final int servers) {
+        this.latencyTracker = latencyTracker;
+        this.servers = servers;
+    }
+
+    ServerLatencyTracker getLatencyTracker() {
+        return latencyTracker;
+    }
+
+    void serverStarted(final ServerIdentity server) {
+        started.put(server, System.currentTimeMillis());
+    }
+
+    void serverSkipped(final ServerIdentity server) {
+        synchronized (this) {
+            skipped++;
+        }
+        trace(server, SKIPPED);
+    }
+
+    void serverPrepared(final ServerIdentity server, final boolean serverFailed) {
+        recordTiming(server);
+        synchronized (this) {
+            if (serverFailed) {
+                failed++;
+            } else {
+                prepared++;
+            }
+        }
+        trace(server, serverFailed ? FAILED : PREPARED);
+    }
+
+    void serverTimedOut(final ServerIdentity server) {
+        recordTiming(server);
+        synchronized (this) {
+            timedOut++;
+        }
+        trace(server, TIMED_OUT);
+    }
+
+    /**
+     * Create the {@link #ROLLOUT_PROGRESS} response header.
+     *
+     * @return the header value
+     */
+    synchronized ModelNode getProgress() {
+        final ModelNode progress = new ModelNode();
+        progress.get(SERVERS).set(servers);
+        progress.get(PREPARED).set(prepared);
+        progress.get(FAILED).set(failed);
+        progress.get(TIMED_OUT).set(timedOut);
+        progress.get(SKIPPED).set(skipped);
+        progress.get(ELAPSED_TIME).set(System.currentTimeMillis() - start);
+        return progress;
+    }
+
+    /**
+     * Create the {@link #SERVER_TIMING} response header.
+     *
+     * @return the header value
+     */
+    ModelNode getServerTiming() {
+        // Sort the entries so the header reads the same way for the same domain
+        final Map<String, Map<String, Long>> byHost = new TreeMap<>();
+        for (Map.Entry<ServerIdentity, Long> entry : timings.entrySet()) {
+            final ServerIdentity server = entry.getKey();
+            byHost.computeIfAbsent(server.getHostName(), host -> new TreeMap<>()).put(server.getServerName(), entry.getValue());
+        }
+        final ModelNode timing = new ModelNode();
+        for (Map.Entry<String, Map<String, Long>> host : byHost.entrySet()) {
+            for (Map.Entry<String, Long> server : host.getValue().entrySet()) {
+                timing.get(host.getKey(), server.getKey()).set(server.getValue());
+            }
+        }
+        return timing;
+    }
+
+    private void recordTiming(final ServerIdentity server) {
+        final Long startTime = started.remove(server);
+        if (startTime != null) {
+            final long elapsed = System.currentTimeMillis() - startTime;
+            timings.put(server, elapsed);
+            latencyTracker.recordLatency(server, elapsed);
+        }
+    }
+
+    private void trace(final ServerIdentity server, final String state) {
+        if (DomainControllerLogger.HOST_CONTROLLER_LOGGER.isTraceEnabled()) {
+            final int done;
+            synchronized (this) {
+                done = prepared + failed + timedOut + skipped;
+            }
+            DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Rollout progress %d/%d: %s %s", done, servers, server, state);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.domain.controller.ServerIdentity;
+
+/**
+ * Keeps an exponentially weighted moving average of the time each server took to prepare the operations
+ * rolled out to it. The averages are used to order the servers of a group so the ones expected to take
+ * longest are started first, which keeps the tail of a windowed rollout short.
+ * <p>
+ * A single tracker is held by the domain controller and shared by all rollouts it coordinates. Entries are
+ * evicted when the server or its host is removed from the domain.
+ *
+ * @see WindowedServerGroupUpdateTask
+ */
+public class ServerLatencyTracker {
+
+    /** The weight given to the latest observation */
+    private static final double ALPHA = 0.3;
+
+    private final ConcurrentMap<ServerIdentity, Double> latencies = new ConcurrentHashMap<>();
+
+    /**
+     * Record the time the given server took to prepare an operation.
+     *
+     * @param server the id of the server. Cannot be {@code null}
+     * @param latency the time, in milliseconds
+     */
+    void recordLatency(final ServerIdentity server, final long latency) {
+        if (latency < 0) {
+            return;
+        }
+        latencies.merge(server, (double) latency, (previous, current) -> previous + ALPHA * (current - previous));
+    }
+
+    /**
+     * Forget the latency recorded for a server.
+     *
+     * @param hostName the name of the host. Cannot be {@code null}
+     * @param serverName the name of the server. Cannot be {@code null}
+     */
+    public void removeServer(final String hostName, final String serverName) {
+        latencies.keySet().removeIf(server -> server.getHostName().equals(hostName) && server.getServerName().equals(serverName));
+    }
+
+    /**
+     * Forget the latencies recorded for all servers of a host.
+     *
+     * @param hostName the name of the host. Cannot be {@code null}
+     */
+    public void removeHost(final String hostName) {
+        latencies.keySet().removeIf(server -> server.getHostName().equals(hostName));
+    }
+
+    /**
+     * Get the average time the given server took to prepare an operation.
+     *
+     * @param server the id of the server. Cannot be {@code null}
+     * @return the average time, in milliseconds, or {@code -1} if no operation was recorded for the server
+     */
+    long getLatency(final ServerIdentity server) {
+        final Double latency = latencies.get(server);
+        return latency == null ? -1 : Math.round(latency);
+    }
+
+    /**
+     * Order the given tasks so the servers with the highest average latency come first. Servers without recorded
+     * latency are assumed to be slow and are placed ahead of all others.
+     *
+     * @param tasks the tasks
+     * @return a new list containing the ordered tasks
+     */
+    List<ServerUpdateTask> order(final List<ServerUpdateTask> tasks) {
+        final List<ServerUpdateTask> ordered = new ArrayList<>(tasks);
+        // Snapshot the latencies so the ordering is stable while other rollouts record results
+        final Map<ServerIdentity, Double> snapshot = new HashMap<>();
+        for (ServerUpdateTask task : ordered) {
+            final Double latency = latencies.get(task.getServerIdentity());
+            snapshot.put(task.getServerIdentity(), latency == null ? Double.MAX_VALUE : latency);
+        }
+        final Comparator<ServerUpdateTask> byLatency = Comparator.comparing(task -> snapshot.get(task.getServerIdentity()));
+        Collections.sort(ordered, byLatency.reversed()
+                .thenComparing(task -> task.getServerIdentity().getHostName())
+                .thenComparing(task -> task.getServerIdentity().getServerName()));
+        return ordered;
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.security.auth.Subject;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.as.domain.controller.logging.DomainControllerLogger;
+
+/**
+ * Updates the servers of a group concurrently, but keeps no more than a fixed number of servers preparing at any
+ * time. As soon as one server returns its prepared result the next one is started. Servers are started in
+ * order of their previously observed latency, slowest first, so a slow server does not end up extending the
+ * rollout when started last.
+ */
+class WindowedServerGroupUpdateTask extends AbstractServerGroupRolloutTask implements Runnable {
+
+    private final int maxConcurrent;
+
+    public WindowedServerGroupUpdateTask(List<ServerUpdateTask> tasks, ServerUpdatePolicy updatePolicy,
+                                         ServerTaskExecutor executor, Subject subject, BlockingTimeout blockingTimeout,
+                                         RolloutProgress progress, int maxConcurrent) {
+        super(tasks, updatePolicy, executor, subject, blockingTimeout, progress);
+        assert maxConcurrent > 0;
+        this.maxConcurrent = maxConcurrent;
+    }
+
+    @Override
+    public void execute() {
+        final Deque<ServerUpdateTask> pending = new ArrayDeque<>(progress.getLatencyTracker().order(tasks));
+        final Map<ServerIdentity, ServerUpdateTask> outstanding = new HashMap<>();
+        final Map<ServerIdentity, Long> deadlines = new HashMap<>();
+        final Map<ServerIdentity, Integer> timeouts = new HashMap<>();
+        final ServerTaskExecutor.ServerOperationListener listener = new ServerTaskExecutor.ServerOperationListener();
+        boolean interrupted = false;
+        while (!interrupted) {
+            // Fill the window
+            while (outstanding.size() < maxConcurrent && !pending.isEmpty()) {
+                final ServerUpdateTask task = pending.poll();
+                final ServerIdentity identity = task.getServerIdentity();
+                if (updatePolicy.canUpdateServer(identity) && !Thread.currentThread().isInterrupted()) {
+                    final int serverTimeout = executeTask(listener, task);
+                    if (serverTimeout > -1) {
+                        outstanding.put(identity, task);
+                        deadlines.put(identity, System.currentTimeMillis() + serverTimeout);
+                        timeouts.put(identity, serverTimeout);
+                    }
+                } else {
+                    skipTask(identity);
+                }
+            }
+            if (outstanding.isEmpty()) {
+                break;
+            }
+
+            long remaining = Collections.min(deadlines.values()) - System.currentTimeMillis();
+            if (remaining > 0) {
+                try {
+                    final TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> prepared = listener.retrievePreparedOperation(remaining, TimeUnit.MILLISECONDS);
+                    if (prepared != null) {
+                        final ServerIdentity identity = prepared.getOperation().getIdentity();
+                        if (outstanding.remove(identity) != null) {
+                            deadlines.remove(identity);
+                            timeouts.remove(identity);
+                            recordPreparedOperation(identity, prepared);
+                        } else {
+                            DomainControllerLogger.HOST_CONTROLLER_LOGGER.tracef("Ignoring late prepared result for %s", identity);
+                        }
+                        continue;
+                    }
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                    break;
+                }
+            }
+
+            // Give up on the servers whose deadline passed, freeing their slot in the window
+            final long now = System.currentTimeMillis();
+            final Iterator<Map.Entry<ServerIdentity, Long>> iterator = deadlines.entrySet().iterator();
+            while (iterator.hasNext()) {
+                final Map.Entry<ServerIdentity, Long> entry = iterator.next();
+                if (entry.getValue() <= now) {
+                    final ServerIdentity identity = entry.getKey();
+                    final int timeout = timeouts.remove(identity);
+                    iterator.remove();
+                    DomainControllerLogger.HOST_CONTROLLER_LOGGER.timedOutAwaitingPreparedResponse(getClass().getSimpleName(), timeout, Collections.singleton(identity));
+                    executor.cancelTask(identity);
+                    handlePreparePhaseTimeout(identity, outstanding.remove(identity), timeout);
+                }
+            }
+        }
+
+        if (interrupted) {
+            if (!outstanding.isEmpty()) {
+                DomainControllerLogger.HOST_CONTROLLER_LOGGER.interruptedAwaitingPreparedResponse(getClass().getSimpleName(), outstanding.keySet());
+                for (ServerIdentity identity : outstanding.keySet()) {
+                    executor.cancelTask(identity);
+                }
+            }
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "{server-group=" + updatePolicy.getServerGroupName() + ", max-concurrent-servers=" + maxConcurrent + "}";
+    }
+}
@@ -38,6 +38,7 @@ import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
 import org.jboss.as.controller.SimpleOperationDefinitionBuilder;
 import org.jboss.as.controller.SimpleResourceDefinition;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
 import org.jboss.as.controller.descriptions.ResourceDescriptionResolver;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
@@ -85,6 +86,29 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
             .setRuntimeServiceNotRequired()
             .build();
 
+    private static final AttributeDefinition SUSPICION_LEVEL_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.SUSPICION_LEVEL, ModelType.DOUBLE, true)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    private static final AttributeDefinition HEARTBEAT_INTERVAL_MEAN_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.HEARTBEAT_INTERVAL_MEAN, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    private static final AttributeDefinition HEARTBEAT_INTERVAL_STD_DEVIATION_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.HEARTBEAT_INTERVAL_STD_DEVIATION, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
+    private static final AttributeDefinition PING_INTERVAL_DEF = SimpleAttributeDefinitionBuilder.create(HostConnectionInfo.PING_INTERVAL, ModelType.LONG, true)
+            .setMeasurementUnit(MeasurementUnit.MILLISECONDS)
+            .setStorageRuntime()
+            .setRuntimeServiceNotRequired()
+            .build();
+
     private static final OperationDefinition PRUNE_EXPIRED_DEF = new SimpleOperationDefinitionBuilder("prune-expired", RESOLVER)
             .withFlag(OperationEntry.Flag.MASTER_HOST_CONTROLLER_ONLY)
             .build();
@@ -105,6 +129,10 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
     public void registerAttributes(ManagementResourceRegistration resourceRegistration) {
         resourceRegistration.registerReadOnlyAttribute(CONNECTION_DEF, attributeReadHandler);
         resourceRegistration.registerReadOnlyAttribute(EVENT_LIST, attributeReadHandler);
+        resourceRegistration.registerMetric(SUSPICION_LEVEL_DEF, attributeReadHandler);
+        resourceRegistration.registerMetric(HEARTBEAT_INTERVAL_MEAN_DEF, attributeReadHandler);
+        resourceRegistration.registerMetric(HEARTBEAT_INTERVAL_STD_DEVIATION_DEF, attributeReadHandler);
+        resourceRegistration.registerMetric(PING_INTERVAL_DEF, attributeReadHandler);
     }
 
     @Override
@@ -142,11 +170,33 @@ public class HostConnectionResourceDefinition extends SimpleResourceDefinition {
                     case HostConnectionInfo.EVENTS:
                         processEvents(info, result.setEmptyList());
                         break;
+                    case HostConnectionInfo.SUSPICION_LEVEL: {
+                        final double phi = info.getSuspicionLevel();
+                        if (phi >= 0) {
+                            result.set(phi);
+                        }
+                        break;
+                    }
+                    case HostConnectionInfo.HEARTBEAT_INTERVAL_MEAN:
+                        setIfAvailable(result, info.getMeanHeartbeatInterval());
+                        break;
+                    case HostConnectionInfo.HEARTBEAT_INTERVAL_STD_DEVIATION:
+                        setIfAvailable(result, info.getHeartbeatIntervalStdDeviation());
+                        break;
+                    case HostConnectionInfo.PING_INTERVAL:
+                        setIfAvailable(result, info.getPingInterval());
+                        break;
                 }
             }
         }
     }
 
+    private static void setIfAvailable(final ModelNode result, final long value) {
+        if (value >= 0) {
+            result.set(value);
+        }
+    }
+
     static void processEvents(final HostConnectionInfo info, final ModelNode list) {
         for (final HostConnectionInfo.Event event : info.getEvents()) {
             event.toModelNode(list.add());
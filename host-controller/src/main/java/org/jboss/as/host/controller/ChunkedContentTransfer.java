@@ -0,0 +1,251 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOGGER;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.ChunkConsumer;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.Manifest;
+import org.jboss.as.repository.ContentChunk;
+import org.jboss.as.repository.ContentChunkIndex;
+
+/**
+ * Fetches deployment content from the master in chunks. Chunks already present in any local content are copied
+ * locally instead of being transferred, and the bytes received are kept in a {@code .part} file next to the content
+ * so an interrupted transfer resumes where it stopped.
+ */
+class ChunkedContentTransfer {
+
+    /** The maximum number of bytes requested from the master at once */
+    static final int MAX_BATCH_SIZE = 8 * 1024 * 1024;
+    private static final String PART_SUFFIX = ".part";
+
+    private final File deploymentRoot;
+    private final ContentChunkIndex chunkIndex;
+    private final ChunkFetcher fetcher;
+    private final ConcurrentMap<String, Object> transfers = new ConcurrentHashMap<>();
+
+    ChunkedContentTransfer(final File deploymentRoot, final ChunkFetcher fetcher) {
+        this.deploymentRoot = deploymentRoot;
+        this.chunkIndex = new ContentChunkIndex(deploymentRoot);
+        this.fetcher = fetcher;
+    }
+
+    /**
+     * Fetch the content with the given hash into the given content root.
+     *
+     * @param hexHash the hash of the content
+     * @param contentRoot the local directory for the content
+     * @return the content root, or {@code null} if the master cannot provide the content in chunks
+     * @throws IOException if the transfer failed
+     */
+    File transfer(final String hexHash, final File contentRoot) throws IOException {
+        // Only one transfer per content may write its part file
+        while (true) {
+            final Object lock = transfers.computeIfAbsent(hexHash, hash -> new Object());
+            synchronized (lock) {
+                if (transfers.get(hexHash) != lock) {
+                    // Released by a transfer that has ended, take the current lock instead
+                    continue;
+                }
+                try {
+                    if (contentRoot.exists()) {
+                        // Completed by a concurrent request
+                        return contentRoot;
+                    }
+                    return doTransfer(hexHash, contentRoot);
+                } finally {
+                    transfers.remove(hexHash, lock);
+                }
+            }
+        }
+    }
+
+    private File doTransfer(final String hexHash, final File contentRoot) throws IOException {
+        final Manifest manifest = fetcher.getManifest(hexHash);
+        if (manifest == null || !isFileName(manifest.getName())) {
+            return null;
+        }
+        chunkIndex.scan();
+
+        final Path part = new File(deploymentRoot, hexHash + PART_SUFFIX).toPath();
+        final MessageDigest contentDigest = ContentChunk.createDigest();
+        final MessageDigest chunkDigest = ContentChunk.createDigest();
+        final List<ContentChunk> chunks = manifest.getChunks();
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // Keep the chunks of a previous attempt that are intact
+            int index = 0;
+            long position = 0;
+            final long partSize = channel.size();
+            while (index < chunks.size() && position + chunks.get(index).getLength() <= partSize) {
+                final ContentChunk chunk = chunks.get(index);
+                final byte[] bytes = read(channel, position, chunk.getLength());
+                if (!chunk.matches(chunkDigest.digest(bytes))) {
+                    break;
+                }
+                contentDigest.update(bytes);
+                position += chunk.getLength();
+                index++;
+            }
+            channel.truncate(position);
+            channel.position(position);
+            if (index > 0) {
+                ROOT_LOGGER.debugf("Resuming transfer of %s at offset %d", hexHash, position);
+            }
+
+            final ChunkConsumer consumer = new ChunkConsumer() {
+                @Override
+                public void accept(ContentChunk chunk, byte[] bytes) throws IOException {
+                    if (!chunk.matches(chunkDigest.digest(bytes))) {
+                        throw HostControllerLogger.ROOT_LOGGER.invalidContentChunk(chunk.getHexHash(), hexHash);
+                    }
+                    write(channel, bytes);
+                    contentDigest.update(bytes);
+                }
+            };
+            final List<ContentChunk> batch = new ArrayList<>();
+            long batchSize = 0;
+            int copied = 0;
+            for (; index < chunks.size(); index++) {
+                final ContentChunk chunk = chunks.get(index);
+                final byte[] local = chunkIndex.read(chunk);
+                if (local != null) {
+                    if (!fetch(hexHash, manifest, batch, consumer)) {
+                        return null;
+                    }
+                    batchSize = 0;
+                    write(channel, local);
+                    contentDigest.update(local);
+                    copied++;
+                } else {
+                    batch.add(chunk);
+                    batchSize += chunk.getLength();
+                    if (batchSize >= MAX_BATCH_SIZE || batch.size() >= DomainContentChunkRequestAndHandler.MAX_CHUNKS_PER_REQUEST) {
+                        if (!fetch(hexHash, manifest, batch, consumer)) {
+                            return null;
+                        }
+                        batchSize = 0;
+                    }
+                }
+            }
+            if (!fetch(hexHash, manifest, batch, consumer)) {
+                return null;
+            }
+            channel.force(false);
+            ROOT_LOGGER.debugf("Transferred %s; %d of %d chunks copied from local content", hexHash, copied, chunks.size());
+        }
+
+        if (!Arrays.equals(HashUtil.hexStringToByteArray(hexHash), contentDigest.digest())) {
+            Files.deleteIfExists(part);
+            throw HostControllerLogger.ROOT_LOGGER.invalidTransferredContent(hexHash);
+        }
+        final Path target = contentRoot.toPath().resolve(manifest.getName());
+        Files.createDirectories(contentRoot.toPath());
+        try {
+            Files.move(part, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        ContentChunkIndex.storeChunks(target, chunks);
+        chunkIndex.index(target, chunks);
+        return contentRoot;
+    }
+
+    private static boolean isFileName(final String name) {
+        return !name.isEmpty() && !name.equals(".") && !name.equals("..") && name.equals(new File(name).getName());
+    }
+
+    private boolean fetch(final String hexHash, final Manifest manifest, final List<ContentChunk> batch, final ChunkConsumer consumer) throws IOException {
+        if (batch.isEmpty()) {
+            return true;
+        }
+        final boolean available = fetcher.getChunks(hexHash, manifest.getName(), new ArrayList<>(batch), consumer);
+        batch.clear();
+        return available;
+    }
+
+    private static byte[] read(final FileChannel channel, long position, final int length) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            final int read = channel.read(buffer, position);
+            if (read < 0) {
+                break;
+            }
+            position += read;
+        }
+        return buffer.array();
+    }
+
+    private static void write(final FileChannel channel, final byte[] bytes) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    /**
+     * Requests content chunks from the master.
+     */
+    interface ChunkFetcher {
+
+        /**
+         * Get the manifest of the content.
+         *
+         * @param hexHash the hash of the content
+         * @return the manifest, or {@code null} if the content cannot be transferred in chunks
+         * @throws IOException if the request failed
+         */
+        Manifest getManifest(String hexHash) throws IOException;
+
+        /**
+         * Get the bytes of the given chunks.
+         *
+         * @param hexHash the hash of the content
+         * @param name the name of the content file
+         * @param chunks the chunks
+         * @param consumer the consumer receiving the bytes of each chunk, in order
+         * @return {@code false} if the master no longer has the content
+         * @throws IOException if the request failed
+         */
+        boolean getChunks(String hexHash, String name, List<ContentChunk> chunks, ChunkConsumer consumer) throws IOException;
+    }
+}
@@ -128,6 +128,7 @@ import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.operations.ApplyExtensionsHandler;
 import org.jboss.as.domain.controller.operations.DomainModelIncludesValidator;
 import org.jboss.as.domain.controller.operations.coordination.PrepareStepHandler;
+import org.jboss.as.domain.controller.plan.ServerLatencyTracker;
 import org.jboss.as.domain.controller.resources.DomainRootDefinition;
 import org.jboss.as.domain.management.CoreManagementResourceDefinition;
 import org.jboss.as.host.controller.RemoteDomainConnectionService.RemoteFileRepository;
@@ -206,6 +207,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
     private final DomainSlaveHostRegistrations slaveHostRegistrations = new DomainSlaveHostRegistrations();
     private final Map<String, ProxyController> serverProxies;
     private final PrepareStepHandler prepareStepHandler;
+    private final ServerLatencyTracker latencyTracker;
     private final BootstrapListener bootstrapListener;
     private ManagementResourceRegistration modelNodeRegistration;
     private final AbstractVaultReader vaultReader;
@@ -256,12 +258,13 @@ public class DomainModelControllerService extends AbstractControllerService impl
         final ProcessType processType = environment.getProcessType();
         final ExtensionRegistry hostExtensionRegistry = new ExtensionRegistry(processType, runningModeControl, auditLogger, authorizer, hostControllerInfoAccessor);
         final ExtensionRegistry extensionRegistry = new ExtensionRegistry(processType, runningModeControl, auditLogger, authorizer, hostControllerInfoAccessor);
+        final ServerLatencyTracker latencyTracker = new ServerLatencyTracker();
         final PrepareStepHandler prepareStepHandler = new PrepareStepHandler(hostControllerInfo,
-                hostProxies, serverProxies, ignoredRegistry, extensionRegistry);
+                hostProxies, serverProxies, ignoredRegistry, extensionRegistry, latencyTracker);
         final ExpressionResolver expressionResolver = new RuntimeExpressionResolver(vaultReader);
         final DomainHostExcludeRegistry domainHostExcludeRegistry = new DomainHostExcludeRegistry();
         final DomainModelControllerService service = new DomainModelControllerService(environment, runningModeControl, processState,
-                hostControllerInfo, contentRepository, hostProxies, serverProxies, prepareStepHandler, vaultReader,
+                hostControllerInfo, contentRepository, hostProxies, serverProxies, prepareStepHandler, latencyTracker, vaultReader,
                 ignoredRegistry, bootstrapListener, pathManager, expressionResolver, new DomainDelegatingResourceDefinition(),
                 hostExtensionRegistry, extensionRegistry, auditLogger, authorizer, capabilityRegistry, domainHostExcludeRegistry);
 
@@ -283,6 +286,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                                          final ConcurrentMap<String, ProxyController> hostProxies,
                                          final Map<String, ProxyController> serverProxies,
                                          final PrepareStepHandler prepareStepHandler,
+                                         final ServerLatencyTracker latencyTracker,
                                          final AbstractVaultReader vaultReader,
                                          final IgnoredDomainResourceRegistry ignoredRegistry,
                                          final BootstrapListener bootstrapListener,
@@ -308,6 +312,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
         this.hostProxies = hostProxies;
         this.serverProxies = serverProxies;
         this.prepareStepHandler = prepareStepHandler;
+        this.latencyTracker = latencyTracker;
         this.vaultReader = vaultReader;
         this.ignoredRegistry = ignoredRegistry;
         this.bootstrapListener = bootstrapListener;
@@ -356,6 +361,9 @@ public class DomainModelControllerService extends AbstractControllerService impl
         final SlaveHostPinger pinger = remoteConnectionId == null ? null : new SlaveHostPinger(hostName, handler, pingScheduler, remoteConnectionId);
         final String address = handler.getRemoteAddress().getHostAddress();
         slaveHostRegistrations.registerHost(hostName, pinger, address);
+        if (pinger != null && SlaveHostPinger.PERIODIC) {
+            pinger.schedulePing(SlaveHostPinger.STD_TIMEOUT, SlaveHostPinger.STD_INTERVAL);
+        }
 
         if (registerProxyController) {
             // Create the proxy controller
@@ -383,6 +391,7 @@ public class DomainModelControllerService extends AbstractControllerService impl
                 }
                 boolean registered = hostProxies.remove(id) != null;
                 modelNodeRegistration.unregisterProxyController(PathElement.pathElement(HOST, id));
+                latencyTracker.removeHost(id);
 
                 if (registered) {
                     final String address = hostRegistration.getAddress();
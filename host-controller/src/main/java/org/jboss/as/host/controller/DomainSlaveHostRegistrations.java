@@ -198,6 +198,30 @@ public class DomainSlaveHostRegistrations {
             return events;
         }
 
+        @Override
+        public double getSuspicionLevel() {
+            final SlaveHostPinger pinger = this.pinger;
+            return pinger != null && connected ? pinger.getSuspicionLevel() : -1;
+        }
+
+        @Override
+        public long getMeanHeartbeatInterval() {
+            final SlaveHostPinger pinger = this.pinger;
+            return pinger != null && connected ? pinger.getMeanHeartbeatInterval() : -1;
+        }
+
+        @Override
+        public long getHeartbeatIntervalStdDeviation() {
+            final SlaveHostPinger pinger = this.pinger;
+            return pinger != null && connected ? pinger.getHeartbeatIntervalStdDeviation() : -1;
+        }
+
+        @Override
+        public long getPingInterval() {
+            final SlaveHostPinger pinger = this.pinger;
+            return pinger != null && connected ? pinger.getPingInterval() : -1;
+        }
+
         protected String getAddress() {
             return address;
         }
@@ -24,6 +24,7 @@
 package org.jboss.as.host.controller;
 
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.IGNORE_UNUSED_CONFIG;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
 import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INITIAL_SERVER_GROUPS;
@@ -37,7 +38,9 @@ import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Supplier;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -58,13 +61,16 @@ import org.jboss.dmr.Property;
 public class IgnoredNonAffectedServerGroupsUtil {
 
     private final ExtensionRegistry extensionRegistry;
+    private Dependencies slaveDependencies;
+    private int slaveDependenciesVersion;
 
     private IgnoredNonAffectedServerGroupsUtil(final ExtensionRegistry extensionRegistry) {
         this.extensionRegistry = extensionRegistry;
     }
 
     /**
-     * Static factory
+     * Static factory. On a slave the returned instance caches the dependencies of the host's servers between checks,
+     * so it should be reused for repeated checks.
      *
      * @param extensionRegistry the extension registry
      * @return the created instance
@@ -126,80 +132,65 @@ public class IgnoredNonAffectedServerGroupsUtil {
      * @param pathAddress the address of the operation to check if should be ignored or not
      */
     public boolean ignoreOperation(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final PathAddress pathAddress) {
-        if (pathAddress.size() == 0) {
+        if (!isDependencyAddress(pathAddress)) {
             return false;
         }
-        boolean ignore = ignoreResourceInternal(domainResource, serverConfigs, pathAddress);
-        return ignore;
+        return !new Dependencies(domainResource, serverConfigs).contains(pathAddress.getElement(0));
     }
 
-    private boolean ignoreResourceInternal(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final PathAddress pathAddress) {
-        String type = pathAddress.getElement(0).getKey();
-        switch (type) {
-        case PROFILE:
-            return ignoreProfile(domainResource, serverConfigs, pathAddress.getElement(0).getValue());
-        case SERVER_GROUP:
-            return ignoreServerGroup(domainResource, serverConfigs, pathAddress.getElement(0).getValue());
-        // We don't automatically ignore extensions for now
-//        case EXTENSION:
-//            return ignoreExtension(domainResource, serverConfigs, pathAddress.getElement(0).getValue());
-        case SOCKET_BINDING_GROUP:
-            return ignoreSocketBindingGroups(domainResource, serverConfigs, pathAddress.getElement(0).getValue());
-        default:
+    /**
+     * For a slave to check whether an operation should be ignored, if it is set up to ignore config not relevant to it.
+     * The dependencies of the host's servers are only computed again, reading the domain model, once the
+     * {@code domainModelVersion} has changed since the last check.
+     *
+     * @param domainModel supplies the domain root resource
+     * @param hostName the name of this host
+     * @param domainModelVersion the version of the domain model as per
+     *          {@link org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry#getDomainModelVersion()}
+     * @param pathAddress the address of the operation to check if should be ignored or not
+     */
+    public boolean ignoreOperation(final Supplier<Resource> domainModel, final String hostName, final int domainModelVersion, final PathAddress pathAddress) {
+        if (!isDependencyAddress(pathAddress)) {
             return false;
         }
+        return !getSlaveDependencies(domainModel, hostName, domainModelVersion).contains(pathAddress.getElement(0));
     }
 
-    private boolean ignoreProfile(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final String name) {
-        Set<String> seenGroups = new HashSet<>();
-        Set<String> profiles = new HashSet<>();
-        for (ServerConfigInfo serverConfig : serverConfigs) {
-            if (seenGroups.contains(serverConfig.getServerGroup())) {
-                continue;
-            }
-            seenGroups.add(serverConfig.getServerGroup());
-            Resource serverGroupResource = domainResource.getChild(PathElement.pathElement(SERVER_GROUP, serverConfig.getServerGroup()));
-            String profile = serverGroupResource.getModel().get(PROFILE).asString();
-            if (profile.equals(name)) {
-                return false;
-            }
-            processProfiles(domainResource, profile, profiles);
+    private synchronized Dependencies getSlaveDependencies(final Supplier<Resource> domainModel, final String hostName, final int domainModelVersion) {
+        if (slaveDependencies == null || slaveDependenciesVersion != domainModelVersion) {
+            final Resource domainResource = domainModel.get();
+            final Set<ServerConfigInfo> serverConfigs = getServerConfigsOnSlave(domainResource.getChild(PathElement.pathElement(HOST, hostName)));
+            slaveDependencies = new Dependencies(domainResource, serverConfigs);
+            slaveDependenciesVersion = domainModelVersion;
+            DomainControllerLogger.ROOT_LOGGER.tracef("Computed server group dependencies for version %d of the domain model", domainModelVersion);
         }
-        return !profiles.contains(name);
+        return slaveDependencies;
     }
 
-    private void processProfiles(final Resource domain, final String profile, final Set<String> profiles) {
-        if (!profiles.contains(profile)) {
-            profiles.add(profile);
-            final PathElement pathElement = PathElement.pathElement(PROFILE, profile);
-            if (domain.hasChild(pathElement)) {
-                final Resource resource = domain.getChild(pathElement);
-                final ModelNode model = resource.getModel();
-                if (model.hasDefined(INCLUDES)) {
-                    for (final ModelNode include : model.get(INCLUDES).asList()) {
-                        processProfiles(domain, include.asString(), profiles);
-                    }
-                }
-            }
+    private static boolean isDependencyAddress(final PathAddress pathAddress) {
+        if (pathAddress.size() == 0) {
+            return false;
         }
-    }
-
-    private boolean ignoreServerGroup(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final String name) {
-        for (ServerConfigInfo serverConfig : serverConfigs) {
-            if (serverConfig.getServerGroup().equals(name)) {
-                return false;
-            }
+        switch (pathAddress.getElement(0).getKey()) {
+        case PROFILE:
+        case SERVER_GROUP:
+        // We don't automatically ignore extensions for now
+//        case EXTENSION:
+        case SOCKET_BINDING_GROUP:
+            return true;
+        default:
+            return false;
         }
-        return true;
     }
 
     private boolean ignoreExtension(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final String name) {
         //Should these be the subsystems on the master, as we have it at present, or the ones from the slave?
         Map<String, SubsystemInformation> subsystems = extensionRegistry.getAvailableSubsystems(name);
+        final Dependencies dependencies = new Dependencies(domainResource, serverConfigs);
         for (String subsystem : subsystems.keySet()) {
             for (ResourceEntry profileEntry : domainResource.getChildren(PROFILE)) {
                 if (profileEntry.hasChild(PathElement.pathElement(SUBSYSTEM, subsystem))) {
-                    if (!ignoreProfile(domainResource, serverConfigs, profileEntry.getName())) {
+                    if (dependencies.profiles.contains(profileEntry.getName())) {
                         return false;
                     }
                 }
@@ -208,50 +199,6 @@ public class IgnoredNonAffectedServerGroupsUtil {
         return true;
     }
 
-    private boolean ignoreSocketBindingGroups(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs, final String name) {
-        Set<String> seenGroups = new HashSet<>();
-        Set<String> socketBindingGroups = new HashSet<>();
-        for (ServerConfigInfo serverConfig : serverConfigs) {
-            final String socketBindingGroup;
-            if (serverConfig.getSocketBindingGroup() != null) {
-                if (serverConfig.getSocketBindingGroup().equals(name)) {
-                    return false;
-                }
-                socketBindingGroup = serverConfig.getSocketBindingGroup();
-            } else {
-                if (seenGroups.contains(serverConfig.getServerGroup())) {
-                    continue;
-                }
-                seenGroups.add(serverConfig.getServerGroup());
-                Resource serverGroupResource = domainResource.getChild(PathElement.pathElement(SERVER_GROUP, serverConfig.getServerGroup()));
-                socketBindingGroup = serverGroupResource.getModel().get(SOCKET_BINDING_GROUP).asString();
-                if (socketBindingGroup.equals(name)) {
-                    return false;
-                }
-            }
-            processSocketBindingGroups(domainResource, socketBindingGroup, socketBindingGroups);
-        }
-        return !socketBindingGroups.contains(name);
-    }
-
-    private void processSocketBindingGroups(final Resource domainResource, final String name, final Set<String> socketBindingGroups) {
-        if (!socketBindingGroups.contains(name)) {
-            socketBindingGroups.add(name);
-            final PathElement pathElement = PathElement.pathElement(SOCKET_BINDING_GROUP, name);
-            if (domainResource.hasChild(pathElement)) {
-                final Resource resource = domainResource.getChild(pathElement);
-                final ModelNode model = resource.getModel();
-                if (model.hasDefined(INCLUDES)) {
-                    for (final ModelNode include : model.get(INCLUDES).asList()) {
-                        processSocketBindingGroups(domainResource, include.asString(), socketBindingGroups);
-                    }
-                }
-            }
-        }
-    }
-
-
-
     /**
      * For use on a slave HC to get all the server groups used by the host
      *
@@ -360,6 +307,23 @@ public class IgnoredNonAffectedServerGroupsUtil {
             return socketBindingGroup;
         }
 
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ServerConfigInfoImpl that = (ServerConfigInfoImpl) o;
+            return serverGroup.equals(that.serverGroup) && Objects.equals(socketBindingGroup, that.socketBindingGroup);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * serverGroup.hashCode() + Objects.hashCode(socketBindingGroup);
+        }
+
         @Override
         public String toString() {
             return "ServerConfigInfoImpl{" +
@@ -368,4 +332,57 @@ public class IgnoredNonAffectedServerGroupsUtil {
                     '}';
         }
     }
+
+    /**
+     * The server groups, profiles and socket binding groups a set of server configs depends on, including the ones
+     * pulled in through {@code includes}.
+     */
+    private static final class Dependencies {
+        private final Set<String> serverGroups = new HashSet<>();
+        private final Set<String> profiles = new HashSet<>();
+        private final Set<String> socketBindingGroups = new HashSet<>();
+
+        private Dependencies(final Resource domainResource, final Collection<ServerConfigInfo> serverConfigs) {
+            for (ServerConfigInfo serverConfig : serverConfigs) {
+                final boolean newGroup = serverGroups.add(serverConfig.getServerGroup());
+                if (serverConfig.getSocketBindingGroup() == null && !newGroup) {
+                    continue;
+                }
+                final Resource serverGroup = domainResource.getChild(PathElement.pathElement(SERVER_GROUP, serverConfig.getServerGroup()));
+                final ModelNode model = serverGroup == null ? new ModelNode() : serverGroup.getModel();
+                if (serverConfig.getSocketBindingGroup() != null) {
+                    addIncludes(domainResource, SOCKET_BINDING_GROUP, serverConfig.getSocketBindingGroup(), socketBindingGroups);
+                } else if (model.hasDefined(SOCKET_BINDING_GROUP)) {
+                    addIncludes(domainResource, SOCKET_BINDING_GROUP, model.get(SOCKET_BINDING_GROUP).asString(), socketBindingGroups);
+                }
+                if (newGroup && model.hasDefined(PROFILE)) {
+                    addIncludes(domainResource, PROFILE, model.get(PROFILE).asString(), profiles);
+                }
+            }
+        }
+
+        private static void addIncludes(final Resource domainResource, final String type, final String name, final Set<String> names) {
+            if (names.add(name)) {
+                final Resource resource = domainResource.getChild(PathElement.pathElement(type, name));
+                if (resource != null && resource.getModel().hasDefined(INCLUDES)) {
+                    for (ModelNode include : resource.getModel().get(INCLUDES).asList()) {
+                        addIncludes(domainResource, type, include.asString(), names);
+                    }
+                }
+            }
+        }
+
+        private boolean contains(final PathElement element) {
+            switch (element.getKey()) {
+            case PROFILE:
+                return profiles.contains(element.getValue());
+            case SERVER_GROUP:
+                return serverGroups.contains(element.getValue());
+            case SOCKET_BINDING_GROUP:
+                return socketBindingGroups.contains(element.getValue());
+            default:
+                return true;
+            }
+        }
+    }
 }
@@ -26,8 +26,10 @@ import java.io.DataInput;
 import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -41,8 +43,10 @@ import javax.security.auth.callback.CallbackHandler;
 
 import org.jboss.as.controller.RunningMode;
 import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
+import org.jboss.as.controller.registry.Resource;
 import org.jboss.as.controller.remote.TransactionalProtocolClient;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.domain.management.CallbackHandlerFactory;
 import org.jboss.as.domain.management.SecurityRealm;
 import org.jboss.as.host.controller.discovery.DiscoveryOption;
@@ -310,6 +314,17 @@ class RemoteDomainConnection extends FutureManagementChannel {
         return callback.applyDomainModel(bootOperations);
     }
 
+    /**
+     * Apply a remote domain model which was streamed resource by resource.
+     *
+     * @param remoteModel the remote domain model
+     * @param remoteExtensions the extensions used by the remote domain model
+     * @return whether it was applied successfully or not
+     */
+    boolean applyDomainModel(Resource remoteModel, Set<String> remoteExtensions) {
+        return callback.applyDomainModel(remoteModel, remoteExtensions);
+    }
+
     void registered() {
 //        schedule(new PingTask());
         callback.registrationComplete(channelHandler);
@@ -337,6 +352,15 @@ class RemoteDomainConnection extends FutureManagementChannel {
          */
         boolean applyDomainModel(List<ModelNode> result);
 
+        /**
+         * Apply a remote domain model which was received as a stream of resource descriptions.
+         *
+         * @param remoteModel the remote domain model
+         * @param remoteExtensions the extensions used by the remote domain model
+         * @return {@code true} if the model was applied successfully, {@code false} otherwise
+         */
+        boolean applyDomainModel(Resource remoteModel, Set<String> remoteExtensions);
+
         /**
          * Event that the registration was completed.
          *
@@ -362,6 +386,7 @@ class RemoteDomainConnection extends FutureManagementChannel {
              output.writeUTF(localHostName);
              ModelNode hostInfo = callback.createLocalHostInfo();
              hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).set(pongHandler.getConnectionId());
+             hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_STREAMING).set(true);
              hostInfo.writeExternal(output);
          }
 
@@ -437,6 +462,18 @@ class RemoteDomainConnection extends FutureManagementChannel {
          @Override
          public void handleRequest(final DataInput input, final ActiveOperation.ResultHandler<Void> resultHandler, final ManagementRequestContext<Void> context) throws IOException {
              byte param = input.readByte();
+             if (param == DomainControllerProtocol.PARAM_DOMAIN_MODEL_STREAM) {
+                 // Build the remote model as the resource descriptions arrive, rather than reading them all into a list first
+                 final Set<String> remoteExtensions = new HashSet<>();
+                 final Resource remoteModel = ReadMasterDomainModelUtil.readDescribedResources(input, remoteExtensions);
+                 context.executeAsync(new ManagementRequestContext.AsyncTask<Void>() {
+                     @Override
+                     public void execute(ManagementRequestContext<Void> voidManagementRequestContext) throws Exception {
+                         completeRegistration(applyDomainModel(remoteModel, remoteExtensions), resultHandler, context);
+                     }
+                 });
+                 return;
+             }
              // If it failed
              if(param != DomainControllerProtocol.PARAM_OK) {
                  final byte errorCode = input.readByte();
@@ -450,15 +487,20 @@ class RemoteDomainConnection extends FutureManagementChannel {
                  @Override
                  public void execute(ManagementRequestContext<Void> voidManagementRequestContext) throws Exception {
                      // Apply the domain model
-                     if (applyDomainModel(domainModel)) {
-                         channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_OK));
-                     } else {
-                         channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
-                         resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.UNKNOWN, ""));
-                     }
+                     completeRegistration(applyDomainModel(domainModel), resultHandler, context);
                  }
              });
          }
+
+         private void completeRegistration(final boolean applied, final ActiveOperation.ResultHandler<Void> resultHandler,
+                                           final ManagementRequestContext<Void> context) throws IOException {
+             if (applied) {
+                 channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_OK));
+             } else {
+                 channelHandler.executeRequest(context.getOperationId(), new CompleteRegistrationRequest(DomainControllerProtocol.PARAM_ERROR));
+                 resultHandler.failed(new SlaveRegistrationException(SlaveRegistrationException.ErrorCode.UNKNOWN, ""));
+             }
+         }
      }
 
      private class CompleteRegistrationRequest extends AbstractManagementRequest<Void, Void> {
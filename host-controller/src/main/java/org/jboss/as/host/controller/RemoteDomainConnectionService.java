@@ -38,10 +38,13 @@ import static org.jboss.as.host.controller.logging.HostControllerLogger.ROOT_LOG
 import java.io.DataInput;
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
 import java.net.URI;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -88,6 +91,9 @@ import org.jboss.as.host.controller.discovery.DiscoveryOption;
 import org.jboss.as.host.controller.discovery.RemoteDomainControllerConnectionConfiguration;
 import org.jboss.as.host.controller.ignored.IgnoredDomainResourceRegistry;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.ChunkConsumer;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.Manifest;
 import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
 import org.jboss.as.host.controller.mgmt.DomainRemoteFileRequestAndHandler;
 import org.jboss.as.host.controller.mgmt.HostControllerRegistrationHandler;
@@ -100,6 +106,7 @@ import org.jboss.as.protocol.mgmt.FlushableDataOutput;
 import org.jboss.as.protocol.mgmt.ManagementChannelHandler;
 import org.jboss.as.protocol.mgmt.ManagementRequestContext;
 import org.jboss.as.remoting.management.ManagementRemotingServices;
+import org.jboss.as.repository.ContentChunk;
 import org.jboss.as.repository.ContentReference;
 import org.jboss.as.repository.ContentRepository;
 import org.jboss.as.repository.HostFileRepository;
@@ -133,10 +140,14 @@ import org.xnio.Options;
 public class RemoteDomainConnectionService implements MasterDomainControllerClient, Service<MasterDomainControllerClient> {
 
     public static final String DOMAIN_CONNECTION_ID = "domain-connection-id";
+    public static final String DOMAIN_MODEL_STREAMING = "domain-model-streaming";
 
     private static final int CONNECTION_TIMEOUT_DEFAULT = 30000;
     private static final String CONNECTION_TIMEOUT_PROPERTY = "jboss.host.domain.connection.timeout";
     private static final int CONNECTION_TIMEOUT = getSystemProperty(CONNECTION_TIMEOUT_PROPERTY, CONNECTION_TIMEOUT_DEFAULT);
+    /** Whether deployment content is fetched from the master in chunks, reusing the chunks already held locally */
+    private static final boolean CHUNKED_CONTENT_TRANSFER = Boolean.parseBoolean(
+            WildFlySecurityManager.getPropertyPrivileged("jboss.domain.content.chunked-transfer", "true"));
 
     //private static final ModelNode APPLY_EXTENSIONS = new ModelNode();
     private static final ModelNode APPLY_DOMAIN_MODEL = new ModelNode();
@@ -190,6 +201,7 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private ManagementChannelHandler handler;
     private volatile ResponseAttachmentInputStreamSupport responseAttachmentSupport;
     private volatile RemoteDomainConnection connection;
+    private volatile ChunkedContentTransfer contentTransfer;
 
     private RemoteDomainConnectionService(final ModelController controller,
                                           final ExtensionRegistry extensionRegistry,
@@ -520,6 +532,13 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
                     return applyRemoteDomainModel(bootOperations, info);
                 }
 
+                @Override
+                public boolean applyDomainModel(final Resource remoteModel, final Set<String> remoteExtensions) {
+                    // Apply the model..
+                    final HostInfo info = HostInfo.fromModelNode(createLocalHostInfo());
+                    return applyRemoteDomainModel(remoteModel, remoteExtensions, info);
+                }
+
                 @Override
                 public void registrationComplete(ManagementChannelHandler handler) {
                     RemoteDomainConnectionService.this.domainModelComplete.set(true);
@@ -564,15 +583,32 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
      * @return {@code true} if the model was applied successfully, {@code false} otherwise
      */
     private boolean applyRemoteDomainModel(final List<ModelNode> bootOperations, final HostInfo hostInfo) {
+        final ModelNode operation = APPLY_DOMAIN_MODEL.clone();
+        operation.get(DOMAIN_MODEL).set(bootOperations);
+        return applyRemoteDomainModel(operation, null, null, hostInfo);
+    }
+
+    /**
+     * Apply a remote domain model which was streamed by the master to the local host controller.
+     *
+     * @param remoteModel the remote domain model
+     * @param remoteExtensions the extensions used by the remote domain model
+     * @return {@code true} if the model was applied successfully, {@code false} otherwise
+     */
+    private boolean applyRemoteDomainModel(final Resource remoteModel, final Set<String> remoteExtensions, final HostInfo hostInfo) {
+        final ModelNode operation = APPLY_DOMAIN_MODEL.clone();
+        operation.get(DOMAIN_MODEL).setEmptyList();
+        return applyRemoteDomainModel(operation, remoteModel, remoteExtensions, hostInfo);
+    }
+
+    private boolean applyRemoteDomainModel(final ModelNode operation, final Resource remoteModel, final Set<String> remoteExtensions, final HostInfo hostInfo) {
         try {
             HostControllerLogger.ROOT_LOGGER.debug("Applying domain level boot operations provided by master");
             SyncModelParameters parameters =
                     new SyncModelParameters(domainController, ignoredDomainResourceRegistry,
                             hostControllerEnvironment, extensionRegistry, operationExecutor, true, serverProxies, remoteFileRepository, contentRepository);
             final SyncDomainModelOperationHandler handler =
-                    new SyncDomainModelOperationHandler(hostInfo, parameters);
-            final ModelNode operation = APPLY_DOMAIN_MODEL.clone();
-            operation.get(DOMAIN_MODEL).set(bootOperations);
+                    new SyncDomainModelOperationHandler(hostInfo, parameters, remoteModel, remoteExtensions);
 
             final ModelNode result = operationExecutor.execute(OperationBuilder.create(operation).build(), OperationMessageHandler.DISCARD, ModelController.OperationTransactionControl.COMMIT, handler);
 
@@ -715,6 +751,113 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
         }
     }
 
+    private class GetFileManifestRequest extends AbstractManagementRequest<Manifest, Void> {
+        private final String filePath;
+
+        private GetFileManifestRequest(final String filePath) {
+            this.filePath = filePath;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_FILE_MANIFEST_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Manifest> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainContentChunkRequestAndHandler.sendManifestRequest(output, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, filePath);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Manifest> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(DomainContentChunkRequestAndHandler.readManifest(input));
+        }
+    }
+
+    private class GetFileChunksRequest extends AbstractManagementRequest<Boolean, Void> {
+        private final String filePath;
+        private final String name;
+        private final List<ContentChunk> chunks;
+        private final ChunkConsumer consumer;
+
+        private GetFileChunksRequest(final String filePath, final String name, final List<ContentChunk> chunks, final ChunkConsumer consumer) {
+            this.filePath = filePath;
+            this.name = name;
+            this.chunks = chunks;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public byte getOperationType() {
+            return DomainControllerProtocol.GET_FILE_CHUNKS_REQUEST;
+        }
+
+        @Override
+        protected void sendRequest(ActiveOperation.ResultHandler<Boolean> resultHandler, ManagementRequestContext<Void> context, FlushableDataOutput output) throws IOException {
+            output.write(DomainControllerProtocol.PARAM_HOST_ID);
+            output.writeUTF(localHostInfo.getLocalHostName());
+            DomainContentChunkRequestAndHandler.sendChunksRequest(output, DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT, filePath, name, chunks);
+        }
+
+        @Override
+        public void handleRequest(DataInput input, ActiveOperation.ResultHandler<Boolean> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            resultHandler.done(DomainContentChunkRequestAndHandler.readChunks(input, chunks, consumer));
+        }
+    }
+
+    private final ChunkedContentTransfer.ChunkFetcher chunkFetcher = new ChunkedContentTransfer.ChunkFetcher() {
+        @Override
+        public Manifest getManifest(String hexHash) throws IOException {
+            return getResult(handler.executeRequest(new GetFileManifestRequest(hexHash), null));
+        }
+
+        @Override
+        public boolean getChunks(String hexHash, String name, List<ContentChunk> chunks, ChunkConsumer consumer) throws IOException {
+            return getResult(handler.executeRequest(new GetFileChunksRequest(hexHash, name, chunks, consumer), null));
+        }
+
+        private <T> T getResult(ActiveOperation<T, Void> operation) throws IOException {
+            try {
+                return operation.getResult().get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException();
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException(e.getCause());
+            }
+        }
+    };
+
+    /**
+     * Fetch deployment content from the master in chunks.
+     *
+     * @return the content root, or {@code null} if the content could not be transferred in chunks
+     */
+    private File getChunkedDeploymentContent(final String hexHash, final HostFileRepository localFileRepository) {
+        ChunkedContentTransfer transfer = contentTransfer;
+        if (transfer == null) {
+            synchronized (this) {
+                transfer = contentTransfer;
+                if (transfer == null) {
+                    transfer = contentTransfer = new ChunkedContentTransfer(localFileRepository.getDeploymentRoot(null), chunkFetcher);
+                }
+            }
+        }
+        final byte[] hash = HashUtil.hexStringToByteArray(hexHash);
+        try {
+            return transfer.transfer(hexHash, localFileRepository.getDeploymentRoot(new ContentReference(hexHash, hash)));
+        } catch (IOException e) {
+            // The partial content is kept so a later attempt can resume; use a full transfer for now
+            ROOT_LOGGER.debugf(e, "Failed to transfer %s in chunks", hexHash);
+            return null;
+        }
+    }
+
     static class RemoteFileRepository implements HostFileRepository {
         private final HostFileRepository localFileRepository;
         private volatile RemoteFileRepositoryExecutor remoteFileRepositoryExecutor;
@@ -769,6 +912,12 @@ public class RemoteDomainConnectionService implements MasterDomainControllerClie
     private final RemoteFileRepositoryExecutor remoteFileRepositoryExecutor = new RemoteFileRepositoryExecutor() {
         public File getFile(final String relativePath, final byte repoId, HostFileRepository localFileRepository) {
             if(connection.isConnected()) {
+                if (CHUNKED_CONTENT_TRANSFER && repoId == DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT) {
+                    final File file = getChunkedDeploymentContent(relativePath, localFileRepository);
+                    if (file != null) {
+                        return file;
+                    }
+                }
                 try {
                     return handler.executeRequest(new GetFileRequest(repoId, relativePath, localFileRepository), null).getResult().get();
                 } catch (Exception e) {
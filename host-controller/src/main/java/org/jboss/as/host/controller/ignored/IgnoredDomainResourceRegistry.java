@@ -32,6 +32,7 @@ import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.TO_
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
@@ -56,6 +57,7 @@ public class IgnoredDomainResourceRegistry {
     private final LocalHostControllerInfo localHostControllerInfo;
     private volatile IgnoredDomainResourceRoot rootResource;
     private IgnoredClonedProfileRegistry ignoredClonedProfileRegistry = new IgnoredClonedProfileRegistry();
+    private final AtomicInteger domainModelVersion = new AtomicInteger();
 
     public IgnoredDomainResourceRegistry(LocalHostControllerInfo localHostControllerInfo) {
         this.localHostControllerInfo = localHostControllerInfo;
@@ -111,6 +113,25 @@ public class IgnoredDomainResourceRegistry {
         return ignoredClonedProfileRegistry;
     }
 
+    /**
+     * Gets the version of the parts of the domain model that decide which server groups, profiles and socket binding
+     * groups are used by the servers of this host. Results computed from those parts can be reused for as long as
+     * the version does not change.
+     *
+     * @return the current version
+     */
+    public int getDomainModelVersion() {
+        return domainModelVersion.get();
+    }
+
+    /**
+     * Records that a committed change may have modified the server groups, profiles, socket binding groups or server
+     * configs of the domain model.
+     */
+    public void domainModelChanged() {
+        domainModelVersion.incrementAndGet();
+    }
+
     private class ResourceDefinition extends SimpleResourceDefinition {
 
         public ResourceDefinition() {
@@ -1354,4 +1354,23 @@ public interface HostControllerLogger extends BasicLogger {
     @LogMessage(level = Level.ERROR)
     @Message(id = 196, value = "Cannot move the file %s to %s, unable to persist domain configuration changes: %s ")
     void cannotRenameCachedDomainXmlOnBoot(String tmpFilename, String destFilename, String reason);
+
+    @Message(id = 197, value = "Invalid domain model stream; unexpected parameter 0x%02x")
+    IOException invalidDomainModelStream(byte param);
+
+    @Message(id = 198, value = "Content chunk %s of %s does not match its hash")
+    IOException invalidContentChunk(String chunkHash, String contentHash);
+
+    @Message(id = 199, value = "Content transferred for %s does not match its hash")
+    IOException invalidTransferredContent(String contentHash);
+
+    @Message(id = 200, value = "Invalid chunk range %d-%d requested for %s")
+    IOException invalidContentChunkRange(long offset, long end, String filePath);
+
+    @LogMessage(level = WARN)
+    @Message(id = 201, value = "Invalid value %s for system property %s; using the default %s")
+    void invalidPingProperty(String value, String propertyName, String defaultValue);
+
+    @Message(id = 202, value = "Invalid number of chunks %d requested for %s; at most %d chunks can be requested at once")
+    IOException invalidContentChunkCount(int numChunks, String filePath, int maxChunks);
 }
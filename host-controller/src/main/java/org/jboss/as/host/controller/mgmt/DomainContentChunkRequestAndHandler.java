@@ -0,0 +1,332 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import static org.jboss.as.protocol.mgmt.ProtocolUtils.expectHeader;
+
+import java.io.DataInput;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+import org.jboss.as.host.controller.logging.HostControllerLogger;
+import org.jboss.as.protocol.StreamUtils;
+import org.jboss.as.protocol.mgmt.ActiveOperation;
+import org.jboss.as.protocol.mgmt.FlushableDataOutput;
+import org.jboss.as.protocol.mgmt.ManagementRequestContext;
+import org.jboss.as.protocol.mgmt.ManagementResponseHeader;
+import org.jboss.as.protocol.mgmt.RequestProcessingException;
+import org.jboss.as.repository.ContentChunk;
+import org.jboss.as.repository.ContentChunkIndex;
+import org.jboss.as.repository.RemoteFileRequestAndHandler.RootFileReader;
+
+/**
+ * Protocol code for getting deployment content from the master to a slave HC as {@link ContentChunk chunks}. The slave
+ * first requests the manifest listing the chunks of the content, then requests the ranges it does not already hold.
+ * Only content consisting of a single file is handled this way; for anything else the manifest request
+ * reports no chunks and the slave falls back to {@link DomainRemoteFileRequestAndHandler}.
+ */
+public class DomainContentChunkRequestAndHandler {
+
+    /** The maximum number of chunks the slave may request at once */
+    public static final int MAX_CHUNKS_PER_REQUEST = 1024;
+    private static final int MAX_CACHED_MANIFESTS = 32;
+
+    // Content is immutable once stored under its hash, so manifests can be cached by file and shared by all requests
+    private final Map<File, Manifest> manifests = Collections.synchronizedMap(new LinkedHashMap<File, Manifest>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<File, Manifest> eldest) {
+            return size() > MAX_CACHED_MANIFESTS;
+        }
+    });
+
+    private final Executor asyncExecutor;
+
+    public DomainContentChunkRequestAndHandler(Executor asyncExecutor) {
+        this.asyncExecutor = asyncExecutor;
+    }
+
+    public static void sendManifestRequest(FlushableDataOutput output, byte rootId, String filePath) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+        output.writeByte(rootId);
+        output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+        output.writeUTF(filePath);
+    }
+
+    /**
+     * Read the manifest sent by the master.
+     *
+     * @param input the input
+     * @return the manifest, or {@code null} if the content cannot be transferred in chunks
+     * @throws IOException if the response could not be read
+     */
+    public static Manifest readManifest(DataInput input) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        final int numChunks = input.readInt();
+        if (numChunks < 0) {
+            return null;
+        }
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+        final String name = input.readUTF();
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_SIZE);
+        final long size = input.readLong();
+        final List<ContentChunk> chunks = new ArrayList<>(numChunks);
+        long offset = 0;
+        for (int i = 0; i < numChunks; i++) {
+            expectHeader(input, DomainControllerProtocol.PARAM_CHUNK);
+            final byte[] hash = new byte[ContentChunk.HASH_LENGTH];
+            input.readFully(hash);
+            final int length = input.readInt();
+            chunks.add(new ContentChunk(hash, offset, length));
+            offset += length;
+        }
+        return new Manifest(name, size, chunks);
+    }
+
+    public static void sendChunksRequest(FlushableDataOutput output, byte rootId, String filePath, String name, List<ContentChunk> chunks) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_ROOT_ID);
+        output.writeByte(rootId);
+        output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+        output.writeUTF(filePath);
+        output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+        output.writeUTF(name);
+        output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        output.writeInt(chunks.size());
+        for (ContentChunk chunk : chunks) {
+            output.writeByte(DomainControllerProtocol.PARAM_CHUNK);
+            output.writeLong(chunk.getOffset());
+            output.writeInt(chunk.getLength());
+        }
+    }
+
+    /**
+     * Read the chunks sent by the master, passing the bytes of each one to the consumer in request order.
+     *
+     * @param input the input
+     * @param chunks the requested chunks
+     * @param consumer the consumer
+     * @return {@code false} if the master no longer has the content
+     * @throws IOException if the response could not be read or the consumer failed
+     */
+    public static boolean readChunks(DataInput input, List<ContentChunk> chunks, ChunkConsumer consumer) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        final int numChunks = input.readInt();
+        if (numChunks < 0) {
+            return false;
+        }
+        assert numChunks == chunks.size();
+        for (ContentChunk chunk : chunks) {
+            expectHeader(input, DomainControllerProtocol.PARAM_CHUNK);
+            final byte[] bytes = new byte[chunk.getLength()];
+            input.readFully(bytes);
+            consumer.accept(chunk, bytes);
+        }
+        return true;
+    }
+
+    public void handleManifestRequest(final DataInput input, final RootFileReader reader,
+                                      final ActiveOperation.ResultHandler<Void> resultHandler,
+                                      final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
+        final byte rootId = input.readByte();
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+        final String filePath = input.readUTF();
+
+        execute(context, new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
+                final File file = getSingleFile(reader.readRootFile(rootId, filePath));
+                final Manifest manifest = file == null ? null : getManifest(file);
+                final FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+                    if (manifest == null) {
+                        output.writeInt(-1);
+                    } else {
+                        output.writeInt(manifest.getChunks().size());
+                        output.writeByte(DomainControllerProtocol.PARAM_FILE_PATH);
+                        output.writeUTF(manifest.getName());
+                        output.writeByte(DomainControllerProtocol.PARAM_FILE_SIZE);
+                        output.writeLong(manifest.getSize());
+                        for (ContentChunk chunk : manifest.getChunks()) {
+                            output.writeByte(DomainControllerProtocol.PARAM_CHUNK);
+                            output.write(chunk.getHash());
+                            output.writeInt(chunk.getLength());
+                        }
+                    }
+                    output.close();
+                    resultHandler.done(null);
+                } finally {
+                    StreamUtils.safeClose(output);
+                }
+            }
+        });
+    }
+
+    public void handleChunksRequest(final DataInput input, final RootFileReader reader,
+                                    final ActiveOperation.ResultHandler<Void> resultHandler,
+                                    final ManagementRequestContext<Void> context) throws IOException {
+        expectHeader(input, DomainControllerProtocol.PARAM_ROOT_ID);
+        final byte rootId = input.readByte();
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+        final String filePath = input.readUTF();
+        expectHeader(input, DomainControllerProtocol.PARAM_FILE_PATH);
+        final String name = input.readUTF();
+        expectHeader(input, DomainControllerProtocol.PARAM_NUM_CHUNKS);
+        final int numChunks = input.readInt();
+        if (numChunks < 0 || numChunks > MAX_CHUNKS_PER_REQUEST) {
+            throw HostControllerLogger.ROOT_LOGGER.invalidContentChunkCount(numChunks, filePath, MAX_CHUNKS_PER_REQUEST);
+        }
+        final long[] offsets = new long[numChunks];
+        final int[] lengths = new int[numChunks];
+        for (int i = 0; i < numChunks; i++) {
+            expectHeader(input, DomainControllerProtocol.PARAM_CHUNK);
+            offsets[i] = input.readLong();
+            lengths[i] = input.readInt();
+        }
+
+        execute(context, new ManagementRequestContext.AsyncTask<Void>() {
+            @Override
+            public void execute(ManagementRequestContext<Void> context) throws RequestProcessingException, IOException {
+                final File file = getSingleFile(reader.readRootFile(rootId, filePath));
+                final boolean available = file != null && file.getName().equals(name);
+                if (available) {
+                    final long size = file.length();
+                    for (int i = 0; i < numChunks; i++) {
+                        final long end = offsets[i] + lengths[i];
+                        if (offsets[i] < 0 || lengths[i] < 0 || end > size) {
+                            throw HostControllerLogger.ROOT_LOGGER.invalidContentChunkRange(offsets[i], end, filePath);
+                        }
+                    }
+                }
+                RandomAccessFile content = null;
+                final FlushableDataOutput output = context.writeMessage(ManagementResponseHeader.create(context.getRequestHeader()));
+                try {
+                    output.writeByte(DomainControllerProtocol.PARAM_NUM_CHUNKS);
+                    if (!available) {
+                        output.writeInt(-1);
+                    } else {
+                        content = new RandomAccessFile(file, "r");
+                        output.writeInt(numChunks);
+                        final byte[] buffer = new byte[8192];
+                        for (int i = 0; i < numChunks; i++) {
+                            output.writeByte(DomainControllerProtocol.PARAM_CHUNK);
+                            content.seek(offsets[i]);
+                            int remaining = lengths[i];
+                            while (remaining > 0) {
+                                final int len = Math.min(remaining, buffer.length);
+                                content.readFully(buffer, 0, len);
+                                output.write(buffer, 0, len);
+                                remaining -= len;
+                            }
+                        }
+                    }
+                    output.close();
+                    resultHandler.done(null);
+                } finally {
+                    StreamUtils.safeClose(content);
+                    StreamUtils.safeClose(output);
+                }
+            }
+        });
+    }
+
+    private void execute(ManagementRequestContext<Void> context, ManagementRequestContext.AsyncTask<Void> task) {
+        if (asyncExecutor == null) {
+            context.executeAsync(task);
+        } else {
+            context.executeAsync(task, asyncExecutor);
+        }
+    }
+
+    private Manifest getManifest(final File file) throws IOException {
+        Manifest manifest = manifests.get(file);
+        if (manifest == null || manifest.getSize() != file.length()) {
+            // Only the requested content is split, and only once as its chunks are persisted in the repository
+            manifest = new Manifest(file.getName(), file.length(), ContentChunkIndex.getChunks(file.toPath()));
+            manifests.put(file, manifest);
+        }
+        return manifest;
+    }
+
+    /**
+     * Gets the only file of a content root; content consisting of a directory tree is not transferred in chunks.
+     */
+    private static File getSingleFile(final File root) {
+        if (root == null || !root.isDirectory()) {
+            return null;
+        }
+        final File[] children = root.listFiles();
+        if (children == null || children.length != 1 || !children[0].isFile()) {
+            return null;
+        }
+        return children[0];
+    }
+
+    /**
+     * The chunks making up the single file of some content.
+     */
+    public static final class Manifest {
+        private final String name;
+        private final long size;
+        private final List<ContentChunk> chunks;
+
+        public Manifest(String name, long size, List<ContentChunk> chunks) {
+            this.name = name;
+            this.size = size;
+            this.chunks = chunks;
+        }
+
+        /**
+         * Gets the name of the file within the content root.
+         *
+         * @return the name
+         */
+        public String getName() {
+            return name;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public List<ContentChunk> getChunks() {
+            return chunks;
+        }
+    }
+
+    /**
+     * Receives the bytes of a chunk read from the master.
+     */
+    public interface ChunkConsumer {
+        void accept(ContentChunk chunk, byte[] bytes) throws IOException;
+    }
+}
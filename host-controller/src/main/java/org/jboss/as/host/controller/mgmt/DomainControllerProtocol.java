@@ -36,10 +36,13 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FETCH_DOMAIN_CONFIGURATION_REQUEST = 0x57;
     byte COMPLETE_HOST_CONTROLLER_REGISTRATION = 0x58;
     byte REQUEST_SUBSYSTEM_VERSIONS = 0x59;
+    byte GET_FILE_MANIFEST_REQUEST = 0x5A;
+    byte GET_FILE_CHUNKS_REQUEST = 0x5B;
 
     byte PARAM_HOST_ID = 0x20;
     byte PARAM_OK = 0x21;
     byte PARAM_ERROR = 0x22;
+    byte PARAM_DOMAIN_MODEL_STREAM = 0x23;
     byte PARAM_ROOT_ID = 0x24;
     byte PARAM_FILE_PATH = 0x25;
     byte PARAM_ROOT_ID_FILE = 0x26;
@@ -49,4 +52,8 @@ public interface DomainControllerProtocol extends ModelControllerProtocol {
     byte FILE_START = 0x30;
     byte PARAM_FILE_SIZE = 0x31;
     byte FILE_END = 0x32;
+    byte PARAM_DOMAIN_RESOURCE = 0x33;
+    byte PARAM_DOMAIN_MODEL_END = 0x34;
+    byte PARAM_NUM_CHUNKS = 0x35;
+    byte PARAM_CHUNK = 0x36;
 }
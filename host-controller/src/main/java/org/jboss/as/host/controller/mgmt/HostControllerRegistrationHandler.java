@@ -66,6 +66,7 @@ import org.jboss.as.domain.controller.HostRegistrations;
 import org.jboss.as.domain.controller.SlaveRegistrationException;
 import org.jboss.as.domain.controller.logging.DomainControllerLogger;
 import org.jboss.as.domain.controller.operations.ReadMasterDomainModelHandler;
+import org.jboss.as.domain.controller.operations.ReadMasterDomainModelUtil;
 import org.jboss.as.host.controller.logging.HostControllerLogger;
 import org.jboss.as.protocol.StreamUtils;
 import org.jboss.as.protocol.mgmt.ActiveOperation;
@@ -370,7 +371,10 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
                 // Remotely resolve the subsystem versions and create the transformation
                 registrationContext.processSubsystems(transformers, extensions);
                 // Now run the read-domain model operation
-                final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(hostInfo, transformers, domainController.getExtensionRegistry(), false);
+                // Hosts which support it receive the model resource by resource, so it does not need to be described in full here
+                final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel = hostInfo.isDomainModelStreaming() ? new ReadMasterDomainModelUtil.StreamedDomainModel() : null;
+                registrationContext.streamedModel = streamedModel;
+                final ReadMasterDomainModelHandler handler = new ReadMasterDomainModelHandler(hostInfo, transformers, domainController.getExtensionRegistry(), false, streamedModel);
                 context.addStep(READ_DOMAIN_MODEL.getOperation(), handler, OperationContext.Stage.MODEL);
 
                 context.completeStep(new OperationContext.ResultHandler() {
@@ -403,6 +407,7 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         private volatile IOTask<?> task;
         private volatile boolean failed;
         private volatile Transformers transformers;
+        private volatile ReadMasterDomainModelUtil.StreamedDomainModel streamedModel;
         private ActiveOperation<Void, RegistrationContext> activeOperation;
         private final AtomicBoolean completed = new AtomicBoolean();
         private final DomainHostExcludeRegistry domainHostExcludeRegistry;
@@ -569,10 +574,15 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         }
 
         private boolean sendResultToHost(ModelController.OperationTransaction transaction, final ModelNode result) {
+            final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel = this.streamedModel;
             final Boolean registered = executeBlocking(new IOTask<Boolean>() {
                 @Override
                 void sendMessage(final FlushableDataOutput output) throws IOException {
-                    sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                    if (streamedModel != null && streamedModel.isAvailable()) {
+                        sendStreamedResponse(output, streamedModel);
+                    } else {
+                        sendResponse(output, DomainControllerProtocol.PARAM_OK, result);
+                    }
                 }
             });
             if(! registered) {
@@ -735,6 +745,21 @@ public class HostControllerRegistrationHandler implements ManagementRequestHandl
         output.close();
     }
 
+    /**
+     * Send the domain model to the registering host as a stream of resource descriptions.
+     *
+     * @param output the output
+     * @param streamedModel the transformed domain model
+     * @throws IOException for any error
+     */
+    static void sendStreamedResponse(final FlushableDataOutput output, final ReadMasterDomainModelUtil.StreamedDomainModel streamedModel) throws IOException {
+        output.writeByte(DomainControllerProtocol.PARAM_DOMAIN_MODEL_STREAM);
+        streamedModel.writeTo(output);
+        // response end
+        output.writeByte(ManagementProtocol.RESPONSE_END);
+        output.close();
+    }
+
     /**
      * Send a failed operation response.
      *
@@ -130,6 +130,7 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
     private final Set<ServerConfigInfo> serverConfigInfos;
     private final Set<String> domainIgnoredExtensions;
     private final boolean hostDeclaredIgnoreUnaffected;
+    private final boolean domainModelStreaming;
     // GuardedBy this
     private ReadMasterDomainModelUtil.RequiredConfigurationHolder requiredConfigurationHolder;
 
@@ -144,6 +145,8 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         productVersion = hostInfo.hasDefined(PRODUCT_VERSION) ? hostInfo.require(PRODUCT_VERSION).asString() : null;
         remoteConnectionId = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID)
                 ? hostInfo.get(RemoteDomainConnectionService.DOMAIN_CONNECTION_ID).asLong() : null;
+        domainModelStreaming = hostInfo.hasDefined(RemoteDomainConnectionService.DOMAIN_MODEL_STREAMING)
+                && hostInfo.get(RemoteDomainConnectionService.DOMAIN_MODEL_STREAMING).asBoolean();
 
         Set<String> domainIgnoredExtensions = null;
         Set<String> domainActiveServerGroups = null;
@@ -227,6 +230,15 @@ public class HostInfo implements Transformers.ResourceIgnoredTransformationRegis
         return ignoreUnaffectedConfig;
     }
 
+    /**
+     * Whether the host can receive the domain model as a stream of resource descriptions.
+     *
+     * @return {@code true} if the host supports streaming the domain model
+     */
+    public boolean isDomainModelStreaming() {
+        return domainModelStreaming;
+    }
+
     public Set<IgnoredNonAffectedServerGroupsUtil.ServerConfigInfo> getServerConfigInfos() {
         return serverConfigInfos;
     }
@@ -52,10 +52,33 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
 
     private final DomainController domainController;
     private final Executor asyncExecutor;
+    private final DomainContentChunkRequestAndHandler chunkSupport;
+    private final RootFileReader rootFileReader = new RootFileReader() {
+        public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
+            final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
+
+            switch (rootId) {
+                case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
+                    return localFileRepository.getFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
+                    return localFileRepository.getConfigurationFile(filePath);
+                }
+                case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
+                    byte[] hash = HashUtil.hexStringToByteArray(filePath);
+                    return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
+                }
+                default: {
+                    throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
+                }
+            }
+        }
+    };
 
     public MasterDomainControllerOperationHandlerImpl(final DomainController domainController, final Executor asyncExecutor) {
         this.domainController = domainController;
         this.asyncExecutor = asyncExecutor;
+        this.chunkSupport = new DomainContentChunkRequestAndHandler(asyncExecutor);
     }
 
     @Override
@@ -68,6 +91,12 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
             } case DomainControllerProtocol.GET_FILE_REQUEST: {
                 handlers.registerActiveOperation(header.getBatchId(), null);
                 return new GetFileOperation();
+            } case DomainControllerProtocol.GET_FILE_MANIFEST_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetFileManifestOperation();
+            } case DomainControllerProtocol.GET_FILE_CHUNKS_REQUEST: {
+                handlers.registerActiveOperation(header.getBatchId(), null);
+                return new GetFileChunksOperation();
             }
         }
         return handlers.resolveNext();
@@ -97,29 +126,25 @@ class MasterDomainControllerOperationHandlerImpl implements ManagementRequestHan
         @Override
         void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
             DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileOperation with id %d from %s", context.getOperationId(), hostId);
-            final RootFileReader reader = new RootFileReader() {
-                public File readRootFile(byte rootId, String filePath) throws RequestProcessingException {
-                    final HostFileRepository localFileRepository = domainController.getLocalFileRepository();
-
-                    switch (rootId) {
-                        case DomainControllerProtocol.PARAM_ROOT_ID_FILE: {
-                            return localFileRepository.getFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_CONFIGURATION: {
-                            return localFileRepository.getConfigurationFile(filePath);
-                        }
-                        case DomainControllerProtocol.PARAM_ROOT_ID_DEPLOYMENT: {
-                            byte[] hash = HashUtil.hexStringToByteArray(filePath);
-                            return localFileRepository.getDeploymentRoot(new ContentReference(filePath, hash));
-                        }
-                        default: {
-                            throw HostControllerLogger.ROOT_LOGGER.invalidRootId(rootId);
-                        }
-                    }
-                }
-            };
+            remoteSupport.handleRequest(input, rootFileReader, resultHandler, context);
+        }
+    }
+
+    private class GetFileManifestOperation extends AbstractHostRequestHandler {
+
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileManifestOperation with id %d from %s", context.getOperationId(), hostId);
+            chunkSupport.handleManifestRequest(input, rootFileReader, resultHandler, context);
+        }
+    }
+
+    private class GetFileChunksOperation extends AbstractHostRequestHandler {
 
-            remoteSupport.handleRequest(input, reader, resultHandler, context);
+        @Override
+        void handleRequest(String hostId, DataInput input, ActiveOperation.ResultHandler<Void> resultHandler, ManagementRequestContext<Void> context) throws IOException {
+            DomainControllerLogger.ROOT_LOGGER.tracef("Handling GetFileChunksOperation with id %d from %s", context.getOperationId(), hostId);
+            chunkSupport.handleChunksRequest(input, rootFileReader, resultHandler, context);
         }
     }
 
@@ -0,0 +1,187 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+/**
+ * Accrual failure detector for a management connection. Rather than treating a single missed
+ * ping as a failure, the detector keeps a sliding window of heartbeat inter-arrival times and
+ * computes a suspicion level (phi) expressing how unlikely the current silence is given the
+ * history of the connection. Connections that have historically seen long pauses (e.g. due to
+ * GC on either side) are therefore given more slack before being declared failed.
+ * <p>
+ * The implementation follows the phi accrual failure detector described by Hayashibara et al.,
+ * using a logistic approximation of the normal cumulative distribution function.
+ */
+public final class PhiAccrualFailureDetector {
+
+    private static final int DEFAULT_SAMPLE_SIZE = 100;
+
+    private final long[] intervals;
+    private final long minStdDeviation;
+    private final long acceptablePause;
+
+    private int index;
+    private int count;
+    private long intervalSum;
+    private double squaredIntervalSum;
+    private long lastHeartbeat = -1;
+
+    /**
+     * Create a new failure detector.
+     *
+     * @param firstHeartbeatEstimate the expected heartbeat interval, used to seed the statistics before any
+     *                               heartbeats have been observed
+     * @param minStdDeviation the minimum standard deviation to use, to avoid over sensitivity when heartbeats
+     *                        arrive at a very regular cadence
+     * @param acceptablePause the duration of silence that is considered normal on top of the mean interval
+     */
+    public PhiAccrualFailureDetector(long firstHeartbeatEstimate, long minStdDeviation, long acceptablePause) {
+        this(DEFAULT_SAMPLE_SIZE, firstHeartbeatEstimate, minStdDeviation, acceptablePause);
+    }
+
+    PhiAccrualFailureDetector(int maxSampleSize, long firstHeartbeatEstimate, long minStdDeviation, long acceptablePause) {
+        assert maxSampleSize > 1;
+        assert firstHeartbeatEstimate > 0;
+        this.intervals = new long[maxSampleSize];
+        this.minStdDeviation = Math.max(1, minStdDeviation);
+        this.acceptablePause = Math.max(0, acceptablePause);
+        // Seed with a pair of samples so the initial mean is the estimate and the initial deviation a quarter of it
+        final long stdDeviationEstimate = firstHeartbeatEstimate / 4;
+        addInterval(firstHeartbeatEstimate - stdDeviationEstimate);
+        addInterval(firstHeartbeatEstimate + stdDeviationEstimate);
+    }
+
+    /**
+     * Record a heartbeat. Timestamps that are not newer than the last recorded heartbeat are ignored,
+     * so callers can safely report the same timestamp more than once.
+     *
+     * @param timestamp the time the heartbeat arrived, in milliseconds
+     */
+    public synchronized void heartbeat(long timestamp) {
+        if (timestamp <= 0 || timestamp <= lastHeartbeat) {
+            return;
+        }
+        if (lastHeartbeat > 0) {
+            addInterval(timestamp - lastHeartbeat);
+        }
+        lastHeartbeat = timestamp;
+    }
+
+    /**
+     * Get the suspicion level for the given point in time. A value of {@code 1} corresponds to roughly a
+     * 10% chance of a wrong failure decision, {@code 2} to 1%, {@code 3} to 0.1% and so on.
+     *
+     * @param timestamp the current time, in milliseconds
+     * @return the suspicion level, or {@code 0} if no heartbeat has been recorded yet
+     */
+    public synchronized double phi(long timestamp) {
+        return phi(timestamp, lastHeartbeat);
+    }
+
+    /**
+     * Get the suspicion level for the given point in time, treating a heartbeat that has not been recorded yet as
+     * the latest one if it is newer than the last recorded heartbeat. The heartbeat history is not changed.
+     *
+     * @param timestamp the current time, in milliseconds
+     * @param latestHeartbeat the time of a heartbeat which may not have been recorded, in milliseconds
+     * @return the suspicion level, or {@code 0} if no heartbeat is known
+     */
+    public synchronized double phi(long timestamp, long latestHeartbeat) {
+        final long lastHeartbeat = Math.max(this.lastHeartbeat, latestHeartbeat);
+        if (lastHeartbeat <= 0) {
+            return 0.0;
+        }
+        final long timeDiff = timestamp - lastHeartbeat;
+        final double mean = mean() + acceptablePause;
+        final double stdDeviation = Math.max(stdDeviation(), minStdDeviation);
+        final double y = (timeDiff - mean) / stdDeviation;
+        final double e = Math.exp(-y * (1.5976 + 0.070566 * y * y));
+        if (timeDiff > mean) {
+            return -Math.log10(e / (1.0 + e));
+        } else {
+            return -Math.log10(1.0 - 1.0 / (1.0 + e));
+        }
+    }
+
+    /**
+     * Whether the connection should be considered available at the given point in time.
+     *
+     * @param timestamp the current time, in milliseconds
+     * @param threshold the suspicion level above which the connection is considered failed
+     * @return {@code true} if the suspicion level is below the threshold
+     */
+    public boolean isAvailable(long timestamp, double threshold) {
+        return phi(timestamp) < threshold;
+    }
+
+    /**
+     * Get the time of the last recorded heartbeat.
+     *
+     * @return the timestamp, or {@code -1} if no heartbeat was recorded yet
+     */
+    public synchronized long getLastHeartbeat() {
+        return lastHeartbeat;
+    }
+
+    /**
+     * Get the mean heartbeat inter-arrival time over the sample window.
+     *
+     * @return the mean interval, in milliseconds
+     */
+    public synchronized long getMeanInterval() {
+        return Math.round(mean());
+    }
+
+    /**
+     * Get the standard deviation of the heartbeat inter-arrival time over the sample window.
+     *
+     * @return the standard deviation, in milliseconds
+     */
+    public synchronized long getIntervalStdDeviation() {
+        return Math.round(stdDeviation());
+    }
+
+    private void addInterval(long interval) {
+        if (count == intervals.length) {
+            final long dropped = intervals[index];
+            intervalSum -= dropped;
+            squaredIntervalSum -= (double) dropped * dropped;
+        } else {
+            count++;
+        }
+        intervals[index] = interval;
+        intervalSum += interval;
+        squaredIntervalSum += (double) interval * interval;
+        index = (index + 1) % intervals.length;
+    }
+
+    private double mean() {
+        return (double) intervalSum / count;
+    }
+
+    private double stdDeviation() {
+        final double mean = mean();
+        final double variance = squaredIntervalSum / count - mean * mean;
+        return variance > 0 ? Math.sqrt(variance) : 0.0;
+    }
+}
@@ -47,45 +47,109 @@ public class SlaveHostPinger {
     public static final long STD_INTERVAL;
     public static final long STD_TIMEOUT;
     public static final long SHORT_TIMEOUT = 10000;
+    /** The suspicion level at which a slave is considered failed */
+    public static final double PHI_THRESHOLD;
+    /** Silence on top of the mean heartbeat interval that is not treated as suspicious */
+    public static final long ACCEPTABLE_PAUSE;
+    /** Whether the domain controller should periodically ping registered slaves */
+    public static final boolean PERIODIC;
+    /** Shortest interval used when pinging a suspected slave */
+    private static final long MIN_INTERVAL = 1000;
 
     static {
-        long interval = -1;
+        final long interval = getLongProperty("jboss.as.domain.ping.interval", 15000);
+        // add 500 ms to provided interval to help allow the slave pings to prevent the need for master pings
+        STD_INTERVAL = interval > 0 ? interval + 500 : 15500;
+        final long timeout = getLongProperty("jboss.as.domain.ping.timeout", 30000);
+        STD_TIMEOUT = timeout > 0 ? timeout : 30000;
+        final String thresholdProperty = "jboss.as.domain.ping.phi-threshold";
+        final String thresholdValue = WildFlySecurityManager.getPropertyPrivileged(thresholdProperty, "8");
+        double threshold = -1;
         try {
-            interval = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.interval", "15000"));
-        } catch (Exception e) {
-            // TODO log
-        } finally {
-            // add 500 ms to provided interval to help allow the slave pings to prevent the need for master pings
-            STD_INTERVAL = interval > 0 ? interval + 500 : 15500;
+            threshold = Double.parseDouble(thresholdValue);
+        } catch (NumberFormatException e) {
+            HostControllerLogger.ROOT_LOGGER.invalidPingProperty(thresholdValue, thresholdProperty, "8");
         }
-        long timeout = -1;
+        PHI_THRESHOLD = threshold > 0 ? threshold : 8;
+        final long pause = getLongProperty("jboss.as.domain.ping.acceptable-pause", STD_TIMEOUT);
+        ACCEPTABLE_PAUSE = pause >= 0 ? pause : STD_TIMEOUT;
+        PERIODIC = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.periodic", "false"));
+    }
+
+    private static long getLongProperty(final String name, final long defaultValue) {
+        final String value = WildFlySecurityManager.getPropertyPrivileged(name, Long.toString(defaultValue));
         try {
-            timeout = Long.parseLong(WildFlySecurityManager.getPropertyPrivileged("jboss.as.domain.ping.timeout", "30000"));
-        } catch (Exception e) {
-            // TODO log
-        } finally {
-            STD_TIMEOUT = timeout > 0 ? timeout : 30000;
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            HostControllerLogger.ROOT_LOGGER.invalidPingProperty(value, name, Long.toString(defaultValue));
+            return defaultValue;
         }
     }
 
     private final String hostName;
     private final ManagementChannelHandler channelHandler;
     private final ScheduledExecutorService scheduler;
+    private final PhiAccrualFailureDetector failureDetector;
 
     private volatile Long remoteConnectionID;
     private volatile boolean cancelled;
+    private volatile long currentInterval = STD_INTERVAL;
 
     public SlaveHostPinger(String hostName, ManagementChannelHandler channelHandler, ScheduledExecutorService scheduler, long remoteConnectionID) {
         this.hostName = hostName;
         this.channelHandler = channelHandler;
         this.scheduler = scheduler;
         this.remoteConnectionID = remoteConnectionID;
+        this.failureDetector = new PhiAccrualFailureDetector(STD_INTERVAL, MIN_INTERVAL, ACCEPTABLE_PAUSE);
+        this.failureDetector.heartbeat(System.currentTimeMillis());
     }
 
     public Long getRemoteConnectionID() {
         return remoteConnectionID;
     }
 
+    /**
+     * Gets the current suspicion level (phi) that the slave has failed. The failure detector only learns the
+     * heartbeat history of the connection from periodic pings, so it is not available without them.
+     *
+     * @return the suspicion level, or {@code -1} if the slave is not pinged periodically
+     */
+    public double getSuspicionLevel() {
+        if (!PERIODIC) {
+            return -1;
+        }
+        // Account for messages received since the last ping without recording them, reading must not change the history
+        return failureDetector.phi(System.currentTimeMillis(), channelHandler.getLastMessageReceivedTime());
+    }
+
+    /**
+     * Gets the mean interval between messages received from the slave.
+     *
+     * @return the mean interval in milliseconds, or {@code -1} if the slave is not pinged periodically
+     */
+    public long getMeanHeartbeatInterval() {
+        return PERIODIC ? failureDetector.getMeanInterval() : -1;
+    }
+
+    /**
+     * Gets the standard deviation of the interval between messages received from the slave.
+     *
+     * @return the standard deviation in milliseconds, or {@code -1} if the slave is not pinged periodically
+     */
+    public long getHeartbeatIntervalStdDeviation() {
+        return PERIODIC ? failureDetector.getIntervalStdDeviation() : -1;
+    }
+
+    /**
+     * Gets the interval currently used between periodic pings. The interval shrinks while
+     * the slave is suspected, so a failure can be confirmed or ruled out quickly.
+     *
+     * @return the ping interval in milliseconds, or {@code -1} if the slave is not pinged periodically
+     */
+    public long getPingInterval() {
+        return PERIODIC ? currentInterval : -1;
+    }
+
     public void schedulePing(long timeout, long delay) {
         PingTask task = new PingTask(timeout, delay);
         scheduler.schedule(task, delay, TimeUnit.MILLISECONDS);
@@ -115,9 +179,12 @@ public class SlaveHostPinger {
                 boolean fail = false;
                 AsyncFuture<Long> future = null;
                 try {
+                    // Any message received from the slave counts as a heartbeat
+                    failureDetector.heartbeat(channelHandler.getLastMessageReceivedTime());
                     if (interval < 1 || System.currentTimeMillis() - channelHandler.getLastMessageReceivedTime() > interval) {
                         future = channelHandler.executeRequest(ManagementPingRequest.INSTANCE, null).getResult();
                         Long id = future.get(timeout, TimeUnit.MILLISECONDS);
+                        failureDetector.heartbeat(System.currentTimeMillis());
                         if (!cancelled && remoteConnectionID != null && !remoteConnectionID.equals(id)) {
                             HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerChanged(hostName);
                             fail = true;
@@ -133,11 +200,21 @@ public class SlaveHostPinger {
                 } catch (ExecutionException e) {
                     HostControllerLogger.DOMAIN_LOGGER.debug("Caught exception sending ping request", e);
                 } catch (TimeoutException e) {
+                    safeCancel(future);
                     if (!cancelled) {
-                        fail = true;
-                        HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
+                        // For periodic pings the response may have been delayed by a pause on either side; only
+                        // give up once the silence is unlikely given what we have observed on this connection.
+                        // One-off pings validate a suspect registration, so a timeout fails them right away.
+                        failureDetector.heartbeat(channelHandler.getLastMessageReceivedTime());
+                        final double phi = failureDetector.phi(System.currentTimeMillis());
+                        if (interval < 1 || phi >= PHI_THRESHOLD) {
+                            fail = true;
+                            HostControllerLogger.DOMAIN_LOGGER.slaveHostControllerUnreachable(hostName, timeout);
+                        } else {
+                            HostControllerLogger.DOMAIN_LOGGER.debugf("Ping of slave host controller %s timed out; suspicion level %.2f is below threshold %.2f",
+                                    hostName, phi, PHI_THRESHOLD);
+                        }
                     }
-                    safeCancel(future);
                 } finally {
                     if (fail) {
                         Channel channel = null;
@@ -148,12 +225,30 @@ public class SlaveHostPinger {
                         }
                         StreamUtils.safeClose(channel);
                     } else if (!cancelled && interval > 0) {
-                        scheduler.schedule(this, interval, TimeUnit.MILLISECONDS);
+                        final long nextInterval = adaptInterval();
+                        scheduler.schedule(new PingTask(timeout, nextInterval), nextInterval, TimeUnit.MILLISECONDS);
                     }
                 }
             }
         }
 
+        /**
+         * Ping more often while the slave is suspected, and go back to the standard interval once it responds.
+         */
+        private long adaptInterval() {
+            final double phi = failureDetector.phi(System.currentTimeMillis());
+            final long result;
+            if (phi >= PHI_THRESHOLD / 2) {
+                result = Math.max(MIN_INTERVAL, STD_INTERVAL / 4);
+            } else if (phi >= 1.0) {
+                result = Math.max(MIN_INTERVAL, STD_INTERVAL / 2);
+            } else {
+                result = STD_INTERVAL;
+            }
+            currentInterval = result;
+            return result;
+        }
+
         void safeCancel(Future<?> future) {
             if (future != null) {
                 future.cancel(true);
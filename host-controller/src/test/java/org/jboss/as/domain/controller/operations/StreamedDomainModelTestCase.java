@@ -0,0 +1,88 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+package org.jboss.as.domain.controller.operations;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUBSYSTEM;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.host.controller.mgmt.DomainControllerProtocol;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests writing the domain model to a slave as a stream of resource descriptions.
+ */
+public class StreamedDomainModelTestCase {
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        final Resource root = Resource.Factory.create();
+        root.getModel().get("name").set("domain");
+        final Resource extension = Resource.Factory.create();
+        extension.getModel().get("module").set("org.jboss.as.test");
+        root.registerChild(PathElement.pathElement(EXTENSION, "org.jboss.as.test"), extension);
+        final Resource profile = Resource.Factory.create(false, Collections.singleton("ordered"));
+        profile.getModel().get("attr").set("value");
+        root.registerChild(PathElement.pathElement(PROFILE, "default"), profile);
+        final Resource subsystem = Resource.Factory.create();
+        subsystem.getModel().get("attr").set(1);
+        profile.registerChild(PathElement.pathElement(SUBSYSTEM, "test"), subsystem);
+        // Hosts are never sent
+        root.registerChild(PathElement.pathElement(HOST, "master"), Resource.Factory.create());
+
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        final DataOutputStream output = new DataOutputStream(bytes);
+        ReadMasterDomainModelUtil.writeDescribedResources(root, output);
+        output.flush();
+
+        final Set<String> extensions = new HashSet<>();
+        final Resource read = ReadMasterDomainModelUtil.readDescribedResources(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), extensions);
+
+        Assert.assertEquals(Collections.singleton("org.jboss.as.test"), extensions);
+        Assert.assertEquals(root.getModel(), read.getModel());
+        Assert.assertFalse(read.hasChild(PathElement.pathElement(HOST, "master")));
+        Assert.assertEquals(extension.getModel(), read.getChild(PathElement.pathElement(EXTENSION, "org.jboss.as.test")).getModel());
+        final Resource readProfile = read.getChild(PathElement.pathElement(PROFILE, "default"));
+        Assert.assertEquals(profile.getModel(), readProfile.getModel());
+        Assert.assertEquals(Collections.singleton("ordered"), readProfile.getOrderedChildTypes());
+        Assert.assertEquals(subsystem.getModel(), readProfile.getChild(PathElement.pathElement(SUBSYSTEM, "test")).getModel());
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidStream() throws Exception {
+        final byte[] bytes = new byte[] { DomainControllerProtocol.PARAM_OK };
+        ReadMasterDomainModelUtil.readDescribedResources(new DataInputStream(new ByteArrayInputStream(bytes)), new HashSet<String>());
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ServerLatencyTracker} and {@link RolloutProgress}.
+ */
+public class ServerLatencyTrackerUnitTestCase {
+
+    private static final ServerIdentity FAST = new ServerIdentity("host-a", "group", "fast");
+    private static final ServerIdentity SLOW = new ServerIdentity("host-a", "group", "slow");
+    private static final ServerIdentity NEW = new ServerIdentity("host-b", "group", "new");
+
+    @Test
+    public void testMovingAverage() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        Assert.assertEquals(-1, tracker.getLatency(FAST));
+        tracker.recordLatency(FAST, 100);
+        Assert.assertEquals(100, tracker.getLatency(FAST));
+        tracker.recordLatency(FAST, 200);
+        Assert.assertEquals(130, tracker.getLatency(FAST));
+        tracker.recordLatency(FAST, -1);
+        Assert.assertEquals(130, tracker.getLatency(FAST));
+    }
+
+    @Test
+    public void testEviction() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.recordLatency(FAST, 100);
+        tracker.recordLatency(SLOW, 5000);
+        tracker.recordLatency(NEW, 200);
+        tracker.removeServer("host-a", "slow");
+        Assert.assertEquals(-1, tracker.getLatency(SLOW));
+        Assert.assertEquals(100, tracker.getLatency(FAST));
+        tracker.removeHost("host-b");
+        Assert.assertEquals(-1, tracker.getLatency(NEW));
+        Assert.assertEquals(100, tracker.getLatency(FAST));
+    }
+
+    @Test
+    public void testSlowestFirst() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.recordLatency(FAST, 100);
+        tracker.recordLatency(SLOW, 5000);
+        ServerUpdatePolicy policy = createPolicy(FAST, SLOW, NEW);
+        List<ServerUpdateTask> tasks = Arrays.asList(createTask(FAST, policy), createTask(SLOW, policy), createTask(NEW, policy));
+
+        List<ServerUpdateTask> ordered = tracker.order(tasks);
+        Assert.assertEquals(NEW, ordered.get(0).getServerIdentity());
+        Assert.assertEquals(SLOW, ordered.get(1).getServerIdentity());
+        Assert.assertEquals(FAST, ordered.get(2).getServerIdentity());
+        // The original list is left alone
+        Assert.assertEquals(FAST, tasks.get(0).getServerIdentity());
+    }
+
+    @Test
+    public void testProgress() {
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        RolloutProgress progress = new RolloutProgress(tracker, 3);
+        progress.serverStarted(FAST);
+        progress.serverPrepared(FAST, false);
+        progress.serverStarted(SLOW);
+        progress.serverTimedOut(SLOW);
+        progress.serverSkipped(NEW);
+
+        ModelNode summary = progress.getProgress();
+        Assert.assertEquals(3, summary.get(RolloutProgress.SERVERS).asInt());
+        Assert.assertEquals(1, summary.get(RolloutProgress.PREPARED).asInt());
+        Assert.assertEquals(0, summary.get(RolloutProgress.FAILED).asInt());
+        Assert.assertEquals(1, summary.get(RolloutProgress.TIMED_OUT).asInt());
+        Assert.assertEquals(1, summary.get(RolloutProgress.SKIPPED).asInt());
+
+        ModelNode timing = progress.getServerTiming();
+        Assert.assertEquals(Collections.singleton("host-a"), timing.keys());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("fast", "slow")), timing.get("host-a").keys());
+        Assert.assertTrue(tracker.getLatency(FAST) >= 0);
+        Assert.assertEquals(-1, tracker.getLatency(NEW));
+    }
+
+    private static ServerUpdatePolicy createPolicy(ServerIdentity... servers) {
+        ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton("group"));
+        return new ServerUpdatePolicy(parent, "group", new HashSet<>(Arrays.asList(servers)), 0);
+    }
+
+    private static ServerUpdateTask createTask(ServerIdentity server, ServerUpdatePolicy policy) {
+        return new RunningServerUpdateTask(server, new ModelNode(), policy);
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.domain.controller.plan;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.OUTCOME;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SUCCESS;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jboss.as.controller.BlockingTimeout;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.ProxyController;
+import org.jboss.as.controller.client.OperationResponse;
+import org.jboss.as.controller.remote.BlockingQueueOperationListener;
+import org.jboss.as.controller.remote.TransactionalProtocolClient;
+import org.jboss.as.controller.transform.OperationResultTransformer;
+import org.jboss.as.domain.controller.ServerIdentity;
+import org.jboss.dmr.ModelNode;
+import org.jboss.threads.AsyncFuture;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link WindowedServerGroupUpdateTask}.
+ */
+public class WindowedServerGroupUpdateTaskUnitTestCase {
+
+    private static final ServerIdentity ONE = new ServerIdentity("host-a", "group", "one");
+    private static final ServerIdentity TWO = new ServerIdentity("host-a", "group", "two");
+    private static final ServerIdentity THREE = new ServerIdentity("host-b", "group", "three");
+    private static final ServerIdentity FOUR = new ServerIdentity("host-b", "group", "four");
+    private static final ServerIdentity FIVE = new ServerIdentity("host-c", "group", "five");
+
+    @Test
+    public void testWindowLimitsConcurrentServers() {
+        TestServerTaskExecutor executor = new TestServerTaskExecutor(Collections.<ServerIdentity>emptySet());
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        RolloutProgress progress = new RolloutProgress(tracker, 5);
+
+        createTask(executor, progress, 2, 0, ONE, TWO, THREE, FOUR, FIVE).execute();
+
+        Assert.assertEquals(5, executor.started.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(ONE, TWO, THREE, FOUR, FIVE)), new HashSet<>(executor.started));
+        Assert.assertEquals(2, executor.maxOutstanding);
+        Assert.assertEquals(0, executor.outstanding);
+        ModelNode summary = progress.getProgress();
+        Assert.assertEquals(5, summary.get(RolloutProgress.PREPARED).asInt());
+        Assert.assertEquals(0, summary.get(RolloutProgress.TIMED_OUT).asInt());
+        Assert.assertEquals(0, summary.get(RolloutProgress.SKIPPED).asInt());
+        Assert.assertTrue(tracker.getLatency(FIVE) >= 0);
+    }
+
+    @Test
+    public void testSlowestServersStartFirst() {
+        TestServerTaskExecutor executor = new TestServerTaskExecutor(Collections.<ServerIdentity>emptySet());
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        tracker.recordLatency(ONE, 10);
+        tracker.recordLatency(TWO, 3000);
+        tracker.recordLatency(THREE, 500);
+        RolloutProgress progress = new RolloutProgress(tracker, 3);
+
+        createTask(executor, progress, 1, 0, ONE, TWO, THREE).execute();
+
+        Assert.assertEquals(Arrays.asList(TWO, THREE, ONE), executor.started);
+        Assert.assertEquals(1, executor.maxOutstanding);
+    }
+
+    @Test
+    public void testTimedOutServerFreesItsSlot() {
+        TestServerTaskExecutor executor = new TestServerTaskExecutor(Collections.singleton(ONE));
+        ServerLatencyTracker tracker = new ServerLatencyTracker();
+        RolloutProgress progress = new RolloutProgress(tracker, 3);
+
+        createTask(executor, progress, 1, 3, ONE, TWO, THREE).execute();
+
+        // No history, so the servers start in host and server name order and the unresponsive one goes first
+        Assert.assertEquals(Arrays.asList(ONE, TWO, THREE), executor.started);
+        Assert.assertEquals(1, executor.maxOutstanding);
+        Assert.assertEquals(0, executor.outstanding);
+        ModelNode summary = progress.getProgress();
+        Assert.assertEquals(2, summary.get(RolloutProgress.PREPARED).asInt());
+        Assert.assertEquals(1, summary.get(RolloutProgress.TIMED_OUT).asInt());
+    }
+
+    @Test
+    public void testFailedGroupSkipsRemainingServers() {
+        TestServerTaskExecutor executor = new TestServerTaskExecutor(Collections.singleton(ONE));
+        RolloutProgress progress = new RolloutProgress(new ServerLatencyTracker(), 3);
+
+        createTask(executor, progress, 1, 0, ONE, TWO, THREE).execute();
+
+        Assert.assertEquals(Collections.singletonList(ONE), executor.started);
+        ModelNode summary = progress.getProgress();
+        Assert.assertEquals(1, summary.get(RolloutProgress.TIMED_OUT).asInt());
+        Assert.assertEquals(2, summary.get(RolloutProgress.SKIPPED).asInt());
+    }
+
+    private static WindowedServerGroupUpdateTask createTask(ServerTaskExecutor executor, RolloutProgress progress,
+                                                            int maxConcurrent, int maxFailures, ServerIdentity... servers) {
+        ConcurrentGroupServerUpdatePolicy parent = new ConcurrentGroupServerUpdatePolicy(null, Collections.singleton("group"));
+        ServerUpdatePolicy policy = new ServerUpdatePolicy(parent, "group", new HashSet<>(Arrays.asList(servers)), maxFailures);
+        List<ServerUpdateTask> tasks = new ArrayList<>();
+        for (ServerIdentity server : servers) {
+            tasks.add(new RunningServerUpdateTask(server, new ModelNode(), policy));
+        }
+        return new WindowedServerGroupUpdateTask(tasks, policy, executor, null, new TestBlockingTimeout(), progress, maxConcurrent);
+    }
+
+    /**
+     * Prepares operations right away, except for the unresponsive servers which never answer.
+     */
+    private static class TestServerTaskExecutor extends ServerTaskExecutor {
+
+        private final Set<ServerIdentity> unresponsive;
+        private final List<ServerIdentity> started = new ArrayList<>();
+        private int outstanding;
+        private int maxOutstanding;
+
+        TestServerTaskExecutor(Set<ServerIdentity> unresponsive) {
+            super(null, new HashMap<ServerIdentity, ExecutedServerRequest>(), new ArrayList<ServerPreparedResponse>());
+            this.unresponsive = unresponsive;
+        }
+
+        @Override
+        protected int execute(TransactionalProtocolClient.TransactionalOperationListener<ServerOperation> listener, ServerIdentity identity, ModelNode operation) {
+            started.add(identity);
+            maxOutstanding = Math.max(maxOutstanding, ++outstanding);
+            if (unresponsive.contains(identity)) {
+                return 50;
+            }
+            listener.operationPrepared(new PreparedServerOperation(new ServerOperation(identity, operation, null, null, OperationResultTransformer.ORIGINAL_RESULT)));
+            return 10000;
+        }
+
+        @Override
+        void recordPreparedOperation(TransactionalProtocolClient.PreparedOperation<ServerOperation> preparedOperation) {
+            outstanding--;
+            super.recordPreparedOperation(preparedOperation);
+        }
+
+        @Override
+        void recordOperationPrepareTimeout(BlockingQueueOperationListener.FailedOperation<ServerOperation> failedOperation) {
+            outstanding--;
+            super.recordOperationPrepareTimeout(failedOperation);
+        }
+    }
+
+    private static class PreparedServerOperation implements TransactionalProtocolClient.PreparedOperation<ServerTaskExecutor.ServerOperation> {
+
+        private final ServerTaskExecutor.ServerOperation operation;
+
+        PreparedServerOperation(ServerTaskExecutor.ServerOperation operation) {
+            this.operation = operation;
+        }
+
+        @Override
+        public ServerTaskExecutor.ServerOperation getOperation() {
+            return operation;
+        }
+
+        @Override
+        public ModelNode getPreparedResult() {
+            final ModelNode result = new ModelNode();
+            result.get(OUTCOME).set(SUCCESS);
+            return result;
+        }
+
+        @Override
+        public boolean isFailed() {
+            return false;
+        }
+
+        @Override
+        public boolean isDone() {
+            return false;
+        }
+
+        @Override
+        public AsyncFuture<OperationResponse> getFinalResult() {
+            return null;
+        }
+
+        @Override
+        public void commit() {
+        }
+
+        @Override
+        public void rollback() {
+        }
+    }
+
+    private static class TestBlockingTimeout implements BlockingTimeout {
+
+        @Override
+        public int getLocalBlockingTimeout() {
+            return 50;
+        }
+
+        @Override
+        public int getProxyBlockingTimeout(PathAddress targetAddress, ProxyController proxyController) {
+            return 50;
+        }
+
+        @Override
+        public int getDomainBlockingTimeout(boolean multipleProxies) {
+            return 50;
+        }
+
+        @Override
+        public void timeoutDetected() {
+        }
+
+        @Override
+        public void proxyTimeoutDetected(PathAddress targetAddress) {
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.List;
+import java.util.Random;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.ChunkConsumer;
+import org.jboss.as.host.controller.mgmt.DomainContentChunkRequestAndHandler.Manifest;
+import org.jboss.as.repository.ContentChunk;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ChunkedContentTransfer}.
+ */
+public class ChunkedContentTransferTestCase {
+
+    private final Path root = new File("target", "temp").toPath().resolve("chunked-transfer");
+    private final Path master = root.resolve("master");
+    private final Path slave = root.resolve("slave");
+
+    @Before
+    public void createRoots() throws IOException {
+        deleteRoot();
+        Files.createDirectories(master);
+        Files.createDirectories(slave);
+    }
+
+    @After
+    public void deleteRoot() throws IOException {
+        if (Files.exists(root)) {
+            Files.walk(root).sorted((a, b) -> b.compareTo(a)).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Test
+    public void testTransfer() throws Exception {
+        final byte[] data = randomBytes(1, 3 * 1024 * 1024);
+        final MasterFetcher fetcher = new MasterFetcher(data, -1);
+        final ChunkedContentTransfer transfer = new ChunkedContentTransfer(slave.toFile(), fetcher);
+
+        final File contentRoot = contentRoot(fetcher.hexHash);
+        Assert.assertEquals(contentRoot, transfer.transfer(fetcher.hexHash, contentRoot));
+        Assert.assertArrayEquals(data, Files.readAllBytes(contentRoot.toPath().resolve("content")));
+        Assert.assertEquals(data.length, fetcher.transferred);
+        Assert.assertFalse(Files.exists(slave.resolve(fetcher.hexHash + ".part")));
+    }
+
+    @Test
+    public void testLocalChunksReused() throws Exception {
+        final byte[] data = randomBytes(2, 3 * 1024 * 1024);
+        final MasterFetcher first = new MasterFetcher(data, -1);
+        final ChunkedContentTransfer transfer = new ChunkedContentTransfer(slave.toFile(), first);
+        transfer.transfer(first.hexHash, contentRoot(first.hexHash));
+
+        // A new version of the content, sharing everything but its first bytes
+        final byte[] updated = data.clone();
+        System.arraycopy(randomBytes(3, 100), 0, updated, 0, 100);
+        final MasterFetcher second = new MasterFetcher(updated, -1);
+        final File contentRoot = contentRoot(second.hexHash);
+        new ChunkedContentTransfer(slave.toFile(), second).transfer(second.hexHash, contentRoot);
+        Assert.assertArrayEquals(updated, Files.readAllBytes(contentRoot.toPath().resolve("content")));
+        Assert.assertTrue(second.transferred <= 1024 * 1024);
+    }
+
+    @Test
+    public void testResume() throws Exception {
+        final byte[] data = randomBytes(4, 3 * 1024 * 1024);
+        final MasterFetcher failing = new MasterFetcher(data, 2);
+        final File contentRoot = contentRoot(failing.hexHash);
+        try {
+            new ChunkedContentTransfer(slave.toFile(), failing).transfer(failing.hexHash, contentRoot);
+            Assert.fail();
+        } catch (IOException expected) {
+            // Connection dropped
+        }
+        Assert.assertFalse(contentRoot.exists());
+        final long partSize = Files.size(slave.resolve(failing.hexHash + ".part"));
+        Assert.assertTrue(partSize > 0);
+
+        final MasterFetcher fetcher = new MasterFetcher(data, -1);
+        new ChunkedContentTransfer(slave.toFile(), fetcher).transfer(fetcher.hexHash, contentRoot);
+        Assert.assertArrayEquals(data, Files.readAllBytes(contentRoot.toPath().resolve("content")));
+        Assert.assertEquals(data.length - partSize, fetcher.transferred);
+    }
+
+    private File contentRoot(final String hexHash) {
+        return slave.resolve(hexHash.substring(0, 2)).resolve(hexHash.substring(2)).toFile();
+    }
+
+    private static byte[] randomBytes(final long seed, final int length) {
+        final byte[] bytes = new byte[length];
+        new Random(seed).nextBytes(bytes);
+        return bytes;
+    }
+
+    private class MasterFetcher implements ChunkedContentTransfer.ChunkFetcher {
+        private final byte[] data;
+        private final String hexHash;
+        private final Path file;
+        private final int failAfter;
+        private long transferred;
+        private int sent;
+
+        MasterFetcher(final byte[] data, final int failAfter) throws Exception {
+            this.data = data;
+            this.hexHash = HashUtil.bytesToHexString(MessageDigest.getInstance("SHA-1").digest(data));
+            this.file = master.resolve(hexHash);
+            this.failAfter = failAfter;
+            Files.write(file, data);
+        }
+
+        @Override
+        public Manifest getManifest(String hexHash) throws IOException {
+            return new Manifest("content", data.length, ContentChunk.split(file));
+        }
+
+        @Override
+        public boolean getChunks(String hexHash, String name, List<ContentChunk> chunks, ChunkConsumer consumer) throws IOException {
+            for (ContentChunk chunk : chunks) {
+                if (sent == failAfter) {
+                    throw new IOException("Connection dropped");
+                }
+                final byte[] bytes = new byte[chunk.getLength()];
+                System.arraycopy(data, (int) chunk.getOffset(), bytes, 0, chunk.getLength());
+                consumer.accept(chunk, bytes);
+                transferred += bytes.length;
+                sent++;
+            }
+            return true;
+        }
+    }
+}
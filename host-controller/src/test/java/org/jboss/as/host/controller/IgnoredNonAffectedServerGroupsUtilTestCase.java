@@ -0,0 +1,158 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller;
+
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.EXTENSION;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.HOST;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.INCLUDES;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.PROFILE;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_CONFIG;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SERVER_GROUP;
+import static org.jboss.as.controller.descriptions.ModelDescriptionConstants.SOCKET_BINDING_GROUP;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.PathElement;
+import org.jboss.as.controller.registry.Resource;
+import org.jboss.as.host.controller.IgnoredNonAffectedServerGroupsUtil.ServerConfigInfo;
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link IgnoredNonAffectedServerGroupsUtil}.
+ */
+public class IgnoredNonAffectedServerGroupsUtilTestCase {
+
+    @Test
+    public void testIncludes() {
+        final Resource domain = createDomain();
+        final IgnoredNonAffectedServerGroupsUtil util = IgnoredNonAffectedServerGroupsUtil.create(null);
+        final Set<ServerConfigInfo> configs = Collections.singleton(IgnoredNonAffectedServerGroupsUtil.createServerConfigInfo("main-server-group", null));
+
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(SERVER_GROUP, "main-server-group")));
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(SERVER_GROUP, "other-server-group")));
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(PROFILE, "full")));
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(PROFILE, "default")));
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(PROFILE, "base")));
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(PROFILE, "ha")));
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(SOCKET_BINDING_GROUP, "full-sockets")));
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(SOCKET_BINDING_GROUP, "standard-sockets")));
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(SOCKET_BINDING_GROUP, "ha-sockets")));
+    }
+
+    @Test
+    public void testSocketBindingGroupOverride() {
+        final Resource domain = createDomain();
+        final IgnoredNonAffectedServerGroupsUtil util = IgnoredNonAffectedServerGroupsUtil.create(null);
+        final Set<ServerConfigInfo> configs = Collections.singleton(IgnoredNonAffectedServerGroupsUtil.createServerConfigInfo("main-server-group", "ha-sockets"));
+
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(SOCKET_BINDING_GROUP, "ha-sockets")));
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(SOCKET_BINDING_GROUP, "full-sockets")));
+    }
+
+    @Test
+    public void testDomainModelChanges() {
+        final IgnoredNonAffectedServerGroupsUtil util = IgnoredNonAffectedServerGroupsUtil.create(null);
+        final Set<ServerConfigInfo> configs = Collections.singleton(IgnoredNonAffectedServerGroupsUtil.createServerConfigInfo("other-server-group", null));
+
+        Resource domain = createDomain();
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(PROFILE, "base")));
+
+        // Each write produces a new copy of the model
+        domain = domain.clone();
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(PROFILE, "base")));
+        domain = domain.clone();
+        domain.getChild(PathElement.pathElement(PROFILE, "ha")).getModel().get(INCLUDES).add("base");
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(PROFILE, "base")));
+
+        domain = domain.clone();
+        domain.getChild(PathElement.pathElement(SERVER_GROUP, "other-server-group")).getModel().get(PROFILE).set("default");
+        Assert.assertFalse(util.ignoreOperation(domain, configs, address(PROFILE, "default")));
+        Assert.assertTrue(util.ignoreOperation(domain, configs, address(PROFILE, "ha")));
+    }
+
+    @Test
+    public void testSlaveDependenciesCachedPerVersion() {
+        final IgnoredNonAffectedServerGroupsUtil util = IgnoredNonAffectedServerGroupsUtil.create(null);
+        final Resource domain = createDomain();
+        final Resource host = Resource.Factory.create();
+        domain.registerChild(PathElement.pathElement(HOST, "slave"), host);
+        addChild(host, SERVER_CONFIG, "server-one", null).get(GROUP).set("other-server-group");
+        final AtomicInteger reads = new AtomicInteger();
+        final Supplier<Resource> supplier = () -> {
+            reads.incrementAndGet();
+            return domain;
+        };
+
+        Assert.assertFalse(util.ignoreOperation(supplier, "slave", 0, PathAddress.pathAddress(PathElement.pathElement(EXTENSION, "org.jboss.as.logging"))));
+        Assert.assertEquals("Only relevant addresses read the model", 0, reads.get());
+
+        Assert.assertTrue(util.ignoreOperation(supplier, "slave", 0, address(PROFILE, "base")));
+        Assert.assertFalse(util.ignoreOperation(supplier, "slave", 0, address(PROFILE, "ha")));
+        Assert.assertFalse(util.ignoreOperation(supplier, "slave", 0, address(SOCKET_BINDING_GROUP, "ha-sockets")));
+        Assert.assertTrue(util.ignoreOperation(supplier, "slave", 0, address(SERVER_GROUP, "main-server-group")));
+        Assert.assertEquals(1, reads.get());
+
+        addChild(host, SERVER_CONFIG, "server-two", null).get(GROUP).set("main-server-group");
+        Assert.assertTrue("Unchanged version uses the cached dependencies", util.ignoreOperation(supplier, "slave", 0, address(PROFILE, "base")));
+        Assert.assertEquals(1, reads.get());
+
+        Assert.assertFalse(util.ignoreOperation(supplier, "slave", 1, address(PROFILE, "base")));
+        Assert.assertFalse(util.ignoreOperation(supplier, "slave", 1, address(SERVER_GROUP, "main-server-group")));
+        Assert.assertEquals(2, reads.get());
+    }
+
+    private static Resource createDomain() {
+        final Resource domain = Resource.Factory.create();
+        addChild(domain, PROFILE, "base", null);
+        addChild(domain, PROFILE, "default", null).get(INCLUDES).add("base");
+        addChild(domain, PROFILE, "full", null).get(INCLUDES).add("default");
+        addChild(domain, PROFILE, "ha", null);
+        addChild(domain, SOCKET_BINDING_GROUP, "standard-sockets", null);
+        addChild(domain, SOCKET_BINDING_GROUP, "full-sockets", null).get(INCLUDES).add("standard-sockets");
+        addChild(domain, SOCKET_BINDING_GROUP, "ha-sockets", null);
+        addChild(domain, SERVER_GROUP, "main-server-group", "full").get(SOCKET_BINDING_GROUP).set("full-sockets");
+        addChild(domain, SERVER_GROUP, "other-server-group", "ha").get(SOCKET_BINDING_GROUP).set("ha-sockets");
+        return domain;
+    }
+
+    private static ModelNode addChild(final Resource parent, final String type, final String name, final String profile) {
+        final Resource child = Resource.Factory.create();
+        child.getModel().setEmptyObject();
+        if (profile != null) {
+            child.getModel().get(PROFILE).set(profile);
+        }
+        parent.registerChild(PathElement.pathElement(type, name), child);
+        return child.getModel();
+    }
+
+    private static PathAddress address(final String type, final String name) {
+        return PathAddress.pathAddress(PathElement.pathElement(type, name));
+    }
+}
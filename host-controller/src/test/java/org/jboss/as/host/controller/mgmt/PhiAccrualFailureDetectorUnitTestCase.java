@@ -0,0 +1,114 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.host.controller.mgmt;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link PhiAccrualFailureDetector}.
+ */
+public class PhiAccrualFailureDetectorUnitTestCase {
+
+    @Test
+    public void testNoHeartbeat() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000, 100, 0);
+        Assert.assertEquals(0.0, detector.phi(100000), 0.0);
+        Assert.assertEquals(-1, detector.getLastHeartbeat());
+        Assert.assertEquals(1000, detector.getMeanInterval());
+    }
+
+    @Test
+    public void testSuspicionGrowsWithSilence() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000, 100, 0);
+        long time = 1000;
+        for (int i = 0; i < 20; i++) {
+            detector.heartbeat(time);
+            time += 1000;
+        }
+        long last = detector.getLastHeartbeat();
+        double early = detector.phi(last + 500);
+        double onTime = detector.phi(last + 1000);
+        double late = detector.phi(last + 3000);
+        double veryLate = detector.phi(last + 10000);
+        Assert.assertTrue(early < onTime);
+        Assert.assertTrue(onTime < late);
+        Assert.assertTrue(late < veryLate);
+        Assert.assertTrue(detector.isAvailable(last + 1000, 8));
+        Assert.assertFalse(detector.isAvailable(last + 10000, 8));
+    }
+
+    @Test
+    public void testIrregularHistoryIsMoreTolerant() {
+        PhiAccrualFailureDetector regular = new PhiAccrualFailureDetector(1000, 100, 0);
+        PhiAccrualFailureDetector irregular = new PhiAccrualFailureDetector(1000, 100, 0);
+        long regularTime = 1000;
+        long irregularTime = 1000;
+        for (int i = 0; i < 20; i++) {
+            regular.heartbeat(regularTime);
+            regularTime += 1000;
+            irregular.heartbeat(irregularTime);
+            // Simulate periodic long pauses
+            irregularTime += (i % 4 == 0) ? 4000 : 250;
+        }
+        Assert.assertTrue(irregular.getIntervalStdDeviation() > regular.getIntervalStdDeviation());
+        Assert.assertTrue(irregular.phi(irregular.getLastHeartbeat() + 5000) < regular.phi(regular.getLastHeartbeat() + 5000));
+    }
+
+    @Test
+    public void testAcceptablePause() {
+        PhiAccrualFailureDetector strict = new PhiAccrualFailureDetector(1000, 100, 0);
+        PhiAccrualFailureDetector lenient = new PhiAccrualFailureDetector(1000, 100, 5000);
+        strict.heartbeat(1000);
+        lenient.heartbeat(1000);
+        Assert.assertFalse(strict.isAvailable(6000, 8));
+        Assert.assertTrue(lenient.isAvailable(6000, 8));
+    }
+
+    @Test
+    public void testStaleHeartbeatsIgnored() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(3, 1000, 100, 0);
+        detector.heartbeat(1000);
+        detector.heartbeat(2000);
+        detector.heartbeat(2000);
+        detector.heartbeat(1500);
+        detector.heartbeat(0);
+        Assert.assertEquals(2000, detector.getLastHeartbeat());
+        // Sample window of 3 holds the two seed samples plus the single real interval
+        Assert.assertEquals(1000, detector.getMeanInterval());
+    }
+
+    @Test
+    public void testPhiWithUnrecordedHeartbeatIsReadOnly() {
+        PhiAccrualFailureDetector detector = new PhiAccrualFailureDetector(1000, 100, 0);
+        Assert.assertEquals(0.0, detector.phi(5000, 0), 0.0);
+        detector.heartbeat(1000);
+        detector.heartbeat(2000);
+        long mean = detector.getMeanInterval();
+        // A newer unrecorded heartbeat lowers the suspicion but is not added to the history
+        Assert.assertTrue(detector.phi(10000, 9500) < detector.phi(10000));
+        Assert.assertEquals(detector.phi(10000), detector.phi(10000, 1500), 0.0);
+        Assert.assertEquals(2000, detector.getLastHeartbeat());
+        Assert.assertEquals(mean, detector.getMeanInterval());
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.jboss.as.controller.OperationContext;
+import org.jboss.as.controller.OperationFailedException;
+import org.jboss.as.controller.OperationStepHandler;
+import org.jboss.as.controller.PathAddress;
+import org.jboss.as.controller.SimpleAttributeDefinition;
+import org.jboss.as.controller.SimpleAttributeDefinitionBuilder;
+import org.jboss.as.controller.client.helpers.MeasurementUnit;
+import org.jboss.as.controller.registry.ManagementResourceRegistration;
+import org.jboss.as.logging.logging.LoggingLogger;
+import org.jboss.as.logging.logmanager.ConfigurationPersistence;
+import org.jboss.as.logging.logmanager.CountingHandler;
+import org.jboss.dmr.ModelNode;
+import org.jboss.dmr.ModelType;
+import org.jboss.logmanager.LogContext;
+
+/**
+ * The runtime metrics of the handlers. They are only available on a server, where the subsystem configures the
+ * handlers. The records published are only counted if the {@code org.jboss.as.logging.handler-metrics} system property
+ * is set to {@code true}.
+ */
+final class HandlerMetrics {
+
+    static final SimpleAttributeDefinition RECORDS_PUBLISHED = SimpleAttributeDefinitionBuilder.create("records-published", ModelType.LONG)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition PUBLISH_TIME = SimpleAttributeDefinitionBuilder.create("publish-time", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.NANOSECONDS)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition FILE_SIZE = SimpleAttributeDefinitionBuilder.create("file-size", ModelType.LONG)
+            .setMeasurementUnit(MeasurementUnit.BYTES)
+            .setStorageRuntime()
+            .build();
+
+    static final SimpleAttributeDefinition ROTATED_FILE_COUNT = SimpleAttributeDefinitionBuilder.create("rotated-file-count", ModelType.INT)
+            .setStorageRuntime()
+            .build();
+
+    private HandlerMetrics() {
+    }
+
+    /**
+     * Registers the metrics counted for every handler.
+     *
+     * @param registration the handler's registration
+     */
+    static void registerMetrics(final ManagementResourceRegistration registration) {
+        registration.registerMetric(RECORDS_PUBLISHED, new CountingHandlerMetricHandler() {
+            @Override
+            long getValue(final CountingHandler countingHandler) {
+                return countingHandler.getPublishedCount();
+            }
+        });
+        registration.registerMetric(PUBLISH_TIME, new CountingHandlerMetricHandler() {
+            @Override
+            long getValue(final CountingHandler countingHandler) {
+                return countingHandler.getPublishTime();
+            }
+        });
+    }
+
+    /**
+     * Registers the metrics read from the file of a file handler.
+     *
+     * @param registration the handler's registration
+     * @param rotating     {@code true} if the handler rotates its file
+     */
+    static void registerFileMetrics(final ManagementResourceRegistration registration, final boolean rotating) {
+        registration.registerMetric(FILE_SIZE, new LogFileMetricHandler() {
+            @Override
+            void updateModel(final Path file, final ModelNode model) throws IOException {
+                model.set(Files.exists(file) ? Files.size(file) : 0L);
+            }
+        });
+        if (rotating) {
+            registration.registerMetric(ROTATED_FILE_COUNT, new LogFileMetricHandler() {
+                @Override
+                void updateModel(final Path file, final ModelNode model) throws IOException {
+                    // Rotated files are named after the file with a suffix appended
+                    final String prefix = file.getFileName() + ".";
+                    int count = 0;
+                    try (DirectoryStream<Path> rotated = Files.newDirectoryStream(file.toAbsolutePath().getParent(), p -> p.getFileName().toString().startsWith(prefix))) {
+                        for (Path ignored : rotated) {
+                            count++;
+                        }
+                    } catch (NoSuchFileException ignore) {
+                        // Nothing has been logged yet
+                    }
+                    model.set(count);
+                }
+            });
+        }
+    }
+
+    private abstract static class CountingHandlerMetricHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final PathAddress address = LoggingOperations.getAddress(operation);
+            final LogContext logContext;
+            if (LoggingProfileOperations.isLoggingProfileAddress(address)) {
+                logContext = LoggingProfileContextSelector.getInstance().get(LoggingProfileOperations.getLoggingProfileName(address));
+            } else {
+                logContext = LogContext.getLogContext();
+            }
+            final ConfigurationPersistence configurationPersistence = ConfigurationPersistence.getConfigurationPersistence(logContext);
+            // Undefined unless the handlers are counted
+            if (configurationPersistence != null && configurationPersistence.isCountingHandlers()) {
+                final CountingHandler countingHandler = configurationPersistence.getCountingHandler(LoggingOperations.getAddressName(operation));
+                // A handler no logger uses has not published anything
+                context.getResult().set(countingHandler == null ? 0L : getValue(countingHandler));
+            }
+        }
+
+        abstract long getValue(CountingHandler countingHandler);
+    }
+
+    private abstract static class LogFileMetricHandler implements OperationStepHandler {
+
+        @Override
+        public void execute(final OperationContext context, final ModelNode operation) throws OperationFailedException {
+            final ModelNode model = context.readResource(PathAddress.EMPTY_ADDRESS).getModel();
+            final String fileName = CommonAttributes.FILE.resolvePropertyValue(context, model);
+            try {
+                updateModel(Paths.get(fileName), context.getResult());
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToReadLogFileMetric(e, fileName);
+            }
+        }
+
+        abstract void updateModel(Path file, ModelNode model) throws IOException;
+    }
+}
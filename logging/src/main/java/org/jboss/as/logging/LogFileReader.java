@@ -0,0 +1,303 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Reads a window of lines from a log file for the {@code read-log-file} operations.
+ * <p/>
+ * Lines are separated by line feeds, a carriage return preceding the line feed is removed. Files are read in blocks
+ * through positional reads of a {@link FileChannel}: a tail read scans the blocks backwards from the end of the file
+ * and a forward read starts from the nearest entry of a sparse line index. The index records the offset of every
+ * {@value #INDEX_INTERVAL}th line, it is extended as further lines are requested and is kept for the most recently
+ * read files. So reading a window costs roughly the size of the window rather than the size of the file.
+ * <p/>
+ * Encodings which do not represent a line feed as the single byte {@code 0x0A}, UTF-16 for example, are decoded from
+ * the start of the file instead.
+ */
+final class LogFileReader {
+
+    private static final int BLOCK_SIZE = 64 * 1024;
+    static final int INDEX_INTERVAL = 1024;
+    private static final int MAX_INDEXES = 16;
+
+    private static final Map<Path, LineIndex> INDEXES = new LinkedHashMap<Path, LineIndex>(MAX_INDEXES, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Path, LineIndex> eldest) {
+            return size() > MAX_INDEXES;
+        }
+    };
+
+    private LogFileReader() {
+    }
+
+    /**
+     * Reads lines from the file.
+     *
+     * @param file          the file to read
+     * @param encoding      the encoding of the file or {@code null} for the default encoding
+     * @param tail          {@code true} to count the lines from the end of the file
+     * @param skip          the number of lines to skip
+     * @param numberOfLines the maximum number of lines to read, a negative value reads all the lines
+     *
+     * @return the lines in the order they appear in the file
+     *
+     * @throws IOException if the file cannot be read or the encoding is not supported
+     */
+    static List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final Charset charset;
+        try {
+            charset = (encoding == null ? Charset.defaultCharset() : Charset.forName(encoding));
+        } catch (IllegalArgumentException e) {
+            throw new UnsupportedEncodingException(encoding);
+        }
+        if (numberOfLines == 0) {
+            return Collections.emptyList();
+        }
+        final Path path = file.toPath().toAbsolutePath().normalize();
+        if (!isLineFeedCompatible(charset)) {
+            return decodeLines(path, charset, tail, skip, numberOfLines);
+        }
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            final ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+            if (tail) {
+                return readTail(channel, block, charset, skip, numberOfLines);
+            }
+            final long size = channel.size();
+            final LineIndex index = getIndex(path, size);
+            final long position;
+            final int remaining;
+            synchronized (index) {
+                final int checkpoint = index.seek(channel, block, size, skip);
+                position = index.offsets[checkpoint];
+                remaining = skip - checkpoint * INDEX_INTERVAL;
+            }
+            return readForward(channel, block, charset, position, size, remaining, numberOfLines);
+        }
+    }
+
+    private static boolean isLineFeedCompatible(final Charset charset) {
+        return Arrays.equals("\r\n".getBytes(charset), new byte[] {'\r', '\n'});
+    }
+
+    private static LineIndex getIndex(final Path path, final long size) throws IOException {
+        final BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+        // The file key identifies the file on most platforms, the creation time is a fallback for the others
+        final Object fileKey = (attributes.fileKey() == null ? attributes.creationTime() : attributes.fileKey());
+        synchronized (INDEXES) {
+            LineIndex index = INDEXES.get(path);
+            // A rotated or truncated file needs a new index
+            if (index == null || !index.fileKey.equals(fileKey) || index.scanned > size) {
+                index = new LineIndex(fileKey);
+                INDEXES.put(path, index);
+            }
+            return index;
+        }
+    }
+
+    private static List<String> readTail(final FileChannel channel, final ByteBuffer block, final Charset charset, final int skip, final int numberOfLines) throws IOException {
+        final List<String> lines = new ArrayList<>(numberOfLines < 0 ? 16 : numberOfLines);
+        final long size = channel.size();
+        if (size == 0) {
+            return lines;
+        }
+        // A line feed at the very end of the file does not start another line
+        long lineEnd = (read(channel, block, size - 1, 1) == 1 && block.get(0) == '\n' ? size - 1 : size);
+        long blockEnd = lineEnd;
+        int seen = 0;
+        while (numberOfLines < 0 || lines.size() < numberOfLines) {
+            if (blockEnd == 0) {
+                // The first line of the file
+                if (seen >= skip) {
+                    lines.add(decode(channel, charset, 0, lineEnd));
+                }
+                break;
+            }
+            final long blockStart = Math.max(0, blockEnd - BLOCK_SIZE);
+            final int length = read(channel, block, blockStart, (int) (blockEnd - blockStart));
+            final byte[] bytes = block.array();
+            for (int i = length - 1; i >= 0 && (numberOfLines < 0 || lines.size() < numberOfLines); i--) {
+                if (bytes[i] == '\n') {
+                    if (seen++ >= skip) {
+                        lines.add(decode(channel, charset, blockStart + i + 1, lineEnd));
+                    }
+                    lineEnd = blockStart + i;
+                }
+            }
+            blockEnd = blockStart;
+        }
+        Collections.reverse(lines);
+        return lines;
+    }
+
+    private static List<String> readForward(final FileChannel channel, final ByteBuffer block, final Charset charset,
+                                            long position, final long size, final int skip, final int numberOfLines) throws IOException {
+        final List<String> lines = new ArrayList<>(numberOfLines < 0 ? 16 : numberOfLines);
+        final ByteArrayOutputStream line = new ByteArrayOutputStream(256);
+        int skipped = 0;
+        while (position < size && (numberOfLines < 0 || lines.size() < numberOfLines)) {
+            final int length = read(channel, block, position, (int) Math.min(BLOCK_SIZE, size - position));
+            if (length <= 0) {
+                break;
+            }
+            final byte[] bytes = block.array();
+            int start = 0;
+            for (int i = 0; i < length && (numberOfLines < 0 || lines.size() < numberOfLines); i++) {
+                if (bytes[i] == '\n') {
+                    if (skipped < skip) {
+                        skipped++;
+                    } else {
+                        line.write(bytes, start, i - start);
+                        lines.add(toString(line.toByteArray(), line.size(), charset));
+                    }
+                    line.reset();
+                    start = i + 1;
+                }
+            }
+            if (skipped >= skip && start < length) {
+                line.write(bytes, start, length - start);
+            }
+            position += length;
+        }
+        // The last line may not end with a line feed
+        if (line.size() > 0 && (numberOfLines < 0 || lines.size() < numberOfLines)) {
+            lines.add(toString(line.toByteArray(), line.size(), charset));
+        }
+        return lines;
+    }
+
+    private static List<String> decodeLines(final Path path, final Charset charset, final boolean tail, final int skip, final int numberOfLines) throws IOException {
+        final Deque<String> lines = new ArrayDeque<>();
+        try (BufferedReader reader = Files.newBufferedReader(path, charset)) {
+            int lineCount = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (tail) {
+                    lines.addLast(line);
+                    // Only the skipped lines and the window before them need to be kept
+                    if (numberOfLines > 0 && lines.size() > skip + numberOfLines) {
+                        lines.removeFirst();
+                    }
+                } else {
+                    if (++lineCount <= skip) continue;
+                    if (lines.size() == numberOfLines) break;
+                    lines.addLast(line);
+                }
+            }
+        }
+        if (tail) {
+            for (int i = 0; i < skip && !lines.isEmpty(); i++) {
+                lines.removeLast();
+            }
+        }
+        return new ArrayList<>(lines);
+    }
+
+    private static String decode(final FileChannel channel, final Charset charset, final long start, final long end) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate((int) (end - start));
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, start + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return toString(buffer.array(), buffer.position(), charset);
+    }
+
+    private static String toString(final byte[] bytes, final int length, final Charset charset) {
+        final int end = (length > 0 && bytes[length - 1] == '\r' ? length - 1 : length);
+        return new String(bytes, 0, end, charset);
+    }
+
+    private static int read(final FileChannel channel, final ByteBuffer block, final long position, final int length) throws IOException {
+        block.clear().limit(length);
+        while (block.hasRemaining()) {
+            if (channel.read(block, position + block.position()) < 0) {
+                break;
+            }
+        }
+        return block.position();
+    }
+
+    /**
+     * The offsets of every {@value #INDEX_INTERVAL}th line of a file, guarded by the instance monitor.
+     */
+    private static final class LineIndex {
+        private final Object fileKey;
+        private long[] offsets = new long[16];
+        /** The number of entries in the offsets */
+        private int count = 1;
+        /** The number of bytes already scanned for line feeds */
+        private long scanned;
+        /** The number of line feeds found in the scanned bytes */
+        private long lineFeeds;
+
+        private LineIndex(final Object fileKey) {
+            this.fileKey = Objects.requireNonNull(fileKey);
+        }
+
+        /**
+         * Extends the index towards the line and returns the entry closest to it.
+         */
+        int seek(final FileChannel channel, final ByteBuffer block, final long size, final int line) throws IOException {
+            final int wanted = line / INDEX_INTERVAL;
+            while (count <= wanted && scanned < size) {
+                final int length = read(channel, block, scanned, (int) Math.min(BLOCK_SIZE, size - scanned));
+                if (length <= 0) {
+                    break;
+                }
+                final byte[] bytes = block.array();
+                for (int i = 0; i < length; i++) {
+                    if (bytes[i] == '\n' && ++lineFeeds % INDEX_INTERVAL == 0) {
+                        if (count == offsets.length) {
+                            offsets = Arrays.copyOf(offsets, count * 2);
+                        }
+                        offsets[count++] = scanned + i + 1;
+                    }
+                }
+                scanned += length;
+            }
+            return Math.min(wanted, count - 1);
+        }
+    }
+}
@@ -24,17 +24,13 @@ package org.jboss.as.logging;
 
 import static org.jboss.as.logging.CommonAttributes.ENCODING;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.io.RandomAccessFile;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.text.SimpleDateFormat;
-import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Date;
 import java.util.List;
@@ -164,7 +160,8 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             public void execute(OperationContext context, ModelNode operation) throws OperationFailedException {
                 final Path path = Paths.get(pathManager.resolveRelativePathEntry(LoggingOperations.getAddressName(operation), ServerEnvironment.SERVER_LOG_DIR));
                 try {
-                    String uuid = context.attachResultStream("text/plain", Files.newInputStream(path));
+                    // A FileInputStream lets the HTTP management interface send the file from its channel
+                    String uuid = context.attachResultStream("text/plain", new FileInputStream(path.toFile()));
                     context.getResult().set(uuid);
                 } catch (IOException e) {
                     throw new RuntimeException(e);
@@ -236,7 +233,7 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
                 if (numberOfLines == 0) {
                     lines = Collections.emptyList();
                 } else {
-                    lines = readLines(path, encoding, tail, skip, numberOfLines);
+                    lines = LogFileReader.readLines(path, encoding, tail, skip, numberOfLines);
                 }
                 final ModelNode result = context.getResult().setEmptyList();
                 for (String line : lines) {
@@ -247,94 +244,5 @@ class LogFileResourceDefinition extends SimpleResourceDefinition {
             }
             context.completeStep(ResultHandler.NOOP_RESULT_HANDLER);
         }
-
-        private List<String> readLines(final File file, final String encoding, final boolean tail, final int skip, final int numberOfLines) throws IOException {
-            final List<String> lines;
-            if (numberOfLines < 0) {
-                lines = new ArrayList<>();
-            } else {
-                lines = new ArrayList<>(numberOfLines);
-            }
-            try (
-                    final InputStream in = (tail ? new LifoFileInputStream(file) : Files.newInputStream(file.toPath()));
-                    final InputStreamReader isr = (encoding == null ? new InputStreamReader(in) : new InputStreamReader(in, encoding));
-                    final BufferedReader reader = new BufferedReader(isr)
-            ) {
-                int lineCount = 0;
-                String line;
-                while ((line = reader.readLine()) != null) {
-                    if (++lineCount <= skip) continue;
-                    if (lines.size() == numberOfLines) break;
-                    lines.add(line);
-                }
-                if (tail) {
-                    Collections.reverse(lines);
-                }
-                return lines;
-            }
-        }
-    }
-
-    static final class LifoFileInputStream extends InputStream {
-        private final RandomAccessFile raf;
-        private final long len;
-        private long start;
-        private long end;
-        private long pos;
-
-        LifoFileInputStream(final File file) throws IOException {
-            raf = new RandomAccessFile(file, "r");
-            len = raf.length();
-            start = len;
-            end = len;
-            pos = end;
-        }
-
-        private void positionFile() throws IOException {
-            end = start;
-            // If we're at the beginning of the file, nothing more to read
-            if (end == 0) {
-                end = -1;
-                start = -1;
-                pos = -1;
-                return;
-            }
-
-            long filePointer = start - 1;
-            while (true) {
-                filePointer--;
-                // We're at the start of the file
-                if (filePointer < 0) {
-                    break;
-                }
-                // Position the file
-                raf.seek(filePointer);
-                final byte readByte = raf.readByte();
-                // If the byte is a line feed we've found the next line ignoring the last line feed in the file
-                if (readByte == '\n' && filePointer != (len - 1)) {
-                    break;
-                }
-            }
-            start = filePointer + 1;
-            pos = start;
-        }
-
-        @Override
-        public int read() throws IOException {
-            if (pos < end) {
-                raf.seek(pos++);
-                return raf.readByte();
-            } else if (pos < 0) {
-                return -1;
-            } else {
-                positionFile();
-                return read();
-            }
-        }
-
-        @Override
-        public void close() throws IOException {
-            raf.close();
-        }
     }
 }
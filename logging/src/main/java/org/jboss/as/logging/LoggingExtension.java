@@ -34,6 +34,7 @@ import java.util.ResourceBundle;
 import org.jboss.as.controller.Extension;
 import org.jboss.as.controller.ExtensionContext;
 import org.jboss.as.controller.ModelVersion;
+import org.jboss.as.controller.PathAddress;
 import org.jboss.as.controller.PathElement;
 import org.jboss.as.controller.ResourceDefinition;
 import org.jboss.as.controller.SimpleResourceDefinition;
@@ -292,6 +293,20 @@ public class LoggingExtension implements Extension {
         registration.registerSubModel(PatternFormatterResourceDefinition.INSTANCE);
         registration.registerSubModel(CustomFormatterResourceDefinition.INSTANCE);
 
+        // Handler metrics are only available on a server
+        if (pathManager != null) {
+            for (ResourceDefinition handler : new ResourceDefinition[] {asyncHandlerResourceDefinition, consoleHandlerResourceDefinition,
+                    customHandlerResourceDefinition, SyslogHandlerResourceDefinition.INSTANCE}) {
+                HandlerMetrics.registerMetrics(registration.getSubModel(PathAddress.pathAddress(handler.getPathElement())));
+            }
+            for (AbstractFileHandlerDefinition handler : new AbstractFileHandlerDefinition[] {fileHandlerResourceDefinition, periodicHandlerResourceDefinition,
+                    periodicSizeRotatingHandlerResourceDefinition, sizeRotatingHandlerResourceDefinition}) {
+                final ManagementResourceRegistration handlerRegistration = registration.getSubModel(PathAddress.pathAddress(handler.getPathElement()));
+                HandlerMetrics.registerMetrics(handlerRegistration);
+                HandlerMetrics.registerFileMetrics(handlerRegistration, handler != fileHandlerResourceDefinition);
+            }
+        }
+
         if (registerTransformers) {
             registerTransformers(subsystem,
                     subsystemResourceDefinition,
@@ -41,6 +41,7 @@ import org.jboss.as.logging.deployments.LoggingDeploymentResourceProcessor;
 import org.jboss.as.logging.deployments.LoggingProfileDeploymentProcessor;
 import org.jboss.as.logging.logging.LoggingLogger;
 import org.jboss.as.logging.logmanager.ConfigurationPersistence;
+import org.jboss.as.logging.logmanager.ConfigurationWriterService;
 import org.jboss.as.logging.logmanager.WildFlyLogContextSelector;
 import org.jboss.as.server.AbstractDeploymentChainStep;
 import org.jboss.as.server.DeploymentProcessorTarget;
@@ -90,6 +91,11 @@ class LoggingSubsystemAdd extends AbstractAddStepHandler {
             }
         }, Stage.RUNTIME);
 
+        if (ConfigurationPersistence.isAsyncWrite()) {
+            // The writer thread lives as long as the subsystem, pending changes are written when it stops
+            context.getServiceTarget().addService(ConfigurationWriterService.SERVICE_NAME, new ConfigurationWriterService()).install();
+        }
+
         final Resource resource = context.readResource(PathAddress.EMPTY_ADDRESS);
 
         final ConfigurationPersistence configurationPersistence = ConfigurationPersistence.getOrCreateConfigurationPersistence();
@@ -937,4 +937,35 @@ public interface LoggingLogger extends BasicLogger {
             "\"java.util.logging.manager\", does not appear to be set to \"org.jboss.logmanager.LogManager\". The " +
             "current value is \"%s\". Some behavior of the logged output such as MDC and NDC may not work as expected.")
     void unknownLogManager(String logManagerName);
+
+    /**
+     * Logs an error message indicating the configuration file could not be written in the background.
+     *
+     * @param cause    the cause of the error
+     * @param fileName the configuration file
+     */
+    @LogMessage(level = ERROR)
+    @Message(id = 90, value = "Failed to write configuration file %s")
+    void failedToWriteConfigurationFileAsync(@Cause Throwable cause, File fileName);
+
+    /**
+     * Creates an exception indicating the class loader is already associated with a log context.
+     *
+     * @param classLoader the class loader
+     *
+     * @return an {@link IllegalArgumentException} for the error
+     */
+    @Message(id = 91, value = "The class loader %s is already associated with a log context")
+    IllegalArgumentException classLoaderAlreadyRegistered(ClassLoader classLoader);
+
+    /**
+     * Creates an exception indicating a metric of a log file could not be read.
+     *
+     * @param cause    the cause of the error
+     * @param fileName the log file
+     *
+     * @return an {@link OperationFailedException} for the error
+     */
+    @Message(id = 92, value = "Failed to read the metrics of log file '%s'")
+    OperationFailedException failedToReadLogFileMetric(@Cause Throwable cause, String fileName);
 }
@@ -0,0 +1,164 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.jboss.as.logging.logging.LoggingLogger;
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.LogContextSelector;
+
+/**
+ * Selects the log context registered for the class loader of the first caller on the stack which was not loaded by a
+ * log API class loader, checking the parents of the class loaders too. This is the same selection as
+ * {@link org.jboss.logmanager.ClassLoaderLogContextSelector} makes, but the result for each class on the stack is
+ * cached in a {@link ClassValue}. So once a caller has been seen, selecting its log context costs a lookup per stack
+ * frame which needs no lock and no walk through the class loader hierarchy. Classes and their cached results are not
+ * kept from being garbage collected.
+ * <p/>
+ * Registering or unregistering a log context or a log API class loader invalidates every cached result.
+ */
+class CachingClassLoaderLogContextSelector implements LogContextSelector {
+
+    private static final Gateway GATEWAY = AccessController.doPrivileged(new PrivilegedAction<Gateway>() {
+        @Override
+        public Gateway run() {
+            return new Gateway();
+        }
+    });
+
+    private final LogContextSelector defaultSelector;
+    private final ConcurrentMap<ClassLoader, LogContext> contexts = new ConcurrentHashMap<>();
+    private final Set<ClassLoader> logApiClassLoaders = ConcurrentHashMap.newKeySet();
+    private final ClassValue<CachedSelection> selections = new ClassValue<CachedSelection>() {
+        @Override
+        protected CachedSelection computeValue(final Class<?> type) {
+            return new CachedSelection();
+        }
+    };
+    /** Incremented, while holding this selector's lock, after every change which may alter a selection */
+    private volatile int generation;
+    /** Walks the stack with this selector's permissions, a caller may not be allowed to get class loaders */
+    private final PrivilegedAction<LogContext> logContextAction = new PrivilegedAction<LogContext>() {
+        @Override
+        public LogContext run() {
+            return selectLogContext();
+        }
+    };
+
+    CachingClassLoaderLogContextSelector(final LogContextSelector defaultSelector) {
+        this.defaultSelector = defaultSelector;
+    }
+
+    @Override
+    public LogContext getLogContext() {
+        return System.getSecurityManager() == null ? selectLogContext() : AccessController.doPrivileged(logContextAction);
+    }
+
+    private LogContext selectLogContext() {
+        final int generation = this.generation;
+        for (Class<?> caller : GATEWAY.getClassContext()) {
+            final CachedSelection cached = selections.get(caller);
+            Selection selection = cached.selection;
+            if (selection == null || selection.generation != generation) {
+                selection = new Selection(generation, select(caller.getClassLoader()));
+                cached.selection = selection;
+            }
+            if (selection.logContext != null) {
+                return selection.logContext;
+            }
+        }
+        return defaultSelector.getLogContext();
+    }
+
+    private LogContext select(final ClassLoader classLoader) {
+        if (classLoader == null || logApiClassLoaders.contains(classLoader)) {
+            return null;
+        }
+        ClassLoader current = classLoader;
+        do {
+            final LogContext logContext = contexts.get(current);
+            if (logContext != null) {
+                return logContext;
+            }
+            current = current.getParent();
+        } while (current != null && !logApiClassLoaders.contains(current));
+        return null;
+    }
+
+    synchronized void registerLogContext(final ClassLoader classLoader, final LogContext logContext) {
+        if (contexts.putIfAbsent(classLoader, logContext) != null) {
+            throw LoggingLogger.ROOT_LOGGER.classLoaderAlreadyRegistered(classLoader);
+        }
+        generation++;
+    }
+
+    synchronized boolean unregisterLogContext(final ClassLoader classLoader, final LogContext logContext) {
+        if (contexts.remove(classLoader, logContext)) {
+            generation++;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean addLogApiClassLoader(final ClassLoader apiClassLoader) {
+        if (logApiClassLoaders.add(apiClassLoader)) {
+            generation++;
+            return true;
+        }
+        return false;
+    }
+
+    synchronized boolean removeLogApiClassLoader(final ClassLoader apiClassLoader) {
+        if (logApiClassLoaders.remove(apiClassLoader)) {
+            generation++;
+            return true;
+        }
+        return false;
+    }
+
+    private static final class CachedSelection {
+        volatile Selection selection;
+    }
+
+    private static final class Selection {
+        final int generation;
+        final LogContext logContext;
+
+        Selection(final int generation, final LogContext logContext) {
+            this.generation = generation;
+            this.logContext = logContext;
+        }
+    }
+
+    private static final class Gateway extends SecurityManager {
+        @Override
+        protected Class<?>[] getClassContext() {
+            return super.getClassContext();
+        }
+    }
+}
@@ -22,19 +22,35 @@
 
 package org.jboss.as.logging.logmanager;
 
-import java.io.Closeable;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.nio.channels.FileLock;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.logging.Handler;
 
 import org.jboss.as.controller.OperationContext;
 import org.jboss.as.logging.CommonAttributes;
 import org.jboss.as.logging.logging.LoggingLogger;
 import org.jboss.as.logging.resolvers.FileResolver;
 import org.jboss.logmanager.Configurator;
+import org.jboss.logmanager.ExtHandler;
 import org.jboss.logmanager.LogContext;
 import org.jboss.logmanager.Logger;
 import org.jboss.logmanager.PropertyConfigurator;
@@ -45,23 +61,63 @@ import org.jboss.logmanager.config.HandlerConfiguration;
 import org.jboss.logmanager.config.LogContextConfiguration;
 import org.jboss.logmanager.config.LoggerConfiguration;
 import org.jboss.logmanager.config.PojoConfiguration;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * Persists the {@literal logging.properties} file.
  * <p/>
  * Commits any changes remaining on the {@link org.jboss.logmanager.config.LogContextConfiguration} and writes out the
  * configuration to the configuration file.
+ * <p/>
+ * Each instance guards its {@link LogContextConfiguration} with its own read-write lock. Reads of the configuration
+ * run concurrently, and changes to one log context, a logging profile for example, do not block the others.
+ * <p/>
+ * The file is only written when its content changes, and is replaced atomically.
+ * <p/>
+ * If the {@code org.jboss.as.logging.handler-metrics} system property is set to {@code true}, after each change the
+ * handlers assigned to loggers are replaced by {@link CountingHandler counting handlers}, which provide the handler
+ * metrics. The original handlers are put back before the next change is applied.
  *
  * @author <a href="mailto:jperkins@redhat.com">James R. Perkins</a>
  */
 public class ConfigurationPersistence implements Configurator, LogContextConfiguration {
 
     private static final Object LOCK = new Object();
+    /**
+     * Set to {@code true} to write the configuration file from a background thread. Changes made in quick succession
+     * are then written once.
+     */
+    private static final String ASYNC_WRITE_PROPERTY = "org.jboss.as.logging.async-config-write";
+    private static final boolean ASYNC_WRITE = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ASYNC_WRITE_PROPERTY, "false"));
+    static final long ASYNC_WRITE_DELAY = 200;
+    /**
+     * Set to {@code true} to count the records each handler publishes. Counting adds two calls to
+     * {@link System#nanoTime()} and one to {@link Handler#isLoggable(java.util.logging.LogRecord)} for each record
+     * published by each handler.
+     */
+    static final String HANDLER_METRICS_PROPERTY = "org.jboss.as.logging.handler-metrics";
+    /** The configurations waiting to be written by the background thread */
+    private static final Map<File, PendingWrite> PENDING_WRITES = new LinkedHashMap<>();
+    /** Guarded by PENDING_WRITES, {@code null} unless the background writes have been started */
+    private static ScheduledExecutorService writeExecutor;
+    /** Guarded by PENDING_WRITES */
+    private static long writeDelay;
+    /** Guarded by PENDING_WRITES */
+    private static boolean writeScheduled;
     private static final String PROPERTIES_FILE = "logging.properties";
     private static final byte[] NOTE_MESSAGE = String.format("# Note this file has been generated and will be overwritten if a%n" +
             "# logging subsystem has been defined in the XML configuration.%n%n").getBytes();
     private final PropertyConfigurator config;
     private final LogContextConfiguration delegate;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    /** The content of the configuration file as last written */
+    private volatile byte[] writtenContent;
+    /** The counting handler for each configured handler by name, guarded by the lock */
+    private final Map<String, CountingHandler> countingHandlers = new HashMap<>();
+    /** The loggers and handlers whose handlers have been replaced by counting handlers, guarded by the write lock */
+    private final List<Logger> countedLoggers = new ArrayList<>();
+    private final List<ExtHandler> countedHandlers = new ArrayList<>();
+    private final boolean countHandlers;
 
     public ConfigurationPersistence() {
         this(LogContext.getSystemLogContext());
@@ -74,6 +130,7 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
     public ConfigurationPersistence(final PropertyConfigurator config) {
         this.config = config;
         delegate = config.getLogContextConfiguration();
+        countHandlers = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(HANDLER_METRICS_PROPERTY, "false"));
     }
 
     /**
@@ -134,215 +191,455 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
         return (ConfigurationPersistence) logContext.getAttachment(CommonAttributes.ROOT_LOGGER_NAME, Configurator.ATTACHMENT_KEY);
     }
 
-    private static void safeClose(final Closeable closeable) {
-        if (closeable != null) try {
-            closeable.close();
-        } catch (Throwable t) {
-            LoggingLogger.ROOT_LOGGER.failedToCloseResource(t, closeable);
-        }
-    }
-
     @Override
     public void configure(final InputStream inputStream) throws IOException {
-        synchronized (LOCK) {
-            config.configure(inputStream);
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            removeCountingHandlers();
+            try {
+                config.configure(inputStream);
+            } finally {
+                addCountingHandlers();
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public LogContext getLogContext() {
-        synchronized (LOCK) {
-            return delegate.getLogContext();
-        }
+        return delegate.getLogContext();
     }
 
     @Override
     public LoggerConfiguration addLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addLoggerConfiguration(loggerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removeLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removeLoggerConfiguration(loggerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public LoggerConfiguration getLoggerConfiguration(final String loggerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getLoggerConfiguration(loggerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getLoggerNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getLoggerNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public HandlerConfiguration addHandlerConfiguration(final String moduleName, final String className, final String handlerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addHandlerConfiguration(moduleName, className, handlerName, constructorProperties);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removeHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removeHandlerConfiguration(handlerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public HandlerConfiguration getHandlerConfiguration(final String handlerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getHandlerConfiguration(handlerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getHandlerNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getHandlerNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public FormatterConfiguration addFormatterConfiguration(final String moduleName, final String className, final String formatterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addFormatterConfiguration(moduleName, className, formatterName, constructorProperties);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removeFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removeFormatterConfiguration(formatterName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public FormatterConfiguration getFormatterConfiguration(final String formatterName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getFormatterConfiguration(formatterName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getFormatterNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getFormatterNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public FilterConfiguration addFilterConfiguration(final String moduleName, final String className, final String filterName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addFilterConfiguration(moduleName, className, filterName, constructorProperties);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removeFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removeFilterConfiguration(filterName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public FilterConfiguration getFilterConfiguration(final String filterName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getFilterConfiguration(filterName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getFilterNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getFilterNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public ErrorManagerConfiguration addErrorManagerConfiguration(final String moduleName, final String className, final String errorManagerName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addErrorManagerConfiguration(moduleName, className, errorManagerName, constructorProperties);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removeErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removeErrorManagerConfiguration(errorManagerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public ErrorManagerConfiguration getErrorManagerConfiguration(final String errorManagerName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getErrorManagerConfiguration(errorManagerName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getErrorManagerNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getErrorManagerNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void prepare() {
-        synchronized (LOCK) {
-            delegate.prepare();
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            removeCountingHandlers();
+            try {
+                delegate.prepare();
+            } finally {
+                addCountingHandlers();
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public PojoConfiguration addPojoConfiguration(final String moduleName, final String className, final String pojoName, final String... constructorProperties) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.addPojoConfiguration(moduleName, className, pojoName, constructorProperties);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public boolean removePojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
             return delegate.removePojoConfiguration(pojoName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public PojoConfiguration getPojoConfiguration(final String pojoName) {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getPojoConfiguration(pojoName);
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public List<String> getPojoNames() {
-        synchronized (LOCK) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
             return delegate.getPojoNames();
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void commit() {
-        synchronized (LOCK) {
-            delegate.commit();
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            removeCountingHandlers();
+            try {
+                delegate.commit();
+            } finally {
+                addCountingHandlers();
+            }
+        } finally {
+            lock.unlock();
         }
     }
 
     @Override
     public void forget() {
-        synchronized (LOCK) {
-            delegate.forget();
+        final Lock lock = this.lock.writeLock();
+        lock.lock();
+        try {
+            removeCountingHandlers();
+            try {
+                delegate.forget();
+            } finally {
+                addCountingHandlers();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Indicates whether the records published by the configured handlers are counted.
+     *
+     * @return {@code true} if the {@code org.jboss.as.logging.handler-metrics} system property was set when this
+     *         instance was created
+     */
+    public boolean isCountingHandlers() {
+        return countHandlers;
+    }
+
+    /**
+     * Returns the handler counting the records published by the handler configured with the name.
+     *
+     * @param handlerName the name of the handler
+     *
+     * @return the counting handler or {@code null} if the handler is not assigned to any logger or handler
+     */
+    public CountingHandler getCountingHandler(final String handlerName) {
+        final Lock lock = this.lock.readLock();
+        lock.lock();
+        try {
+            return countingHandlers.get(handlerName);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Puts the original handlers back in place of the counting handlers. The log manager finds the handlers it
+     * configured, to remove them for example, only by their identity.
+     */
+    private void removeCountingHandlers() {
+        for (Logger logger : countedLoggers) {
+            final Handler[] handlers = logger.getHandlers();
+            if (removeCountingHandlers(handlers)) {
+                logger.setHandlers(handlers);
+            }
+        }
+        for (ExtHandler handler : countedHandlers) {
+            final Handler[] handlers = handler.getHandlers();
+            if (removeCountingHandlers(handlers)) {
+                handler.setHandlers(handlers);
+            }
+        }
+        countedLoggers.clear();
+        countedHandlers.clear();
+    }
+
+    private static boolean removeCountingHandlers(final Handler[] handlers) {
+        boolean changed = false;
+        for (int i = 0; i < handlers.length; i++) {
+            if (handlers[i] instanceof CountingHandler) {
+                handlers[i] = ((CountingHandler) handlers[i]).getDelegate();
+                changed = true;
+            }
         }
+        return changed;
+    }
+
+    /**
+     * Replaces the handlers assigned to the configured loggers, and to the handlers assigned to them, with counting
+     * handlers. A handler which is still the same instance keeps its counting handler.
+     */
+    private void addCountingHandlers() {
+        if (!countHandlers) {
+            return;
+        }
+        final LogContext logContext = delegate.getLogContext();
+        final Map<String, CountingHandler> previous = new HashMap<>(countingHandlers);
+        countingHandlers.clear();
+        for (String loggerName : delegate.getLoggerNames()) {
+            final Logger logger = logContext.getLoggerIfExists(loggerName);
+            final LoggerConfiguration configuration = delegate.getLoggerConfiguration(loggerName);
+            if (logger != null && configuration != null) {
+                final Handler[] handlers = logger.getHandlers();
+                if (addCountingHandlers(handlers, configuration.getHandlerNames(), previous)) {
+                    logger.setHandlers(handlers);
+                    countedLoggers.add(logger);
+                }
+            }
+        }
+    }
+
+    private boolean addCountingHandlers(final Handler[] handlers, final List<String> handlerNames, final Map<String, CountingHandler> previous) {
+        // The log manager assigns the handlers in the order of their names, a mismatch means they were changed elsewhere
+        if (handlers.length == 0 || handlers.length != handlerNames.size()) {
+            return false;
+        }
+        boolean changed = false;
+        for (int i = 0; i < handlers.length; i++) {
+            final String name = handlerNames.get(i);
+            final Handler handler = handlers[i];
+            CountingHandler countingHandler = countingHandlers.get(name);
+            if (countingHandler == null) {
+                countingHandler = previous.get(name);
+                if (countingHandler == null || countingHandler.getDelegate() != handler) {
+                    countingHandler = new CountingHandler(handler);
+                }
+                countingHandlers.put(name, countingHandler);
+                // Count the sub-handlers of an async handler for example too
+                final HandlerConfiguration configuration = delegate.getHandlerConfiguration(name);
+                if (handler instanceof ExtHandler && configuration != null) {
+                    final ExtHandler extHandler = (ExtHandler) handler;
+                    final Handler[] subHandlers = extHandler.getHandlers();
+                    if (addCountingHandlers(subHandlers, configuration.getHandlerNames(), previous)) {
+                        extHandler.setHandlers(subHandlers);
+                        countedHandlers.add(extHandler);
+                    }
+                }
+            }
+            if (countingHandler.getDelegate() == handler) {
+                handlers[i] = countingHandler;
+                changed = true;
+            }
+        }
+        return changed;
     }
 
     /**
@@ -394,35 +691,182 @@ public class ConfigurationPersistence implements Configurator, LogContextConfigu
         if (loggingConfig == null) {
             LoggingLogger.ROOT_LOGGER.warn(LoggingLogger.ROOT_LOGGER.pathManagerServiceNotStarted());
         } else {
-            final File configFile = new File(loggingConfig);
-            synchronized (LOCK) {
-                try {
-                    // Commit the log context configuration
-                    commit();
-                    FileOutputStream out = null;
-                    try {
-                        out = new FileOutputStream(configFile);
-                        final FileLock lock = out.getChannel().lock();
-                        try {
-                            out.write(NOTE_MESSAGE);
-                            config.writeConfiguration(out);
-                        } finally {
-                            // The write should close the stream which would release the lock this check ensures the
-                            // lock will be released
-                            if (lock.isValid()) {
-                                lock.release();
-                            }
-                        }
-                        LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", configFile.getAbsolutePath());
-                    } catch (IOException e) {
-                        throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
-                    } finally {
-                        safeClose(out);
+            writeConfiguration(new File(loggingConfig));
+        }
+    }
+
+    /**
+     * Commits the configuration and writes it to the file if it differs from the last configuration written or
+     * scheduled to be written.
+     *
+     * @param configFile the file to write the configuration to
+     */
+    void writeConfiguration(final File configFile) {
+        final Lock writeLock = this.lock.writeLock();
+        writeLock.lock();
+        try {
+            final byte[] content;
+            try {
+                // Commit the log context configuration
+                commit();
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+                out.write(NOTE_MESSAGE);
+                config.writeConfiguration(out);
+                content = out.toByteArray();
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
+            } finally {
+                forget();
+            }
+            synchronized (PENDING_WRITES) {
+                // Only write the file if the configuration changed
+                final PendingWrite pending = PENDING_WRITES.get(configFile);
+                if (pending != null) {
+                    if (Arrays.equals(content, pending.content)) {
+                        return;
+                    }
+                } else {
+                    if (writtenContent == null) {
+                        writtenContent = readFile(configFile);
+                    }
+                    if (Arrays.equals(content, writtenContent)) {
+                        return;
                     }
-                } finally {
-                    forget();
                 }
+                if (writeExecutor != null) {
+                    // A newer configuration replaces one which has not been written yet
+                    PENDING_WRITES.put(configFile, new PendingWrite(this, content));
+                    if (!writeScheduled) {
+                        writeExecutor.schedule(ConfigurationPersistence::writePending, writeDelay, TimeUnit.MILLISECONDS);
+                        writeScheduled = true;
+                    }
+                    return;
+                }
+            }
+            try {
+                writeFile(configFile, content);
+            } catch (IOException e) {
+                throw LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFile(e, configFile);
             }
+            writtenContent = content;
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Indicates whether the configuration file should be written from a background thread.
+     *
+     * @return {@code true} if the {@code org.jboss.as.logging.async-config-write} system property is set
+     */
+    public static boolean isAsyncWrite() {
+        return ASYNC_WRITE;
+    }
+
+    /**
+     * Starts writing the configuration files from a background thread. Until then, and after
+     * {@link #stopAsyncWrites()}, the files are written by the thread committing the configuration.
+     *
+     * @param delay the time in milliseconds to wait for further changes before a file is written
+     */
+    static void startAsyncWrites(final long delay) {
+        synchronized (PENDING_WRITES) {
+            if (writeExecutor == null) {
+                writeExecutor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        final Thread thread = new Thread(r, "Logging configuration writer");
+                        thread.setDaemon(true);
+                        return thread;
+                    }
+                });
+            }
+            writeDelay = delay;
+        }
+    }
+
+    /**
+     * Stops the background thread, writing any configuration waiting to be written before returning.
+     */
+    static void stopAsyncWrites() {
+        // Hold the lock until flushed, so a file written directly from now on is not overwritten by a pending write
+        synchronized (LOCK) {
+            final ScheduledExecutorService executor;
+            synchronized (PENDING_WRITES) {
+                executor = writeExecutor;
+                writeExecutor = null;
+            }
+            if (executor != null) {
+                executor.shutdownNow();
+                writePending();
+            }
+        }
+    }
+
+    private static byte[] readFile(final File file) {
+        try {
+            return file.exists() ? Files.readAllBytes(file.toPath()) : null;
+        } catch (IOException e) {
+            // Assume the file needs to be written
+            return null;
+        }
+    }
+
+    private static void writePending() {
+        // Write in order, so a later configuration is never overwritten by an earlier one
+        synchronized (LOCK) {
+            final Map<File, PendingWrite> writes;
+            synchronized (PENDING_WRITES) {
+                writes = new LinkedHashMap<>(PENDING_WRITES);
+                // Any change from now on needs another run
+                writeScheduled = false;
+            }
+            for (Map.Entry<File, PendingWrite> write : writes.entrySet()) {
+                final PendingWrite pending = write.getValue();
+                try {
+                    writeFile(write.getKey(), pending.content);
+                    pending.persistence.writtenContent = pending.content;
+                } catch (IOException e) {
+                    // The next commit compares against the content last written and tries again
+                    LoggingLogger.ROOT_LOGGER.failedToWriteConfigurationFileAsync(e, write.getKey());
+                }
+                synchronized (PENDING_WRITES) {
+                    // Stays pending until written, unless replaced by a newer configuration meanwhile
+                    PENDING_WRITES.remove(write.getKey(), pending);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes the content to a temporary file which then replaces the configuration file, so a reader never sees a
+     * partially written file.
+     */
+    private static void writeFile(final File file, final byte[] content) throws IOException {
+        synchronized (LOCK) {
+            final Path target = file.toPath();
+            final Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try {
+                Files.write(temp, content);
+                try {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } catch (AtomicMoveNotSupportedException e) {
+                    Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+                }
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            LoggingLogger.ROOT_LOGGER.tracef("Logging configuration file '%s' successfully written.", file.getAbsolutePath());
+        }
+    }
+
+    private static class PendingWrite {
+        private final ConfigurationPersistence persistence;
+        private final byte[] content;
+
+        private PendingWrite(final ConfigurationPersistence persistence, final byte[] content) {
+            this.persistence = persistence;
+            this.content = content;
         }
     }
 }
@@ -0,0 +1,94 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+
+/**
+ * Counts the records a handler publishes and the time it spends publishing them.
+ * <p/>
+ * Instances are never part of the logging configuration. The {@link ConfigurationPersistence} puts them in place of
+ * the handlers it configured after each change, and takes them out again before the next one.
+ */
+public final class CountingHandler extends Handler {
+    private final Handler delegate;
+    private final LongAdder published = new LongAdder();
+    private final LongAdder publishTime = new LongAdder();
+
+    CountingHandler(final Handler delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void publish(final LogRecord record) {
+        // Records the handler would discard are not counted
+        if (delegate.isLoggable(record)) {
+            final long start = System.nanoTime();
+            try {
+                delegate.publish(record);
+            } finally {
+                publishTime.add(System.nanoTime() - start);
+                published.increment();
+            }
+        }
+    }
+
+    @Override
+    public boolean isLoggable(final LogRecord record) {
+        return delegate.isLoggable(record);
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() throws SecurityException {
+        delegate.close();
+    }
+
+    /**
+     * Returns the number of records published since the handler was created.
+     *
+     * @return the number of records published
+     */
+    public long getPublishedCount() {
+        return published.sum();
+    }
+
+    /**
+     * Returns the time spent publishing records since the handler was created.
+     *
+     * @return the time in nanoseconds
+     */
+    public long getPublishTime() {
+        return publishTime.sum();
+    }
+
+    Handler getDelegate() {
+        return delegate;
+    }
+}
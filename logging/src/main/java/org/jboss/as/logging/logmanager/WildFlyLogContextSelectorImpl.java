@@ -24,7 +24,6 @@ package org.jboss.as.logging.logmanager;
 
 import java.util.concurrent.atomic.AtomicInteger;
 
-import org.jboss.logmanager.ClassLoaderLogContextSelector;
 import org.jboss.logmanager.LogContext;
 import org.jboss.logmanager.LogContextSelector;
 import org.jboss.logmanager.ThreadLocalLogContextSelector;
@@ -34,7 +33,7 @@ import org.jboss.logmanager.ThreadLocalLogContextSelector;
 */
 class WildFlyLogContextSelectorImpl implements WildFlyLogContextSelector {
 
-    private final ClassLoaderLogContextSelector contextSelector;
+    private final CachingClassLoaderLogContextSelector contextSelector;
 
     private final ThreadLocalLogContextSelector threadLocalContextSelector;
 
@@ -45,12 +44,12 @@ class WildFlyLogContextSelectorImpl implements WildFlyLogContextSelector {
         // Use the current log context as the default, not LogContext.DEFAULT_LOG_CONTEXT_SELECTOR
         // This allows embedding use cases to control the log context
         final LogContext defaultLogContext = LogContext.getLogContext();
-        contextSelector = new ClassLoaderLogContextSelector(new LogContextSelector() {
+        contextSelector = new CachingClassLoaderLogContextSelector(new LogContextSelector() {
             @Override
             public LogContext getLogContext() {
                 return defaultLogContext;
             }
-        }, true);
+        });
         threadLocalContextSelector = new ThreadLocalLogContextSelector(contextSelector);
     }
 
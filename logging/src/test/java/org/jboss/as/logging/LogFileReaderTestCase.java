@@ -0,0 +1,137 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogFileReaderTestCase {
+
+    private File file;
+
+    @Before
+    public void createFile() throws IOException {
+        file = File.createTempFile("log-file-reader", ".log");
+    }
+
+    @After
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file.toPath());
+    }
+
+    @Test
+    public void testEmptyFile() throws Exception {
+        Assert.assertEquals(Collections.emptyList(), LogFileReader.readLines(file, null, false, 0, 10));
+        Assert.assertEquals(Collections.emptyList(), LogFileReader.readLines(file, null, true, 0, 10));
+    }
+
+    @Test
+    public void testLineEndings() throws Exception {
+        write("one\r\ntwo\n\nfour");
+        Assert.assertEquals(Arrays.asList("one", "two", "", "four"), LogFileReader.readLines(file, null, false, 0, -1));
+        Assert.assertEquals(Arrays.asList("", "four"), LogFileReader.readLines(file, null, true, 0, 2));
+        Assert.assertEquals(Arrays.asList("one", "two"), LogFileReader.readLines(file, null, true, 2, 5));
+    }
+
+    @Test
+    public void testWindows() throws Exception {
+        // Enough lines for several index entries and lines longer than a block
+        final List<String> expected = new ArrayList<>();
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < LogFileReader.INDEX_INTERVAL * 5 + 7; i++) {
+            final StringBuilder line = new StringBuilder("line ").append(i);
+            if (i % 1000 == 0) {
+                for (int j = 0; j < 70000; j++) {
+                    line.append('x');
+                }
+            }
+            expected.add(line.toString());
+            content.append(line).append('\n');
+        }
+        write(content.toString());
+        assertWindows(expected);
+
+        // Lines appended after the index was built are found too
+        append("appended\nlast");
+        expected.add("appended");
+        expected.add("last");
+        assertWindows(expected);
+    }
+
+    @Test
+    public void testRewrittenFile() throws Exception {
+        final StringBuilder content = new StringBuilder();
+        for (int i = 0; i < LogFileReader.INDEX_INTERVAL * 3; i++) {
+            content.append("old ").append(i).append('\n');
+        }
+        write(content.toString());
+        Assert.assertEquals(Collections.singletonList("old 2500"), LogFileReader.readLines(file, null, false, 2500, 1));
+        write("new 0\nnew 1\n");
+        Assert.assertEquals(Collections.singletonList("new 1"), LogFileReader.readLines(file, null, false, 1, 1));
+        Assert.assertEquals(Collections.emptyList(), LogFileReader.readLines(file, null, false, 2500, 1));
+    }
+
+    @Test
+    public void testUtf16() throws Exception {
+        Files.write(file.toPath(), "one\ntwo\nthree\n".getBytes(StandardCharsets.UTF_16));
+        Assert.assertEquals(Arrays.asList("two", "three"), LogFileReader.readLines(file, "UTF-16", false, 1, 5));
+        Assert.assertEquals(Arrays.asList("one", "two"), LogFileReader.readLines(file, "UTF-16", true, 1, 2));
+    }
+
+    private void assertWindows(final List<String> expected) throws IOException {
+        final int size = expected.size();
+        for (int skip : new int[] {0, 1, 999, LogFileReader.INDEX_INTERVAL, LogFileReader.INDEX_INTERVAL * 3 + 5, size - 3, size, size + 10}) {
+            for (int lines : new int[] {-1, 1, 10, LogFileReader.INDEX_INTERVAL + 1}) {
+                final int forwardEnd = (lines < 0 ? size : Math.min(size, skip + lines));
+                Assert.assertEquals("skip " + skip + " lines " + lines,
+                        expected.subList(Math.min(skip, size), Math.max(Math.min(skip, size), forwardEnd)),
+                        LogFileReader.readLines(file, "UTF-8", false, skip, lines));
+                final int tailEnd = Math.max(0, size - skip);
+                final int tailStart = (lines < 0 ? 0 : Math.max(0, tailEnd - lines));
+                Assert.assertEquals("tail skip " + skip + " lines " + lines,
+                        expected.subList(tailStart, tailEnd),
+                        LogFileReader.readLines(file, "UTF-8", true, skip, lines));
+            }
+        }
+    }
+
+    private void write(final String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void append(final String content) throws IOException {
+        Files.write(file.toPath(), content.getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.security.CodeSource;
+import java.security.Permission;
+import java.security.Permissions;
+import java.security.Policy;
+import java.security.ProtectionDomain;
+import java.security.cert.Certificate;
+import java.util.function.Function;
+
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.LogContextSelector;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+public class CachingClassLoaderLogContextSelectorTestCase {
+
+    private final LogContext defaultLogContext = LogContext.create();
+    private final CachingClassLoaderLogContextSelector selector = new CachingClassLoaderLogContextSelector(new LogContextSelector() {
+        @Override
+        public LogContext getLogContext() {
+            return defaultLogContext;
+        }
+    });
+
+    @Test
+    public void testRegistration() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final LogContext logContext = LogContext.create();
+        Assert.assertSame(defaultLogContext, selector.getLogContext());
+
+        selector.registerLogContext(classLoader, logContext);
+        Assert.assertSame(logContext, selector.getLogContext());
+        // The cached selection is used
+        Assert.assertSame(logContext, selector.getLogContext());
+        try {
+            selector.registerLogContext(classLoader, LogContext.create());
+            Assert.fail("A class loader can only be registered once");
+        } catch (IllegalArgumentException expected) {
+        }
+
+        Assert.assertFalse(selector.unregisterLogContext(classLoader, defaultLogContext));
+        Assert.assertTrue(selector.unregisterLogContext(classLoader, logContext));
+        Assert.assertSame(defaultLogContext, selector.getLogContext());
+    }
+
+    @Test
+    public void testLogApiClassLoader() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final LogContext logContext = LogContext.create();
+        selector.registerLogContext(classLoader, logContext);
+        Assert.assertSame(logContext, selector.getLogContext());
+
+        Assert.assertTrue(selector.addLogApiClassLoader(classLoader));
+        Assert.assertSame(defaultLogContext, selector.getLogContext());
+
+        Assert.assertTrue(selector.removeLogApiClassLoader(classLoader));
+        Assert.assertSame(logContext, selector.getLogContext());
+    }
+
+    @Test
+    public void testParentClassLoader() {
+        final ClassLoader classLoader = getClass().getClassLoader();
+        final ClassLoader parent = classLoader.getParent();
+        Assert.assertNotNull(parent);
+        final LogContext logContext = LogContext.create();
+        selector.registerLogContext(parent, logContext);
+        Assert.assertSame(logContext, selector.getLogContext());
+
+        // The context of the class loader itself is preferred
+        final LogContext childLogContext = LogContext.create();
+        selector.registerLogContext(classLoader, childLogContext);
+        Assert.assertSame(childLogContext, selector.getLogContext());
+    }
+
+    @Test
+    public void testUnprivilegedCaller() throws Exception {
+        // The caller has no permissions at all, in particular not to get class loaders. Selecting its log context
+        // walks through the parents of the class loaders of the classes on the stack above it first.
+        final UnprivilegedClassLoader classLoader = new UnprivilegedClassLoader(getClass().getClassLoader());
+        final Function<LogContextSelector, LogContext> caller = classLoader.loadCaller().newInstance();
+        final LogContext logContext = LogContext.create();
+        selector.registerLogContext(classLoader, logContext);
+        final Policy policy = Policy.getPolicy();
+        Policy.setPolicy(new Policy() {
+            @Override
+            public boolean implies(final ProtectionDomain domain, final Permission permission) {
+                return true;
+            }
+        });
+        try {
+            try {
+                System.setSecurityManager(new SecurityManager());
+            } catch (UnsupportedOperationException e) {
+                Assume.assumeNoException("The security manager cannot be enabled", e);
+            }
+            try {
+                Assert.assertSame(logContext, caller.apply(selector));
+            } finally {
+                System.setSecurityManager(null);
+            }
+        } finally {
+            Policy.setPolicy(policy);
+        }
+    }
+
+    public static class Caller implements Function<LogContextSelector, LogContext> {
+        @Override
+        public LogContext apply(final LogContextSelector selector) {
+            return selector.getLogContext();
+        }
+    }
+
+    private static class UnprivilegedClassLoader extends ClassLoader {
+        private final ProtectionDomain protectionDomain = new ProtectionDomain(new CodeSource(null, (Certificate[]) null), new Permissions());
+
+        UnprivilegedClassLoader(final ClassLoader parent) {
+            super(parent);
+        }
+
+        @SuppressWarnings("unchecked")
+        Class<? extends Function<LogContextSelector, LogContext>> loadCaller() throws IOException {
+            final String name = Caller.class.getName();
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                final byte[] bytes = new byte[8192];
+                int len = 0;
+                for (int n; (n = in.read(bytes, len, bytes.length - len)) > 0; ) {
+                    len += n;
+                }
+                return (Class<? extends Function<LogContextSelector, LogContext>>) defineClass(name, bytes, 0, len, protectionDomain);
+            }
+        }
+    }
+}
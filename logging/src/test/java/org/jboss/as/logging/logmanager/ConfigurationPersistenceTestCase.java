@@ -0,0 +1,195 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.logging.logmanager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+
+import org.jboss.logmanager.ExtHandler;
+import org.jboss.logmanager.ExtLogRecord;
+import org.jboss.logmanager.LogContext;
+import org.jboss.logmanager.Logger;
+import org.jboss.logmanager.config.LoggerConfiguration;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class ConfigurationPersistenceTestCase {
+
+    private static final String LOGGER_NAME = "org.jboss.as.logging.test";
+
+    private final LogContext logContext = LogContext.create();
+    private final ConfigurationPersistence persistence = new ConfigurationPersistence(logContext);
+    private Path dir;
+    private File configFile;
+
+    @Before
+    public void createDir() throws IOException {
+        dir = Files.createTempDirectory("logging-config");
+        configFile = dir.resolve("logging.properties").toFile();
+    }
+
+    @After
+    public void deleteDir() throws IOException {
+        ConfigurationPersistence.stopAsyncWrites();
+        Files.deleteIfExists(configFile.toPath());
+        Files.deleteIfExists(dir);
+    }
+
+    @Test
+    public void testUnchangedConfigurationNotWritten() throws IOException {
+        setLevel("INFO");
+        persistence.writeConfiguration(configFile);
+        Assert.assertTrue(read().contains("logger." + LOGGER_NAME + ".level=INFO"));
+
+        // Nothing changed, so the file is left alone
+        write("edited");
+        persistence.writeConfiguration(configFile);
+        Assert.assertEquals("edited", read());
+
+        setLevel("DEBUG");
+        persistence.writeConfiguration(configFile);
+        Assert.assertTrue(read().contains("logger." + LOGGER_NAME + ".level=DEBUG"));
+    }
+
+    @Test
+    public void testAsyncWritesCoalesced() throws IOException {
+        ConfigurationPersistence.startAsyncWrites(TimeUnit.HOURS.toMillis(1));
+        setLevel("INFO");
+        persistence.writeConfiguration(configFile);
+        setLevel("DEBUG");
+        persistence.writeConfiguration(configFile);
+        setLevel("TRACE");
+        persistence.writeConfiguration(configFile);
+        Assert.assertFalse("Written before the delay elapsed", configFile.exists());
+
+        // Stopping writes the last configuration only
+        ConfigurationPersistence.stopAsyncWrites();
+        Assert.assertTrue(read().contains("logger." + LOGGER_NAME + ".level=TRACE"));
+
+        // The background write is recorded, an unchanged configuration is not written again
+        write("edited");
+        persistence.writeConfiguration(configFile);
+        Assert.assertEquals("edited", read());
+    }
+
+    @Test
+    public void testAsyncWriteRetriedAfterFailure() throws IOException {
+        Files.delete(dir);
+        ConfigurationPersistence.startAsyncWrites(TimeUnit.HOURS.toMillis(1));
+        setLevel("INFO");
+        persistence.writeConfiguration(configFile);
+        // The directory is missing, the write fails
+        ConfigurationPersistence.stopAsyncWrites();
+        Assert.assertFalse(configFile.exists());
+
+        // The same configuration is written again once it can be
+        Files.createDirectory(dir);
+        persistence.writeConfiguration(configFile);
+        Assert.assertTrue(read().contains("logger." + LOGGER_NAME + ".level=INFO"));
+    }
+
+    @Test
+    public void testHandlersNotCountedByDefault() {
+        persistence.addHandlerConfiguration(null, TestHandler.class.getName(), "test");
+        persistence.addLoggerConfiguration(LOGGER_NAME).addHandlerName("test");
+        persistence.commit();
+
+        Assert.assertFalse(persistence.isCountingHandlers());
+        Assert.assertNull(persistence.getCountingHandler("test"));
+        final Handler[] handlers = logContext.getLogger(LOGGER_NAME).getHandlers();
+        Assert.assertEquals(1, handlers.length);
+        Assert.assertTrue(handlers[0] instanceof TestHandler);
+    }
+
+    @Test
+    public void testCountingHandlers() {
+        final ConfigurationPersistence countingPersistence;
+        System.setProperty(ConfigurationPersistence.HANDLER_METRICS_PROPERTY, "true");
+        try {
+            countingPersistence = new ConfigurationPersistence(logContext);
+        } finally {
+            System.clearProperty(ConfigurationPersistence.HANDLER_METRICS_PROPERTY);
+        }
+        Assert.assertTrue(countingPersistence.isCountingHandlers());
+        countingPersistence.addHandlerConfiguration(null, TestHandler.class.getName(), "test");
+        final LoggerConfiguration loggerConfiguration = countingPersistence.addLoggerConfiguration(LOGGER_NAME);
+        loggerConfiguration.setLevel("INFO");
+        loggerConfiguration.addHandlerName("test");
+        countingPersistence.commit();
+
+        final Logger logger = logContext.getLogger(LOGGER_NAME);
+        logger.info("published");
+        logger.info("published");
+        logger.fine("discarded");
+        final CountingHandler countingHandler = countingPersistence.getCountingHandler("test");
+        Assert.assertNotNull(countingHandler);
+        Assert.assertArrayEquals(new Handler[] {countingHandler}, logger.getHandlers());
+        Assert.assertEquals(2, countingHandler.getPublishedCount());
+        Assert.assertEquals(2, ((TestHandler) countingHandler.getDelegate()).published);
+
+        // The same handler keeps counting after other changes
+        loggerConfiguration.setLevel("DEBUG");
+        countingPersistence.commit();
+        Assert.assertSame(countingHandler, countingPersistence.getCountingHandler("test"));
+        logger.fine("published");
+        Assert.assertEquals(3, countingHandler.getPublishedCount());
+
+        // The log manager removes the handler it configured
+        loggerConfiguration.removeHandlerName("test");
+        countingPersistence.commit();
+        Assert.assertEquals(0, logger.getHandlers().length);
+        Assert.assertNull(countingPersistence.getCountingHandler("test"));
+    }
+
+    private void setLevel(final String level) {
+        LoggerConfiguration configuration = persistence.getLoggerConfiguration(LOGGER_NAME);
+        if (configuration == null) {
+            configuration = persistence.addLoggerConfiguration(LOGGER_NAME);
+        }
+        configuration.setLevel(level);
+    }
+
+    private String read() throws IOException {
+        return new String(Files.readAllBytes(configFile.toPath()), StandardCharsets.UTF_8);
+    }
+
+    private void write(final String content) throws IOException {
+        Files.write(configFile.toPath(), content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static class TestHandler extends ExtHandler {
+        volatile int published;
+
+        @Override
+        protected void doPublish(final ExtLogRecord record) {
+            published++;
+        }
+    }
+}
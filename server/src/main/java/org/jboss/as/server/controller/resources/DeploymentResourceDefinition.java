@@ -40,6 +40,7 @@ import org.jboss.as.controller.descriptions.ModelDescriptionConstants;
 import org.jboss.as.controller.registry.ManagementResourceRegistration;
 import org.jboss.as.controller.registry.OperationEntry;
 import org.jboss.as.server.deployment.DeploymentStatusHandler;
+import org.jboss.as.server.deployment.DeploymentTimingsHandler;
 import org.jboss.dmr.ModelNode;
 
 /**
@@ -66,6 +67,8 @@ public abstract class DeploymentResourceDefinition extends SimpleResourceDefinit
         for (AttributeDefinition attr : parent.getResourceAttributes()) {
             if (attr.getName().equals(DeploymentAttributes.STATUS.getName())) {
                 resourceRegistration.registerMetric(attr, DeploymentStatusHandler.INSTANCE);
+            } else if (attr.getName().equals(DeploymentAttributes.PROCESSOR_TIMINGS.getName())) {
+                resourceRegistration.registerMetric(attr, DeploymentTimingsHandler.INSTANCE);
             } else if (attr.getName().equals(DeploymentAttributes.NAME.getName())) {
                 resourceRegistration.registerReadOnlyAttribute(DeploymentAttributes.NAME, ReadResourceNameOperationStepHandler.INSTANCE);
             } else if (DeploymentAttributes.MANAGED.getName().equals(attr.getName())) {
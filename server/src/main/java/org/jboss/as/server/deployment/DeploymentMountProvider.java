@@ -108,6 +108,8 @@ public interface DeploymentMountProvider {
                         return VFS.mountZipExpanded(contents, mountPoint, tempFileProvider);
                     case REAL:
                         return VFS.mountReal(contents.getPhysicalFile(), mountPoint);
+                    case MAPPED:
+                        return MappedZipFileSystem.mount(contents, mountPoint, tempFileProvider);
                     default:
                         throw ServerLogger.ROOT_LOGGER.unknownMountType(type);
                 }
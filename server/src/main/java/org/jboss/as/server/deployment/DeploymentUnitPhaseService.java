@@ -22,11 +22,18 @@
 
 package org.jboss.as.server.deployment;
 
+import static java.security.AccessController.doPrivileged;
+
+import java.security.PrivilegedAction;
 import java.util.ArrayList;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -43,6 +50,8 @@ import org.jboss.msc.service.StartContext;
 import org.jboss.msc.service.StartException;
 import org.jboss.msc.service.StopContext;
 import org.jboss.msc.value.InjectedValue;
+import org.jboss.threads.JBossThreadFactory;
+import org.wildfly.security.manager.WildFlySecurityManager;
 
 /**
  * A service which executes a particular phase of deployment.
@@ -55,6 +64,19 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
     private static final AttachmentKey<AttachmentList<DeploymentUnit>> UNVISITED_DEFERRED_MODULES = AttachmentKey.createList(DeploymentUnit.class);
 
+    /**
+     * System property setting the number of threads that run the phases of subdeployments. Defaults to {@code 0},
+     * in which case the phases run on the MSC threads.
+     */
+    static final String SUBDEPLOYMENT_THREADS_PROPERTY = "org.jboss.as.server.deployment.subdeployment-threads";
+    private static final int SUBDEPLOYMENT_THREADS = Integer.parseInt(WildFlySecurityManager.getPropertyPrivileged(SUBDEPLOYMENT_THREADS_PROPERTY, "0"));
+
+    /**
+     * Lock attached to a top level deployment, held by the subdeployment phases running on the subdeployment
+     * executor while they call processors which are not {@link DeploymentUnitProcessor#isThreadSafe() thread safe}
+     */
+    private static final AttachmentKey<Object> SUBDEPLOYMENT_LOCK = AttachmentKey.create(Object.class);
+
     private final InjectedValue<DeployerChains> deployerChainsInjector = new InjectedValue<DeployerChains>();
     private final DeploymentUnit deploymentUnit;
     private final Phase phase;
@@ -113,6 +135,45 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             return;
         }
         runOnce.set(true);
+        final DeploymentUnit parent = deploymentUnit.getParent();
+        if (SUBDEPLOYMENT_THREADS > 0) {
+            if (parent == null) {
+                if (!deploymentUnit.hasAttachment(SUBDEPLOYMENT_LOCK)) {
+                    deploymentUnit.putAttachment(SUBDEPLOYMENT_LOCK, new Object());
+                }
+            } else {
+                final Object lock = parent.getAttachment(SUBDEPLOYMENT_LOCK);
+                if (lock != null) {
+                    context.asynchronous();
+                    SubDeploymentExecutor.INSTANCE.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                runPhase(context, lock);
+                                context.complete();
+                            } catch (StartException e) {
+                                context.failed(e);
+                            } catch (Throwable t) {
+                                context.failed(new StartException(t));
+                            }
+                        }
+                    });
+                    return;
+                }
+            }
+        }
+        runPhase(context, null);
+    }
+
+    /**
+     * Run the processors of this phase and install the service of the next phase.
+     *
+     * @param context the start context
+     * @param lock the lock to hold while calling processors which are not thread safe, or {@code null} if the
+     *             phase is running on an MSC thread
+     */
+    private synchronized void runPhase(final StartContext context, final Object lock) throws StartException {
+        final long start = System.nanoTime();
         final DeployerChains chains = deployerChainsInjector.getValue();
         final DeploymentUnit deploymentUnit = this.deploymentUnit;
         final List<RegisteredDeploymentUnitProcessor> list = chains.getChain(phase);
@@ -124,6 +185,8 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
         final List<DeploymentUnitPhaseDependency> dependencies = new LinkedList<>();
         final DeploymentPhaseContext processorContext = new DeploymentPhaseContextImpl(serviceTarget, new DelegatingServiceRegistry(container), dependencies, deploymentUnit, phase);
+        final DeploymentUnitTimings timings = DeploymentUnitTimings.of(deploymentUnit);
+        timings.phaseStarted(phase);
 
         // attach any injected values from the last phase
         for (AttachedDependency attachedDependency : injectedAttachedDependencies) {
@@ -144,7 +207,20 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
             final RegisteredDeploymentUnitProcessor processor = iterator.next();
             try {
                 if (shouldRun(deploymentUnit, processor)) {
-                    processor.getProcessor().deploy(processorContext);
+                    final long processorStart = System.nanoTime();
+                    if (lock == null || processor.getProcessor().isThreadSafe()) {
+                        processor.getProcessor().deploy(processorContext);
+                    } else {
+                        synchronized (lock) {
+                            processor.getProcessor().deploy(processorContext);
+                        }
+                    }
+                    final long elapsed = System.nanoTime() - processorStart;
+                    timings.processorCompleted(phase, processor.getProcessor(), elapsed);
+                    if (ServerLogger.DEPLOYMENT_LOGGER.isTraceEnabled()) {
+                        ServerLogger.DEPLOYMENT_LOGGER.tracef("Processor %s of phase %s of %s took %d us", processor.getProcessor().getClass().getName(),
+                                phase, name, TimeUnit.NANOSECONDS.toMicros(elapsed));
+                    }
                 }
             } catch (Throwable e) {
                 while (iterator.hasPrevious()) {
@@ -207,6 +283,12 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
 
             phaseServiceBuilder.install();
         }
+        final long elapsed = System.nanoTime() - start;
+        timings.phaseCompleted(phase, elapsed);
+        if (lock != null) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Phase %s of %s ran on %s in %d ms", phase, name, Thread.currentThread().getName(),
+                    TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
     }
 
     private Boolean restartAllowed() {
@@ -296,4 +378,22 @@ final class DeploymentUnitPhaseService<T> implements Service<T> {
         }
         return !shouldNotRun.contains(deployer.getSubsystemName());
     }
+
+    /**
+     * Holds the executor running the phases of subdeployments, if enabled through {@link #SUBDEPLOYMENT_THREADS_PROPERTY}.
+     */
+    private static final class SubDeploymentExecutor {
+        static final Executor INSTANCE;
+        static {
+            final JBossThreadFactory threadFactory = doPrivileged(new PrivilegedAction<JBossThreadFactory>() {
+                public JBossThreadFactory run() {
+                    return new JBossThreadFactory(new ThreadGroup("SubDeployment-threads"), Boolean.TRUE, null, "%G - %t", null, null);
+                }
+            });
+            final ThreadPoolExecutor executor = new ThreadPoolExecutor(SUBDEPLOYMENT_THREADS, SUBDEPLOYMENT_THREADS, 60, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<Runnable>(), threadFactory);
+            executor.allowCoreThreadTimeOut(true);
+            INSTANCE = executor;
+        }
+    }
 }
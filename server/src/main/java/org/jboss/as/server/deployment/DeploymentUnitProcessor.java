@@ -59,4 +59,15 @@ public interface DeploymentUnitProcessor {
      * @param context the deployment unit context
      */
     void undeploy(DeploymentUnit context);
+
+    /**
+     * Whether this processor can process several subdeployments of the same deployment at the same time. If the
+     * phases of subdeployments are run on a dedicated executor, processors which are not thread safe are called
+     * for one subdeployment at a time.
+     *
+     * @return {@code true} if this processor is thread safe, {@code false} otherwise
+     */
+    default boolean isThreadSafe() {
+        return false;
+    }
 }
@@ -0,0 +1,138 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jboss.dmr.ModelNode;
+
+/**
+ * The time spent in each phase, and in each processor of these phases, while deploying a deployment unit.
+ * The timings are recorded by the {@link DeploymentUnitPhaseService} and reported through the
+ * {@link DeploymentTimingsHandler}.
+ */
+final class DeploymentUnitTimings {
+
+    static final AttachmentKey<DeploymentUnitTimings> ATTACHMENT_KEY = AttachmentKey.create(DeploymentUnitTimings.class);
+
+    static final String ELAPSED_TIME = "elapsed-time";
+    static final String PROCESSORS = "processors";
+    static final String SUBDEPLOYMENTS = "subdeployments";
+
+    private final Map<Phase, PhaseTimings> phases = new EnumMap<>(Phase.class);
+
+    /**
+     * Get the timings of the given deployment unit, attaching new timings if none were recorded yet.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the timings
+     */
+    static DeploymentUnitTimings of(final DeploymentUnit deploymentUnit) {
+        DeploymentUnitTimings timings = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+        if (timings == null) {
+            timings = new DeploymentUnitTimings();
+            deploymentUnit.putAttachment(ATTACHMENT_KEY, timings);
+        }
+        return timings;
+    }
+
+    /**
+     * Record the start of a phase, discarding the timings of any previous run of the phase.
+     *
+     * @param phase the phase
+     */
+    synchronized void phaseStarted(final Phase phase) {
+        phases.put(phase, new PhaseTimings());
+    }
+
+    /**
+     * Record the time a processor took to deploy.
+     *
+     * @param phase the phase
+     * @param processor the processor
+     * @param nanos the time, in nanoseconds
+     */
+    synchronized void processorCompleted(final Phase phase, final DeploymentUnitProcessor processor, final long nanos) {
+        final PhaseTimings timings = phases.get(phase);
+        if (timings != null) {
+            // The same processor class may be registered more than once in a phase
+            timings.processors.merge(processor.getClass().getName(), nanos, Long::sum);
+        }
+    }
+
+    /**
+     * Record the time a phase took to complete.
+     *
+     * @param phase the phase
+     * @param nanos the time, in nanoseconds
+     */
+    synchronized void phaseCompleted(final Phase phase, final long nanos) {
+        final PhaseTimings timings = phases.get(phase);
+        if (timings != null) {
+            timings.elapsed = nanos;
+        }
+    }
+
+    /**
+     * Describe the timings, in microseconds, of the given deployment unit and of its subdeployments.
+     *
+     * @param deploymentUnit the deployment unit
+     * @return the description, or an undefined node if no timings were recorded for the unit
+     */
+    static ModelNode toModelNode(final DeploymentUnit deploymentUnit) {
+        final ModelNode result = new ModelNode();
+        final DeploymentUnitTimings timings = deploymentUnit.getAttachment(ATTACHMENT_KEY);
+        if (timings != null) {
+            timings.describe(result);
+        }
+        for (DeploymentUnit subDeployment : deploymentUnit.getAttachmentList(Attachments.SUB_DEPLOYMENTS)) {
+            final ModelNode subTimings = toModelNode(subDeployment);
+            if (subTimings.isDefined()) {
+                result.get(SUBDEPLOYMENTS, subDeployment.getName()).set(subTimings);
+            }
+        }
+        return result;
+    }
+
+    private synchronized void describe(final ModelNode result) {
+        for (Map.Entry<Phase, PhaseTimings> phase : phases.entrySet()) {
+            final ModelNode phaseNode = result.get(phase.getKey().name());
+            final PhaseTimings timings = phase.getValue();
+            if (timings.elapsed >= 0) {
+                phaseNode.get(ELAPSED_TIME).set(TimeUnit.NANOSECONDS.toMicros(timings.elapsed));
+            }
+            final ModelNode processorsNode = phaseNode.get(PROCESSORS).setEmptyObject();
+            for (Map.Entry<String, Long> processor : timings.processors.entrySet()) {
+                processorsNode.get(processor.getKey()).set(TimeUnit.NANOSECONDS.toMicros(processor.getValue()));
+            }
+        }
+    }
+
+    private static final class PhaseTimings {
+        private final Map<String, Long> processors = new LinkedHashMap<>();
+        private long elapsed = -1;
+    }
+}
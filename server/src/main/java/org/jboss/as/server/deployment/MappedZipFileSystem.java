@@ -0,0 +1,345 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.CodeSigner;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.ZipException;
+
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.vfs.TempDir;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.jboss.vfs.spi.FileSystem;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * A read-only VFS file system serving the entries of a zip archive straight from a memory mapped view of the archive,
+ * as an alternative to the {@link VFS#mountZip(VirtualFile, VirtualFile, TempFileProvider) zip mounts} of VFS which
+ * copy nested archives to temporary files.
+ * <p>
+ * Archives nested in a mapped archive are mounted from a view of the enclosing mapping when they are stored, and
+ * from an inflated copy held in memory otherwise. Entries are only extracted to temporary files if their
+ * {@link VirtualFile#getPhysicalFile() physical file} is requested. Signed archives, and archives this file system
+ * cannot read, are mounted by VFS as usual.
+ * <p>
+ * Mapped mounts are disabled by default, and are enabled by setting the {@value #MAPPED_MOUNTS_PROPERTY} system
+ * property to {@code true}. Note that a mapped file stays open until its mapping is garbage collected, which on some
+ * platforms prevents it from being deleted in the meantime.
+ */
+public final class MappedZipFileSystem implements FileSystem {
+
+    /**
+     * System property enabling mapped mounts of deployment archives.
+     */
+    public static final String MAPPED_MOUNTS_PROPERTY = "org.jboss.as.server.deployment.mapped-zip-mounts";
+    private static final boolean MAPPED_MOUNTS = Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(MAPPED_MOUNTS_PROPERTY, "false"));
+
+    /** Deflated nested archives larger than this are mounted by VFS rather than inflated in memory */
+    private static final long MAX_INFLATED_SIZE = 64L * 1024 * 1024;
+
+    /** The mapped file systems by mount point, used to find the mapping an archive to mount is nested in */
+    private static final Map<VirtualFile, MappedZipFileSystem> MOUNTS = new ConcurrentHashMap<>();
+
+    private final ZipCentralDirectory directory;
+    private final File archiveFile;
+    private final VirtualFile mountPoint;
+    private final TempFileProvider tempFileProvider;
+    private TempDir tempDir;
+
+    private MappedZipFileSystem(final ZipCentralDirectory directory, final File archiveFile, final VirtualFile mountPoint,
+                                final TempFileProvider tempFileProvider) {
+        this.directory = directory;
+        this.archiveFile = archiveFile;
+        this.mountPoint = mountPoint;
+        this.tempFileProvider = tempFileProvider;
+    }
+
+    /**
+     * Whether deployment archives should be mounted by {@link MountType#MAPPED mapping} them.
+     *
+     * @return {@code true} if the {@value #MAPPED_MOUNTS_PROPERTY} system property is set
+     */
+    public static boolean isEnabled() {
+        return MAPPED_MOUNTS;
+    }
+
+    /**
+     * Mount a zip archive, mapping it if {@link #isEnabled() mapped mounts are enabled}, or using a VFS zip mount
+     * otherwise.
+     *
+     * @param archive the archive to mount
+     * @param mountPoint the location where the archive should be mounted
+     * @param tempFileProvider the provider of the temporary files
+     * @return a handle closing the mount
+     * @throws IOException if the archive could not be mounted
+     */
+    public static Closeable mountZip(final VirtualFile archive, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        return MAPPED_MOUNTS ? mount(archive, mountPoint, tempFileProvider) : VFS.mountZip(archive, mountPoint, tempFileProvider);
+    }
+
+    /**
+     * Mount a zip archive by mapping it, falling back to a VFS zip mount if the archive cannot be mapped.
+     *
+     * @param archive the archive to mount
+     * @param mountPoint the location where the archive should be mounted
+     * @param tempFileProvider the provider of the temporary files
+     * @return a handle closing the mount
+     * @throws IOException if the archive could not be mounted
+     */
+    public static Closeable mount(final VirtualFile archive, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        final MappedZipFileSystem fileSystem = open(archive, mountPoint, tempFileProvider);
+        if (fileSystem == null) {
+            return VFS.mountZip(archive, mountPoint, tempFileProvider);
+        }
+        boolean ok = false;
+        try {
+            final Closeable handle = VFS.mount(mountPoint, fileSystem);
+            MOUNTS.put(mountPoint, fileSystem);
+            ok = true;
+            return handle;
+        } finally {
+            if (!ok) {
+                VFSUtils.safeClose(fileSystem);
+            }
+        }
+    }
+
+    private static MappedZipFileSystem open(final VirtualFile archive, final VirtualFile mountPoint, final TempFileProvider tempFileProvider) throws IOException {
+        ByteBuffer buffer = null;
+        File archiveFile = null;
+        for (VirtualFile parent = archive.getParent(); parent != null && buffer == null; parent = parent.getParent()) {
+            final MappedZipFileSystem owner = MOUNTS.get(parent);
+            if (owner != null) {
+                final ZipCentralDirectory.Entry entry = owner.directory.getEntry(archive.getPathNameRelativeTo(parent));
+                if (entry == null) {
+                    // The archive is in a file system mounted inside the mapped archive
+                    break;
+                }
+                buffer = owner.read(entry);
+                if (buffer == null) {
+                    return null;
+                }
+            }
+        }
+        if (buffer == null) {
+            archiveFile = archive.getPhysicalFile();
+            try (FileChannel channel = FileChannel.open(archiveFile.toPath(), StandardOpenOption.READ)) {
+                if (channel.size() > Integer.MAX_VALUE) {
+                    ServerLogger.DEPLOYMENT_LOGGER.debugf("Archive %s is too large to be mapped", archive);
+                    return null;
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+        }
+        final ZipCentralDirectory directory;
+        try {
+            directory = ZipCentralDirectory.read(buffer);
+        } catch (ZipException | IndexOutOfBoundsException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf(e, "Archive %s cannot be mapped", archive);
+            return null;
+        }
+        if (directory.isSigned()) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Archive %s is signed and will not be mapped", archive);
+            return null;
+        }
+        return new MappedZipFileSystem(directory, archiveFile, mountPoint, tempFileProvider);
+    }
+
+    /**
+     * Read a nested archive, without copying it if it is stored.
+     *
+     * @return the archive, or {@code null} if the archive is too large to be inflated in memory
+     */
+    private ByteBuffer read(final ZipCentralDirectory.Entry entry) throws IOException {
+        if (entry.getMethod() == ZipCentralDirectory.STORED) {
+            return directory.getRawData(entry);
+        }
+        if (entry.getSize() > MAX_INFLATED_SIZE) {
+            ServerLogger.DEPLOYMENT_LOGGER.debugf("Nested archive %s is too large to be inflated in memory", entry.getName());
+            return null;
+        }
+        final byte[] bytes = new byte[(int) entry.getSize()];
+        try (InputStream in = directory.openStream(entry)) {
+            int offset = 0;
+            int read;
+            while (offset < bytes.length && (read = in.read(bytes, offset, bytes.length - offset)) != -1) {
+                offset += read;
+            }
+            if (offset < bytes.length) {
+                throw new ZipException("Truncated data for " + entry.getName());
+            }
+        }
+        return ByteBuffer.wrap(bytes);
+    }
+
+    private static String getPath(final VirtualFile mountPoint, final VirtualFile target) {
+        return mountPoint.equals(target) ? "" : target.getPathNameRelativeTo(mountPoint);
+    }
+
+    @Override
+    public synchronized File getFile(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final String path = getPath(mountPoint, target);
+        if (path.isEmpty() && archiveFile != null) {
+            return archiveFile;
+        }
+        if (tempDir == null) {
+            tempDir = tempFileProvider.createTempDir(mountPoint.getName());
+        }
+        return extract(path.isEmpty() ? mountPoint.getName() : path, path);
+    }
+
+    private File extract(final String fileName, final String path) throws IOException {
+        final File file = tempDir.getFile(fileName);
+        if (file.exists()) {
+            return file;
+        }
+        file.getParentFile().mkdirs();
+        if (path.isEmpty()) {
+            try (InputStream in = new ZipCentralDirectory.ByteBufferInputStream(directory.getArchive())) {
+                return tempDir.createFile(fileName, in);
+            }
+        }
+        final ZipCentralDirectory.Entry entry = directory.getEntry(path);
+        if (entry != null) {
+            try (InputStream in = directory.openStream(entry)) {
+                return tempDir.createFile(fileName, in);
+            }
+        }
+        if (!directory.isDirectory(path)) {
+            throw new FileNotFoundException(path);
+        }
+        file.mkdirs();
+        for (String child : directory.getChildren(path)) {
+            final String childPath = path + '/' + child;
+            extract(childPath, childPath);
+        }
+        return file;
+    }
+
+    @Override
+    public InputStream openInputStream(final VirtualFile mountPoint, final VirtualFile target) throws IOException {
+        final String path = getPath(mountPoint, target);
+        if (path.isEmpty()) {
+            return new ZipCentralDirectory.ByteBufferInputStream(directory.getArchive());
+        }
+        final ZipCentralDirectory.Entry entry = directory.getEntry(path);
+        if (entry == null) {
+            throw new FileNotFoundException(path);
+        }
+        return directory.openStream(entry);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return true;
+    }
+
+    @Override
+    public boolean delete(final VirtualFile mountPoint, final VirtualFile target) {
+        return false;
+    }
+
+    @Override
+    public long getSize(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        if (path.isEmpty()) {
+            return directory.getArchive().capacity();
+        }
+        final ZipCentralDirectory.Entry entry = directory.getEntry(path);
+        return entry == null ? 0 : entry.getSize();
+    }
+
+    @Override
+    public long getLastModified(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        if (path.isEmpty()) {
+            return archiveFile == null ? 0 : archiveFile.lastModified();
+        }
+        final ZipCentralDirectory.Entry entry = directory.getEntry(path);
+        return entry == null ? 0 : entry.getLastModified();
+    }
+
+    @Override
+    public boolean exists(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        return directory.isDirectory(path) || directory.getEntry(path) != null;
+    }
+
+    @Override
+    public boolean isFile(final VirtualFile mountPoint, final VirtualFile target) {
+        final String path = getPath(mountPoint, target);
+        return !directory.isDirectory(path) && directory.getEntry(path) != null;
+    }
+
+    @Override
+    public boolean isDirectory(final VirtualFile mountPoint, final VirtualFile target) {
+        return directory.isDirectory(getPath(mountPoint, target));
+    }
+
+    @Override
+    public List<String> getDirectoryEntries(final VirtualFile mountPoint, final VirtualFile target) {
+        return directory.getChildren(getPath(mountPoint, target));
+    }
+
+    @Override
+    public CodeSigner[] getCodeSigners(final VirtualFile mountPoint, final VirtualFile target) {
+        // Signed archives are never mapped
+        return null;
+    }
+
+    @Override
+    public File getMountSource() {
+        return archiveFile;
+    }
+
+    @Override
+    public URI getRootURI() throws URISyntaxException {
+        return archiveFile == null ? mountPoint.toURI() : new URI("jar", archiveFile.toURI() + "!/", null);
+    }
+
+    @Override
+    public void close() throws IOException {
+        MOUNTS.remove(mountPoint, this);
+        final TempDir tempDir;
+        synchronized (this) {
+            tempDir = this.tempDir;
+            this.tempDir = null;
+        }
+        VFSUtils.safeClose(tempDir);
+    }
+}
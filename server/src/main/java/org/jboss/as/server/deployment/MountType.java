@@ -28,5 +28,12 @@ package org.jboss.as.server.deployment;
 public enum MountType {
     ZIP,
     EXPANDED,
-    REAL;
+    REAL,
+    /**
+     * Zip mount serving the archive entries from a memory mapped view of the archive, without copying nested
+     * archives to temporary files.
+     *
+     * @see MappedZipFileSystem
+     */
+    MAPPED;
 }
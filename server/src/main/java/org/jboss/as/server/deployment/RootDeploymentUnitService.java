@@ -49,6 +49,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
     private final DeploymentUnit parent;
     private final DeploymentOverlayIndex deploymentOverlays;
     private final boolean isExplodedContent;
+    private final byte[] contentHash;
 
     /**
      * Construct a new instance.
@@ -62,11 +63,13 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
      * @param vaultReader the vault reader
      * @param deploymentOverlays the deployment overlays
      * @param exploded the deployment has been exploded
+     * @param contentHash the hash of the managed archive the deployment contents come from, or {@code null}
      */
     public RootDeploymentUnitService(final String name, final String managementName, final DeploymentUnit parent,
                                      final ImmutableManagementResourceRegistration registration, final ManagementResourceRegistration mutableRegistration,
                                      final Resource resource, final CapabilityServiceSupport capabilityServiceSupport,
-                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded) {
+                                     final AbstractVaultReader vaultReader, DeploymentOverlayIndex deploymentOverlays, boolean exploded,
+                                     final byte[] contentHash) {
         super(registration, mutableRegistration, resource, capabilityServiceSupport, vaultReader);
         assert name != null : "name is null";
         this.name = name;
@@ -74,6 +77,7 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         this.parent = parent;
         this.deploymentOverlays = deploymentOverlays;
         this.isExplodedContent = exploded;
+        this.contentHash = contentHash;
     }
 
     protected DeploymentUnit createAndInitializeDeploymentUnit(final ServiceRegistry registry) {
@@ -81,6 +85,9 @@ final class RootDeploymentUnitService extends AbstractDeploymentUnitService {
         deploymentUnit.putAttachment(Attachments.RUNTIME_NAME, name);
         deploymentUnit.putAttachment(Attachments.MANAGEMENT_NAME, managementName);
         deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENTS, contentsInjector.getValue());
+        if (contentHash != null) {
+            deploymentUnit.putAttachment(Attachments.DEPLOYMENT_CONTENT_HASH, contentHash);
+        }
         deploymentUnit.putAttachment(DeploymentResourceSupport.REGISTRATION_ATTACHMENT, registration);
         deploymentUnit.putAttachment(DeploymentResourceSupport.MUTABLE_REGISTRATION_ATTACHMENT, mutableRegistration);
         deploymentUnit.putAttachment(DeploymentResourceSupport.DEPLOYMENT_RESOURCE, resource);
@@ -105,4 +105,9 @@ public final class ServiceLoaderProcessor implements DeploymentUnitProcessor {
     public void undeploy(final DeploymentUnit context) {
         context.removeAttachment(Attachments.SERVICES);
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
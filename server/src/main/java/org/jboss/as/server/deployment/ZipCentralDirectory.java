@@ -0,0 +1,436 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * Reads the entries of a zip archive held in a {@link ByteBuffer}, usually a memory mapped file, straight from its
+ * central directory. Entry data is never copied: stored entries are returned as views of the buffer and deflated
+ * entries are inflated while they are read.
+ */
+final class ZipCentralDirectory {
+
+    private static final int LOCAL_HEADER = 0x04034b50;
+    private static final int CENTRAL_HEADER = 0x02014b50;
+    private static final int END_HEADER = 0x06054b50;
+    private static final int ZIP64_END_HEADER = 0x06064b50;
+    private static final int ZIP64_LOCATOR = 0x07064b50;
+    private static final int ZIP64_EXTRA = 0x0001;
+
+    private static final int END_HEADER_SIZE = 22;
+    private static final int MAX_COMMENT_SIZE = 0xFFFF;
+
+    static final int STORED = 0;
+    static final int DEFLATED = 8;
+
+    private final ByteBuffer buffer;
+    private final Map<String, Entry> entries = new HashMap<>();
+    private final Map<String, List<String>> directories = new HashMap<>();
+    private boolean signed;
+
+    private ZipCentralDirectory(final ByteBuffer buffer) {
+        this.buffer = buffer;
+        directories.put("", new ArrayList<>());
+    }
+
+    /**
+     * Read the central directory of the zip archive held in the given buffer.
+     *
+     * @param buffer the buffer containing the whole archive. Its position and limit are ignored
+     * @return the central directory
+     * @throws ZipException if the buffer does not hold a zip archive this reader can process
+     */
+    static ZipCentralDirectory read(final ByteBuffer buffer) throws ZipException {
+        final ByteBuffer archive = buffer.duplicate();
+        archive.clear();
+        archive.order(ByteOrder.LITTLE_ENDIAN);
+        final ZipCentralDirectory directory = new ZipCentralDirectory(archive);
+        directory.readEntries();
+        return directory;
+    }
+
+    private void readEntries() throws ZipException {
+        final int end = findEndHeader();
+        long count = u16(end + 10);
+        long size = u32(end + 12);
+        long offset = u32(end + 16);
+        int directoryEnd = end;
+        if ((count == 0xFFFF || size == 0xFFFFFFFFL || offset == 0xFFFFFFFFL) && end >= 20 && buffer.getInt(end - 20) == ZIP64_LOCATOR) {
+            final long zip64End = buffer.getLong(end - 12);
+            if (zip64End < 0 || zip64End > end - 56 || buffer.getInt((int) zip64End) != ZIP64_END_HEADER) {
+                throw new ZipException("Invalid zip64 end of central directory record");
+            }
+            count = buffer.getLong((int) zip64End + 32);
+            size = buffer.getLong((int) zip64End + 40);
+            offset = buffer.getLong((int) zip64End + 48);
+            directoryEnd = (int) zip64End;
+        }
+        if (offset < 0 || size < 0 || offset + size > directoryEnd) {
+            // Archives with a prefix, such as self-extracting ones, are not supported
+            throw new ZipException("Invalid central directory offset");
+        }
+        int position = (int) offset;
+        for (long i = 0; i < count; i++) {
+            if (position + 46 > directoryEnd || buffer.getInt(position) != CENTRAL_HEADER) {
+                throw new ZipException("Invalid central directory header");
+            }
+            final int flags = u16(position + 8);
+            final int method = u16(position + 10);
+            final long dosTime = u32(position + 12);
+            long compressedSize = u32(position + 20);
+            long uncompressedSize = u32(position + 24);
+            final int nameLength = u16(position + 28);
+            final int extraLength = u16(position + 30);
+            final int commentLength = u16(position + 32);
+            long localHeaderOffset = u32(position + 42);
+            final int next = position + 46 + nameLength + extraLength + commentLength;
+            if (next > directoryEnd) {
+                throw new ZipException("Invalid central directory header");
+            }
+            if ((flags & 1) != 0) {
+                throw new ZipException("Encrypted entries are not supported");
+            }
+            // Sizes and offset overflowing 32 bits are moved to the zip64 extra field, in this order
+            int extra = position + 46 + nameLength;
+            final int extraEnd = extra + extraLength;
+            while (extra + 4 <= extraEnd) {
+                final int id = u16(extra);
+                final int length = u16(extra + 2);
+                if (id == ZIP64_EXTRA) {
+                    int field = extra + 4;
+                    if (uncompressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        uncompressedSize = buffer.getLong(field);
+                        field += 8;
+                    }
+                    if (compressedSize == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        compressedSize = buffer.getLong(field);
+                        field += 8;
+                    }
+                    if (localHeaderOffset == 0xFFFFFFFFL && field + 8 <= extraEnd) {
+                        localHeaderOffset = buffer.getLong(field);
+                    }
+                    break;
+                }
+                extra += 4 + length;
+            }
+            final byte[] nameBytes = new byte[nameLength];
+            final ByteBuffer name = buffer.duplicate();
+            name.position(position + 46);
+            name.get(nameBytes);
+            addEntry(new String(nameBytes, StandardCharsets.UTF_8), method, dosTime, compressedSize, uncompressedSize, localHeaderOffset);
+            position = next;
+        }
+    }
+
+    private int findEndHeader() throws ZipException {
+        final int limit = buffer.capacity() - END_HEADER_SIZE;
+        final int stop = Math.max(0, limit - MAX_COMMENT_SIZE);
+        for (int position = limit; position >= stop; position--) {
+            if (buffer.getInt(position) == END_HEADER) {
+                return position;
+            }
+        }
+        throw new ZipException("End of central directory record not found");
+    }
+
+    private void addEntry(final String entryName, final int method, final long dosTime, final long compressedSize,
+                          final long uncompressedSize, final long localHeaderOffset) throws ZipException {
+        String path = entryName;
+        while (path.startsWith("/")) {
+            path = path.substring(1);
+        }
+        final boolean directory = path.endsWith("/");
+        while (path.endsWith("/")) {
+            path = path.substring(0, path.length() - 1);
+        }
+        if (path.isEmpty()) {
+            return;
+        }
+        if (compressedSize < 0 || uncompressedSize < 0 || localHeaderOffset < 0 || localHeaderOffset >= buffer.capacity()) {
+            throw new ZipException("Invalid central directory header for " + entryName);
+        }
+        if (!directory && path.toUpperCase(Locale.ENGLISH).startsWith("META-INF/") && path.toUpperCase(Locale.ENGLISH).endsWith(".SF")) {
+            signed = true;
+        }
+        if (directory) {
+            addDirectory(path);
+        } else if (entries.put(path, new Entry(path, method, dosTime, compressedSize, uncompressedSize, localHeaderOffset)) == null) {
+            addChild(path);
+        }
+    }
+
+    private void addDirectory(final String path) {
+        if (!directories.containsKey(path)) {
+            directories.put(path, new ArrayList<>());
+            addChild(path);
+        }
+    }
+
+    private void addChild(final String path) {
+        final int index = path.lastIndexOf('/');
+        final String parent = index == -1 ? "" : path.substring(0, index);
+        addDirectory(parent);
+        directories.get(parent).add(path.substring(index + 1));
+    }
+
+    /**
+     * Whether the archive contains signature files. Code signers are not verified by this reader.
+     *
+     * @return {@code true} if the archive is signed
+     */
+    boolean isSigned() {
+        return signed;
+    }
+
+    /**
+     * Get the file entry with the given path.
+     *
+     * @param path the path, relative to the root of the archive and without leading or trailing {@code /}
+     * @return the entry, or {@code null} if the archive contains no such file
+     */
+    Entry getEntry(final String path) {
+        return entries.get(path);
+    }
+
+    boolean isDirectory(final String path) {
+        return directories.containsKey(path);
+    }
+
+    /**
+     * Get the names of the children of the given directory.
+     *
+     * @param path the path of the directory, {@code ""} for the root of the archive
+     * @return the names, or an empty list if there is no such directory
+     */
+    List<String> getChildren(final String path) {
+        final List<String> children = directories.get(path);
+        return children == null ? Collections.<String>emptyList() : Collections.unmodifiableList(children);
+    }
+
+    /**
+     * Get the raw data of an entry, which is compressed unless the entry is {@link #STORED}.
+     *
+     * @param entry the entry
+     * @return a view of the data
+     * @throws ZipException if the local header of the entry is invalid
+     */
+    ByteBuffer getRawData(final Entry entry) throws ZipException {
+        final long offset = entry.localHeaderOffset;
+        if (offset + 30 > buffer.capacity() || buffer.getInt((int) offset) != LOCAL_HEADER) {
+            throw new ZipException("Invalid local header for " + entry.name);
+        }
+        final long start = offset + 30 + u16((int) offset + 26) + u16((int) offset + 28);
+        if (start + entry.compressedSize > buffer.capacity()) {
+            throw new ZipException("Truncated data for " + entry.name);
+        }
+        final ByteBuffer data = buffer.duplicate();
+        data.limit((int) (start + entry.compressedSize));
+        data.position((int) start);
+        return data.slice();
+    }
+
+    /**
+     * Open a stream reading the uncompressed data of an entry.
+     *
+     * @param entry the entry
+     * @return the stream
+     * @throws ZipException if the entry is invalid or uses an unsupported compression method
+     */
+    InputStream openStream(final Entry entry) throws ZipException {
+        final ByteBuffer data = getRawData(entry);
+        switch (entry.method) {
+            case STORED:
+                return new ByteBufferInputStream(data);
+            case DEFLATED:
+                return new EntryInflaterInputStream(new ByteBufferInputStream(data), entry.uncompressedSize);
+            default:
+                throw new ZipException("Unsupported compression method " + entry.method + " for " + entry.name);
+        }
+    }
+
+    /**
+     * Get the whole archive.
+     *
+     * @return a view of the archive
+     */
+    ByteBuffer getArchive() {
+        return buffer.duplicate();
+    }
+
+    private int u16(final int position) {
+        return buffer.getShort(position) & 0xFFFF;
+    }
+
+    private long u32(final int position) {
+        return buffer.getInt(position) & 0xFFFFFFFFL;
+    }
+
+    static final class Entry {
+        private final String name;
+        private final int method;
+        private final long dosTime;
+        private final long compressedSize;
+        private final long uncompressedSize;
+        private final long localHeaderOffset;
+
+        private Entry(final String name, final int method, final long dosTime, final long compressedSize,
+                      final long uncompressedSize, final long localHeaderOffset) {
+            this.name = name;
+            this.method = method;
+            this.dosTime = dosTime;
+            this.compressedSize = compressedSize;
+            this.uncompressedSize = uncompressedSize;
+            this.localHeaderOffset = localHeaderOffset;
+        }
+
+        String getName() {
+            return name;
+        }
+
+        int getMethod() {
+            return method;
+        }
+
+        long getSize() {
+            return uncompressedSize;
+        }
+
+        long getLastModified() {
+            try {
+                return LocalDateTime.of((int) ((dosTime >> 25) & 0x7f) + 1980, (int) ((dosTime >> 21) & 0x0f),
+                        (int) ((dosTime >> 16) & 0x1f), (int) ((dosTime >> 11) & 0x1f), (int) ((dosTime >> 5) & 0x3f),
+                        (int) ((dosTime << 1) & 0x3e)).atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+            } catch (DateTimeException e) {
+                return 0;
+            }
+        }
+    }
+
+    static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(final ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            final int count = Math.min(len, buffer.remaining());
+            buffer.get(b, off, count);
+            return count;
+        }
+
+        @Override
+        public long skip(final long n) {
+            final int count = (int) Math.max(0, Math.min(n, buffer.remaining()));
+            buffer.position(buffer.position() + count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    private static final class EntryInflaterInputStream extends InflaterInputStream {
+        private long remaining;
+        private boolean eof;
+        private boolean closed;
+
+        private EntryInflaterInputStream(final InputStream in, final long size) {
+            super(in, new Inflater(true), 8192);
+            this.remaining = size;
+        }
+
+        @Override
+        protected void fill() throws IOException {
+            if (eof) {
+                throw new EOFException("Unexpected end of deflated entry");
+            }
+            len = in.read(buf, 0, buf.length);
+            if (len == -1) {
+                // The inflater needs an extra dummy byte when reading raw deflate data
+                buf[0] = 0;
+                len = 1;
+                eof = true;
+            }
+            inf.setInput(buf, 0, len);
+        }
+
+        @Override
+        public int read(final byte[] b, final int off, final int length) throws IOException {
+            final int count = super.read(b, off, length);
+            if (count > 0) {
+                remaining -= count;
+            }
+            return count;
+        }
+
+        @Override
+        public int available() throws IOException {
+            if (closed) {
+                return 0;
+            }
+            return (int) Math.max(0, Math.min(remaining, Integer.MAX_VALUE));
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (!closed) {
+                closed = true;
+                inf.end();
+                super.close();
+            }
+        }
+    }
+}
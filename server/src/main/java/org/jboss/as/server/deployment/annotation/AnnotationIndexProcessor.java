@@ -22,12 +22,15 @@
 
 package org.jboss.as.server.deployment.annotation;
 
+import java.util.concurrent.ExecutorService;
+
+import org.jboss.as.server.Services;
 import org.jboss.as.server.deployment.DeploymentPhaseContext;
 import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.DeploymentUtils;
-import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.msc.service.ServiceController;
 
 /**
  * Deployment unit processor responsible for creating and attaching an annotation index for a resource root
@@ -47,11 +50,18 @@ public class AnnotationIndexProcessor implements DeploymentUnitProcessor {
      */
     public void deploy(DeploymentPhaseContext phaseContext) throws DeploymentUnitProcessingException {
         final DeploymentUnit deploymentUnit = phaseContext.getDeploymentUnit();
-        for (ResourceRoot resourceRoot : DeploymentUtils.allResourceRoots(deploymentUnit)) {
-            ResourceRootIndexer.indexResourceRoot(resourceRoot);
-        }
+        final ServiceController<?> executorService = phaseContext.getServiceRegistry().getService(Services.JBOSS_SERVER_EXECUTOR);
+        // Deployments do not depend on the server executor, so index on the calling thread if it is not available
+        final ExecutorService executor = executorService == null || executorService.getState() != ServiceController.State.UP
+                ? null : (ExecutorService) executorService.getValue();
+        ResourceRootIndexer.indexResourceRoots(deploymentUnit, DeploymentUtils.allResourceRoots(deploymentUnit), executor);
     }
 
     public void undeploy(final DeploymentUnit context) {
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -35,15 +35,28 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Composite annotation index.  Represents an annotation index for an entire deployment.
+ * <p/>
+ * The result of each lookup is computed from the underlying indexes the first time it is requested and then
+ * remembered, so repeated lookups of the same name do not search the indexes again. The indexes must not change once
+ * the composite index has been created.
  *
  * @author John Bailey
  */
 public class CompositeIndex {
     final Collection<Index> indexes;
 
+    private final ConcurrentMap<DotName, List<AnnotationInstance>> annotations = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directSubclasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allSubclasses = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> directImplementors = new ConcurrentHashMap<>();
+    private final ConcurrentMap<DotName, Set<ClassInfo>> allImplementors = new ConcurrentHashMap<>();
+    private volatile Collection<ClassInfo> knownClasses;
+
     public CompositeIndex(final Collection<Index> indexes) {
         this.indexes = indexes;
     }
@@ -59,28 +72,36 @@ public class CompositeIndex {
      * @see {@link Index#getAnnotations(org.jboss.jandex.DotName)}
      */
     public List<AnnotationInstance> getAnnotations(final DotName annotationName) {
-        final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
-        for (Index index : indexes) {
-            final List<AnnotationInstance> list = index.getAnnotations(annotationName);
-            if (list != null) {
-                allInstances.addAll(list);
+        List<AnnotationInstance> result = annotations.get(annotationName);
+        if (result == null) {
+            final List<AnnotationInstance> allInstances = new ArrayList<AnnotationInstance>();
+            for (Index index : indexes) {
+                final List<AnnotationInstance> list = index.getAnnotations(annotationName);
+                if (list != null) {
+                    allInstances.addAll(list);
+                }
             }
+            result = cache(annotations, annotationName, allInstances.isEmpty() ? Collections.<AnnotationInstance>emptyList() : Collections.unmodifiableList(allInstances));
         }
-        return Collections.unmodifiableList(allInstances);
+        return result;
     }
 
     /**
      * @see {@link Index#getKnownDirectSubclasses(org.jboss.jandex.DotName)}
      */
     public Set<ClassInfo> getKnownDirectSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectSubclasses(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = cacheClasses(directSubclasses, className, allKnown);
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -88,13 +109,18 @@ public class CompositeIndex {
      * assignable to the given class);
      *
      * @param className The class
-     * @return All known subclasses
+     * @return All known subclasses. A new set, which the caller may modify
      */
     public Set<ClassInfo> getAllKnownSubclasses(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        getAllKnownSubClasses(className, allKnown, processedClasses);
-        return allKnown;
+        Set<ClassInfo> result = allSubclasses.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            getAllKnownSubClasses(className, allKnown, processedClasses);
+            result = cacheClasses(allSubclasses, className, allKnown);
+        }
+        // Callers may modify the returned set
+        return new HashSet<ClassInfo>(result);
     }
 
     private void getAllKnownSubClasses(DotName className, Set<ClassInfo> allKnown, Set<DotName> processedClasses) {
@@ -111,16 +137,11 @@ public class CompositeIndex {
 
     private void getAllKnownSubClasses(DotName name, Set<ClassInfo> allKnown, Set<DotName> subClassesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectSubclasses(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        allKnown.add(clazz);
-                        subClassesToProcess.add(className);
-                    }
-                }
+        for (final ClassInfo clazz : getKnownDirectSubclasses(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                allKnown.add(clazz);
+                subClassesToProcess.add(className);
             }
         }
     }
@@ -129,14 +150,18 @@ public class CompositeIndex {
      * @see {@link Index#getKnownDirectImplementors(DotName)}
      */
     public Set<ClassInfo> getKnownDirectImplementors(final DotName className) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(className);
-            if (list != null) {
-                allKnown.addAll(list);
+        Set<ClassInfo> result = directImplementors.get(className);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            for (Index index : indexes) {
+                final List<ClassInfo> list = index.getKnownDirectImplementors(className);
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            result = cacheClasses(directImplementors, className, allKnown);
         }
-        return Collections.unmodifiableSet(allKnown);
+        return result;
     }
 
     /**
@@ -147,40 +172,40 @@ public class CompositeIndex {
      * This will only return classes, not interfaces.
      *
      * @param interfaceName The interface
-     * @return All known implementors of the interface
+     * @return All known implementors of the interface. A new set, which the caller may modify
      */
     public Set<ClassInfo> getAllKnownImplementors(final DotName interfaceName) {
-        final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
-        final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
-        final Set<DotName> processedClasses = new HashSet<DotName>();
-        subInterfacesToProcess.add(interfaceName);
-        while (!subInterfacesToProcess.isEmpty()) {
-            final Iterator<DotName> toProcess = subInterfacesToProcess.iterator();
-            DotName name = toProcess.next();
-            toProcess.remove();
-            processedClasses.add(name);
-            getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
+        Set<ClassInfo> result = allImplementors.get(interfaceName);
+        if (result == null) {
+            final Set<ClassInfo> allKnown = new HashSet<ClassInfo>();
+            final Set<DotName> subInterfacesToProcess = new HashSet<DotName>();
+            final Set<DotName> processedClasses = new HashSet<DotName>();
+            subInterfacesToProcess.add(interfaceName);
+            while (!subInterfacesToProcess.isEmpty()) {
+                final Iterator<DotName> toProcess = subInterfacesToProcess.iterator();
+                DotName name = toProcess.next();
+                toProcess.remove();
+                processedClasses.add(name);
+                getKnownImplementors(name, allKnown, subInterfacesToProcess, processedClasses);
+            }
+            result = cacheClasses(allImplementors, interfaceName, allKnown);
         }
-        return allKnown;
+        // Callers may modify the returned set
+        return new HashSet<ClassInfo>(result);
     }
 
     private void getKnownImplementors(DotName name, Set<ClassInfo> allKnown, Set<DotName> subInterfacesToProcess,
             Set<DotName> processedClasses) {
-        for (Index index : indexes) {
-            final List<ClassInfo> list = index.getKnownDirectImplementors(name);
-            if (list != null) {
-                for (final ClassInfo clazz : list) {
-                    final DotName className = clazz.name();
-                    if (!processedClasses.contains(className)) {
-                        if (Modifier.isInterface(clazz.flags())) {
-                            subInterfacesToProcess.add(className);
-                        } else {
-                            if (!allKnown.contains(clazz)) {
-                                allKnown.add(clazz);
-                                processedClasses.add(className);
-                                getAllKnownSubClasses(className, allKnown, processedClasses);
-                            }
-                        }
+        for (final ClassInfo clazz : getKnownDirectImplementors(name)) {
+            final DotName className = clazz.name();
+            if (!processedClasses.contains(className)) {
+                if (Modifier.isInterface(clazz.flags())) {
+                    subInterfacesToProcess.add(className);
+                } else {
+                    if (!allKnown.contains(clazz)) {
+                        allKnown.add(clazz);
+                        processedClasses.add(className);
+                        getAllKnownSubClasses(className, allKnown, processedClasses);
                     }
                 }
             }
@@ -204,17 +229,30 @@ public class CompositeIndex {
      * @see {@link org.jboss.jandex.Index#getKnownClasses()}
      */
     public Collection<ClassInfo> getKnownClasses() {
-        final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
-        for (Index index : indexes) {
-            final Collection<ClassInfo> list = index.getKnownClasses();
-            if (list != null) {
-                allKnown.addAll(list);
+        Collection<ClassInfo> result = knownClasses;
+        if (result == null) {
+            final List<ClassInfo> allKnown = new ArrayList<ClassInfo>();
+            for (Index index : indexes) {
+                final Collection<ClassInfo> list = index.getKnownClasses();
+                if (list != null) {
+                    allKnown.addAll(list);
+                }
             }
+            knownClasses = result = Collections.unmodifiableCollection(allKnown);
         }
-        return Collections.unmodifiableCollection(allKnown);
+        return result;
     }
 
     public Collection<Index> getIndexes() {
         return Collections.unmodifiableCollection(indexes);
     }
+
+    private static Set<ClassInfo> cacheClasses(final ConcurrentMap<DotName, Set<ClassInfo>> cache, final DotName name, final Set<ClassInfo> classes) {
+        return cache(cache, name, classes.isEmpty() ? Collections.<ClassInfo>emptySet() : Collections.unmodifiableSet(classes));
+    }
+
+    private static <T> T cache(final ConcurrentMap<DotName, T> cache, final DotName name, final T value) {
+        final T existing = cache.putIfAbsent(name, value);
+        return existing == null ? value : existing;
+    }
 }
@@ -0,0 +1,193 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.TreeSet;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.as.server.ServerEnvironment;
+import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.IndexReader;
+import org.jboss.jandex.IndexWriter;
+import org.jboss.vfs.VFSUtils;
+import org.wildfly.security.manager.WildFlySecurityManager;
+
+/**
+ * On-disk cache of the annotation indexes generated for the resource roots of managed deployment archives, stored
+ * in the {@code annotation-index} directory of the server data directory. Indexes are keyed by the hash of the
+ * deployment content and the location of the root in the deployment, which lets a server restarted, or redeployed,
+ * with unchanged content restore them without reading any class.
+ */
+class ResourceRootIndexCache {
+
+    /** System property that can be set to {@code false} to disable the cache */
+    static final String ENABLED_PROPERTY = "org.jboss.as.server.deployment.annotation.index-cache";
+
+    private static final String CACHE_DIR = "annotation-index";
+    private static final String SUFFIX = ".idx";
+    /** Changes whenever the way indexes are generated changes, invalidating the existing snapshots */
+    private static final String SNAPSHOT_VERSION = "snapshot-1";
+    /** The number of cached indexes kept, the least recently used ones are removed first */
+    private static final int MAX_ENTRIES = 1024;
+
+    private static volatile ResourceRootIndexCache instance;
+
+    private final File root;
+
+    ResourceRootIndexCache(final File root) {
+        this.root = root;
+    }
+
+    /**
+     * Gets the cache of the running server.
+     *
+     * @return the cache, or {@code null} if caching is disabled or there is no server data directory
+     */
+    static ResourceRootIndexCache getInstance() {
+        ResourceRootIndexCache cache = instance;
+        if (cache == null) {
+            if (!Boolean.parseBoolean(WildFlySecurityManager.getPropertyPrivileged(ENABLED_PROPERTY, "true"))) {
+                return null;
+            }
+            final String dataDir = WildFlySecurityManager.getPropertyPrivileged(ServerEnvironment.SERVER_DATA_DIR, null);
+            if (dataDir == null) {
+                return null;
+            }
+            instance = cache = new ResourceRootIndexCache(new File(dataDir, CACHE_DIR));
+        }
+        return cache;
+    }
+
+    /**
+     * Computes the snapshot key of a resource root of a managed deployment archive.
+     *
+     * @param contentHash the hash of the deployment content
+     * @param path the path of the resource root, relative to the root of the deployment
+     * @param ignorePaths the paths of the resource root which are not indexed, or {@code null}
+     * @return the key
+     */
+    byte[] snapshotKey(final byte[] contentHash, final String path, final Collection<String> ignorePaths) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        digest.update(SNAPSHOT_VERSION.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        digest.update(contentHash);
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+        if (ignorePaths != null) {
+            for (String ignorePath : new TreeSet<>(ignorePaths)) {
+                digest.update(ignorePath.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+        }
+        return digest.digest();
+    }
+
+    /**
+     * Reads a cached index.
+     *
+     * @param key the snapshot key of the resource root
+     * @return the index, or {@code null} if there is no cached index for the key
+     */
+    Index read(final byte[] key) {
+        final File file = getFile(key);
+        if (!file.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(file)) {
+            final Index index = new IndexReader(in).read();
+            // Keep track of when the index was last used
+            file.setLastModified(System.currentTimeMillis());
+            return index;
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotUseCachedAnnotationIndex(file.getAbsolutePath(), e);
+            file.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Stores an index in the cache.
+     *
+     * @param key the snapshot key of the resource root
+     * @param index the index
+     */
+    void write(final byte[] key, final Index index) {
+        final File file = getFile(key);
+        File temp = null;
+        try {
+            Files.createDirectories(root.toPath());
+            temp = File.createTempFile(HashUtil.bytesToHexString(key), ".tmp", root);
+            final OutputStream out = new FileOutputStream(temp);
+            try {
+                new IndexWriter(out).write(index);
+            } finally {
+                VFSUtils.safeClose(out);
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            temp = null;
+            ServerLogger.DEPLOYMENT_LOGGER.tracef("Cached annotation index at %s", file);
+        } catch (IOException | RuntimeException e) {
+            ServerLogger.DEPLOYMENT_LOGGER.cannotUseCachedAnnotationIndex(file.getAbsolutePath(), e);
+        } finally {
+            if (temp != null) {
+                temp.delete();
+            }
+        }
+        prune();
+    }
+
+    private File getFile(final byte[] key) {
+        return new File(root, HashUtil.bytesToHexString(key) + SUFFIX);
+    }
+
+    private void prune() {
+        final File[] files = root.listFiles((dir, name) -> name.endsWith(SUFFIX));
+        if (files == null || files.length <= MAX_ENTRIES) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        for (int i = 0; i < files.length - MAX_ENTRIES; i++) {
+            files[i].delete();
+        }
+    }
+}
@@ -23,14 +23,25 @@
 package org.jboss.as.server.deployment.annotation;
 
 import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 import org.jboss.as.server.logging.ServerLogger;
 import org.jboss.as.server.deployment.Attachments;
+import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.module.ResourceRoot;
+import org.jboss.as.server.deploymentoverlay.DeploymentOverlayIndex;
 import org.jboss.as.server.moduleservice.ModuleIndexBuilder;
 import org.jboss.jandex.Index;
 import org.jboss.jandex.IndexReader;
@@ -46,10 +57,106 @@ import org.jboss.vfs.util.SuffixMatchFilter;
  */
 public class ResourceRootIndexer {
 
+    /** The maximum number of resource roots indexed at the same time */
+    private static final int MAX_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Creates and attaches the annotation index to each of the given resource roots, if it has not already been
+     * attached. The resource roots are indexed in parallel, using the calling thread and at most one thread per
+     * processor of the given executor.
+     *
+     * @param resourceRoots the resource roots
+     * @param executor the executor used to index resource roots in parallel. May be {@code null}, in which case
+     *                 the resource roots are indexed by the calling thread
+     * @throws DeploymentUnitProcessingException if indexing a resource root failed
+     */
+    public static void indexResourceRoots(final Collection<ResourceRoot> resourceRoots, final ExecutorService executor) throws DeploymentUnitProcessingException {
+        indexResourceRoots(null, resourceRoots, executor);
+    }
+
+    /**
+     * Creates and attaches the annotation index to each of the given resource roots of a deployment, if it has not
+     * already been attached. If the deployment is a managed archive, the indexes recorded in its snapshot by a
+     * previous deployment of the same content are restored instead of generated.
+     *
+     * @param deploymentUnit the deployment unit the resource roots belong to. May be {@code null}
+     * @param resourceRoots the resource roots
+     * @param executor the executor used to index resource roots in parallel. May be {@code null}, in which case
+     *                 the resource roots are indexed by the calling thread
+     * @throws DeploymentUnitProcessingException if indexing a resource root failed
+     */
+    public static void indexResourceRoots(final DeploymentUnit deploymentUnit, final Collection<ResourceRoot> resourceRoots, final ExecutorService executor) throws DeploymentUnitProcessingException {
+        final Snapshot snapshot = Snapshot.of(deploymentUnit);
+        final Queue<ResourceRoot> queue = new ConcurrentLinkedQueue<>();
+        for (ResourceRoot resourceRoot : resourceRoots) {
+            if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) == null) {
+                queue.add(resourceRoot);
+            }
+        }
+        final Callable<Void> task = new Callable<Void>() {
+            @Override
+            public Void call() throws DeploymentUnitProcessingException {
+                ResourceRoot resourceRoot;
+                while ((resourceRoot = queue.poll()) != null) {
+                    indexResourceRoot(resourceRoot, snapshot);
+                }
+                return null;
+            }
+        };
+        final int threads = executor == null ? 0 : Math.min(queue.size(), MAX_THREADS) - 1;
+        final List<Future<Void>> futures = new ArrayList<>(Math.max(threads, 0));
+        for (int i = 0; i < threads; i++) {
+            futures.add(executor.submit(task));
+        }
+        try {
+            task.call();
+        } catch (DeploymentUnitProcessingException | RuntimeException e) {
+            // Stop the other threads from picking up more resource roots
+            queue.clear();
+            try {
+                waitFor(futures);
+            } catch (DeploymentUnitProcessingException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+        waitFor(futures);
+    }
+
+    private static void waitFor(final List<Future<Void>> futures) throws DeploymentUnitProcessingException {
+        boolean interrupted = false;
+        try {
+            for (Future<Void> future : futures) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException e) {
+                        final Throwable cause = e.getCause();
+                        if (cause instanceof DeploymentUnitProcessingException) {
+                            throw (DeploymentUnitProcessingException) cause;
+                        }
+                        throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(cause);
+                    }
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     /**
      * Creates and attaches the annotation index to a resource root, if it has not already been attached
      */
     public static void indexResourceRoot(final ResourceRoot resourceRoot) throws DeploymentUnitProcessingException {
+        indexResourceRoot(resourceRoot, null);
+    }
+
+    private static void indexResourceRoot(final ResourceRoot resourceRoot, final Snapshot snapshot) throws DeploymentUnitProcessingException {
         if (resourceRoot.getAttachment(Attachments.ANNOTATION_INDEX) != null) {
             return;
         }
@@ -80,6 +187,21 @@ public class ResourceRootIndexer {
             indexIgnorePaths = null;
         }
 
+        final ResourceRootIndexCache cache = ResourceRootIndexCache.getInstance();
+        byte[] snapshotKey = null;
+        if (cache != null && snapshot != null) {
+            final String path = snapshot.getPath(resourceRoot);
+            if (path != null) {
+                snapshotKey = cache.snapshotKey(snapshot.contentHash, path, indexIgnorePaths);
+                final Index restored = cache.read(snapshotKey);
+                if (restored != null) {
+                    resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, restored);
+                    ServerLogger.DEPLOYMENT_LOGGER.tracef("Restored index of archive %s from the deployment snapshot", resourceRoot.getRoot());
+                    return;
+                }
+            }
+        }
+
         final VirtualFile virtualFile = resourceRoot.getRoot();
         final Indexer indexer = new Indexer();
         try {
@@ -92,6 +214,7 @@ public class ResourceRootIndexer {
             });
 
             final List<VirtualFile> classChildren = virtualFile.getChildren(new SuffixMatchFilter(".class", visitorAttributes));
+            boolean complete = true;
             for (VirtualFile classFile : classChildren) {
                 InputStream inputStream = null;
                 try {
@@ -99,15 +222,67 @@ public class ResourceRootIndexer {
                     indexer.index(inputStream);
                 } catch (Exception e) {
                     ServerLogger.DEPLOYMENT_LOGGER.cannotIndexClass(classFile.getPathNameRelativeTo(virtualFile), virtualFile.getPathName(), e);
+                    complete = false;
                 } finally {
                     VFSUtils.safeClose(inputStream);
                 }
             }
             final Index index = indexer.complete();
+            // Do not cache an incomplete index
+            if (snapshotKey != null && complete) {
+                cache.write(snapshotKey, index);
+            }
             resourceRoot.putAttachment(Attachments.ANNOTATION_INDEX, index);
             ServerLogger.DEPLOYMENT_LOGGER.tracef("Generated index for archive %s", virtualFile);
         } catch (Throwable t) {
             throw ServerLogger.ROOT_LOGGER.deploymentIndexingFailed(t);
         }
     }
+
+    /**
+     * Locates the resource roots of a managed deployment archive for the deployment snapshot.
+     */
+    private static final class Snapshot {
+        private final byte[] contentHash;
+        private final VirtualFile deploymentRoot;
+
+        private Snapshot(final byte[] contentHash, final VirtualFile deploymentRoot) {
+            this.contentHash = contentHash;
+            this.deploymentRoot = deploymentRoot;
+        }
+
+        static Snapshot of(final DeploymentUnit deploymentUnit) {
+            if (deploymentUnit == null) {
+                return null;
+            }
+            final DeploymentUnit topLevel = deploymentUnit.getParent() == null ? deploymentUnit : deploymentUnit.getParent();
+            final byte[] contentHash = topLevel.getAttachment(Attachments.DEPLOYMENT_CONTENT_HASH);
+            final ResourceRoot deploymentRoot = topLevel.getAttachment(Attachments.DEPLOYMENT_ROOT);
+            if (contentHash == null || deploymentRoot == null) {
+                return null;
+            }
+            // Overlays change the content of the deployment without changing its hash
+            final DeploymentOverlayIndex overlayIndex = topLevel.getAttachment(Attachments.DEPLOYMENT_OVERLAY_INDEX);
+            if (overlayIndex != null) {
+                final Map<String, byte[]> overlays = overlayIndex.getOverlays(topLevel.getName());
+                if (overlays != null && !overlays.isEmpty()) {
+                    return null;
+                }
+            }
+            return new Snapshot(contentHash, deploymentRoot.getRoot());
+        }
+
+        /**
+         * Get the path of a resource root in the deployment.
+         *
+         * @return the path, or {@code null} if the resource root is not part of the deployment content
+         */
+        String getPath(final ResourceRoot resourceRoot) {
+            final VirtualFile root = resourceRoot.getRoot();
+            if (root.equals(deploymentRoot)) {
+                return "";
+            }
+            return root.getPathName().startsWith(deploymentRoot.getPathName() + '/') ? root.getPathNameRelativeTo(deploymentRoot) : null;
+        }
+    }
 }
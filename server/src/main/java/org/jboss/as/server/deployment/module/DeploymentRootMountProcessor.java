@@ -33,6 +33,7 @@ import org.jboss.as.server.deployment.DeploymentUnit;
 import org.jboss.as.server.deployment.DeploymentUnitProcessingException;
 import org.jboss.as.server.deployment.DeploymentUnitProcessor;
 import org.jboss.as.server.deployment.ExplodedDeploymentMarker;
+import org.jboss.as.server.deployment.MappedZipFileSystem;
 import org.jboss.as.server.deployment.MountExplodedMarker;
 import org.jboss.as.server.deployment.MountType;
 import org.jboss.vfs.VFS;
@@ -85,6 +86,8 @@ public class DeploymentRootMountProcessor implements DeploymentUnitProcessor {
                     type = MountType.EXPANDED;
                 } else if (deploymentName.endsWith(".xml")) {
                     type = MountType.REAL;
+                } else if (MappedZipFileSystem.isEnabled()) {
+                    type = MountType.MAPPED;
                 } else {
                     type = MountType.ZIP;
                 }
@@ -88,4 +88,9 @@ public class ManifestAttachmentProcessor implements DeploymentUnitProcessor {
             resourceRoot.removeAttachment(Attachments.MANIFEST);
         }
     }
+
+    @Override
+    public boolean isThreadSafe() {
+        return true;
+    }
 }
@@ -38,10 +38,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.jar.Attributes;
 import java.util.jar.Manifest;
 
 import org.jboss.as.server.logging.ServerLogger;
@@ -76,9 +77,9 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
     private final String rootName;
     private final Manifest manifest;
     private final URL rootUrl;
+    private final boolean signed;
 
-    // protected by {@code this}
-    private final Map<CodeSigners, CodeSource> codeSources = new HashMap<>();
+    private final ConcurrentMap<CodeSigners, CodeSource> codeSources = new ConcurrentHashMap<>();
 
     /**
      * Construct new instance.
@@ -123,6 +124,27 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
             }
         }
         rootUrl = usePhysicalCodeSource ? VFSUtils.getRootURL(root) : root.asFileURL();
+        signed = isSigned(manifest);
+    }
+
+    /**
+     * Checks whether the manifest contains the per-entry digests of a signed archive.
+     *
+     * @param manifest the manifest, may be {@code null}
+     * @return {@code true} if any entry of the manifest has a digest attribute
+     */
+    private static boolean isSigned(final Manifest manifest) {
+        if (manifest == null) {
+            return false;
+        }
+        for (Attributes attributes : manifest.getEntries().values()) {
+            for (Object key : attributes.keySet()) {
+                if (key.toString().endsWith("-Digest")) {
+                    return true;
+                }
+            }
+        }
+        return false;
     }
 
     /** {@inheritDoc} */
@@ -135,37 +157,13 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
                         return null;
                     }
                     final long size = file.getSize();
-                    final ClassSpec spec = new ClassSpec();
-                    synchronized (VFSResourceLoader.this) {
-                        final InputStream is = file.openStream();
-                        try {
-                            if (size <= Integer.MAX_VALUE) {
-                                final int castSize = (int) size;
-                                byte[] bytes = new byte[castSize];
-                                int a = 0, res;
-                                while ((res = is.read(bytes, a, castSize - a)) > 0) {
-                                    a += res;
-                                }
-                                // consume remainder so that cert check doesn't fail in case of wonky JARs
-                                while (is.read() != -1) {}
-                                // done
-                                is.close();
-                                spec.setBytes(bytes);
-                                final CodeSigner[] entryCodeSigners = file.getCodeSigners();
-                                final CodeSigners codeSigners = entryCodeSigners == null || entryCodeSigners.length == 0 ? EMPTY_CODE_SIGNERS : new CodeSigners(entryCodeSigners);
-                                CodeSource codeSource = codeSources.get(codeSigners);
-                                if (codeSource == null) {
-                                    codeSources.put(codeSigners, codeSource = new CodeSource(rootUrl, entryCodeSigners));
-                                }
-                                spec.setCodeSource(codeSource);
-                                return spec;
-                            } else {
-                                throw ServerLogger.ROOT_LOGGER.resourceTooLarge();
-                            }
-                        } finally {
-                            VFSUtils.safeClose(is);
+                    if (signed) {
+                        // Verifying the signature of the entries of a signed archive is not safe for concurrent reads
+                        synchronized (VFSResourceLoader.this) {
+                            return readClassSpec(file, size);
                         }
                     }
+                    return readClassSpec(file, size);
                 }
             });
         } catch (PrivilegedActionException pe) {
@@ -179,6 +177,41 @@ public class VFSResourceLoader extends AbstractResourceLoader implements Iterabl
         }
     }
 
+    private ClassSpec readClassSpec(final VirtualFile file, final long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw ServerLogger.ROOT_LOGGER.resourceTooLarge();
+        }
+        final ClassSpec spec = new ClassSpec();
+        final InputStream is = file.openStream();
+        try {
+            final int castSize = (int) size;
+            byte[] bytes = new byte[castSize];
+            int a = 0, res;
+            while ((res = is.read(bytes, a, castSize - a)) > 0) {
+                a += res;
+            }
+            // consume remainder so that cert check doesn't fail in case of wonky JARs
+            while (is.read() != -1) {}
+            // done
+            is.close();
+            spec.setBytes(bytes);
+            final CodeSigner[] entryCodeSigners = file.getCodeSigners();
+            final CodeSigners codeSigners = entryCodeSigners == null || entryCodeSigners.length == 0 ? EMPTY_CODE_SIGNERS : new CodeSigners(entryCodeSigners);
+            CodeSource codeSource = codeSources.get(codeSigners);
+            if (codeSource == null) {
+                final CodeSource newCodeSource = new CodeSource(rootUrl, entryCodeSigners);
+                codeSource = codeSources.putIfAbsent(codeSigners, newCodeSource);
+                if (codeSource == null) {
+                    codeSource = newCodeSource;
+                }
+            }
+            spec.setCodeSource(codeSource);
+            return spec;
+        } finally {
+            VFSUtils.safeClose(is);
+        }
+    }
+
     /** {@inheritDoc} */
     public PackageSpec getPackageSpec(final String name) throws IOException {
         return getPackageSpec(name, this.manifest, this.rootUrl);
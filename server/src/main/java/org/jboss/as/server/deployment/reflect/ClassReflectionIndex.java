@@ -44,7 +44,8 @@ import static java.lang.reflect.Modifier.STATIC;
 /**
  * A short-lived index of all the declared fields and methods of a class.
  * <p/>
- * The ClassReflectionIndex is only available during the deployment.
+ * The ClassReflectionIndex is only available during the deployment, except for the indexes of classes that do not
+ * belong to a deployment, which are shared by all deployments.
  *
  * @param <?> the type being indexed
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
@@ -22,11 +22,13 @@
 
 package org.jboss.as.server.deployment.reflect;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import org.jboss.as.server.logging.ServerLogger;
+import org.jboss.as.server.moduleservice.ServiceModuleLoader;
 import org.jboss.as.server.security.ServerPermission;
+import org.jboss.modules.ModuleClassLoader;
 
 /**
  * A reflection index for a deployment.
@@ -34,7 +36,20 @@ import org.jboss.as.server.security.ServerPermission;
  * @author <a href="mailto:david.lloyd@redhat.com">David M. Lloyd</a>
  */
 public final class DeploymentReflectionIndex {
-    private final Map<Class<?>, ClassReflectionIndex> classes = new HashMap<Class<?>, ClassReflectionIndex>();
+
+    /**
+     * The index shared by all deployments for the classes of the JDK and of the static modules. The class
+     * indexes are associated with the classes themselves, so they do not prevent a class from being unloaded.
+     */
+    private static final DeploymentReflectionIndex SHARED = new DeploymentReflectionIndex();
+    private static final ClassValue<ClassReflectionIndex> SHARED_CLASSES = new ClassValue<ClassReflectionIndex>() {
+        @Override
+        protected ClassReflectionIndex computeValue(Class<?> type) {
+            return new ClassReflectionIndex(type, SHARED);
+        }
+    };
+
+    private final ConcurrentMap<Class<?>, ClassReflectionIndex> classes = new ConcurrentHashMap<Class<?>, ClassReflectionIndex>();
 
     DeploymentReflectionIndex() {
     }
@@ -59,15 +74,38 @@ public final class DeploymentReflectionIndex {
      * @return the index
      */
     @SuppressWarnings({"unchecked"})
-    public synchronized ClassReflectionIndex getClassIndex(Class clazz) {
+    public ClassReflectionIndex getClassIndex(Class clazz) {
         try {
+            if (isShared(clazz)) {
+                return SHARED_CLASSES.get(clazz);
+            }
             ClassReflectionIndex index = classes.get(clazz);
             if (index == null) {
-                classes.put(clazz, index = new ClassReflectionIndex(clazz, this));
+                // Another thread may index the same class at the same time, in which case the first index is kept
+                final ClassReflectionIndex newIndex = new ClassReflectionIndex(clazz, this);
+                index = classes.putIfAbsent(clazz, newIndex);
+                if (index == null) {
+                    index = newIndex;
+                }
             }
             return index;
         } catch (Throwable e) {
             throw ServerLogger.ROOT_LOGGER.errorGettingReflectiveInformation(clazz, clazz.getClassLoader(), e);
         }
     }
+
+    /**
+     * Whether the index of the given class can be shared by all deployments, i.e. whether the class was not
+     * loaded by a deployment.
+     */
+    private static boolean isShared(final Class<?> clazz) {
+        final ClassLoader classLoader = clazz.getClassLoader();
+        if (classLoader == null) {
+            return true;
+        }
+        if (classLoader instanceof ModuleClassLoader) {
+            return !((ModuleClassLoader) classLoader).getModule().getIdentifier().getName().startsWith(ServiceModuleLoader.MODULE_PREFIX);
+        }
+        return false;
+    }
 }
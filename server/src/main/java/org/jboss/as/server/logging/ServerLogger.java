@@ -1242,4 +1242,8 @@ public interface ServerLogger extends BasicLogger {
 
     @Message(id = 256, value = "Cannot read content from an unexploded deployment")
     OperationFailedException cannotReadContentFromUnexplodedDeployment();
+
+    @LogMessage(level = WARN)
+    @Message(id = 257, value = "Could not use the cached annotation index %s")
+    void cannotUseCachedAnnotationIndex(String index, @Cause Throwable cause);
 }
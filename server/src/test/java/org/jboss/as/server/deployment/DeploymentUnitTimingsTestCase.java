@@ -0,0 +1,79 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import org.jboss.dmr.ModelNode;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link DeploymentUnitTimings}.
+ */
+public class DeploymentUnitTimingsTestCase {
+
+    private static final DeploymentUnitProcessor PROCESSOR = new DeploymentUnitProcessor() {
+        @Override
+        public void deploy(DeploymentPhaseContext phaseContext) {
+        }
+
+        @Override
+        public void undeploy(DeploymentUnit context) {
+        }
+    };
+
+    @Test
+    public void testTimings() {
+        final DeploymentUnit deployment = new DeploymentUnitImpl(null, "test.ear", null);
+        final DeploymentUnit subDeployment = new DeploymentUnitImpl(deployment, "test.war", null);
+        deployment.addToAttachmentList(Attachments.SUB_DEPLOYMENTS, subDeployment);
+
+        Assert.assertFalse(DeploymentUnitTimings.toModelNode(deployment).isDefined());
+
+        final DeploymentUnitTimings timings = DeploymentUnitTimings.of(deployment);
+        Assert.assertSame(timings, DeploymentUnitTimings.of(deployment));
+        timings.phaseStarted(Phase.STRUCTURE);
+        timings.processorCompleted(Phase.STRUCTURE, PROCESSOR, 3000);
+        timings.processorCompleted(Phase.STRUCTURE, PROCESSOR, 2000);
+        timings.phaseCompleted(Phase.STRUCTURE, 7000);
+        // Processors of phases which were not started are ignored
+        timings.processorCompleted(Phase.PARSE, PROCESSOR, 1000);
+
+        final DeploymentUnitTimings subTimings = DeploymentUnitTimings.of(subDeployment);
+        subTimings.phaseStarted(Phase.STRUCTURE);
+        subTimings.processorCompleted(Phase.STRUCTURE, PROCESSOR, 4000);
+
+        final ModelNode model = DeploymentUnitTimings.toModelNode(deployment);
+        final ModelNode structure = model.get(Phase.STRUCTURE.name());
+        Assert.assertEquals(7, structure.get(DeploymentUnitTimings.ELAPSED_TIME).asLong());
+        Assert.assertEquals(5, structure.get(DeploymentUnitTimings.PROCESSORS, PROCESSOR.getClass().getName()).asLong());
+        Assert.assertFalse(model.has(Phase.PARSE.name()));
+
+        final ModelNode subStructure = model.get(DeploymentUnitTimings.SUBDEPLOYMENTS, "test.war", Phase.STRUCTURE.name());
+        Assert.assertFalse(subStructure.hasDefined(DeploymentUnitTimings.ELAPSED_TIME));
+        Assert.assertEquals(4, subStructure.get(DeploymentUnitTimings.PROCESSORS, PROCESSOR.getClass().getName()).asLong());
+
+        // Restarting a phase discards its previous timings
+        timings.phaseStarted(Phase.STRUCTURE);
+        Assert.assertEquals(0, DeploymentUnitTimings.toModelNode(deployment).get(Phase.STRUCTURE.name(), DeploymentUnitTimings.PROCESSORS).keys().size());
+    }
+}
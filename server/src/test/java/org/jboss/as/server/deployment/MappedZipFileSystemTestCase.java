@@ -0,0 +1,208 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests of {@link MappedZipFileSystem} mounting a real archive.
+ */
+public class MappedZipFileSystemTestCase {
+
+    private static final byte[] CLASS_BYTES = repeat("class content ", 1000);
+    private static final byte[] STORED_BYTES = "stored content".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] NESTED_BYTES = "nested content".getBytes(StandardCharsets.UTF_8);
+
+    private final File archive = new File("target/temp/mapped-zip-file-system/test.ear");
+    private final List<Closeable> mounts = new ArrayList<>();
+    private ScheduledExecutorService executor;
+    private TempFileProvider tempFileProvider;
+
+    @Before
+    public void createArchive() throws IOException {
+        archive.getParentFile().mkdirs();
+        final byte[] nested = zip("x.txt", NESTED_BYTES);
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(archive.toPath()))) {
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("a/b/C.class"));
+            out.write(CLASS_BYTES);
+            putStored(out, "stored.txt", STORED_BYTES);
+            putStored(out, "lib/stored.jar", nested);
+            out.putNextEntry(new ZipEntry("lib/deflated.jar"));
+            out.write(nested);
+        }
+        executor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("test", executor);
+    }
+
+    @After
+    public void cleanup() throws Exception {
+        for (int i = mounts.size() - 1; i >= 0; i--) {
+            VFSUtils.safeClose(mounts.get(i));
+        }
+        VFSUtils.safeClose(tempFileProvider);
+        executor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        archive.delete();
+    }
+
+    @Test
+    public void testReadEntries() throws IOException {
+        final VirtualFile root = mount(VFS.getChild(archive.getAbsolutePath()), VFS.getChild("mapped-test.ear"));
+
+        Assert.assertTrue(root.isDirectory());
+        Assert.assertEquals(new HashSet<>(Arrays.asList("META-INF", "a", "lib", "stored.txt")), names(root.getChildren()));
+        Assert.assertTrue(root.getChild("a/b").isDirectory());
+        Assert.assertFalse(root.getChild("a/b").isFile());
+        Assert.assertFalse(root.getChild("missing.txt").exists());
+
+        final VirtualFile deflated = root.getChild("a/b/C.class");
+        Assert.assertTrue(deflated.isFile());
+        Assert.assertEquals(CLASS_BYTES.length, deflated.getSize());
+        Assert.assertTrue(deflated.getLastModified() > 0);
+        Assert.assertArrayEquals(CLASS_BYTES, read(deflated.openStream()));
+
+        final VirtualFile stored = root.getChild("stored.txt");
+        Assert.assertTrue(stored.isFile());
+        Assert.assertEquals(STORED_BYTES.length, stored.getSize());
+        Assert.assertArrayEquals(STORED_BYTES, read(stored.openStream()));
+
+        // The physical file of an entry is extracted on demand
+        final File physical = deflated.getPhysicalFile();
+        Assert.assertArrayEquals(CLASS_BYTES, Files.readAllBytes(physical.toPath()));
+        Assert.assertEquals(archive.getAbsoluteFile(), root.getPhysicalFile().getAbsoluteFile());
+    }
+
+    @Test
+    public void testNestedArchives() throws IOException {
+        final VirtualFile root = mount(VFS.getChild(archive.getAbsolutePath()), VFS.getChild("mapped-nested-test.ear"));
+        for (String name : new String[] { "lib/stored.jar", "lib/deflated.jar" }) {
+            final VirtualFile jar = root.getChild(name);
+            final VirtualFile nested = mount(jar, jar);
+            Assert.assertEquals(name, new HashSet<>(Arrays.asList("x.txt")), names(nested.getChildren()));
+            Assert.assertArrayEquals(name, NESTED_BYTES, read(nested.getChild("x.txt").openStream()));
+        }
+    }
+
+    @Test
+    public void testSignedArchiveMountedByVfs() throws IOException {
+        final File signed = new File(archive.getParentFile(), "signed.jar");
+        try (ZipOutputStream out = new ZipOutputStream(Files.newOutputStream(signed.toPath()))) {
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("META-INF/SIGNER.SF"));
+            out.write("Signature-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            putStored(out, "stored.txt", STORED_BYTES);
+        }
+        try {
+            final VirtualFile root = mount(VFS.getChild(signed.getAbsolutePath()), VFS.getChild("mapped-signed-test.jar"));
+            Assert.assertArrayEquals(STORED_BYTES, read(root.getChild("stored.txt").openStream()));
+        } finally {
+            for (int i = mounts.size() - 1; i >= 0; i--) {
+                VFSUtils.safeClose(mounts.remove(i));
+            }
+            signed.delete();
+        }
+    }
+
+    private VirtualFile mount(final VirtualFile archive, final VirtualFile mountPoint) throws IOException {
+        mounts.add(MappedZipFileSystem.mount(archive, mountPoint, tempFileProvider));
+        return mountPoint;
+    }
+
+    private static void putStored(final ZipOutputStream out, final String name, final byte[] bytes) throws IOException {
+        final ZipEntry entry = new ZipEntry(name);
+        entry.setMethod(ZipEntry.STORED);
+        entry.setSize(bytes.length);
+        final CRC32 crc = new CRC32();
+        crc.update(bytes);
+        entry.setCrc(crc.getValue());
+        out.putNextEntry(entry);
+        out.write(bytes);
+    }
+
+    private static byte[] zip(final String name, final byte[] content) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry(name));
+            out.write(content);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static Set<String> names(final List<VirtualFile> files) {
+        final Set<String> names = new HashSet<>();
+        for (VirtualFile file : files) {
+            names.add(file.getName());
+        }
+        return names;
+    }
+
+    private static byte[] read(final InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[517];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] repeat(final String value, final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(value);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,148 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Tests of {@link ZipCentralDirectory}.
+ */
+public class ZipCentralDirectoryTestCase {
+
+    private static final byte[] CLASS_BYTES = repeat("class content ", 1000);
+    private static final byte[] NESTED_BYTES = "nested content".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    public void testReadMappedArchive() throws Exception {
+        final File file = new File("target/temp/zip-central-directory/test.ear");
+        file.getParentFile().mkdirs();
+        Files.write(file.toPath(), createArchive());
+
+        final ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        final ZipCentralDirectory directory = ZipCentralDirectory.read(buffer);
+        Assert.assertFalse(directory.isSigned());
+
+        Assert.assertEquals(new HashSet<>(Arrays.asList("META-INF", "a", "lib")), new HashSet<>(directory.getChildren("")));
+        Assert.assertTrue(directory.isDirectory("a"));
+        Assert.assertTrue(directory.isDirectory("a/b"));
+        Assert.assertEquals(Arrays.asList("C.class"), directory.getChildren("a/b"));
+        Assert.assertTrue(directory.getChildren("missing").isEmpty());
+        Assert.assertNull(directory.getEntry("a/b"));
+
+        final ZipCentralDirectory.Entry classEntry = directory.getEntry("a/b/C.class");
+        Assert.assertEquals(ZipCentralDirectory.DEFLATED, classEntry.getMethod());
+        Assert.assertEquals(CLASS_BYTES.length, classEntry.getSize());
+        Assert.assertTrue(classEntry.getLastModified() > 0);
+        Assert.assertArrayEquals(CLASS_BYTES, read(directory.openStream(classEntry)));
+
+        // Stored nested archives are read from a view of the enclosing archive
+        final ZipCentralDirectory.Entry nestedEntry = directory.getEntry("lib/nested.jar");
+        Assert.assertEquals(ZipCentralDirectory.STORED, nestedEntry.getMethod());
+        final ZipCentralDirectory nested = ZipCentralDirectory.read(directory.getRawData(nestedEntry));
+        Assert.assertEquals(Arrays.asList("x.txt"), nested.getChildren(""));
+        Assert.assertArrayEquals(NESTED_BYTES, read(nested.openStream(nested.getEntry("x.txt"))));
+    }
+
+    @Test
+    public void testSignedArchive() throws Exception {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("META-INF/SIGNER.SF"));
+            out.write("Signature-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Assert.assertTrue(ZipCentralDirectory.read(ByteBuffer.wrap(bytes.toByteArray())).isSigned());
+    }
+
+    @Test(expected = ZipException.class)
+    public void testNotAnArchive() throws Exception {
+        ZipCentralDirectory.read(ByteBuffer.wrap(repeat("not a zip", 10)));
+    }
+
+    private static byte[] createArchive() throws IOException {
+        final ByteArrayOutputStream nested = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(nested)) {
+            out.putNextEntry(new ZipEntry("x.txt"));
+            out.write(NESTED_BYTES);
+        }
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            out.putNextEntry(new ZipEntry("META-INF/"));
+            out.putNextEntry(new ZipEntry("META-INF/MANIFEST.MF"));
+            out.write("Manifest-Version: 1.0\n".getBytes(StandardCharsets.UTF_8));
+            out.putNextEntry(new ZipEntry("a/b/C.class"));
+            out.write(CLASS_BYTES);
+            final byte[] nestedBytes = nested.toByteArray();
+            final ZipEntry nestedEntry = new ZipEntry("lib/nested.jar");
+            nestedEntry.setMethod(ZipEntry.STORED);
+            nestedEntry.setSize(nestedBytes.length);
+            final CRC32 crc = new CRC32();
+            crc.update(nestedBytes);
+            nestedEntry.setCrc(crc.getValue());
+            out.putNextEntry(nestedEntry);
+            out.write(nestedBytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] read(final InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            final ByteArrayOutputStream out = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[517];
+            int read;
+            while ((read = stream.read(buffer)) != -1) {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private static byte[] repeat(final String value, final int count) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            builder.append(value);
+        }
+        return builder.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Set;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+
+import org.jboss.jandex.ClassInfo;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.modules.Module;
+import org.jboss.vfs.VFS;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Tests of {@link CompositeIndex} using an index of several libraries, similar to the index of an EAR with one
+ * module per library.
+ */
+public class CompositeIndexTestCase {
+
+    private static final DotName OBJECT = DotName.createSimple(Object.class.getName());
+    private static final DotName EXCEPTION = DotName.createSimple(Exception.class.getName());
+    private static final DotName RUNNABLE = DotName.createSimple(Runnable.class.getName());
+    private static final DotName CLOSEABLE = DotName.createSimple(java.io.Closeable.class.getName());
+    private static final DotName DEPRECATED = DotName.createSimple(Deprecated.class.getName());
+    private static final DotName TEST = DotName.createSimple(Test.class.getName());
+    private static final DotName[] NAMES = { OBJECT, EXCEPTION, RUNNABLE, CLOSEABLE, DEPRECATED, TEST };
+
+    private static List<Index> indexes;
+
+    @BeforeClass
+    public static void indexLibraries() throws IOException, URISyntaxException {
+        indexes = new ArrayList<>();
+        for (Class<?> library : new Class<?>[] { Test.class, Index.class, VFS.class, Module.class }) {
+            indexes.add(index(new File(library.getProtectionDomain().getCodeSource().getLocation().toURI())));
+        }
+    }
+
+    @Test
+    public void testResultsMatchUnderlyingIndexes() {
+        final CompositeIndex compositeIndex = new CompositeIndex(indexes);
+        for (DotName name : NAMES) {
+            int annotations = 0;
+            int subclasses = 0;
+            int implementors = 0;
+            for (Index index : indexes) {
+                annotations += index.getAnnotations(name).size();
+                subclasses += index.getKnownDirectSubclasses(name).size();
+                implementors += index.getKnownDirectImplementors(name).size();
+            }
+            Assert.assertEquals(annotations, compositeIndex.getAnnotations(name).size());
+            Assert.assertEquals(subclasses, compositeIndex.getKnownDirectSubclasses(name).size());
+            Assert.assertEquals(implementors, compositeIndex.getKnownDirectImplementors(name).size());
+            Assert.assertTrue(compositeIndex.getAllKnownSubclasses(name).containsAll(compositeIndex.getKnownDirectSubclasses(name)));
+        }
+        Assert.assertFalse(compositeIndex.getAnnotations(TEST).isEmpty());
+        Assert.assertFalse(compositeIndex.getAllKnownSubclasses(EXCEPTION).isEmpty());
+        Assert.assertFalse(compositeIndex.getAllKnownImplementors(CLOSEABLE).isEmpty());
+    }
+
+    @Test
+    public void testLookupsAreMemoized() {
+        final CompositeIndex compositeIndex = new CompositeIndex(indexes);
+        for (DotName name : NAMES) {
+            Assert.assertSame(compositeIndex.getAnnotations(name), compositeIndex.getAnnotations(name));
+            Assert.assertSame(compositeIndex.getKnownDirectSubclasses(name), compositeIndex.getKnownDirectSubclasses(name));
+            Assert.assertEquals(compositeIndex.getAllKnownSubclasses(name), compositeIndex.getAllKnownSubclasses(name));
+            Assert.assertSame(compositeIndex.getKnownDirectImplementors(name), compositeIndex.getKnownDirectImplementors(name));
+            Assert.assertEquals(compositeIndex.getAllKnownImplementors(name), compositeIndex.getAllKnownImplementors(name));
+            Assert.assertEquals(new CompositeIndex(indexes).getAllKnownImplementors(name), compositeIndex.getAllKnownImplementors(name));
+        }
+        Assert.assertSame(compositeIndex.getKnownClasses(), compositeIndex.getKnownClasses());
+    }
+
+    @Test(expected = UnsupportedOperationException.class)
+    public void testDirectResultsAreImmutable() {
+        new CompositeIndex(indexes).getKnownDirectSubclasses(EXCEPTION).clear();
+    }
+
+    @Test
+    public void testAllKnownResultsAreCopies() {
+        final CompositeIndex compositeIndex = new CompositeIndex(indexes);
+        final Set<ClassInfo> subclasses = compositeIndex.getAllKnownSubclasses(EXCEPTION);
+        final int size = subclasses.size();
+        subclasses.clear();
+        Assert.assertEquals(size, compositeIndex.getAllKnownSubclasses(EXCEPTION).size());
+
+        final Set<ClassInfo> implementors = compositeIndex.getAllKnownImplementors(CLOSEABLE);
+        final int implementorsSize = implementors.size();
+        implementors.clear();
+        Assert.assertEquals(implementorsSize, compositeIndex.getAllKnownImplementors(CLOSEABLE).size());
+    }
+
+    private static Index index(final File library) throws IOException {
+        final Indexer indexer = new Indexer();
+        try (JarFile jar = new JarFile(library)) {
+            final Enumeration<JarEntry> entries = jar.entries();
+            while (entries.hasMoreElements()) {
+                final JarEntry entry = entries.nextElement();
+                if (entry.getName().endsWith(".class")) {
+                    try (InputStream in = jar.getInputStream(entry)) {
+                        indexer.index(in);
+                    }
+                }
+            }
+        }
+        return indexer.complete();
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.annotation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.jboss.as.controller.HashUtil;
+import org.jboss.jandex.DotName;
+import org.jboss.jandex.Index;
+import org.jboss.jandex.Indexer;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link ResourceRootIndexCache}.
+ */
+public class ResourceRootIndexCacheTestCase {
+
+    private static final String CLASS_FILE = ResourceRootIndexCacheTestCase.class.getName().replace('.', '/') + ".class";
+
+    private final File base = new File("target/temp/resource-root-index-cache");
+    private File classes;
+    private ResourceRootIndexCache cache;
+
+    @Before
+    public void setup() throws IOException {
+        delete(base);
+        classes = new File(base, "classes");
+        final File classFile = new File(classes, CLASS_FILE);
+        classFile.getParentFile().mkdirs();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(CLASS_FILE)) {
+            Files.copy(in, classFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+        cache = new ResourceRootIndexCache(new File(base, "cache"));
+    }
+
+    @After
+    public void cleanup() {
+        delete(base);
+    }
+
+    @Test
+    public void testSnapshotKey() {
+        final byte[] contentHash = new byte[] { 1, 2, 3, 4 };
+        final byte[] key = cache.snapshotKey(contentHash, "lib/test.jar", null);
+        Assert.assertArrayEquals(key, cache.snapshotKey(contentHash, "lib/test.jar", Collections.<String>emptyList()));
+        Assert.assertFalse(Arrays.equals(key, cache.snapshotKey(contentHash, "lib/other.jar", null)));
+        Assert.assertFalse(Arrays.equals(key, cache.snapshotKey(new byte[] { 4, 3, 2, 1 }, "lib/test.jar", null)));
+        Assert.assertFalse(Arrays.equals(key, cache.snapshotKey(contentHash, "lib/test.jar", Collections.singletonList("org/ignored"))));
+        Assert.assertArrayEquals(cache.snapshotKey(contentHash, "", Arrays.asList("a", "b")), cache.snapshotKey(contentHash, "", Arrays.asList("b", "a")));
+    }
+
+    @Test
+    public void testReadWrite() throws IOException {
+        final VirtualFile classFile = VFS.getChild(classes.getAbsolutePath()).getChild(CLASS_FILE);
+        final byte[] key = cache.snapshotKey(new byte[] { 1, 2, 3, 4 }, "lib/test.jar", null);
+        Assert.assertNull(cache.read(key));
+
+        final Indexer indexer = new Indexer();
+        try (InputStream in = classFile.openStream()) {
+            indexer.index(in);
+        }
+        cache.write(key, indexer.complete());
+
+        final Index index = cache.read(key);
+        Assert.assertNotNull(index);
+        Assert.assertNotNull(index.getClassByName(DotName.createSimple(ResourceRootIndexCacheTestCase.class.getName())));
+    }
+
+    @Test
+    public void testCorruptIndexIgnored() throws IOException {
+        final byte[] key = cache.snapshotKey(new byte[] { 1, 2, 3, 4 }, "lib/test.jar", null);
+        final File cacheDir = new File(base, "cache");
+        cacheDir.mkdirs();
+        final File file = new File(cacheDir, HashUtil.bytesToHexString(key) + ".idx");
+        Files.write(file.toPath(), new byte[] { 1, 2, 3 });
+        Assert.assertNull(cache.read(key));
+        Assert.assertFalse(file.exists());
+    }
+
+    private static void delete(final File file) {
+        final File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.module;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.security.CodeSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+
+import org.jboss.modules.ClassSpec;
+import org.jboss.vfs.TempFileProvider;
+import org.jboss.vfs.VFS;
+import org.jboss.vfs.VFSUtils;
+import org.jboss.vfs.VirtualFile;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests loading class bytes through a {@link VFSResourceLoader} from several threads.
+ */
+public class VFSResourceLoaderTestCase {
+
+    private static final int CLASSES = 200;
+    private static final int THREADS = 4;
+
+    private final File archive = new File("target/temp/vfs-resource-loader/test.jar");
+    private ExecutorService executor;
+    private ScheduledExecutorService tempFileExecutor;
+    private TempFileProvider tempFileProvider;
+    private Closeable mount;
+    private VirtualFile root;
+
+    @Before
+    public void createArchive() throws IOException {
+        archive.getParentFile().mkdirs();
+        try (JarOutputStream out = new JarOutputStream(new FileOutputStream(archive))) {
+            for (int i = 0; i < CLASSES; i++) {
+                out.putNextEntry(new JarEntry(className(i)));
+                out.write(classBytes(i));
+                out.closeEntry();
+            }
+        }
+        executor = Executors.newFixedThreadPool(THREADS);
+        tempFileExecutor = Executors.newSingleThreadScheduledExecutor();
+        tempFileProvider = TempFileProvider.create("test", tempFileExecutor);
+        root = VFS.getChild("vfs-resource-loader-test.jar");
+        mount = VFS.mountZip(archive, root, tempFileProvider);
+    }
+
+    @After
+    public void deleteArchive() throws Exception {
+        VFSUtils.safeClose(mount);
+        VFSUtils.safeClose(tempFileProvider);
+        executor.shutdownNow();
+        tempFileExecutor.shutdownNow();
+        executor.awaitTermination(10, TimeUnit.SECONDS);
+        tempFileExecutor.awaitTermination(10, TimeUnit.SECONDS);
+        archive.delete();
+    }
+
+    @Test
+    public void testConcurrentLoading() throws Exception {
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root);
+        final CountDownLatch start = new CountDownLatch(1);
+        final List<Future<List<ClassSpec>>> futures = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            final int offset = t;
+            futures.add(executor.submit(new Callable<List<ClassSpec>>() {
+                @Override
+                public List<ClassSpec> call() throws Exception {
+                    start.await();
+                    // Every thread loads every class, each starting at a different one
+                    final ClassSpec[] specs = new ClassSpec[CLASSES];
+                    for (int n = 0; n < CLASSES; n++) {
+                        final int i = (n + offset * CLASSES / THREADS) % CLASSES;
+                        specs[i] = loader.getClassSpec(className(i));
+                    }
+                    return Arrays.asList(specs);
+                }
+            }));
+        }
+        start.countDown();
+
+        CodeSource codeSource = null;
+        for (Future<List<ClassSpec>> future : futures) {
+            final List<ClassSpec> specs = future.get(30, TimeUnit.SECONDS);
+            for (int i = 0; i < CLASSES; i++) {
+                final ClassSpec spec = specs.get(i);
+                Assert.assertNotNull(className(i), spec);
+                Assert.assertArrayEquals(className(i), classBytes(i), spec.getBytes());
+                if (codeSource == null) {
+                    codeSource = spec.getCodeSource();
+                    Assert.assertNotNull(codeSource);
+                } else {
+                    Assert.assertSame(codeSource, spec.getCodeSource());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testCodeSourceShared() throws Exception {
+        final VFSResourceLoader loader = new VFSResourceLoader("test.jar", root);
+        final ClassSpec first = loader.getClassSpec(className(0));
+        final ClassSpec second = loader.getClassSpec(className(1));
+        Assert.assertSame(first.getCodeSource(), second.getCodeSource());
+        Assert.assertNull(loader.getClassSpec("org/jboss/test/Missing.class"));
+    }
+
+    private static String className(final int i) {
+        return "org/jboss/test/Class" + i + ".class";
+    }
+
+    private static byte[] classBytes(final int i) {
+        final byte[] bytes = new byte[2048 + i % 1024];
+        for (int j = 0; j < bytes.length; j++) {
+            bytes[j] = (byte) (i + j * 31);
+        }
+        return bytes;
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * JBoss, Home of Professional Open Source.
+ * Copyright 2016, Red Hat, Inc., and individual contributors
+ * as indicated by the @author tags. See the copyright.txt file in the
+ * distribution for a full listing of individual contributors.
+ *
+ * This is free software; you can redistribute it and/or modify it
+ * under the terms of the GNU Lesser General Public License as
+ * published by the Free Software Foundation; either version 2.1 of
+ * the License, or (at your option) any later version.
+ *
+ * This software is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE. See the GNU
+ * Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public
+ * License along with this software; if not, write to the Free
+ * Software Foundation, Inc., 51 Franklin St, Fifth Floor, Boston, MA
+ * 02110-1301 USA, or see the FSF site: http://www.fsf.org.
+ */
+
+package org.jboss.as.server.deployment.reflect;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests of {@link DeploymentReflectionIndex}.
+ */
+public class DeploymentReflectionIndexTestCase {
+
+    @Test
+    public void testJdkClassesShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        Assert.assertSame(first.getClassIndex(ArrayList.class), second.getClassIndex(ArrayList.class));
+        Assert.assertFalse(first.getClassIndex(ArrayList.class).getClassMethods().isEmpty());
+    }
+
+    @Test
+    public void testOtherClassesNotShared() {
+        final DeploymentReflectionIndex first = DeploymentReflectionIndex.create();
+        final DeploymentReflectionIndex second = DeploymentReflectionIndex.create();
+        final ClassReflectionIndex index = first.getClassIndex(DeploymentReflectionIndexTestCase.class);
+        Assert.assertSame(index, first.getClassIndex(DeploymentReflectionIndexTestCase.class));
+        Assert.assertNotSame(index, second.getClassIndex(DeploymentReflectionIndexTestCase.class));
+    }
+
+    @Test
+    public void testConcurrentAccess() throws Exception {
+        final DeploymentReflectionIndex reflectionIndex = DeploymentReflectionIndex.create();
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            final List<Callable<ClassReflectionIndex>> tasks = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                tasks.add(() -> reflectionIndex.getClassIndex(DeploymentReflectionIndexTestCase.class));
+            }
+            final ClassReflectionIndex expected = reflectionIndex.getClassIndex(DeploymentReflectionIndexTestCase.class);
+            for (Future<ClassReflectionIndex> future : executor.invokeAll(tasks)) {
+                Assert.assertSame(expected, future.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}